@@ -0,0 +1,63 @@
+package org.example.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Virtual page sequences the benchmarks replay. The footprint is split into four regions spread over
+ * the page number space (like code, heap, mappings and stack), so wide address spaces are touched sparsely.
+ */
+public enum AccessPattern {
+    /**
+     * Every page of the footprint is equally likely.
+     */
+    UNIFORM,
+    /**
+     * Pages of the footprint in order, wrapping around.
+     */
+    SEQUENTIAL,
+    /**
+     * Nine accesses in ten go to a hot tenth of the footprint.
+     */
+    HOT_SET;
+
+    private static final int REGIONS = 4;
+
+    /**
+     * @param count          Number of page numbers to generate.
+     * @param footprint      Distinct pages the sequence may touch; a multiple of four.
+     * @param pageNumberBits Width of the page numbers.
+     */
+    public long[] generate(int count, int footprint, int pageNumberBits, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int hot = Math.max(footprint / 10, 1);
+        long[] vpns = new long[count];
+        for (int i = 0; i < count; i++) {
+            int page;
+            switch (this) {
+                case SEQUENTIAL:
+                    page = i % footprint;
+                    break;
+                case HOT_SET:
+                    page = random.nextInt(10) != 0 ? random.nextInt(hot) : random.nextInt(footprint);
+                    break;
+                default:
+                    page = random.nextInt(footprint);
+                    break;
+            }
+            vpns[i] = place(page, footprint, pageNumberBits);
+        }
+        return vpns;
+    }
+
+    /**
+     * Map the n-th page of the footprint to a page number inside its region.
+     */
+    static long place(int page, int footprint, int pageNumberBits) {
+        int perRegion = footprint / REGIONS;
+        long regionSize = (1L << pageNumberBits) / REGIONS;
+        if (perRegion > regionSize) {
+            throw new IllegalArgumentException("A footprint of " + footprint + " pages does not fit in " + pageNumberBits + " bits.");
+        }
+        return (page / perRegion) * regionSize + page % perRegion;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.benchmark;
+
+import org.example.model.PMState;
+import org.example.model.policy.PageReplacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Frame allocation with physical memory full, so every allocation evicts, and the per-hit policy bookkeeping.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrameBenchmark {
+    static final int ACCESSES = 4096;
+
+    @Param({"1024", "65536"})
+    int frames;
+
+    @Param({"FIFO", "LRU", "CLOCK", "SECOND_CHANCE", "LFU", "ARC", "TWO_Q"})
+    PageReplacement replacement;
+
+    private PMState pm;
+    private int[] touched;
+    private long nextVpn;
+
+    @Setup
+    public void setup() {
+        pm = new PMState(frames, replacement);
+        for (nextVpn = 0; nextVpn < frames; nextVpn++) {
+            pm.allocate(nextVpn);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        touched = new int[ACCESSES];
+        for (int i = 0; i < ACCESSES; i++) {
+            touched[i] = random.nextInt(frames);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public long allocateWithEviction() {
+        PMState p = pm;
+        long vpn = nextVpn;
+        long sum = 0;
+        for (int i = 0; i < ACCESSES; i++) {
+            sum += p.allocate(vpn++);
+        }
+        nextVpn = vpn;
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public void touch() {
+        PMState p = pm;
+        for (int frame : touched) {
+            p.touch(frame);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.benchmark;
+
+import org.example.model.PageTableStructure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Page table walks over a fully mapped footprint, flat and radix, across address widths.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageTableBenchmark {
+    static final int ACCESSES = 4096;
+
+    @Param({"FLAT_32", "RADIX4_32", "RADIX4_48", "RADIX5_57"})
+    TableLayout layout;
+
+    @Param({"4096", "262144"})
+    int footprint;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "HOT_SET"})
+    AccessPattern pattern;
+
+    private PageTableStructure pageTable;
+    private long[] vpns;
+
+    @Setup
+    public void setup() {
+        pageTable = layout.config().createPageTable();
+        for (int page = 0; page < footprint; page++) {
+            pageTable.map(AccessPattern.place(page, footprint, layout.pageNumberBits()), page);
+        }
+        vpns = pattern.generate(ACCESSES, footprint, layout.pageNumberBits(), 42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public long lookup() {
+        PageTableStructure table = pageTable;
+        long sum = 0;
+        for (long vpn : vpns) {
+            sum += table.lookup(vpn);
+        }
+        return sum;
+    }
+}
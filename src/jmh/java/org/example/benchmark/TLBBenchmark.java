@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import org.example.model.TLBOrganization;
+import org.example.model.TLBState;
+import org.example.model.policy.TLBReplacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TLB lookups against a warm TLB, with the replacement policy told about every hit.
+ * The footprint is four times the TLB, so the hit rate depends on the access pattern.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TLBBenchmark {
+    static final int ACCESSES = 4096;
+
+    @Param({"16", "64", "512"})
+    int tlbSize;
+
+    @Param({"FULLY_ASSOCIATIVE", "SET_ASSOCIATIVE"})
+    TLBOrganization organization;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "HOT_SET"})
+    AccessPattern pattern;
+
+    private TLBState tlb;
+    private long[] vpns;
+
+    @Setup
+    public void setup() {
+        tlb = new TLBState(tlbSize, organization, 4, TLBReplacement.LRU);
+        vpns = pattern.generate(ACCESSES, tlbSize * 4, 36, 42);
+        for (long vpn : vpns) {
+            if (tlb.lookup(vpn) == TLBState.MISS) {
+                tlb.insert(vpn, (int) vpn);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public int lookup() {
+        TLBState t = tlb;
+        int hits = 0;
+        for (long vpn : vpns) {
+            int slot = t.lookup(vpn);
+            if (slot != TLBState.MISS) {
+                t.touch(slot);
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
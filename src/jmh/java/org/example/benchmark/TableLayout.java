@@ -0,0 +1,34 @@
+package org.example.benchmark;
+
+import org.example.controller.SimulationConfig;
+
+/**
+ * Address width and page table organization pairs the benchmarks compare, all with 4 KiB pages.
+ */
+public enum TableLayout {
+    FLAT_32(32, 1),
+    RADIX4_32(32, 4),
+    RADIX4_48(48, 4),
+    RADIX5_57(57, 5);
+
+    static final int OFFSET_BITS = 12;
+
+    final int addressBits;
+    final int levels;
+
+    TableLayout(int addressBits, int levels) {
+        this.addressBits = addressBits;
+        this.levels = levels;
+    }
+
+    int pageNumberBits() {
+        return addressBits - OFFSET_BITS;
+    }
+
+    SimulationConfig config() {
+        return new SimulationConfig()
+                .setAddressBits(addressBits)
+                .setOffsetBits(OFFSET_BITS)
+                .setPageTableLevels(levels);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.benchmark;
+
+import org.example.controller.TranslationPipeline;
+import org.example.model.TLBOrganization;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full per-address translation: TLB, page walk and, on a fault, frame allocation with eviction.
+ * The footprint is four times physical memory, so every phase is exercised.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TranslationBenchmark {
+    static final int ACCESSES = 65536;
+    static final int FRAMES = 16384;
+
+    @Param({"FLAT_32", "RADIX4_48", "RADIX5_57"})
+    TableLayout layout;
+
+    @Param({"64", "512"})
+    int tlbSize;
+
+    @Param({"UNIFORM", "SEQUENTIAL", "HOT_SET"})
+    AccessPattern pattern;
+
+    private TranslationPipeline pipeline;
+    private long[] vpns;
+
+    @Setup
+    public void setup() {
+        pipeline = layout.config()
+                .setTlbSize(tlbSize)
+                .setTlbOrganization(TLBOrganization.SET_ASSOCIATIVE)
+                .setTlbWays(4)
+                .setTlbReplacement(TLBReplacement.LRU)
+                .setFrameCount(FRAMES)
+                .setPageReplacement(PageReplacement.CLOCK)
+                .createPipeline();
+        vpns = pattern.generate(ACCESSES, FRAMES * 4, layout.pageNumberBits(), 42);
+        for (long vpn : vpns) {
+            pipeline.translate(vpn);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ACCESSES)
+    public long translate() {
+        TranslationPipeline p = pipeline;
+        long sum = 0;
+        for (long vpn : vpns) {
+            sum += p.translate(vpn);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,518 @@
+package org.example;
+
+import org.example.controller.Checkpoint;
+import org.example.controller.LatencyHistogram;
+import org.example.controller.MissRatioCurve;
+import org.example.controller.MulticoreReplayEngine;
+import org.example.controller.ParameterSweep;
+import org.example.controller.SimulationConfig;
+import org.example.controller.StackDistanceAnalyzer;
+import org.example.controller.TraceReplayEngine;
+import org.example.model.PageSizeMap;
+import org.example.model.SwapDevice;
+import org.example.model.TLBOrganization;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.example.model.prefetch.Prefetch;
+import org.example.trace.AddressTrace;
+import org.example.trace.BinaryTraceFormat;
+import org.example.trace.ExternalTraceFormat;
+import org.example.trace.MappedTraceReader;
+import org.example.trace.ParallelTraceReader;
+import org.example.trace.SyntheticTrace;
+import org.example.trace.TextTraceReader;
+import org.example.workload.Workloads;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Command-line entry point that replays an address trace without the GUI.
+ *
+ * <pre>
+ * java -cp target/classes org.example.HeadlessMain --trace addresses.txt --address-bits 32 --offset-bits 12 \
+ *      --tlb-size 64 --tlb-org set --tlb-ways 4 --frames 1024
+ * </pre>
+ * Comma-separated values sweep every combination in parallel, for example {@code --tlb-size 16,64,256 --frames 512,1024}.
+ * Several comma-separated traces run as that many cores sharing one address space, each core on its own thread.
+ * Instead of a trace, {@code --workload zipf:4096 --accesses 100000000} replays a synthetic workload generated on the fly.
+ */
+public class HeadlessMain {
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options;
+        List<SimulationConfig> configs;
+        try {
+            options = parseOptions(args);
+            if (options.containsKey("help") || !options.containsKey("trace") && !options.containsKey("workload")) {
+                printUsage();
+                return;
+            }
+            configs = parseConfigs(options);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            printUsage();
+            System.exit(2);
+            return;
+        }
+        boolean checkpointed = options.containsKey("checkpoint") || options.containsKey("restore");
+        if (checkpointed && (configs.size() > 1 || options.containsKey("mrc") || options.getOrDefault("trace", "").contains(","))) {
+            System.err.println("Checkpoints cover a single run of one trace.");
+            System.exit(2);
+        }
+        if (options.containsKey("swap") && (checkpointed || configs.size() > 1 || options.containsKey("mrc")
+                || options.getOrDefault("trace", "").contains(","))) {
+            System.err.println("A swap file backs a single run of one trace, without checkpoints.");
+            System.exit(2);
+        }
+        if (options.containsKey("restore") && hasConfigOptions(options)) {
+            System.err.println("A restored run keeps the configuration of its checkpoint.");
+            System.exit(2);
+        }
+        if (options.containsKey("mrc")) {
+            runMissRatioCurve(options, configs.get(0));
+            return;
+        }
+        String[] traces = options.containsKey("trace") ? options.get("trace").split(",") : new String[0];
+        if (traces.length > 1) {
+            if (configs.size() > 1) {
+                System.err.println("A multicore run takes a single configuration.");
+                System.exit(2);
+            }
+            runMulticore(options, traces, configs.get(0));
+            return;
+        }
+        if (configs.size() > 1) {
+            runSweep(options, configs);
+            return;
+        }
+
+        SimulationConfig config = configs.get(0);
+        TraceReplayEngine engine;
+        if (options.containsKey("restore")) {
+            long start = System.nanoTime();
+            try {
+                engine = Checkpoint.restore(Paths.get(options.get("restore")), traceId(options));
+            } catch (IOException ex) {
+                System.err.println(ex.getMessage());
+                System.exit(2);
+                return;
+            }
+            config = engine.getConfig();
+            System.out.printf("Restored %,d accesses from %s in %.1f ms%n", engine.getRecordsReplayed(), options.get("restore"),
+                    (System.nanoTime() - start) / 1e6);
+        } else {
+            engine = new TraceReplayEngine(config);
+        }
+        try (SwapDevice swap = options.containsKey("swap") ? new SwapDevice(Paths.get(options.get("swap")), true) : null) {
+            if (swap != null) {
+                engine.getPipeline().attachSwap(swap, config.getOffsetBits());
+            }
+            try (AddressTrace trace = openInput(options, config)) {
+                long resumeAt = engine.getRecordsReplayed();
+                if (resumeAt > 0 && trace.skip(resumeAt) < resumeAt) {
+                    System.err.println("The trace is shorter than the " + resumeAt + " accesses of the checkpoint.");
+                    System.exit(2);
+                }
+                if (options.containsKey("checkpoint")) {
+                    replayWithCheckpoints(options, engine, trace);
+                } else {
+                    engine.replay(trace);
+                }
+            }
+
+            System.out.println("Configuration:    " + config);
+            System.out.print(engine.report());
+            if (config.isMultiProcess()) {
+                System.out.printf("Processes:        %,d%n", engine.getPipeline().getAddressSpaces().size());
+            }
+            System.out.printf("Page table size:  %,d bytes%n", engine.getPipeline().getAllocatedPageTableBytes());
+            if (swap != null) {
+                long pages = swap.getPagesIn() + swap.getPagesOut();
+                System.out.printf("Swap I/O:         %,d pages in, %,d out, %,d zero-filled in %s (%s per page moved, %,d bytes of swap)%n",
+                        swap.getPagesIn(), swap.getPagesOut(), swap.getZeroFills(), LatencyHistogram.formatNanos(swap.getIoNanos()),
+                        LatencyHistogram.formatNanos(pages == 0 ? 0 : (double) swap.getIoNanos() / pages), swap.getFileBytes());
+            }
+        }
+    }
+
+    /**
+     * Replay the trace, saving a checkpoint every --checkpoint-every accesses and once more at the end.
+     */
+    private static void replayWithCheckpoints(Map<String, String> options, TraceReplayEngine engine, AddressTrace trace) throws IOException {
+        Path file = Paths.get(options.get("checkpoint"));
+        long every = options.containsKey("checkpoint-every") ? Long.parseLong(options.get("checkpoint-every").replace("_", "")) : Long.MAX_VALUE;
+        if (every <= 0) {
+            throw new IllegalArgumentException("The checkpoint interval must be positive: " + every);
+        }
+        long traceId = traceId(options);
+        long replayed;
+        do {
+            replayed = engine.replay(trace, every);
+            long start = System.nanoTime();
+            long bytes = Checkpoint.save(engine, file, traceId);
+            System.out.printf("Checkpoint at %,d accesses: %,d bytes in %.1f ms%n", engine.getRecordsReplayed(), bytes,
+                    (System.nanoTime() - start) / 1e6);
+        } while (replayed == every);
+    }
+
+    /**
+     * Identify the trace file or workload a checkpoint belongs to. Standard input cannot be identified.
+     */
+    private static long traceId(Map<String, String> options) throws IOException {
+        if (options.containsKey("workload")) {
+            long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : DEFAULT_SEED;
+            return Checkpoint.traceId(options.get("workload") + " seed " + seed);
+        }
+        String path = options.get("trace");
+        return path.equals("-") ? Checkpoint.UNKNOWN_TRACE : Checkpoint.traceId(Paths.get(path));
+    }
+
+    private static boolean hasConfigOptions(Map<String, String> options) {
+        if (options.containsKey("huge-pages") || options.containsKey("huge-frames")) {
+            return true;
+        }
+        for (String name : CONFIG_OPTIONS) {
+            if (options.containsKey(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parse "--name value" pairs; a flag with no value maps to "true".
+     *
+     * @throws IllegalArgumentException if an argument is not an option, or names an option that does not exist.
+     */
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (!Arrays.asList(CONFIG_OPTIONS).contains(name) && !Arrays.asList(RUN_OPTIONS).contains(name)) {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+            if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(name, args[++i]);
+            } else {
+                options.put(name, "true");
+            }
+        }
+        return options;
+    }
+
+    private static final long DEFAULT_ACCESSES = 1_000_000;
+    private static final long DEFAULT_SEED = 1;
+
+    private static final String[] CONFIG_OPTIONS = {
+            "address-bits", "offset-bits", "levels", "tlb-size", "tlb-ways", "frames", "tlb-org", "tlb-policy", "page-policy",
+            "clean-window", "prefetch", "prefetch-degree", "processes", "asids", "flush-on-switch", "frame-stripes", "shootdown-cycles",
+            "ipi-cycles", "tlb-ns", "walk-ns", "memory-ns", "fault-ns", "write-back-ns", "prefetch-ns"
+    };
+
+    /**
+     * Options that choose the input and how it is run rather than the simulator; they take a single value.
+     */
+    private static final String[] RUN_OPTIONS = {
+            "help", "trace", "workload", "accesses", "seed", "format", "access-types", "huge-pages", "huge-frames", "swap",
+            "checkpoint", "checkpoint-every", "restore", "mrc", "threads"
+    };
+
+    /**
+     * Build one configuration per combination of the comma-separated option values, and check each of them.
+     * The huge page regions, themselves a comma-separated list, apply to every configuration.
+     *
+     * @throws IllegalArgumentException naming the option whose value cannot be parsed, or the configuration that is out of range.
+     */
+    static List<SimulationConfig> parseConfigs(Map<String, String> options) {
+        List<SimulationConfig> configs = new ArrayList<>();
+        configs.add(new SimulationConfig());
+        for (String name : CONFIG_OPTIONS) {
+            if (!options.containsKey(name)) {
+                continue;
+            }
+            String[] values = options.get(name).split(",");
+            List<SimulationConfig> expanded = new ArrayList<>(configs.size() * values.length);
+            for (SimulationConfig config : configs) {
+                for (String value : values) {
+                    try {
+                        expanded.add(apply(config.copy(), name, value.trim()));
+                    } catch (IllegalArgumentException ex) {
+                        throw new IllegalArgumentException("Invalid value for --" + name + ": " + value.trim() + " (" + ex.getMessage() + ")");
+                    }
+                }
+            }
+            configs = expanded;
+        }
+        if (options.containsKey("huge-pages")) {
+            for (SimulationConfig config : configs) {
+                config.setHugePages(PageSizeMap.parse(options.get("huge-pages"), options.get("huge-frames")));
+            }
+        } else if (options.containsKey("huge-frames")) {
+            throw new IllegalArgumentException("--huge-frames needs --huge-pages.");
+        }
+        for (SimulationConfig config : configs) {
+            try {
+                config.validate();
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(ex.getMessage() + (configs.size() > 1 ? " Configuration: " + config : ""));
+            }
+        }
+        return configs;
+    }
+
+    private static SimulationConfig apply(SimulationConfig config, String name, String value) {
+        switch (name) {
+            case "address-bits":
+                return config.setAddressBits(Integer.parseInt(value));
+            case "offset-bits":
+                return config.setOffsetBits(Integer.parseInt(value));
+            case "levels":
+                return config.setPageTableLevels(Integer.parseInt(value));
+            case "tlb-size":
+                return config.setTlbSize(Integer.parseInt(value));
+            case "tlb-ways":
+                return config.setTlbWays(Integer.parseInt(value));
+            case "frames":
+                return config.setFrameCount(Integer.parseInt(value));
+            case "tlb-org":
+                return config.setTlbOrganization(parseOrganization(value));
+            case "tlb-policy":
+                return config.setTlbReplacement(TLBReplacement.parse(value));
+            case "page-policy":
+                return config.setPageReplacement(PageReplacement.parse(value));
+            case "clean-window":
+                return config.setCleanWindow(Integer.parseInt(value));
+            case "prefetch":
+                return config.setPrefetch(Prefetch.parse(value));
+            case "prefetch-degree":
+                return config.setPrefetchDegree(Integer.parseInt(value));
+            case "processes":
+                return config.setMultiProcess(Boolean.parseBoolean(value));
+            case "asids":
+                return config.setAsidCount(Integer.parseInt(value)).setMultiProcess(true);
+            case "flush-on-switch":
+                return config.setFlushOnSwitch(Boolean.parseBoolean(value)).setMultiProcess(true);
+            case "frame-stripes":
+                return config.setFrameStripes(Integer.parseInt(value));
+            case "shootdown-cycles":
+                return config.setShootdownCycles(Integer.parseInt(value));
+            case "ipi-cycles":
+                return config.setIpiCycles(Integer.parseInt(value));
+            case "tlb-ns":
+                config.getLatencyModel().setTlbNanos(Double.parseDouble(value));
+                return config;
+            case "walk-ns":
+                config.getLatencyModel().setWalkLevelNanos(Double.parseDouble(value));
+                return config;
+            case "memory-ns":
+                config.getLatencyModel().setMemoryNanos(Double.parseDouble(value));
+                return config;
+            case "fault-ns":
+                config.getLatencyModel().setPageFaultNanos(Double.parseDouble(value));
+                return config;
+            case "write-back-ns":
+                config.getLatencyModel().setWriteBackNanos(Double.parseDouble(value));
+                return config;
+            case "prefetch-ns":
+                config.getLatencyModel().setPrefetchNanos(Double.parseDouble(value));
+                return config;
+            default:
+                throw new IllegalArgumentException("Unknown option: " + name);
+        }
+    }
+
+    /**
+     * Compute the LRU miss-ratio curve of the trace in one pass, up to the capacity given with --mrc.
+     */
+    private static void runMissRatioCurve(Map<String, String> options, SimulationConfig config) throws IOException {
+        String value = options.get("mrc");
+        int maxCapacity = value.equals("true") ? Math.max(config.getFrameCount(), config.getTlbSize()) * 4 : Integer.parseInt(value);
+        config.validate();
+        StackDistanceAnalyzer analyzer = new StackDistanceAnalyzer(maxCapacity);
+        long start = System.nanoTime();
+        try (AddressTrace trace = openInput(options, config)) {
+            analyzer.analyze(trace, config.getAddressLayout());
+        }
+        long elapsed = System.nanoTime() - start;
+
+        MissRatioCurve curve = analyzer.getCurve();
+        System.out.println("LRU hit rate by capacity, in frames or fully associative TLB entries (" + config.getOffsetBits() + "-bit offset):");
+        System.out.print(curve.format());
+        if (config.getTlbSize() <= maxCapacity) {
+            System.out.printf("TLB of %,d entries: %.2f%% hits%n", config.getTlbSize(), curve.getHitRatio(config.getTlbSize()) * 100);
+        }
+        if (config.getFrameCount() <= maxCapacity) {
+            System.out.printf("Memory of %,d frames: %.2f%% hits%n", config.getFrameCount(), curve.getHitRatio(config.getFrameCount()) * 100);
+        }
+        System.out.printf("%,d distinct pages analyzed in %.3f s%n", analyzer.getDistinctPages(), elapsed / 1e9);
+    }
+
+    /**
+     * Decode the trace once and replay it against every configuration in parallel.
+     */
+    private static void runSweep(Map<String, String> options, List<SimulationConfig> configs) throws IOException {
+        ParameterSweep sweep = new ParameterSweep(configs);
+        long[] addresses;
+        byte[][] accessTypes = new byte[1][];
+        int[][] processIds = sweep.needsProcessIds() ? new int[1][] : null;
+        try (AddressTrace trace = openInput(options, configs.get(0))) {
+            addresses = ParameterSweep.load(trace, accessTypes, processIds);
+        }
+        int threads = options.containsKey("threads") ? Integer.parseInt(options.get("threads")) : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<ParameterSweep.Result> results = sweep.run(addresses, accessTypes[0], processIds != null ? processIds[0] : null, pool);
+            long elapsed = System.nanoTime() - start;
+            System.out.print(ParameterSweep.formatTable(results));
+            System.out.printf("%d configurations x %,d accesses on %d threads in %.3f s%n",
+                    configs.size(), addresses.length, threads, elapsed / 1e9);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Replay each trace on its own simulated core and thread, sharing the page table and frames.
+     */
+    private static void runMulticore(Map<String, String> options, String[] paths, SimulationConfig config) throws IOException {
+        MulticoreReplayEngine engine = new MulticoreReplayEngine(config, paths.length);
+        List<AddressTrace> traces = new ArrayList<>(paths.length);
+        try {
+            for (String path : paths) {
+                traces.add(openTrace(path.trim(), options));
+            }
+            engine.replay(traces);
+        } finally {
+            for (AddressTrace trace : traces) {
+                trace.close();
+            }
+        }
+
+        System.out.println("Configuration:    " + config);
+        System.out.print(engine.report());
+        System.out.printf("Page table size:  %,d bytes%n", engine.getAllocatedPageTableBytes());
+    }
+
+    private static TLBOrganization parseOrganization(String name) {
+        switch (name.toLowerCase()) {
+            case "fully":
+            case "full":
+                return TLBOrganization.FULLY_ASSOCIATIVE;
+            case "set":
+                return TLBOrganization.SET_ASSOCIATIVE;
+            case "direct":
+                return TLBOrganization.DIRECT_MAPPED;
+            default:
+                throw new IllegalArgumentException("Unknown TLB organization: " + name);
+        }
+    }
+
+    /**
+     * Open the trace given with --trace, or generate the workload given with --workload for the layout of a configuration.
+     */
+    static AddressTrace openInput(Map<String, String> options, SimulationConfig config) throws IOException {
+        if (!options.containsKey("workload")) {
+            return openTrace(options.get("trace"), options);
+        }
+        if (options.containsKey("trace")) {
+            throw new IllegalArgumentException("Give either --trace or --workload, not both.");
+        }
+        config.validate();
+        long seed = options.containsKey("seed") ? Long.parseLong(options.get("seed")) : DEFAULT_SEED;
+        long accesses = options.containsKey("accesses") ? Long.parseLong(options.get("accesses").replace("_", "")) : DEFAULT_ACCESSES;
+        return new SyntheticTrace(Workloads.parse(options.get("workload"), config.getAddressLayout(), seed), accesses);
+    }
+
+    /**
+     * Open a trace file as its --format says, or as its contents suggest: binary, Lackey, Pin or plain text.
+     * Lackey and Pin traces are parsed in parallel and filtered by --access-types.
+     */
+    static AddressTrace openTrace(String path, Map<String, String> options) throws IOException {
+        String formatName = options.getOrDefault("format", "auto");
+        int accessTypes = options.containsKey("access-types")
+                ? BinaryTraceFormat.parseAccessTypeMask(options.get("access-types")) : BinaryTraceFormat.ALL_ACCESS_TYPES;
+        if (path.equals("-")) {
+            return new TextTraceReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+        }
+        Path file = Paths.get(path);
+        ExternalTraceFormat format = null;
+        if (formatName.equals("auto")) {
+            if (MappedTraceReader.isBinaryTrace(file)) {
+                return new MappedTraceReader(file);
+            }
+            format = ExternalTraceFormat.detect(file);
+        } else if (!formatName.equals("text")) {
+            format = ExternalTraceFormat.parse(formatName);
+        }
+        if (format != null) {
+            return new ParallelTraceReader(file, format, accessTypes, ForkJoinPool.commonPool(), ParallelTraceReader.DEFAULT_CHUNK_BYTES);
+        }
+        if (accessTypes != BinaryTraceFormat.ALL_ACCESS_TYPES) {
+            throw new IllegalArgumentException("--access-types applies to Lackey and Pin traces.");
+        }
+        return new TextTraceReader(Files.newBufferedReader(file, StandardCharsets.US_ASCII));
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: HeadlessMain --trace <file|->[,<file>...] [options]");
+        System.out.println("       HeadlessMain --workload <spec> [--accesses <n>] [--seed <n>] [options]");
+        System.out.println("  The trace is text (one hex address per line), a binary .vmt file from TraceConverter,");
+        System.out.println("  or the output of Valgrind Lackey (--trace-mem=yes) or a Pin memory tracer, parsed in parallel.");
+        System.out.println("  Several traces run as one core each, sharing the page table and frames.");
+        System.out.println("  A workload is generated while it is replayed; sizes are in pages of the (first) configuration:");
+        System.out.println("    uniform[:pages] | zipf:<pages>[:s] | seq:<pages> | stride:<pages>:<bytes> | loop:<pages>");
+        System.out.println("    mixed as <w>*<spec>+<w>*<spec>, in phases as <spec>@<accesses>><spec>@<accesses>");
+        System.out.println("  --format <f>         auto | text | lackey | pin (default auto: detected from the file)");
+        System.out.println("  --access-types <t>   Lackey and Pin: access types to keep, any of R, W and I (default RWI)");
+        System.out.println("  --accesses <n>       Length of a workload (default 1000000)");
+        System.out.println("  --seed <n>           Seed of a workload (default 1)");
+        System.out.println("  --address-bits <n>   Virtual address length in bits (default 32)");
+        System.out.println("  --offset-bits <n>    Page offset length in bits (default 12)");
+        System.out.println("  --levels <n>         Page table levels: 1 for flat, 2 to 5 for a sparse radix table (default 1)");
+        System.out.println("  --tlb-size <n>       Number of TLB entries (default 64)");
+        System.out.println("  --tlb-org <org>      fully | set | direct (default fully)");
+        System.out.println("  --tlb-ways <n>       Ways per set for a set-associative TLB (default 4)");
+        System.out.println("  --tlb-policy <p>     fifo | lru | plru | random | nru (default fifo)");
+        System.out.println("  --frames <n>         Number of physical frames (default 1024)");
+        System.out.println("  --page-policy <p>    fifo | lru | clock | second-chance | lfu | arc | 2q (default fifo)");
+        System.out.println("  --clean-window <n>   Dirty victims page replacement may pass over for a clean one (default 0)");
+        System.out.println("  --prefetch <p>       Pages loaded ahead on faults: none | sequential | stride | markov (default none)");
+        System.out.println("  --prefetch-degree <n>  Largest readahead window, strides run ahead or successors kept per page (default 8)");
+        System.out.println("  --huge-pages <r>     Regions mapped with huge pages, as <size>@<start>+<length>[,...], e.g. 2M@0x40000000+1G");
+        System.out.println("  --huge-frames <f>    Frames of each huge page size, as <size>=<frames>[,...], e.g. 2M=64,1G=1");
+        System.out.println("  --processes          Give each process id of the trace its own page table; a change of id is a context switch");
+        System.out.println("  --asids <n>          ASIDs the TLB tags entries with, 1 to 4096; implies --processes (default 4096)");
+        System.out.println("  --flush-on-switch    Flush the whole TLB on every context switch; implies --processes");
+        System.out.println("  --frame-stripes <n>  Multicore: independently locked page table stripes (default: 4 per core)");
+        System.out.println("  --shootdown-cycles <n>  Multicore: modeled cost of starting a TLB shootdown (default 2000)");
+        System.out.println("  --ipi-cycles <n>     Multicore: modeled cost of each shootdown interrupt (default 1000)");
+        System.out.println("  --tlb-ns <t>         Latency model: TLB lookup in nanoseconds (default 1)");
+        System.out.println("  --walk-ns <t>        Latency model: each page table entry read by a walk (default 100)");
+        System.out.println("  --memory-ns <t>      Latency model: the memory access itself (default 100)");
+        System.out.println("  --fault-ns <t>       Latency model: page fault service time (default 8000000)");
+        System.out.println("  --write-back-ns <t>  Latency model: writing a dirty victim back before reusing its frame (default 8000000)");
+        System.out.println("  --prefetch-ns <t>    Latency model: reading each prefetched page along with a fault (default 40000)");
+        System.out.println("  --swap <file>        Back frames with off-heap memory and page through a swap file, deleted after the run");
+        System.out.println("  --checkpoint <file>  Save the whole simulator state and trace position to the file at the end of the run");
+        System.out.println("  --checkpoint-every <n>  With --checkpoint, also save every n accesses");
+        System.out.println("  --restore <file>     Resume from a checkpoint, with its configuration, skipping the accesses already replayed");
+        System.out.println("  --mrc [max]          Print the LRU miss-ratio curve up to max frames/TLB entries in one pass");
+        System.out.println("  Any option above takes comma-separated values to sweep every combination in parallel:");
+        System.out.println("  --threads <n>        Worker threads for a sweep (default: available processors)");
+    }
+}
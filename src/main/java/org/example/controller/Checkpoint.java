@@ -0,0 +1,223 @@
+package org.example.controller;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+import org.example.model.PageSizeMap;
+import org.example.model.TLBOrganization;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.example.model.prefetch.Prefetch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Saves a headless run to a compact binary file and restores it, possibly in another JVM.
+ * <pre>
+ * int    magic     'V' 'M' 'C' 'P'
+ * int    version   7
+ * config           every parameter of the {@link SimulationConfig}
+ * long   trace     identity of the trace replayed, see {@link #traceId(Path)}, or {@link #UNKNOWN_TRACE}
+ * long   records   trace records replayed, where the trace resumes
+ * long   elapsed   wall-clock nanoseconds spent so far
+ * state            TLB, frames, replacement bookkeeping, statistics, prefetcher and page tables, see {@link TranslationPipeline#save}
+ * int    magic     again, to detect a truncated file
+ * </pre>
+ * A checkpoint is written to a temporary file that then replaces the target, so a crash while saving leaves the
+ * previous checkpoint intact. Only checkpoints of the current version can be restored, as the saved state follows
+ * the layout of the model classes. A checkpoint resumes only the trace it was saved from: its size and a hash
+ * of its first bytes, or the description of a workload, must match. Multicore runs and runs paging through a
+ * swap file are not covered.
+ */
+public final class Checkpoint {
+    private static final int MAGIC = 0x50434D56; // "VMCP" read as a little-endian int
+    private static final int VERSION = 7;
+    private static final int HASHED_BYTES = 1 << 16;
+
+    /**
+     * Identity of a trace that cannot be identified, such as standard input; it matches any trace.
+     */
+    public static final long UNKNOWN_TRACE = 0;
+
+    private Checkpoint() {
+    }
+
+    /**
+     * Identify a trace file by its size and a hash of its first 64 KiB, which holds the header of a binary trace.
+     */
+    public static long traceId(Path trace) throws IOException {
+        CRC32 crc = new CRC32();
+        long size;
+        try (FileChannel channel = FileChannel.open(trace, StandardOpenOption.READ)) {
+            size = channel.size();
+            ByteBuffer head = ByteBuffer.allocate((int) Math.min(size, HASHED_BYTES));
+            while (head.hasRemaining() && channel.read(head) >= 0) {
+                // Read until the buffer is full
+            }
+            head.flip();
+            crc.update(head);
+        }
+        return identity(size * 0x9E3779B97F4A7C15L ^ crc.getValue());
+    }
+
+    /**
+     * Identify a generated trace by the text that describes it, such as a workload with its seed and length.
+     */
+    public static long traceId(String description) {
+        CRC32 crc = new CRC32();
+        crc.update(description.getBytes(StandardCharsets.UTF_8));
+        return identity(description.length() * 0x9E3779B97F4A7C15L ^ crc.getValue());
+    }
+
+    private static long identity(long hash) {
+        return hash == UNKNOWN_TRACE ? 1 : hash;
+    }
+
+    /**
+     * Save the state of an engine and its position in a trace that is not identified.
+     *
+     * @return The size of the checkpoint in bytes.
+     */
+    public static long save(TraceReplayEngine engine, Path file) throws IOException {
+        return save(engine, file, UNKNOWN_TRACE);
+    }
+
+    /**
+     * Save the state of an engine and its position in the trace.
+     *
+     * @param traceId The identity of the trace, from {@link #traceId(Path)} or {@link #traceId(String)}.
+     * @throws IllegalArgumentException if the engine pages through a swap file, whose contents are not saved.
+     * @return The size of the checkpoint in bytes.
+     */
+    public static long save(TraceReplayEngine engine, Path file, long traceId) throws IOException {
+        if (engine.getPipeline().getSwap() != null) {
+            throw new IllegalArgumentException("Runs paging through a swap file cannot be checkpointed.");
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long size;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            CheckpointWriter out = new CheckpointWriter(channel);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeConfig(out, engine.getConfig());
+            out.writeLong(traceId);
+            out.writeLong(engine.getRecordsReplayed());
+            out.writeLong(engine.getElapsedNanos());
+            engine.getPipeline().save(out);
+            out.writeInt(MAGIC);
+            out.close();
+            size = out.getBytesWritten();
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return size;
+    }
+
+    /**
+     * Rebuild an engine from a checkpoint without checking which trace it was saved from.
+     *
+     * @throws IOException if the file is not a checkpoint or is damaged.
+     */
+    public static TraceReplayEngine restore(Path file) throws IOException {
+        return restore(file, UNKNOWN_TRACE);
+    }
+
+    /**
+     * Rebuild an engine from a checkpoint. The trace it replayed must be skipped by
+     * {@link TraceReplayEngine#getRecordsReplayed()} records before replaying resumes.
+     *
+     * @param traceId The identity of the trace to resume, checked against the one saved unless either is unknown.
+     * @throws IOException if the file is not a checkpoint, is damaged or was saved from another trace.
+     */
+    public static TraceReplayEngine restore(Path file, long traceId) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CheckpointReader in = new CheckpointReader(channel);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version: " + version);
+            }
+            SimulationConfig config;
+            try {
+                config = readConfig(in);
+                config.validate();
+            } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+                throw new IOException("Corrupt checkpoint configuration: " + ex.getMessage(), ex);
+            }
+            long savedTraceId = in.readLong();
+            if (savedTraceId != UNKNOWN_TRACE && traceId != UNKNOWN_TRACE && savedTraceId != traceId) {
+                throw new IOException("The checkpoint was saved from another trace: " + file);
+            }
+            TraceReplayEngine engine = new TraceReplayEngine(config);
+            long records = in.readLong();
+            long elapsed = in.readLong();
+            engine.getPipeline().restore(in);
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Corrupt checkpoint: the state does not end where expected.");
+            }
+            engine.setProgress(records, elapsed);
+            return engine;
+        }
+    }
+
+    private static void writeConfig(CheckpointWriter out, SimulationConfig config) throws IOException {
+        out.writeInts(new int[]{
+                config.getAddressBits(), config.getOffsetBits(), config.getPageTableLevels(),
+                config.getTlbSize(), config.getTlbOrganization().ordinal(), config.getTlbWays(), config.getTlbReplacement().ordinal(),
+                config.getFrameCount(), config.getPageReplacement().ordinal(),
+                config.isMultiProcess() ? 1 : 0, config.getAsidCount(), config.isFlushOnSwitch() ? 1 : 0,
+                config.getFrameStripes(), config.getShootdownCycles(), config.getIpiCycles(), config.getCleanWindow(),
+                config.getPrefetch().ordinal(), config.getPrefetchDegree()
+        });
+        LatencyModel latency = config.getLatencyModel();
+        out.writeDouble(latency.getTlbNanos());
+        out.writeDouble(latency.getWalkLevelNanos());
+        out.writeDouble(latency.getMemoryNanos());
+        out.writeDouble(latency.getPageFaultNanos());
+        out.writeDouble(latency.getWriteBackNanos());
+        out.writeDouble(latency.getPrefetchNanos());
+        config.getHugePages().save(out);
+    }
+
+    private static SimulationConfig readConfig(CheckpointReader in) throws IOException {
+        int[] v = new int[18];
+        in.readInts(v);
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(v[0])
+                .setOffsetBits(v[1])
+                .setPageTableLevels(v[2])
+                .setTlbSize(v[3])
+                .setTlbOrganization(TLBOrganization.values()[v[4]])
+                .setTlbWays(v[5])
+                .setTlbReplacement(TLBReplacement.values()[v[6]])
+                .setFrameCount(v[7])
+                .setPageReplacement(PageReplacement.values()[v[8]])
+                .setMultiProcess(v[9] != 0)
+                .setAsidCount(v[10])
+                .setFlushOnSwitch(v[11] != 0)
+                .setFrameStripes(v[12])
+                .setShootdownCycles(v[13])
+                .setIpiCycles(v[14])
+                .setCleanWindow(v[15])
+                .setPrefetch(Prefetch.values()[v[16]])
+                .setPrefetchDegree(v[17]);
+        config.getLatencyModel()
+                .setTlbNanos(in.readDouble())
+                .setWalkLevelNanos(in.readDouble())
+                .setMemoryNanos(in.readDouble())
+                .setPageFaultNanos(in.readDouble())
+                .setWriteBackNanos(in.readDouble())
+                .setPrefetchNanos(in.readDouble());
+        config.setHugePages(PageSizeMap.read(in));
+        return config;
+    }
+}
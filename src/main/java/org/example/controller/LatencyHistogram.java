@@ -0,0 +1,155 @@
+package org.example.controller;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histogram of access latencies in whole nanoseconds, with log-linear buckets: every power of two is split into
+ * eight buckets, so a recorded value is off by at most 12.5% at any magnitude. The buckets are one fixed array
+ * covering the whole long range, so {@link #record(long)} never allocates.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        return (msb - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + (int) ((value >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+    }
+
+    static long lowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int msb = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (msb - SUB_BUCKET_BITS);
+    }
+
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int msb = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return lowerBound(index) + (1L << (msb - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * @param nanos Latency of one access; negative values count as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[indexOf(value)]++;
+        count++;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @param percentile Between 0 and 100.
+     * @return The highest latency of the bucket holding the given percentile, capped at the maximum recorded;
+     * 0 if nothing was recorded.
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        max = Math.max(max, other.max);
+    }
+
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(counts);
+        out.writeLong(count);
+        out.writeLong(max);
+    }
+
+    void restore(CheckpointReader in) throws IOException {
+        in.readLongs(counts);
+        count = in.readLong();
+        max = in.readLong();
+    }
+
+    /**
+     * Format the distribution as one line per power of two that holds any access.
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        for (int low = 0; low < BUCKETS; low += SUB_BUCKETS) {
+            long bucketCount = 0;
+            for (int i = low; i < low + SUB_BUCKETS; i++) {
+                bucketCount += counts[i];
+            }
+            if (bucketCount > 0) {
+                sb.append(String.format("  %10s - %-10s %,14d (%6.2f%%)%n", formatNanos(lowerBound(low)),
+                        formatNanos(upperBound(low + SUB_BUCKETS - 1)), bucketCount, bucketCount * 100.0 / count));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Format a duration with the unit that suits its magnitude.
+     */
+    public static String formatNanos(double nanos) {
+        if (nanos < 1e3) {
+            return String.format("%.0f ns", nanos);
+        }
+        if (nanos < 1e6) {
+            return String.format("%.1f us", nanos / 1e3);
+        }
+        if (nanos < 1e9) {
+            return String.format("%.1f ms", nanos / 1e6);
+        }
+        return String.format("%.2f s", nanos / 1e9);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.controller;
+
+/**
+ * Costs of the steps of a memory access, in nanoseconds, from which every access gets a latency:
+ * <ul>
+ *     <li>TLB hit: TLB lookup + memory access</li>
+ *     <li>Page table hit: TLB lookup + one memory reference per page table entry read + memory access</li>
+ *     <li>Page fault: TLB lookup + page walk + fault service + memory access,
+ *     plus a write-back when the evicted page is dirty</li>
+ *     <li>Prefetch: the transfer of each page read ahead, plus a write-back for a dirty victim,
+ *     charged to the access that triggered it</li>
+ * </ul>
+ * The defaults are the textbook figures for a machine with uncached page walks and a disk-backed swap.
+ */
+public class LatencyModel {
+    private double tlbNanos = 1;
+    private double walkLevelNanos = 100;
+    private double memoryNanos = 100;
+    private double pageFaultNanos = 8_000_000;
+    private double writeBackNanos = 8_000_000;
+    private double prefetchNanos = 40_000;
+
+    public double getTlbNanos() {
+        return tlbNanos;
+    }
+
+    public LatencyModel setTlbNanos(double tlbNanos) {
+        this.tlbNanos = tlbNanos;
+        return this;
+    }
+
+    /**
+     * @return Cost of reading one page table entry during a walk.
+     */
+    public double getWalkLevelNanos() {
+        return walkLevelNanos;
+    }
+
+    public LatencyModel setWalkLevelNanos(double walkLevelNanos) {
+        this.walkLevelNanos = walkLevelNanos;
+        return this;
+    }
+
+    public double getMemoryNanos() {
+        return memoryNanos;
+    }
+
+    public LatencyModel setMemoryNanos(double memoryNanos) {
+        this.memoryNanos = memoryNanos;
+        return this;
+    }
+
+    /**
+     * @return Time to service a page fault, from trap to the page being mapped.
+     */
+    public double getPageFaultNanos() {
+        return pageFaultNanos;
+    }
+
+    public LatencyModel setPageFaultNanos(double pageFaultNanos) {
+        this.pageFaultNanos = pageFaultNanos;
+        return this;
+    }
+
+    /**
+     * @return Time to write a dirty victim back to secondary memory before its frame is reused.
+     */
+    public double getWriteBackNanos() {
+        return writeBackNanos;
+    }
+
+    public LatencyModel setWriteBackNanos(double writeBackNanos) {
+        this.writeBackNanos = writeBackNanos;
+        return this;
+    }
+
+    /**
+     * @return Time to read one more page in the I/O of a fault: the transfer without the seek.
+     */
+    public double getPrefetchNanos() {
+        return prefetchNanos;
+    }
+
+    public LatencyModel setPrefetchNanos(double prefetchNanos) {
+        this.prefetchNanos = prefetchNanos;
+        return this;
+    }
+
+    /**
+     * @throws IllegalArgumentException if any cost is negative or not a number.
+     */
+    public void validate() {
+        if (!(tlbNanos >= 0 && walkLevelNanos >= 0 && memoryNanos >= 0 && pageFaultNanos >= 0 && writeBackNanos >= 0 && prefetchNanos >= 0)
+                || Double.isInfinite(tlbNanos + walkLevelNanos + memoryNanos + pageFaultNanos + writeBackNanos + prefetchNanos)) {
+            throw new IllegalArgumentException("Latencies must be finite and not negative.");
+        }
+    }
+
+    public double tlbHitLatency() {
+        return tlbNanos + memoryNanos;
+    }
+
+    /**
+     * @param walkReferences Page table entries read by the walk.
+     */
+    public double pageTableHitLatency(int walkReferences) {
+        return tlbNanos + walkReferences * walkLevelNanos + memoryNanos;
+    }
+
+    /**
+     * @param walkReferences Page table entries read by the walk that found the page missing.
+     */
+    public double pageFaultLatency(int walkReferences) {
+        return tlbNanos + walkReferences * walkLevelNanos + pageFaultNanos + memoryNanos;
+    }
+
+    public LatencyModel copy() {
+        return new LatencyModel()
+                .setTlbNanos(tlbNanos)
+                .setWalkLevelNanos(walkLevelNanos)
+                .setMemoryNanos(memoryNanos)
+                .setPageFaultNanos(pageFaultNanos)
+                .setWriteBackNanos(writeBackNanos)
+                .setPrefetchNanos(prefetchNanos);
+    }
+
+    @Override
+    public String toString() {
+        return "tlb=" + tlbNanos + "ns walk=" + walkLevelNanos + "ns/level memory=" + memoryNanos + "ns fault=" + pageFaultNanos + "ns"
+                + " write-back=" + writeBackNanos + "ns prefetch=" + prefetchNanos + "ns";
+    }
+}
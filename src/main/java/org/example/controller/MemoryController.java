@@ -1,134 +1,194 @@
 package org.example.controller;
 
+import org.example.model.AddressLayout;
+import org.example.model.LogEvent;
+import org.example.model.PMState;
 import org.example.model.PMTable;
 import org.example.model.PageTable;
+import org.example.model.PageTableState;
+import org.example.model.SwapDevice;
+import org.example.model.TLBOrganization;
 import org.example.model.TLBTable;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.example.model.prefetch.Prefetch;
 import org.example.view.EventLogPanel;
 import org.example.view.StatusPanel;
 
+import java.io.IOException;
+
 public class MemoryController {
+    private static final int PREFETCH_DEGREE = 4;
+
     private int physicalPageSize;
     private int tlbSize;
     private int addressLength;
-    private String[] instructionArray;
+    private AddressLayout layout;
+    private long[] instructionArray;
     private TLBTable tlbTable;
     private PMTable pmTable;
     private PageTable pageTable;
+    private TranslationPipeline pipeline;
     private EventLogPanel eventLogPanel;
     private StatusPanel statusPanel;
+    private SwapDevice swap;
+    private Prefetch prefetch = Prefetch.NONE;
 
-    private int hitCount;
-    private int missCount;
-
-    public MemoryController(int physicalPage, int tlbSize, String instruction, String[] array, TLBTable tlbTable, PageTable pageTable, PMTable pmTable, int addressLength, EventLogPanel eventLogPanel, StatusPanel statusPanel) {
+    public MemoryController(int physicalPage, int tlbSize, String instruction, long[] array, TLBTable tlbTable, PageTable pageTable, PMTable pmTable, int addressLength, int offsetBits, EventLogPanel eventLogPanel, StatusPanel statusPanel) {
         this.instructionArray = array;
         this.physicalPageSize = physicalPage;
         this.tlbSize = tlbSize;
         this.addressLength = addressLength;
+        this.layout = new AddressLayout(addressLength, offsetBits);
         this.tlbTable = tlbTable;
         this.pmTable = pmTable;
         this.pageTable = pageTable;
+        this.pipeline = new TranslationPipeline(tlbTable.getState(), pageTable.getState(), pmTable.getState());
         this.eventLogPanel = eventLogPanel;
         this.statusPanel = statusPanel;
-        this.hitCount = 0;
-        this.missCount = 0;
     }
 
-    public String hexToBinary(String hex, int binaryLength) {
-        if (hex.isEmpty()) {
-            return "";
+    /**
+     * Give frames real bytes and page them through a temporary swap file from now on, or stop and delete the file.
+     * Frames hold no bytes until this is called.
+     */
+    public void setSwap(boolean enabled) {
+        closeSwap();
+        if (enabled) {
+            attachSwap();
         }
+    }
 
-        StringBuilder binary = new StringBuilder();
-        String[] hexToBinaryMap = {
-                "0000", "0001", "0010", "0011",
-                "0100", "0101", "0110", "0111",
-                "1000", "1001", "1010", "1011",
-                "1100", "1101", "1110", "1111"
-        };
-
-        for (char hexChar : hex.toCharArray()) {
-            if (!Character.isDigit(hexChar) && (hexChar < 'A' || hexChar > 'F')) {
-                throw new IllegalArgumentException("Invalid hexadecimal character: " + hexChar);
-            }
+    /**
+     * Give frames real bytes and page them through a temporary swap file, or go on without one if it cannot be created.
+     */
+    private void attachSwap() {
+        try {
+            swap = SwapDevice.createTemporary();
+            pipeline.attachSwap(swap, layout.getOffsetBits());
+        } catch (IOException | IllegalArgumentException ex) {
+            closeSwap();
+            eventLogPanel.appendLog(LogEvent.Kind.INFO, "No swap file, pages are not backed by memory: " + ex.getMessage());
+        }
+    }
 
-            if (Character.isDigit(hexChar)) {
-                binary.append(hexToBinaryMap[Integer.parseInt(String.valueOf(hexChar))]);
-            } else {
-                binary.append(hexToBinaryMap[Character.toUpperCase(hexChar) - 'A' + 10]);
+    private void closeSwap() {
+        if (swap != null) {
+            pipeline.detachSwap();
+            try {
+                swap.close();
+            } catch (IOException ex) {
+                eventLogPanel.appendLog(LogEvent.Kind.INFO, "Could not delete the swap file " + swap.getFile() + ": " + ex.getMessage());
             }
+            swap = null;
         }
+    }
 
-        int currentLength = binary.length();
-        if (currentLength < binaryLength) {
-            binary.insert(0, "0".repeat(binaryLength - currentLength));
-        } else if (currentLength > binaryLength) {
-            binary.delete(0, currentLength - binaryLength);
-        }
-        return binary.toString();
+    /**
+     * Release the swap file. The controller must not be used afterwards.
+     */
+    public void close() {
+        closeSwap();
     }
 
-    public String binaryToHex(String binary) {
-        if (binary != null && !binary.isEmpty()) {
-            int decimalValue = Integer.parseInt(binary, 2);
-            return Integer.toHexString(decimalValue).toUpperCase();
-        } else {
-            throw new IllegalArgumentException("Invalid binary string");
-        }
+    public TranslationPipeline getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * Prefetch after faults from now on, at most {@link #PREFETCH_DEGREE} pages and half of memory at a time.
+     */
+    public void setPrefetch(Prefetch prefetch) {
+        this.prefetch = prefetch;
+        int degree = Math.max(1, Math.min(PREFETCH_DEGREE, pipeline.getPm().size() / 2));
+        pipeline.setPrefetcher(prefetch.create(degree), 1L << layout.getPageNumberBits());
+    }
+
+    public AddressLayout getAddressLayout() {
+        return layout;
     }
 
     public void initialize(int physicalPageSize, int tlbSize, int offset, int addressLength) {
+        initialize(physicalPageSize, tlbSize, TLBOrganization.FULLY_ASSOCIATIVE, tlbSize, TLBReplacement.FIFO,
+                PageReplacement.FIFO, offset, addressLength);
+    }
+
+    public void initialize(int physicalPageSize, int tlbSize, TLBOrganization tlbOrganization, int tlbWays, TLBReplacement tlbReplacement,
+                           PageReplacement pageReplacement, int offset, int addressLength) {
         this.physicalPageSize = physicalPageSize;
         this.tlbSize = tlbSize;
         this.addressLength = addressLength;
+        AddressLayout layout = new AddressLayout(addressLength, offset);
+        if (layout.getPageNumberBits() > PageTableState.MAX_PAGE_NUMBER_BITS) {
+            throw new IllegalArgumentException("A flat page table supports at most 2^" + PageTableState.MAX_PAGE_NUMBER_BITS
+                    + " virtual pages: " + layout.getPageNumberBits() + " page number bits.");
+        }
+        this.layout = layout;
 
-        tlbTable.setSize(tlbSize);
-        pageTable.setSize((int) Math.pow(2, addressLength - offset));
-        pmTable.setSize((int) Math.pow(2, addressLength - offset));
+        tlbTable.setSize(tlbSize, tlbOrganization, tlbWays, tlbReplacement);
+        pageTable.setSize(1 << layout.getPageNumberBits()); // Blocks of entries are allocated as pages are mapped
+        pmTable.setSize(physicalPageSize, pageReplacement);
+        if (swap != null) {
+            setSwap(true); // Frames of the new size
+        }
     }
 
+    /**
+     * Run one step of the translation of a hexadecimal address.
+     *
+     * @throws IllegalArgumentException if the address is not hexadecimal.
+     */
     public boolean processSimulationStep(String currentAddress, int simulationStep) {
-        String binaryAddress = hexToBinary(currentAddress, addressLength);
-        String offsetBits = binaryAddress.substring(binaryAddress.length() - 2); // Last 2 bits for offset
-        String virtualPageNumber = binaryAddress.substring(0, binaryAddress.length() - 2);
-        String virtualPageNumberHex = binaryToHex(virtualPageNumber);
+        return processSimulationStep(layout.parseHex(currentAddress), simulationStep);
+    }
 
-        int offsetBitsLength = 2; // Fixed number of offset bits
-        int physicalAddressLength = (int) (Math.log(physicalPageSize) / Math.log(2)); // log2(Physical Memory Size)
-        int physicalPageBits = Math.max(physicalAddressLength - offsetBitsLength, 0); // Ensure non-negative value
+    /**
+     * Run one step of the translation of an address read. Bits above the address length are ignored.
+     */
+    public boolean processSimulationStep(long address, int simulationStep) {
+        return processSimulationStep(address, simulationStep, false);
+    }
+
+    /**
+     * Run one step of the translation of an address. Bits above the address length are ignored.
+     *
+     * @param write Whether the access writes to its page, which marks the page dirty once it is found or loaded.
+     */
+    public boolean processSimulationStep(long address, int simulationStep, boolean write) {
+        address = layout.truncate(address);
+        long vpn = layout.pageNumber(address);
 
         boolean isHit = false;
+        int frame;
 
         switch (simulationStep) {
             case 1: // Step 1: Check TLB
-                eventLogPanel.appendLog("Step 1: Checking TLB for Virtual Page Number (Hex): " + virtualPageNumberHex);
-                int tlbIndex = tlbTable.searchTLB(virtualPageNumberHex);
-                if (tlbIndex != -1) {
-                    String physicalPage = (String) tlbTable.getValueAt(tlbIndex, 2);
-                    String physicalPageBinary = hexToBinary(physicalPage, physicalPageBits); // Physical Page in required bits
-
-                    eventLogPanel.appendLog("TLB Hit! Virtual Address " + currentAddress + " (Binary: " + binaryAddress + "),");
+                eventLogPanel.appendLog("Step 1: Checking TLB for Virtual Page Number (Hex): " + AddressLayout.toHex(vpn));
+                frame = pipeline.lookupTlb(vpn);
+                if (frame != PageTableState.NO_FRAME) {
+                    eventLogPanel.appendLog(LogEvent.Kind.HIT, "TLB Hit! Virtual Address " + AddressLayout.toHex(address) + " (Binary: " + layout.addressToBinary(address) + "),");
+                    recordWrite(vpn, frame, write);
                     isHit = true;
-                    hitCount++;
                 } else {
-                    eventLogPanel.appendLog("TLB Miss! Proceeding to Page Table.");
+                    eventLogPanel.appendLog(LogEvent.Kind.MISS, "TLB Miss! Proceeding to Page Table.");
                 }
                 break;
 
             case 2: // Step 2: Check Page Table
                 if (!isHit) {
-                    eventLogPanel.appendLog("Step 2: Checking Page Table for Virtual Page Number (Hex): " + virtualPageNumberHex);
-                    int pageTableIndex = pageTable.searchPageTable(virtualPageNumberHex);
-                    if (pageTableIndex != -1) {
-                        String physicalPage = (String) pageTable.getValueAt(pageTableIndex, 2);
-                        String physicalPageBinary = hexToBinary(physicalPage, physicalPageBits); // Physical Page in required bits
-
-                        eventLogPanel.appendLog("Page Table HIT! At Virtual Address " + currentAddress + " (Binary: " + binaryAddress + "), ");
+                    eventLogPanel.appendLog("Step 2: Checking Page Table for Virtual Page Number (Hex): " + AddressLayout.toHex(vpn));
+                    long usefulPrefetches = pipeline.getStats().getUsefulPrefetches();
+                    frame = pipeline.walkPageTable(vpn);
+                    if (frame != PageTableState.NO_FRAME) {
+                        eventLogPanel.appendLog(LogEvent.Kind.HIT, "Page Table HIT! At Virtual Address " + AddressLayout.toHex(address) + " (Binary: " + layout.addressToBinary(address) + "), ");
+                        if (pipeline.getStats().getUsefulPrefetches() > usefulPrefetches) {
+                            eventLogPanel.appendLog(LogEvent.Kind.HIT, "The page had been prefetched: a page fault saved.");
+                        }
+                        recordWrite(vpn, frame, write);
+                        prefetch();
                         isHit = true;
-                        hitCount++;
                     } else {
-                        eventLogPanel.appendLog("Page Table Miss! Loading from secondary memory.");
-                        missCount++;
+                        eventLogPanel.appendLog(LogEvent.Kind.FAULT, "Page Table Miss! Loading from secondary memory.");
                     }
                 }
                 break;
@@ -136,10 +196,23 @@ public class MemoryController {
             case 3: // Step 3: Load from Secondary Memory
                 if (!isHit) {
                     eventLogPanel.appendLog("Step 3: Data will be loaded from Secondary Memory.");
-                    int physicalFrameIndex = pmTable.addValue(virtualPageNumberHex, 2);
-                    pageTable.setValue("1", Integer.parseInt(virtualPageNumberHex, 16), 1);
-                    pageTable.setValue(Integer.toHexString(physicalFrameIndex).toUpperCase(), Integer.parseInt(virtualPageNumberHex, 16), 2);
-                    tlbTable.addValue(virtualPageNumberHex, Integer.toHexString(physicalFrameIndex).toUpperCase());
+                    long pagesIn = swap != null ? swap.getPagesIn() : 0;
+                    long pagesOut = swap != null ? swap.getPagesOut() : 0;
+                    long ioNanos = swap != null ? swap.getIoNanos() : 0;
+                    frame = pipeline.loadPage(vpn);
+                    long evicted = pipeline.getPm().getLastEvicted();
+                    if (evicted != PMState.FREE) {
+                        eventLogPanel.appendLog(LogEvent.Kind.EVICTION, "Evicted " + (pipeline.getPm().wasLastEvictedDirty() ? "and wrote back dirty " : "")
+                                + "Virtual Page " + AddressLayout.toHex(evicted)
+                                + " from Physical Page " + Integer.toHexString(frame).toUpperCase() + " (" + pipeline.getPm().getReplacement() + ").");
+                    }
+                    if (swap != null) {
+                        eventLogPanel.appendLog("Swap file: " + (swap.getPagesOut() > pagesOut ? "wrote the victim out, " : "")
+                                + (swap.getPagesIn() > pagesIn ? "read the page in" : "zero-filled the page on first touch")
+                                + " in " + LatencyHistogram.formatNanos(swap.getIoNanos() - ioNanos) + ".");
+                    }
+                    recordWrite(vpn, frame, write);
+                    prefetch();
                 }
                 break;
 
@@ -152,18 +225,46 @@ public class MemoryController {
         }
 
         // Update statistics on StatusPanel
-        statusPanel.updateStatistics(hitCount, missCount);
+        updateStatistics();
 
         return isHit;
     }
 
-    public void setInstructionArray(String[] addressArray) {
+    private void recordWrite(long vpn, int frame, boolean write) {
+        if (write) {
+            pipeline.recordWrite(vpn, frame);
+            eventLogPanel.appendLog("Write: Physical Page " + Integer.toHexString(frame).toUpperCase() + " marked dirty.");
+        }
+    }
+
+    /**
+     * Load the pages the prefetcher predicts from the access just completed, if any, and log them.
+     */
+    private void prefetch() {
+        if (prefetch == Prefetch.NONE) {
+            return;
+        }
+        SimulationStats stats = pipeline.getStats();
+        long evictions = stats.getEvictions();
+        int loaded = pipeline.prefetch();
+        if (loaded > 0) {
+            eventLogPanel.appendLog("Prefetch (" + prefetch + "): loaded " + loaded + " more page" + (loaded == 1 ? "" : "s")
+                    + (stats.getEvictions() > evictions ? ", evicting " + (stats.getEvictions() - evictions) : "") + ".");
+        }
+    }
+
+    public void setInstructionArray(long[] addressArray) {
         this.instructionArray = addressArray;
     }
 
     public void resetStatistics() {
-        hitCount = 0;
-        missCount = 0;
-        statusPanel.updateStatistics(hitCount, missCount);
+        pipeline.getStats().reset();
+        updateStatistics();
+    }
+
+    private void updateStatistics() {
+        SimulationStats stats = pipeline.getStats();
+        statusPanel.updateStatistics(stats.getHits(), stats.getMisses());
+        statusPanel.updateLatency(stats.getEffectiveAccessNanos(), stats.getSimulatedNanos(), stats.getLatencyHistogram().getPercentile(99));
     }
 }
@@ -0,0 +1,73 @@
+package org.example.controller;
+
+/**
+ * Hit and miss ratios of an LRU cache of pages for every capacity up to a maximum,
+ * derived from a stack distance histogram. The same curve describes physical memory with LRU
+ * replacement (capacity in frames) and a fully associative LRU TLB (capacity in entries).
+ */
+public class MissRatioCurve {
+    private final long[] cumulativeHits;
+    private final long accesses;
+    private final long coldMisses;
+
+    MissRatioCurve(long[] histogram, long accesses, long coldMisses) {
+        this.cumulativeHits = new long[histogram.length + 1];
+        for (int distance = 0; distance < histogram.length; distance++) {
+            cumulativeHits[distance + 1] = cumulativeHits[distance] + histogram[distance];
+        }
+        this.accesses = accesses;
+        this.coldMisses = coldMisses;
+    }
+
+    public int getMaxCapacity() {
+        return cumulativeHits.length - 1;
+    }
+
+    public long getAccesses() {
+        return accesses;
+    }
+
+    /**
+     * @return First-touch misses, which no capacity avoids.
+     */
+    public long getColdMisses() {
+        return coldMisses;
+    }
+
+    /**
+     * @return Hits of an LRU cache holding the given number of pages.
+     */
+    public long getHits(int capacity) {
+        if (capacity < 0 || capacity > getMaxCapacity()) {
+            throw new IllegalArgumentException("Capacity must be between 0 and " + getMaxCapacity() + ": " + capacity);
+        }
+        return cumulativeHits[capacity];
+    }
+
+    public long getMisses(int capacity) {
+        return accesses - getHits(capacity);
+    }
+
+    public double getHitRatio(int capacity) {
+        return accesses == 0 ? 0.0 : (double) getHits(capacity) / accesses;
+    }
+
+    public double getMissRatio(int capacity) {
+        return accesses == 0 ? 0.0 : (double) getMisses(capacity) / accesses;
+    }
+
+    /**
+     * Format the curve at every power of two up to the maximum capacity.
+     */
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%12s %10s %10s %14s%n", "Capacity", "Hit rate", "Miss rate", "Misses"));
+        for (long capacity = 1; capacity <= getMaxCapacity(); capacity <<= 1) {
+            int c = (int) capacity;
+            sb.append(String.format("%,12d %9.2f%% %9.2f%% %,14d%n", c, getHitRatio(c) * 100, getMissRatio(c) * 100, getMisses(c)));
+        }
+        sb.append(String.format("Accesses: %,d, cold misses: %,d (%.2f%%)%n", accesses, coldMisses,
+                accesses == 0 ? 0.0 : coldMisses * 100.0 / accesses));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,459 @@
+package org.example.controller;
+
+import org.example.model.AddressLayout;
+import org.example.model.ConcurrentPageTable;
+import org.example.model.PMState;
+import org.example.model.PageTableStructure;
+import org.example.model.TLBState;
+import org.example.model.prefetch.Prefetch;
+import org.example.trace.AddressTrace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replays one trace per simulated core, each on its own thread, against a shared address space.
+ * Every core has a private TLB; the frames are shared as one pool with one replacement policy, and the page table
+ * is shared and split into stripes by page number, each stripe a hashed table with its own locks. TLB hits and page
+ * walks take no lock. A page fault locks the stripe of the faulting page, so faults on pages of other stripes proceed
+ * in parallel, and takes the frame lock only to pick a frame and map the page to it. The stripe count therefore
+ * changes contention, never which pages are evicted.
+ * <p>
+ * For every frame, the engine tracks which cores may cache a translation to it. Evicting the page of a frame
+ * those cores cached is a TLB shootdown: the evicting core sends each of them an inter-processor interrupt (IPI),
+ * which the target handles before its next access by dropping the stale entry. Acknowledgements are not awaited;
+ * the time the initiator would spend waiting is part of the modeled shootdown cost instead.
+ * <p>
+ * Accesses to resident frames are handed to the replacement policy in per-core batches, as operating systems
+ * batch LRU updates per CPU, so the policy sees them slightly late. With one core every batch is handed over before
+ * the next fault, and a run gives the same counts as {@link TraceReplayEngine} whatever the stripe count.
+ */
+public class MulticoreReplayEngine {
+    public static final int MAX_CORES = 64;
+
+    private static final int BATCH_SIZE = 8192;
+    private static final int TOUCH_BATCH = 64;
+
+    private final SimulationConfig config;
+    private final int offsetBits;
+    private final long addressMask;
+    private final LatencyModel latency;
+    private final Stripe[] stripes;
+    private final PMState frames;
+    private final ReentrantLock frameLock = new ReentrantLock(); // Guards the frames and their replacement policy
+    private final AtomicLongArray cachedBy; // Per frame, a bit for each core that may cache a translation to it
+    private final Core[] cores;
+    private long elapsedNanos;
+
+    /**
+     * A share of the page table. Faults on its pages hold {@link #faultLock} from the walk to the mapping, so a page
+     * is loaded once. Every change to the table holds {@link #writeLock}, which is taken last: a new page is mapped
+     * under the frame lock, and an evicted page is unmapped under no other lock.
+     */
+    private static final class Stripe {
+        final ReentrantLock faultLock = new ReentrantLock();
+        final ReentrantLock writeLock = new ReentrantLock();
+        final ConcurrentPageTable table = new ConcurrentPageTable();
+
+        void map(long vpn, int frame) {
+            writeLock.lock();
+            try {
+                table.map(vpn, frame);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void invalidate(long vpn) {
+            writeLock.lock();
+            try {
+                table.invalidate(vpn);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A shootdown request queued for a target core.
+     */
+    private static final class Shootdown {
+        final long vpn;
+        final int frame;
+
+        Shootdown(long vpn, int frame) {
+            this.vpn = vpn;
+            this.frame = frame;
+        }
+    }
+
+    /**
+     * @param cores Simulated cores, between 1 and {@link #MAX_CORES}; each replays its own trace.
+     */
+    public MulticoreReplayEngine(SimulationConfig config, int cores) {
+        config.validate();
+        if (cores <= 0 || cores > MAX_CORES) {
+            throw new IllegalArgumentException("Core count must be between 1 and " + MAX_CORES + ": " + cores);
+        }
+        if (config.isMultiProcess()) {
+            throw new IllegalArgumentException("The cores of a multicore run share one address space.");
+        }
+        if (!config.getHugePages().isEmpty()) {
+            throw new IllegalArgumentException("Huge pages are not simulated on multiple cores.");
+        }
+        if (config.getPrefetch() != Prefetch.NONE) {
+            throw new IllegalArgumentException("Prefetching is not simulated on multiple cores.");
+        }
+        this.config = config.copy();
+        AddressLayout layout = config.getAddressLayout();
+        this.offsetBits = layout.getOffsetBits();
+        this.addressMask = layout.getAddressMask();
+        this.latency = config.getLatencyModel().copy();
+
+        int stripeCount = config.getFrameStripes() > 0 ? config.getFrameStripes() : defaultStripes(cores);
+        this.stripes = new Stripe[stripeCount];
+        for (int s = 0; s < stripeCount; s++) {
+            stripes[s] = new Stripe();
+        }
+        this.frames = new PMState(config.getFrameCount(), config.getPageReplacement());
+        this.cachedBy = new AtomicLongArray(config.getFrameCount());
+        this.cores = new Core[cores];
+        for (int c = 0; c < cores; c++) {
+            this.cores[c] = new Core(c, new TLBState(config.getTlbSize(), config.getTlbOrganization(), config.getTlbWays(),
+                    config.getTlbReplacement()));
+        }
+    }
+
+    /**
+     * Four page table stripes per core, rounded up to a power of 2.
+     */
+    static int defaultStripes(int cores) {
+        return Integer.highestOneBit(cores * 4 - 1) << 1;
+    }
+
+    public int getCoreCount() {
+        return cores.length;
+    }
+
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * @return The counters of one core; evictions and shootdowns are counted on the core that caused them.
+     */
+    public SimulationStats getCoreStats(int core) {
+        return cores[core].stats;
+    }
+
+    /**
+     * @return The counters of all cores added together.
+     */
+    public SimulationStats getStats() {
+        SimulationStats total = new SimulationStats();
+        for (Core core : cores) {
+            total.add(core.stats);
+        }
+        return total;
+    }
+
+    /**
+     * @return Modeled cycles spent on shootdowns by all cores: the initiators' cost plus every IPI handled.
+     */
+    public long getShootdownCycles() {
+        SimulationStats stats = getStats();
+        return stats.getShootdowns() * config.getShootdownCycles() + stats.getShootdownIpis() * config.getIpiCycles();
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getAllocatedPageTableBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            bytes += stripe.table.getAllocatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Replay one trace per core, each on its own thread, starting them together.
+     *
+     * @return The counters of all cores added together.
+     */
+    public SimulationStats replay(List<? extends AddressTrace> traces) throws IOException {
+        if (traces.size() != cores.length) {
+            throw new IllegalArgumentException(cores.length + " cores need " + cores.length + " traces: " + traces.size());
+        }
+        run(core -> {
+            long[] batch = new long[BATCH_SIZE];
+            AddressTrace trace = traces.get(core.id);
+            int count;
+            try {
+                while ((count = trace.next(batch)) >= 0) {
+                    core.replay(batch, 0, count);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return getStats();
+    }
+
+    /**
+     * Replay one address array per core, each on its own thread, starting them together.
+     *
+     * @return The counters of all cores added together.
+     */
+    public SimulationStats replay(long[][] addresses) {
+        if (addresses.length != cores.length) {
+            throw new IllegalArgumentException(cores.length + " cores need " + cores.length + " traces: " + addresses.length);
+        }
+        try {
+            run(core -> core.replay(addresses[core.id], 0, addresses[core.id].length));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return getStats();
+    }
+
+    private interface CoreTask {
+        void run(Core core);
+    }
+
+    private void run(CoreTask task) throws IOException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[cores.length];
+        for (Core core : cores) {
+            threads[core.id] = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(core);
+                    core.finish();
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            }, "core-" + core.id);
+            threads[core.id].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException ex) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while the cores were running.", ex);
+        }
+        elapsedNanos += System.nanoTime() - begin;
+
+        Throwable ex = failure.get();
+        if (ex instanceof UncheckedIOException) {
+            throw ((UncheckedIOException) ex).getCause();
+        }
+        if (ex instanceof RuntimeException) {
+            throw (RuntimeException) ex;
+        }
+        if (ex instanceof Error) {
+            throw (Error) ex;
+        }
+        if (ex != null) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Stripe stripeOf(long vpn) {
+        // Multiply-shift hash, reduced to the stripe count without a division
+        return stripes[(int) ((((vpn * 0x9E3779B97F4A7C15L) >>> 32) * stripes.length) >>> 32)];
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder(getStats().report(elapsedNanos));
+        sb.append(String.format("Cores:            %d (%d page table stripes, one frame pool)%n", cores.length, stripes.length));
+        sb.append(String.format("Shootdown cost:   %,d cycles modeled%n", getShootdownCycles()));
+        return sb.toString();
+    }
+
+    /**
+     * The state of one simulated core, only touched by its own thread apart from the shootdown inbox.
+     */
+    private final class Core {
+        final int id;
+        final long bit;
+        final TLBState tlb;
+        final SimulationStats stats = new SimulationStats();
+        final ConcurrentLinkedQueue<Shootdown> inbox = new ConcurrentLinkedQueue<>();
+        final int[] touched = new int[TOUCH_BATCH];
+        int touchedCount;
+
+        Core(int id, TLBState tlb) {
+            this.id = id;
+            this.bit = 1L << id;
+            this.tlb = tlb;
+        }
+
+        void replay(long[] addresses, int from, int to) {
+            int shift = offsetBits;
+            long mask = addressMask;
+            for (int i = from; i < to; i++) {
+                translate((addresses[i] & mask) >>> shift);
+            }
+        }
+
+        int translate(long vpn) {
+            if (!inbox.isEmpty()) {
+                handleShootdowns();
+            }
+            int slot = tlb.lookup(vpn);
+            if (slot != TLBState.MISS) {
+                stats.recordTlbHit();
+                stats.recordLatency(latency.tlbHitLatency());
+                int frame = tlb.getFrame(slot);
+                tlb.touch(slot);
+                touch(frame);
+                return frame;
+            }
+            stats.recordTlbMiss();
+            Stripe stripe = stripeOf(vpn);
+            int frame = stripe.table.lookup(vpn);
+            int references = stripe.table.getLastWalkReferences();
+            stats.recordWalkReferences(references);
+            if (frame != PageTableStructure.NO_FRAME) {
+                stats.recordPageTableHit();
+                stats.recordLatency(latency.pageTableHitLatency(references));
+                touch(frame);
+            } else {
+                frame = fault(stripe, vpn, references);
+            }
+            fill(stripe, vpn, frame);
+            return frame;
+        }
+
+        private int fault(Stripe stripe, long vpn, int references) {
+            flushTouches(); // The policy must see earlier accesses before it picks a victim
+            stripe.faultLock.lock();
+            try {
+                int frame = stripe.table.lookup(vpn);
+                if (frame != PageTableStructure.NO_FRAME) {
+                    stats.recordPageTableHit(); // Another core loaded the page while this one waited
+                    stats.recordLatency(latency.pageTableHitLatency(references));
+                    touch(frame);
+                    return frame;
+                }
+                stats.recordPageFault();
+                stats.recordLatency(latency.pageFaultLatency(references));
+                long victim;
+                frameLock.lock();
+                try {
+                    frame = frames.allocate(vpn);
+                    victim = frames.getLastEvicted();
+                    stripe.map(vpn, frame); // Before another fault can pick the frame as its victim
+                } finally {
+                    frameLock.unlock();
+                }
+                if (victim != PMState.FREE) {
+                    stats.recordEviction();
+                    stripeOf(victim).invalidate(victim);
+                    shootdown(victim, frame);
+                }
+                return frame;
+            } finally {
+                stripe.faultLock.unlock();
+            }
+        }
+
+        /**
+         * Drop the victim's translation here and interrupt every other core that may cache it.
+         */
+        private void shootdown(long victim, int frame) {
+            long targets = cachedBy.getAndSet(frame, 0);
+            if ((targets & bit) != 0) {
+                invalidate(victim, frame);
+                targets &= ~bit;
+            }
+            if (targets == 0) {
+                return;
+            }
+            Shootdown request = new Shootdown(victim, frame);
+            int ipis = 0;
+            for (long t = targets; t != 0; t &= t - 1) {
+                cores[Long.numberOfTrailingZeros(t)].inbox.add(request);
+                ipis++;
+            }
+            stats.recordShootdown(ipis);
+        }
+
+        /**
+         * Cache a translation and announce it. The page table is read again afterwards: an eviction racing with
+         * the fill either saw this core's bit and will interrupt it, or had already unmapped the page.
+         */
+        private void fill(Stripe stripe, long vpn, int frame) {
+            tlb.insert(vpn, frame);
+            if ((cachedBy.get(frame) & bit) == 0) {
+                cachedBy.getAndAccumulate(frame, bit, (bits, b) -> bits | b);
+            }
+            if (stripe.table.lookup(vpn) != frame) {
+                invalidate(vpn, frame);
+            }
+        }
+
+        private void invalidate(long vpn, int frame) {
+            int slot = tlb.lookup(vpn);
+            if (slot != TLBState.MISS && tlb.getFrame(slot) == frame) {
+                tlb.invalidate(vpn);
+            }
+        }
+
+        private void handleShootdowns() {
+            Shootdown request;
+            while ((request = inbox.poll()) != null) {
+                invalidate(request.vpn, request.frame);
+            }
+        }
+
+        private void touch(int frame) {
+            touched[touchedCount++] = frame;
+            if (touchedCount == TOUCH_BATCH) {
+                flushTouches();
+            }
+        }
+
+        /**
+         * Hand the batched accesses to the replacement policy in order, taking the frame lock once.
+         * Frames freed or reused since are skipped or credited to their new page.
+         */
+        private void flushTouches() {
+            if (touchedCount == 0) {
+                return;
+            }
+            frameLock.lock();
+            try {
+                for (int i = 0; i < touchedCount; i++) {
+                    if (!frames.isFree(touched[i])) {
+                        frames.touch(touched[i]);
+                    }
+                }
+            } finally {
+                frameLock.unlock();
+            }
+            touchedCount = 0;
+        }
+
+        void finish() {
+            flushTouches();
+            handleShootdowns();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.example.controller;
+
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.example.trace.AddressTrace;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiFunction;
+
+/**
+ * Replays one trace against many configurations in parallel.
+ * The trace is decoded once into an address array that every run reads without copying; each configuration
+ * gets its own pipeline on a fork-join worker, so runs share no mutable state. Multi-process configurations
+ * also need the process id of every address, see {@link #loadWithProcessIds(AddressTrace, int[][])}, and writes are
+ * only told apart from reads given the access types, see {@link #load(AddressTrace, byte[][], int[][])}.
+ */
+public class ParameterSweep {
+    private static final int BATCH_SIZE = 8192;
+    private static final int MAX_ADDRESSES = Integer.MAX_VALUE - 8;
+
+    private final List<SimulationConfig> configs;
+
+    public ParameterSweep(List<SimulationConfig> configs) {
+        for (SimulationConfig config : configs) {
+            config.validate(); // Fail before any run starts
+        }
+        this.configs = new ArrayList<>(configs);
+    }
+
+    public List<SimulationConfig> getConfigs() {
+        return configs;
+    }
+
+    /**
+     * The outcome of one configuration.
+     */
+    public static class Result {
+        private final SimulationConfig config;
+        private final SimulationStats stats;
+        private final long elapsedNanos;
+
+        Result(SimulationConfig config, SimulationStats stats, long elapsedNanos) {
+            this.config = config;
+            this.stats = stats;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public SimulationConfig getConfig() {
+            return config;
+        }
+
+        public SimulationStats getStats() {
+            return stats;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    /**
+     * Read every address of a trace into one array.
+     */
+    public static long[] load(AddressTrace trace) throws IOException {
+        return loadWithProcessIds(trace, null);
+    }
+
+    /**
+     * Read every address of a trace into one array and, if asked, the process ids into a parallel array.
+     *
+     * @param processIds If not null, element 0 receives the process ids.
+     */
+    public static long[] loadWithProcessIds(AddressTrace trace, int[][] processIds) throws IOException {
+        return load(trace, null, processIds);
+    }
+
+    /**
+     * Read every address of a trace into one array and, if asked, the access types and process ids into parallel arrays.
+     *
+     * @param accessTypes If not null, element 0 receives the access types.
+     * @param processIds  If not null, element 0 receives the process ids.
+     */
+    public static long[] load(AddressTrace trace, byte[][] accessTypes, int[][] processIds) throws IOException {
+        long[] batch = new long[BATCH_SIZE];
+        byte[] batchTypes = accessTypes != null ? new byte[BATCH_SIZE] : null;
+        int[] batchIds = processIds != null ? new int[BATCH_SIZE] : null;
+        long[] addresses = new long[BATCH_SIZE];
+        byte[] types = accessTypes != null ? new byte[BATCH_SIZE] : null;
+        int[] ids = processIds != null ? new int[BATCH_SIZE] : null;
+        int size = 0;
+        int count;
+        while ((count = trace.next(batch, batchTypes, batchIds)) >= 0) {
+            if (size + (long) count > MAX_ADDRESSES) {
+                throw new IllegalArgumentException("Traces of more than " + MAX_ADDRESSES + " addresses cannot be swept.");
+            }
+            if (size + count > addresses.length) {
+                int capacity = (int) Math.min(Math.max(addresses.length * 2L, size + count), MAX_ADDRESSES);
+                addresses = Arrays.copyOf(addresses, capacity);
+                if (types != null) {
+                    types = Arrays.copyOf(types, capacity);
+                }
+                if (ids != null) {
+                    ids = Arrays.copyOf(ids, capacity);
+                }
+            }
+            System.arraycopy(batch, 0, addresses, size, count);
+            if (types != null) {
+                System.arraycopy(batchTypes, 0, types, size, count);
+            }
+            if (ids != null) {
+                System.arraycopy(batchIds, 0, ids, size, count);
+            }
+            size += count;
+        }
+        if (accessTypes != null) {
+            accessTypes[0] = Arrays.copyOf(types, size);
+        }
+        if (processIds != null) {
+            processIds[0] = Arrays.copyOf(ids, size);
+        }
+        return Arrays.copyOf(addresses, size);
+    }
+
+    /**
+     * @return True if any configuration needs the process ids of the trace.
+     */
+    public boolean needsProcessIds() {
+        for (SimulationConfig config : configs) {
+            if (config.isMultiProcess()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Run every configuration on the common fork-join pool.
+     *
+     * @return One result per configuration, in configuration order.
+     */
+    public List<Result> run(long[] addresses) {
+        return run(addresses, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Run every configuration on the given pool.
+     *
+     * @return One result per configuration, in configuration order.
+     */
+    public List<Result> run(long[] addresses, ForkJoinPool pool) {
+        return run(addresses, null, pool);
+    }
+
+    /**
+     * Run every configuration on the given pool, switching processes as the trace does for multi-process configurations.
+     *
+     * @param processIds Process id of every address, or null to run every configuration as a single process.
+     * @return One result per configuration, in configuration order.
+     */
+    public List<Result> run(long[] addresses, int[] processIds, ForkJoinPool pool) {
+        return run(addresses, null, processIds, pool);
+    }
+
+    /**
+     * Run every configuration on the given pool, marking the pages of writes dirty and switching processes as the
+     * trace does for multi-process configurations.
+     *
+     * @param accessTypes Access type of every address, or null to treat every access as a read.
+     * @param processIds  Process id of every address, or null to run every configuration as a single process.
+     * @return One result per configuration, in configuration order.
+     */
+    public List<Result> run(long[] addresses, byte[] accessTypes, int[] processIds, ForkJoinPool pool) {
+        if (accessTypes != null && accessTypes.length != addresses.length) {
+            throw new IllegalArgumentException("Every address needs an access type.");
+        }
+        if (processIds != null && processIds.length != addresses.length) {
+            throw new IllegalArgumentException("Every address needs a process id.");
+        }
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>(configs.size());
+        for (SimulationConfig config : configs) {
+            tasks.add(pool.submit(() -> runOne(config, addresses, accessTypes, processIds)));
+        }
+        List<Result> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<Result> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private static Result runOne(SimulationConfig config, long[] addresses, byte[] accessTypes, int[] processIds) {
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+        long start = System.nanoTime();
+        boolean switching = config.isMultiProcess() && processIds != null;
+        if (accessTypes != null) {
+            if (switching) {
+                engine.replay(addresses, accessTypes, processIds, 0, addresses.length);
+            } else {
+                engine.replay(addresses, accessTypes, 0, addresses.length);
+            }
+        } else if (switching) {
+            engine.replay(addresses, processIds, 0, addresses.length);
+        } else {
+            engine.replay(addresses, 0, addresses.length);
+        }
+        return new Result(config, engine.getStats(), System.nanoTime() - start);
+    }
+
+    /**
+     * Cartesian product of the given parameter values over a base configuration.
+     * Lists left empty keep the base value.
+     */
+    public static List<SimulationConfig> grid(SimulationConfig base, List<Integer> offsetBits, List<Integer> tlbSizes,
+                                              List<Integer> frameCounts, List<TLBReplacement> tlbReplacements,
+                                              List<PageReplacement> pageReplacements) {
+        List<SimulationConfig> configs = new ArrayList<>();
+        configs.add(base.copy());
+        configs = expand(configs, offsetBits, SimulationConfig::setOffsetBits);
+        configs = expand(configs, tlbSizes, SimulationConfig::setTlbSize);
+        configs = expand(configs, frameCounts, SimulationConfig::setFrameCount);
+        configs = expand(configs, tlbReplacements, SimulationConfig::setTlbReplacement);
+        configs = expand(configs, pageReplacements, SimulationConfig::setPageReplacement);
+        return configs;
+    }
+
+    private static <T> List<SimulationConfig> expand(List<SimulationConfig> configs, List<T> values,
+                                                     BiFunction<SimulationConfig, T, SimulationConfig> setter) {
+        if (values == null || values.isEmpty()) {
+            return configs;
+        }
+        List<SimulationConfig> expanded = new ArrayList<>(configs.size() * values.size());
+        for (SimulationConfig config : configs) {
+            for (T value : values) {
+                expanded.add(setter.apply(config.copy(), value));
+            }
+        }
+        return expanded;
+    }
+
+    /**
+     * Format the results as one row per configuration, with prefetch columns if any configuration prefetched.
+     */
+    public static String formatTable(List<Result> results) {
+        int width = "Configuration".length();
+        boolean prefetching = false;
+        for (Result result : results) {
+            width = Math.max(width, result.getConfig().toString().length());
+            prefetching |= result.getStats().getPrefetches() > 0;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-" + width + "s %12s %8s %8s %8s %12s %12s",
+                "Configuration", "Accesses", "TLB hit", "PT hit", "Fault", "Evictions", "Write-backs"));
+        if (prefetching) {
+            sb.append(String.format(" %12s %9s %9s", "Prefetches", "Accuracy", "Coverage"));
+        }
+        sb.append(String.format(" %10s %8s%n", "EAT", "ms"));
+        String row = "%-" + width + "s %,12d %7.2f%% %7.2f%% %7.2f%% %,12d %,12d";
+        for (Result result : results) {
+            SimulationStats stats = result.getStats();
+            sb.append(String.format(row,
+                    result.getConfig(), stats.getAccesses(),
+                    percent(stats.getTlbHits(), stats.getAccesses()),
+                    percent(stats.getPageTableHits(), stats.getAccesses()),
+                    percent(stats.getPageFaults(), stats.getAccesses()),
+                    stats.getEvictions(), stats.getWriteBacks()));
+            if (prefetching) {
+                sb.append(String.format(" %,12d %8.2f%% %8.2f%%", stats.getPrefetches(),
+                        stats.getPrefetchAccuracy() * 100, stats.getPrefetchCoverage() * 100));
+            }
+            sb.append(String.format(" %10s %8.1f%n", LatencyHistogram.formatNanos(stats.getEffectiveAccessNanos()),
+                    result.getElapsedNanos() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0.0 : part * 100.0 / whole;
+    }
+}
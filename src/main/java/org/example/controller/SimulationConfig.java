@@ -0,0 +1,426 @@
+package org.example.controller;
+
+import org.example.model.AddressLayout;
+import org.example.model.AddressSpaces;
+import org.example.model.MixedPageTable;
+import org.example.model.PMState;
+import org.example.model.PageSizeMap;
+import org.example.model.PageSizes;
+import org.example.model.PageTableState;
+import org.example.model.PageTableStructure;
+import org.example.model.RadixPageTable;
+import org.example.model.TLBOrganization;
+import org.example.model.TLBState;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.example.model.prefetch.Prefetch;
+
+/**
+ * Parameters of a headless simulation run.
+ */
+public class SimulationConfig {
+    public static final int MAX_PREFETCH_DEGREE = 1024;
+    public static final int MAX_FRAME_STRIPES = 4096;
+
+    private int addressBits = 32;
+    private int offsetBits = 12;
+    private int pageTableLevels = 1;
+    private int tlbSize = 64;
+    private TLBOrganization tlbOrganization = TLBOrganization.FULLY_ASSOCIATIVE;
+    private int tlbWays = 4;
+    private TLBReplacement tlbReplacement = TLBReplacement.FIFO;
+    private int frameCount = 1024;
+    private PageReplacement pageReplacement = PageReplacement.FIFO;
+    private int cleanWindow;
+    private Prefetch prefetch = Prefetch.NONE;
+    private int prefetchDegree = 8;
+    private boolean multiProcess;
+    private int asidCount = TLBState.MAX_ASIDS;
+    private boolean flushOnSwitch;
+    private int frameStripes;
+    private int shootdownCycles = 2000;
+    private int ipiCycles = 1000;
+    private LatencyModel latencyModel = new LatencyModel();
+    private PageSizeMap hugePages = new PageSizeMap();
+
+    public int getAddressBits() {
+        return addressBits;
+    }
+
+    public SimulationConfig setAddressBits(int addressBits) {
+        this.addressBits = addressBits;
+        return this;
+    }
+
+    public int getOffsetBits() {
+        return offsetBits;
+    }
+
+    public SimulationConfig setOffsetBits(int offsetBits) {
+        this.offsetBits = offsetBits;
+        return this;
+    }
+
+    public int getPageTableLevels() {
+        return pageTableLevels;
+    }
+
+    /**
+     * @param pageTableLevels 1 for a flat page table, 2 to 5 for a sparse radix page table.
+     */
+    public SimulationConfig setPageTableLevels(int pageTableLevels) {
+        this.pageTableLevels = pageTableLevels;
+        return this;
+    }
+
+    public int getTlbSize() {
+        return tlbSize;
+    }
+
+    public SimulationConfig setTlbSize(int tlbSize) {
+        this.tlbSize = tlbSize;
+        return this;
+    }
+
+    public TLBOrganization getTlbOrganization() {
+        return tlbOrganization;
+    }
+
+    public SimulationConfig setTlbOrganization(TLBOrganization tlbOrganization) {
+        this.tlbOrganization = tlbOrganization;
+        return this;
+    }
+
+    public int getTlbWays() {
+        return tlbWays;
+    }
+
+    public SimulationConfig setTlbWays(int tlbWays) {
+        this.tlbWays = tlbWays;
+        return this;
+    }
+
+    public TLBReplacement getTlbReplacement() {
+        return tlbReplacement;
+    }
+
+    public SimulationConfig setTlbReplacement(TLBReplacement tlbReplacement) {
+        this.tlbReplacement = tlbReplacement;
+        return this;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public SimulationConfig setFrameCount(int frameCount) {
+        this.frameCount = frameCount;
+        return this;
+    }
+
+    public PageReplacement getPageReplacement() {
+        return pageReplacement;
+    }
+
+    public SimulationConfig setPageReplacement(PageReplacement pageReplacement) {
+        this.pageReplacement = pageReplacement;
+        return this;
+    }
+
+    public int getCleanWindow() {
+        return cleanWindow;
+    }
+
+    /**
+     * @param cleanWindow Dirty victims page replacement may pass over for a clean one, as in clean-first LRU;
+     *                    0 ignores the dirty bits. Every policy honours it.
+     */
+    public SimulationConfig setCleanWindow(int cleanWindow) {
+        this.cleanWindow = cleanWindow;
+        return this;
+    }
+
+    public Prefetch getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * @param prefetch Prefetcher run on every fault, or {@link Prefetch#NONE} to load pages on demand only.
+     */
+    public SimulationConfig setPrefetch(Prefetch prefetch) {
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    public int getPrefetchDegree() {
+        return prefetchDegree;
+    }
+
+    /**
+     * @param prefetchDegree The most pages prefetched per miss: the largest readahead window, the strides run ahead,
+     *                       or the successors remembered per page.
+     */
+    public SimulationConfig setPrefetchDegree(int prefetchDegree) {
+        this.prefetchDegree = prefetchDegree;
+        return this;
+    }
+
+    public boolean isMultiProcess() {
+        return multiProcess;
+    }
+
+    /**
+     * @param multiProcess Give every process id of the trace its own page table; otherwise process ids are ignored.
+     */
+    public SimulationConfig setMultiProcess(boolean multiProcess) {
+        this.multiProcess = multiProcess;
+        return this;
+    }
+
+    public int getAsidCount() {
+        return asidCount;
+    }
+
+    /**
+     * @param asidCount ASIDs the TLB can tag entries with; processes beyond that share them round-robin.
+     */
+    public SimulationConfig setAsidCount(int asidCount) {
+        this.asidCount = asidCount;
+        return this;
+    }
+
+    public boolean isFlushOnSwitch() {
+        return flushOnSwitch;
+    }
+
+    /**
+     * @param flushOnSwitch Flush the whole TLB on every context switch, as without ASIDs.
+     */
+    public SimulationConfig setFlushOnSwitch(boolean flushOnSwitch) {
+        this.flushOnSwitch = flushOnSwitch;
+        return this;
+    }
+
+    public int getFrameStripes() {
+        return frameStripes;
+    }
+
+    /**
+     * @param frameStripes Independently locked stripes the shared page table of a multicore run is split into; 0 picks
+     *                     a count from the number of cores. The frames always form one pool with one policy.
+     */
+    public SimulationConfig setFrameStripes(int frameStripes) {
+        this.frameStripes = frameStripes;
+        return this;
+    }
+
+    public int getShootdownCycles() {
+        return shootdownCycles;
+    }
+
+    /**
+     * @param shootdownCycles Modeled cost to the initiating core of starting a TLB shootdown and waiting for it.
+     */
+    public SimulationConfig setShootdownCycles(int shootdownCycles) {
+        this.shootdownCycles = shootdownCycles;
+        return this;
+    }
+
+    public int getIpiCycles() {
+        return ipiCycles;
+    }
+
+    /**
+     * @param ipiCycles Modeled cost of each inter-processor interrupt of a shootdown, paid by the interrupted core.
+     */
+    public SimulationConfig setIpiCycles(int ipiCycles) {
+        this.ipiCycles = ipiCycles;
+        return this;
+    }
+
+    public LatencyModel getLatencyModel() {
+        return latencyModel;
+    }
+
+    /**
+     * @param latencyModel Step costs from which the latency of every access is simulated.
+     */
+    public SimulationConfig setLatencyModel(LatencyModel latencyModel) {
+        this.latencyModel = latencyModel;
+        return this;
+    }
+
+    public PageSizeMap getHugePages() {
+        return hugePages;
+    }
+
+    /**
+     * @param hugePages Regions mapped with huge pages and their frame pools; empty to use base pages everywhere.
+     */
+    public SimulationConfig setHugePages(PageSizeMap hugePages) {
+        this.hugePages = hugePages;
+        return this;
+    }
+
+    /**
+     * @return The number of virtual pages, 2^(addressBits - offsetBits).
+     */
+    public long getPageCount() {
+        return 1L << (addressBits - offsetBits);
+    }
+
+    /**
+     * @return The split of addresses into page number and offset for this configuration.
+     */
+    public AddressLayout getAddressLayout() {
+        return new AddressLayout(addressBits, offsetBits);
+    }
+
+    /**
+     * Check that the parameters describe a simulator that can be built.
+     *
+     * @throws IllegalArgumentException if any parameter is out of range.
+     */
+    public void validate() {
+        if (addressBits <= 0 || addressBits > 64) {
+            throw new IllegalArgumentException("Address length must be between 1 and 64 bits.");
+        }
+        if (offsetBits <= 0 || offsetBits >= addressBits) {
+            throw new IllegalArgumentException("Offset bits must be between 1 and the address length - 1.");
+        }
+        int pageNumberBits = addressBits - offsetBits;
+        if (pageTableLevels == 1) {
+            if (pageNumberBits > PageTableState.MAX_PAGE_NUMBER_BITS) {
+                throw new IllegalArgumentException("A flat page table supports at most 2^" + PageTableState.MAX_PAGE_NUMBER_BITS
+                        + " virtual pages; use a multi-level page table for wide addresses.");
+            }
+        } else if (pageTableLevels < RadixPageTable.MIN_LEVELS || pageTableLevels > RadixPageTable.MAX_LEVELS) {
+            throw new IllegalArgumentException("Page table levels must be 1 (flat) or between " + RadixPageTable.MIN_LEVELS
+                    + " and " + RadixPageTable.MAX_LEVELS + ".");
+        } else if (pageNumberBits < pageTableLevels || pageNumberBits > pageTableLevels * RadixPageTable.MAX_LEVEL_BITS) {
+            throw new IllegalArgumentException(pageNumberBits + " page number bits cannot be split over " + pageTableLevels + " levels.");
+        }
+        if (tlbSize <= 0 || frameCount <= 0) {
+            throw new IllegalArgumentException("TLB size and frame count must be positive integers.");
+        }
+        if (cleanWindow < 0 || cleanWindow > frameCount) {
+            throw new IllegalArgumentException("The clean window must be between 0 and the frame count.");
+        }
+        if (prefetchDegree <= 0 || prefetchDegree > MAX_PREFETCH_DEGREE) {
+            throw new IllegalArgumentException("The prefetch degree must be between 1 and " + MAX_PREFETCH_DEGREE + ".");
+        }
+        if (frameStripes < 0 || frameStripes > MAX_FRAME_STRIPES) {
+            throw new IllegalArgumentException("Frame stripes must be between 0 and " + MAX_FRAME_STRIPES + ".");
+        }
+        if (shootdownCycles < 0 || ipiCycles < 0) {
+            throw new IllegalArgumentException("Shootdown costs must not be negative.");
+        }
+        latencyModel.validate();
+        if (asidCount <= 0 || asidCount > TLBState.MAX_ASIDS) {
+            throw new IllegalArgumentException("ASID count must be between 1 and " + TLBState.MAX_ASIDS + ".");
+        }
+        if (multiProcess && pageNumberBits > TLBState.MAX_TAGGED_PAGE_NUMBER_BITS) {
+            throw new IllegalArgumentException("ASID-tagged TLB entries support at most " + TLBState.MAX_TAGGED_PAGE_NUMBER_BITS + " page number bits.");
+        }
+        hugePages.validate(addressBits, offsetBits);
+    }
+
+    /**
+     * Build an empty page table: flat when {@link #getPageTableLevels()} is 1, radix otherwise.
+     * With huge pages, each page size gets a table of its own inside a {@link MixedPageTable}.
+     */
+    public PageTableStructure createPageTable() {
+        if (hugePages.isEmpty()) {
+            return createPageTable(0);
+        }
+        PageSizes sizes = hugePages.resolve(offsetBits);
+        PageTableStructure[] tables = new PageTableStructure[sizes.getClassCount()];
+        for (int pageClass = 0; pageClass < tables.length; pageClass++) {
+            tables[pageClass] = createPageTable(sizes.getShift(pageClass));
+        }
+        return new MixedPageTable(sizes, tables);
+    }
+
+    /**
+     * Build the table of pages 2^pageShift base pages large. A radix table drops the levels a larger page covers,
+     * so on the x86-64 layout a 2 MiB page is found after three levels and a 1 GiB page after two.
+     */
+    private PageTableStructure createPageTable(int pageShift) {
+        int pageNumberBits = addressBits - offsetBits - pageShift;
+        if (pageTableLevels == 1) {
+            return new PageTableState(1 << pageNumberBits);
+        }
+        int levelBits = (addressBits - offsetBits) / pageTableLevels;
+        int levels = Math.max(pageTableLevels - pageShift / levelBits, RadixPageTable.MIN_LEVELS);
+        if (pageNumberBits < levels) {
+            return new PageTableState(1 << pageNumberBits); // Too few huge pages to split over levels
+        }
+        return new RadixPageTable(pageNumberBits, levels);
+    }
+
+    /**
+     * Build a pipeline with freshly allocated state for this configuration.
+     * A multi-process configuration builds each process's page table the first time the process runs.
+     */
+    public TranslationPipeline createPipeline() {
+        validate();
+        TLBState tlb = new TLBState(tlbSize, tlbOrganization, tlbWays, tlbReplacement);
+        PMState pm = new PMState(frameCount, pageReplacement);
+        pm.setCleanWindow(cleanWindow);
+        PageSizes sizes = hugePages.isEmpty() ? null : hugePages.resolve(offsetBits);
+        int[] hugeShifts = hugePages.getPageShifts();
+        PMState[] hugeFrames = new PMState[hugeShifts.length];
+        for (int i = 0; i < hugeShifts.length; i++) {
+            hugeFrames[i] = new PMState(hugePages.getFrameCount(hugeShifts[i]), pageReplacement);
+            hugeFrames[i].setCleanWindow(cleanWindow);
+        }
+        TranslationPipeline pipeline;
+        if (multiProcess) {
+            SimulationConfig frozen = copy(); // Later changes to this configuration must not reach the pipeline
+            pipeline = new TranslationPipeline(tlb, new AddressSpaces(frozen::createPageTable, asidCount), pm, flushOnSwitch,
+                    sizes, hugeFrames);
+        } else {
+            pipeline = new TranslationPipeline(tlb, createPageTable(), pm, sizes, hugeFrames);
+        }
+        pipeline.setLatencyModel(latencyModel.copy());
+        if (prefetch != Prefetch.NONE) {
+            pipeline.setPrefetcher(prefetch.create(prefetchDegree), getPageCount());
+        }
+        return pipeline;
+    }
+
+    public SimulationConfig copy() {
+        return new SimulationConfig()
+                .setAddressBits(addressBits)
+                .setOffsetBits(offsetBits)
+                .setPageTableLevels(pageTableLevels)
+                .setTlbSize(tlbSize)
+                .setTlbOrganization(tlbOrganization)
+                .setTlbWays(tlbWays)
+                .setTlbReplacement(tlbReplacement)
+                .setFrameCount(frameCount)
+                .setPageReplacement(pageReplacement)
+                .setCleanWindow(cleanWindow)
+                .setPrefetch(prefetch)
+                .setPrefetchDegree(prefetchDegree)
+                .setMultiProcess(multiProcess)
+                .setAsidCount(asidCount)
+                .setFlushOnSwitch(flushOnSwitch)
+                .setFrameStripes(frameStripes)
+                .setShootdownCycles(shootdownCycles)
+                .setIpiCycles(ipiCycles)
+                .setLatencyModel(latencyModel.copy())
+                .setHugePages(hugePages.copy());
+    }
+
+    @Override
+    public String toString() {
+        return "address=" + addressBits + "b offset=" + offsetBits + "b page-table=" + (pageTableLevels == 1 ? "flat" : pageTableLevels + "-level")
+                + " tlb=" + tlbSize + " (" + tlbOrganization
+                + (tlbOrganization == TLBOrganization.SET_ASSOCIATIVE ? ", " + tlbWays + "-way" : "") + ", " + tlbReplacement + ") frames=" + frameCount
+                + " (" + pageReplacement + (cleanWindow > 0 ? ", clean window " + cleanWindow : "") + ")"
+                + (prefetch != Prefetch.NONE ? " prefetch=" + prefetch + " (degree " + prefetchDegree + ")" : "")
+                + (multiProcess ? " processes (" + (flushOnSwitch ? "flush on switch" : asidCount + " ASIDs") + ")" : "")
+                + (hugePages.isEmpty() ? "" : " huge-pages=" + hugePages);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.controller;
+
+import org.example.model.AddressLayout;
+import org.example.model.PMState;
+import org.example.model.PageTableState;
+import org.example.model.StateSnapshot;
+import org.example.model.TLBState;
+
+import javax.swing.SwingWorker;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Translates a stream of addresses on a background thread, either at a fixed rate or at full speed,
+ * and hands periodic snapshots to the event dispatch thread. The pipeline belongs to the runner until
+ * it is done: the GUI must not touch the live state in the meantime and shows the snapshots instead.
+ */
+public class SimulationRunner extends SwingWorker<SimulationStats, SimulationSnapshot> {
+    /**
+     * Run until {@link #requestStop()} is called.
+     */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int FULL_SPEED_CHUNK = 1 << 14;
+    private static final int RATE_CHUNKS_PER_SECOND = 50;
+
+    private final TranslationPipeline pipeline;
+    private final AddressLayout layout;
+    private final LongSupplier addresses;
+    private final long limit;
+    private final int rate;
+    private final Consumer<SimulationSnapshot> onSnapshot;
+    private volatile boolean stopRequested;
+
+    /**
+     * @param addresses  Source of virtual addresses; bits above the address length are ignored.
+     * @param limit      Addresses to translate, or {@link #UNLIMITED}.
+     * @param rate       Addresses per second, or 0 for full speed.
+     * @param onSnapshot Called on the event dispatch thread with the latest snapshot.
+     */
+    public SimulationRunner(TranslationPipeline pipeline, AddressLayout layout, LongSupplier addresses, long limit, int rate,
+                            Consumer<SimulationSnapshot> onSnapshot) {
+        if (!(pipeline.getPageTable() instanceof PageTableState)) {
+            throw new IllegalArgumentException("Only a flat page table can be shown while running.");
+        }
+        if (limit <= 0 || rate < 0) {
+            throw new IllegalArgumentException("The address count must be positive and the rate must not be negative.");
+        }
+        this.pipeline = pipeline;
+        this.layout = layout;
+        this.addresses = addresses;
+        this.limit = limit;
+        this.rate = rate;
+        this.onSnapshot = onSnapshot;
+    }
+
+    /**
+     * Stop after the addresses already under way. A final snapshot is still published.
+     */
+    public void requestStop() {
+        stopRequested = true;
+    }
+
+    @Override
+    protected SimulationStats doInBackground() {
+        TranslationPipeline p = pipeline;
+        AddressLayout l = layout;
+        LongSupplier source = addresses;
+        int chunk = rate > 0 ? Math.max(1, rate / RATE_CHUNKS_PER_SECOND) : FULL_SPEED_CHUNK;
+        long start = System.nanoTime();
+        long lastSnapshot = start;
+        long processed = 0;
+        while (!stopRequested && processed < limit) {
+            long count = Math.min(chunk, limit - processed);
+            for (long i = 0; i < count; i++) {
+                p.translate(l.pageNumber(source.getAsLong()));
+            }
+            processed += count;
+
+            long now = System.nanoTime();
+            if (rate > 0) {
+                long due = start + processed * TimeUnit.SECONDS.toNanos(1) / rate;
+                if (due > now) {
+                    LockSupport.parkNanos(due - now);
+                    now = System.nanoTime();
+                }
+            }
+            if (now - lastSnapshot >= SNAPSHOT_INTERVAL_NANOS) {
+                publish(snapshot(processed));
+                lastSnapshot = now;
+            }
+        }
+        publish(snapshot(processed));
+        return p.getStats().copy();
+    }
+
+    private SimulationSnapshot snapshot(long processed) {
+        TLBState tlb = pipeline.getTlb();
+        PMState pm = pipeline.getPm();
+        StateSnapshot state = StateSnapshot.capture(tlb, (PageTableState) pipeline.getPageTable(), pm);
+        return new SimulationSnapshot(state, pipeline.getStats().copy(), processed);
+    }
+
+    @Override
+    protected void process(List<SimulationSnapshot> snapshots) {
+        if (isDone()) {
+            return; // Delivered after the run ended; the GUI is already back on the live state
+        }
+        onSnapshot.accept(snapshots.get(snapshots.size() - 1)); // Older ones are already out of date
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.controller;
+
+import org.example.model.StateSnapshot;
+
+/**
+ * What a background run hands to the GUI: a copy of the tables and of the statistics at one moment.
+ */
+public final class SimulationSnapshot {
+    private final StateSnapshot state;
+    private final SimulationStats stats;
+    private final long processed;
+
+    SimulationSnapshot(StateSnapshot state, SimulationStats stats, long processed) {
+        this.state = state;
+        this.stats = stats;
+        this.processed = processed;
+    }
+
+    public StateSnapshot getState() {
+        return state;
+    }
+
+    /**
+     * @return A copy of the statistics; changing it does not affect the run.
+     */
+    public SimulationStats getStats() {
+        return stats;
+    }
+
+    /**
+     * @return Addresses translated by the run so far.
+     */
+    public long getProcessed() {
+        return processed;
+    }
+}
@@ -0,0 +1,414 @@
+package org.example.controller;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Per-phase counters of the translation pipeline, and the simulated latency of the accesses.
+ */
+public class SimulationStats {
+    private long accesses;
+    private long tlbHits;
+    private long tlbMisses;
+    private long pageTableHits;
+    private long pageFaults;
+    private long evictions;
+    private long writes;
+    private long writeBacks;
+    private long prefetches;
+    private long usefulPrefetches;
+    private long unusedPrefetches;
+    private long pollutionFaults;
+    private long walkReferences;
+    private long contextSwitches;
+    private long flushedTlbEntries;
+    private long shootdowns;
+    private long shootdownIpis;
+    private double simulatedNanos;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    void recordTlbHit() {
+        accesses++;
+        tlbHits++;
+    }
+
+    void recordTlbMiss() {
+        accesses++;
+        tlbMisses++;
+    }
+
+    void recordPageTableHit() {
+        pageTableHits++;
+    }
+
+    void recordPageFault() {
+        pageFaults++;
+    }
+
+    void recordEviction() {
+        evictions++;
+    }
+
+    void recordWrite() {
+        writes++;
+    }
+
+    void recordWriteBack() {
+        writeBacks++;
+    }
+
+    void recordPrefetch() {
+        prefetches++;
+    }
+
+    void recordUsefulPrefetch() {
+        usefulPrefetches++;
+    }
+
+    void recordUnusedPrefetch() {
+        unusedPrefetches++;
+    }
+
+    void recordPollutionFault() {
+        pollutionFaults++;
+    }
+
+    /**
+     * Add the cost of prefetching to the simulated time, charged to the access that triggered it but kept out of
+     * the latency histogram, since it overlaps with the access.
+     */
+    void recordPrefetchLatency(double nanos) {
+        simulatedNanos += nanos;
+    }
+
+    void recordWalkReferences(int references) {
+        walkReferences += references;
+    }
+
+    void recordContextSwitch() {
+        contextSwitches++;
+    }
+
+    void recordTlbFlush(int entries) {
+        flushedTlbEntries += entries;
+    }
+
+    void recordShootdown(int ipis) {
+        shootdowns++;
+        shootdownIpis += ipis;
+    }
+
+    void recordLatency(double nanos) {
+        simulatedNanos += nanos;
+        latencies.record(Math.round(nanos));
+    }
+
+    public long getAccesses() {
+        return accesses;
+    }
+
+    public long getTlbHits() {
+        return tlbHits;
+    }
+
+    public long getTlbMisses() {
+        return tlbMisses;
+    }
+
+    public long getPageTableHits() {
+        return pageTableHits;
+    }
+
+    public long getPageFaults() {
+        return pageFaults;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return Accesses that wrote to their page, which are also counted as accesses.
+     */
+    public long getWrites() {
+        return writes;
+    }
+
+    /**
+     * @return Evictions of dirty pages, which had to be written back to secondary memory.
+     */
+    public long getWriteBacks() {
+        return writeBacks;
+    }
+
+    /**
+     * @return Pages loaded by the prefetcher.
+     */
+    public long getPrefetches() {
+        return prefetches;
+    }
+
+    /**
+     * @return Prefetched pages accessed before being evicted: the page faults prefetching saved.
+     */
+    public long getUsefulPrefetches() {
+        return usefulPrefetches;
+    }
+
+    /**
+     * @return Prefetched pages evicted without ever being accessed.
+     */
+    public long getUnusedPrefetches() {
+        return unusedPrefetches;
+    }
+
+    /**
+     * @return Page faults on pages a prefetch had evicted: the misses prefetching caused. Only the last frame count
+     *         of such pages are remembered, as a page evicted longer ago would have been evicted anyway.
+     */
+    public long getPollutionFaults() {
+        return pollutionFaults;
+    }
+
+    /**
+     * @return Share of prefetched pages that were used.
+     */
+    public double getPrefetchAccuracy() {
+        return prefetches == 0 ? 0.0 : (double) usefulPrefetches / prefetches;
+    }
+
+    /**
+     * @return Share of the misses without prefetching that prefetching avoided, counting every remaining fault
+     * as one it failed to avoid.
+     */
+    public double getPrefetchCoverage() {
+        return usefulPrefetches == 0 ? 0.0 : (double) usefulPrefetches / (usefulPrefetches + pageFaults);
+    }
+
+    /**
+     * @return Page table entries read by all page walks.
+     */
+    public long getWalkReferences() {
+        return walkReferences;
+    }
+
+    /**
+     * @return Average page table entries read per page walk.
+     */
+    public double getReferencesPerWalk() {
+        return tlbMisses == 0 ? 0.0 : (double) walkReferences / tlbMisses;
+    }
+
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+
+    /**
+     * @return TLB entries dropped by flushes on context switches and by ASIDs taken back from other processes.
+     */
+    public long getFlushedTlbEntries() {
+        return flushedTlbEntries;
+    }
+
+    /**
+     * @return TLB shootdowns started, each interrupting at least one other core.
+     */
+    public long getShootdowns() {
+        return shootdowns;
+    }
+
+    /**
+     * @return Inter-processor interrupts sent by all shootdowns.
+     */
+    public long getShootdownIpis() {
+        return shootdownIpis;
+    }
+
+    /**
+     * @return Simulated time of all accesses under the latency model.
+     */
+    public double getSimulatedNanos() {
+        return simulatedNanos;
+    }
+
+    /**
+     * @return Effective access time: the mean simulated latency per access.
+     */
+    public double getEffectiveAccessNanos() {
+        return accesses == 0 ? 0.0 : simulatedNanos / accesses;
+    }
+
+    /**
+     * @return Distribution of the simulated latency per access.
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencies;
+    }
+
+    /**
+     * @return Accesses resolved without going to secondary memory (TLB or page table hits).
+     */
+    public long getHits() {
+        return tlbHits + pageTableHits;
+    }
+
+    /**
+     * @return Accesses that had to be loaded from secondary memory.
+     */
+    public long getMisses() {
+        return pageFaults;
+    }
+
+    /**
+     * @return A detached copy of the current counters.
+     */
+    public SimulationStats copy() {
+        SimulationStats copy = new SimulationStats();
+        copy.accesses = accesses;
+        copy.tlbHits = tlbHits;
+        copy.tlbMisses = tlbMisses;
+        copy.pageTableHits = pageTableHits;
+        copy.pageFaults = pageFaults;
+        copy.evictions = evictions;
+        copy.writes = writes;
+        copy.writeBacks = writeBacks;
+        copy.prefetches = prefetches;
+        copy.usefulPrefetches = usefulPrefetches;
+        copy.unusedPrefetches = unusedPrefetches;
+        copy.pollutionFaults = pollutionFaults;
+        copy.walkReferences = walkReferences;
+        copy.contextSwitches = contextSwitches;
+        copy.flushedTlbEntries = flushedTlbEntries;
+        copy.shootdowns = shootdowns;
+        copy.shootdownIpis = shootdownIpis;
+        copy.simulatedNanos = simulatedNanos;
+        copy.latencies.add(latencies);
+        return copy;
+    }
+
+    /**
+     * Add another set of counters to this one, to total the counters of several cores.
+     */
+    public void add(SimulationStats other) {
+        accesses += other.accesses;
+        tlbHits += other.tlbHits;
+        tlbMisses += other.tlbMisses;
+        pageTableHits += other.pageTableHits;
+        pageFaults += other.pageFaults;
+        evictions += other.evictions;
+        writes += other.writes;
+        writeBacks += other.writeBacks;
+        prefetches += other.prefetches;
+        usefulPrefetches += other.usefulPrefetches;
+        unusedPrefetches += other.unusedPrefetches;
+        pollutionFaults += other.pollutionFaults;
+        walkReferences += other.walkReferences;
+        contextSwitches += other.contextSwitches;
+        flushedTlbEntries += other.flushedTlbEntries;
+        shootdowns += other.shootdowns;
+        shootdownIpis += other.shootdownIpis;
+        simulatedNanos += other.simulatedNanos;
+        latencies.add(other.latencies);
+    }
+
+    public void reset() {
+        accesses = 0;
+        tlbHits = 0;
+        tlbMisses = 0;
+        pageTableHits = 0;
+        pageFaults = 0;
+        evictions = 0;
+        writes = 0;
+        writeBacks = 0;
+        prefetches = 0;
+        usefulPrefetches = 0;
+        unusedPrefetches = 0;
+        pollutionFaults = 0;
+        walkReferences = 0;
+        contextSwitches = 0;
+        flushedTlbEntries = 0;
+        shootdowns = 0;
+        shootdownIpis = 0;
+        simulatedNanos = 0;
+        latencies.reset();
+    }
+
+    void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(new long[]{accesses, tlbHits, tlbMisses, pageTableHits, pageFaults, evictions, walkReferences,
+                contextSwitches, flushedTlbEntries, shootdowns, shootdownIpis, writes, writeBacks,
+                prefetches, usefulPrefetches, unusedPrefetches, pollutionFaults});
+        out.writeDouble(simulatedNanos);
+        latencies.save(out);
+    }
+
+    void restore(CheckpointReader in) throws IOException {
+        long[] counters = new long[17];
+        in.readLongs(counters);
+        accesses = counters[0];
+        tlbHits = counters[1];
+        tlbMisses = counters[2];
+        pageTableHits = counters[3];
+        pageFaults = counters[4];
+        evictions = counters[5];
+        walkReferences = counters[6];
+        contextSwitches = counters[7];
+        flushedTlbEntries = counters[8];
+        shootdowns = counters[9];
+        shootdownIpis = counters[10];
+        writes = counters[11];
+        writeBacks = counters[12];
+        prefetches = counters[13];
+        usefulPrefetches = counters[14];
+        unusedPrefetches = counters[15];
+        pollutionFaults = counters[16];
+        simulatedNanos = in.readDouble();
+        latencies.restore(in);
+    }
+
+    /**
+     * Format a summary of the counters.
+     *
+     * @param elapsedNanos Wall-clock time the accesses took, used for throughput.
+     */
+    public String report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Accesses:         %,d%n", accesses));
+        sb.append(String.format("Elapsed:          %.3f s%n", seconds));
+        sb.append(String.format("Throughput:       %,.0f accesses/s%n", seconds > 0 ? accesses / seconds : 0.0));
+        sb.append(String.format("TLB hits:         %,d (%.2f%%)%n", tlbHits, percent(tlbHits, accesses)));
+        sb.append(String.format("TLB misses:       %,d (%.2f%%)%n", tlbMisses, percent(tlbMisses, accesses)));
+        sb.append(String.format("Page table hits:  %,d (%.2f%% of TLB misses)%n", pageTableHits, percent(pageTableHits, tlbMisses)));
+        sb.append(String.format("Page faults:      %,d (%.2f%%)%n", pageFaults, percent(pageFaults, accesses)));
+        sb.append(String.format("Walk references:  %,d (%.2f per walk)%n", walkReferences, getReferencesPerWalk()));
+        sb.append(String.format("Evictions:        %,d%n", evictions));
+        if (writes > 0) {
+            sb.append(String.format("Writes:           %,d (%.2f%%)%n", writes, percent(writes, accesses)));
+            sb.append(String.format("Write-backs:      %,d (%.2f%% of evictions)%n", writeBacks, percent(writeBacks, evictions)));
+        }
+        if (prefetches > 0) {
+            sb.append(String.format("Prefetches:       %,d (%,d used, accuracy %.2f%%)%n", prefetches, usefulPrefetches, getPrefetchAccuracy() * 100));
+            sb.append(String.format("Coverage:         %.2f%% of misses avoided%n", getPrefetchCoverage() * 100));
+            sb.append(String.format("Pollution:        %,d evicted unused, %,d faults on displaced pages%n", unusedPrefetches, pollutionFaults));
+        }
+        sb.append(String.format("Effective access: %s (simulated time %s)%n",
+                LatencyHistogram.formatNanos(getEffectiveAccessNanos()), LatencyHistogram.formatNanos(simulatedNanos)));
+        sb.append(String.format("Latency p50/p99:  %s / %s (p99.9 %s, max %s)%n",
+                LatencyHistogram.formatNanos(latencies.getPercentile(50)), LatencyHistogram.formatNanos(latencies.getPercentile(99)),
+                LatencyHistogram.formatNanos(latencies.getPercentile(99.9)), LatencyHistogram.formatNanos(latencies.getMax())));
+        sb.append("Latency histogram:").append(String.format("%n")).append(latencies.format());
+        if (contextSwitches > 0) {
+            sb.append(String.format("Context switches: %,d (%,d TLB entries flushed)%n", contextSwitches, flushedTlbEntries));
+        }
+        if (shootdowns > 0) {
+            sb.append(String.format("TLB shootdowns:   %,d (%,d IPIs)%n", shootdowns, shootdownIpis));
+        }
+        return sb.toString();
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0.0 : part * 100.0 / whole;
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.controller;
+
+import org.example.model.AddressLayout;
+import org.example.model.LongIntIndex;
+import org.example.trace.AddressTrace;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Computes the LRU miss-ratio curve of a trace in one pass, using Mattson stack distances.
+ * The stack distance of an access is the number of distinct pages touched since the previous access to the
+ * same page; an LRU cache of {@code c} pages hits exactly the accesses whose distance is below {@code c}.
+ * <p>
+ * Distances are counted with a Fenwick tree over access positions in which only the latest access of
+ * each page is marked, so every access costs O(log M) for M distinct pages. When the positions run out
+ * the live marks are renumbered in order, which keeps the tree at O(M) entries however long the trace is.
+ */
+public class StackDistanceAnalyzer {
+    private static final int BATCH_SIZE = 8192;
+    private static final int MIN_POSITIONS = 1024;
+    private static final long NO_PAGE = -1L;
+
+    private final int maxCapacity;
+    private final long[] histogram;
+    private final LongIntIndex lastPosition;
+    private long[] pageAt;
+    private int[] tree;
+    private int next;
+    private int distinctPages;
+    private long accesses;
+    private long coldMisses;
+
+    /**
+     * @param maxCapacity Largest cache size the curve covers; longer distances only count as misses.
+     */
+    public StackDistanceAnalyzer(int maxCapacity) {
+        this(maxCapacity, MIN_POSITIONS);
+    }
+
+    StackDistanceAnalyzer(int maxCapacity, int positions) {
+        if (maxCapacity <= 0) {
+            throw new IllegalArgumentException("Maximum capacity must be a positive integer: " + maxCapacity);
+        }
+        this.maxCapacity = maxCapacity;
+        this.histogram = new long[maxCapacity];
+        this.lastPosition = new LongIntIndex(positions);
+        this.pageAt = new long[positions];
+        this.tree = new int[positions + 1];
+        Arrays.fill(pageAt, NO_PAGE);
+    }
+
+    /**
+     * Record an access to a virtual page.
+     */
+    public void access(long vpn) {
+        if (next == pageAt.length) {
+            compact();
+        }
+        accesses++;
+        int previous = lastPosition.get(vpn);
+        if (previous == LongIntIndex.ABSENT) {
+            coldMisses++;
+            distinctPages++;
+        } else {
+            long distance = prefixSum(next - 1) - prefixSum(previous);
+            if (distance < maxCapacity) {
+                histogram[(int) distance]++; // Longer distances miss at every capacity of the curve
+            }
+            add(previous, -1);
+            pageAt[previous] = NO_PAGE;
+        }
+        add(next, 1);
+        pageAt[next] = vpn;
+        lastPosition.put(vpn, next);
+        next++;
+    }
+
+    /**
+     * Record the page of every address of a trace.
+     */
+    public void analyze(AddressTrace trace, AddressLayout layout) throws IOException {
+        long[] batch = new long[BATCH_SIZE];
+        int count;
+        while ((count = trace.next(batch)) >= 0) {
+            analyze(batch, 0, count, layout);
+        }
+    }
+
+    /**
+     * Record the page of a slice of an address array.
+     */
+    public void analyze(long[] addresses, int from, int to, AddressLayout layout) {
+        long mask = layout.getAddressMask();
+        int shift = layout.getOffsetBits();
+        for (int i = from; i < to; i++) {
+            access((addresses[i] & mask) >>> shift);
+        }
+    }
+
+    public long getAccesses() {
+        return accesses;
+    }
+
+    public long getDistinctPages() {
+        return distinctPages;
+    }
+
+    public MissRatioCurve getCurve() {
+        return new MissRatioCurve(histogram, accesses, coldMisses);
+    }
+
+    /**
+     * Renumber the latest access of every page to positions 0..M-1, keeping their order.
+     */
+    private void compact() {
+        int positions = Math.max(MIN_POSITIONS, distinctPages * 2);
+        long[] pages = new long[positions];
+        Arrays.fill(pages, NO_PAGE);
+        int live = 0;
+        for (int position = 0; position < next; position++) {
+            long page = pageAt[position];
+            if (page != NO_PAGE) {
+                pages[live] = page;
+                lastPosition.put(page, live);
+                live++;
+            }
+        }
+        pageAt = pages;
+        next = live;
+        tree = new int[positions + 1];
+        for (int node = 1; node <= positions; node++) {
+            // Linear-time Fenwick build: ones at the live positions, each node handing its total to its parent.
+            if (node <= live) {
+                tree[node] += 1;
+            }
+            int parent = node + (node & -node);
+            if (parent <= positions) {
+                tree[parent] += tree[node];
+            }
+        }
+    }
+
+    private void add(int position, int delta) {
+        for (int node = position + 1; node < tree.length; node += node & -node) {
+            tree[node] += delta;
+        }
+    }
+
+    /**
+     * @return Marks at positions 0..position inclusive.
+     */
+    private long prefixSum(int position) {
+        long sum = 0;
+        for (int node = position + 1; node > 0; node -= node & -node) {
+            sum += tree[node];
+        }
+        return sum;
+    }
+}
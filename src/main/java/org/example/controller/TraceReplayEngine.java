@@ -0,0 +1,231 @@
+package org.example.controller;
+
+import org.example.model.AddressLayout;
+import org.example.trace.AddressTrace;
+import org.example.trace.BinaryTraceFormat;
+import org.example.trace.MappedTraceReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Replays a whole address trace through a {@link TranslationPipeline} in one tight loop, without any view.
+ * For a multi-process configuration, a record whose process id differs from the previous one is a context switch.
+ * Records typed as writes mark their pages dirty; reads, fetches and untyped records do not.
+ */
+public class TraceReplayEngine {
+    private static final int BATCH_SIZE = 8192;
+
+    private final TranslationPipeline pipeline;
+    private final SimulationConfig config;
+    private final int offsetBits;
+    private final long addressMask;
+    private final boolean multiProcess;
+    private long elapsedNanos;
+    private long recordsReplayed;
+
+    public TraceReplayEngine(SimulationConfig config) {
+        this(config.createPipeline(), config);
+    }
+
+    public TraceReplayEngine(TranslationPipeline pipeline, SimulationConfig config) {
+        AddressLayout layout = config.getAddressLayout();
+        this.pipeline = pipeline;
+        this.config = config.copy();
+        this.offsetBits = layout.getOffsetBits();
+        this.addressMask = layout.getAddressMask();
+        this.multiProcess = config.isMultiProcess();
+    }
+
+    public TranslationPipeline getPipeline() {
+        return pipeline;
+    }
+
+    public SimulationStats getStats() {
+        return pipeline.getStats();
+    }
+
+    /**
+     * @return A copy of the configuration the engine was built for.
+     */
+    public SimulationConfig getConfig() {
+        return config.copy();
+    }
+
+    /**
+     * @return Records of the trace replayed so far: the position to resume from after a checkpoint.
+     */
+    public long getRecordsReplayed() {
+        return recordsReplayed;
+    }
+
+    /**
+     * Carry on the counters of a run restored from a checkpoint.
+     */
+    void setProgress(long recordsReplayed, long elapsedNanos) {
+        this.recordsReplayed = recordsReplayed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Wall-clock time spent in {@link #replay(AddressTrace)} so far.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Translate every address of the trace.
+     *
+     * @return The statistics accumulated by the pipeline.
+     */
+    public SimulationStats replay(AddressTrace trace) throws IOException {
+        if (trace instanceof MappedTraceReader && !multiProcess) {
+            return replay((MappedTraceReader) trace);
+        }
+        long[] batch = new long[BATCH_SIZE];
+        byte[] accessTypes = new byte[BATCH_SIZE];
+        int[] processIds = multiProcess ? new int[BATCH_SIZE] : null;
+        long start = System.nanoTime();
+        int count;
+        while ((count = trace.next(batch, accessTypes, processIds)) >= 0) {
+            if (multiProcess) {
+                replay(batch, accessTypes, processIds, 0, count);
+            } else {
+                replay(batch, accessTypes, 0, count);
+            }
+        }
+        elapsedNanos += System.nanoTime() - start;
+        return pipeline.getStats();
+    }
+
+    /**
+     * Translate at most the given number of records of the trace, so a long run can stop for a checkpoint.
+     *
+     * @return The number of records translated, fewer than asked only at the end of the trace.
+     */
+    public long replay(AddressTrace trace, long maxRecords) throws IOException {
+        long[] batch = new long[(int) Math.min(Math.max(maxRecords, 1), BATCH_SIZE)];
+        byte[] accessTypes = new byte[batch.length];
+        int[] processIds = multiProcess ? new int[batch.length] : null;
+        long start = System.nanoTime();
+        long done = 0;
+        while (done < maxRecords) {
+            if (maxRecords - done < batch.length) {
+                batch = new long[(int) (maxRecords - done)];
+                accessTypes = new byte[batch.length];
+                processIds = multiProcess ? new int[batch.length] : null;
+            }
+            int count = trace.next(batch, accessTypes, processIds);
+            if (count < 0) {
+                break;
+            }
+            if (multiProcess) {
+                replay(batch, accessTypes, processIds, 0, count);
+            } else {
+                replay(batch, accessTypes, 0, count);
+            }
+            done += count;
+        }
+        elapsedNanos += System.nanoTime() - start;
+        return done;
+    }
+
+    /**
+     * Translate every record of a mapped binary trace, reading addresses straight out of the mapping.
+     *
+     * @return The statistics accumulated by the pipeline.
+     */
+    public SimulationStats replay(MappedTraceReader trace) throws IOException {
+        BinaryTraceFormat format = trace.getFormat();
+        int recordSize = format.getRecordSize();
+        boolean wide = format.getAddressBytes() == 8;
+        int typeOffset = format.hasAccessType() ? format.accessTypeOffset() : -1;
+        TranslationPipeline p = pipeline;
+        int shift = offsetBits;
+        long mask = addressMask;
+
+        long start = System.nanoTime();
+        ByteBuffer chunk;
+        while ((chunk = trace.nextChunk()) != null) {
+            int limit = chunk.limit();
+            recordsReplayed += limit / recordSize;
+            if (typeOffset >= 0) {
+                for (int pos = 0; pos < limit; pos += recordSize) {
+                    long address = wide ? chunk.getLong(pos) : chunk.getInt(pos) & 0xFFFFFFFFL;
+                    p.translate((address & mask) >>> shift, chunk.get(pos + typeOffset) == BinaryTraceFormat.ACCESS_WRITE);
+                }
+            } else if (wide) {
+                for (int pos = 0; pos < limit; pos += recordSize) {
+                    p.translate((chunk.getLong(pos) & mask) >>> shift);
+                }
+            } else {
+                for (int pos = 0; pos < limit; pos += recordSize) {
+                    p.translate((chunk.getInt(pos) & 0xFFFFFFFFL & mask) >>> shift);
+                }
+            }
+        }
+        elapsedNanos += System.nanoTime() - start;
+        return pipeline.getStats();
+    }
+
+    /**
+     * Translate a slice of an address array.
+     */
+    public void replay(long[] addresses, int from, int to) {
+        TranslationPipeline p = pipeline;
+        int shift = offsetBits;
+        long mask = addressMask; // Bits above the address length are ignored, as in the GUI
+        for (int i = from; i < to; i++) {
+            p.translate((addresses[i] & mask) >>> shift);
+        }
+        recordsReplayed += to - from;
+    }
+
+    /**
+     * Translate a slice of an address array, marking the pages of writes dirty.
+     *
+     * @param accessTypes The {@link BinaryTraceFormat} access type of each address.
+     */
+    public void replay(long[] addresses, byte[] accessTypes, int from, int to) {
+        TranslationPipeline p = pipeline;
+        int shift = offsetBits;
+        long mask = addressMask;
+        for (int i = from; i < to; i++) {
+            p.translate((addresses[i] & mask) >>> shift, accessTypes[i] == BinaryTraceFormat.ACCESS_WRITE);
+        }
+        recordsReplayed += to - from;
+    }
+
+    /**
+     * Translate a slice of an address array, switching to each record's process first.
+     */
+    public void replay(long[] addresses, int[] processIds, int from, int to) {
+        TranslationPipeline p = pipeline;
+        int shift = offsetBits;
+        long mask = addressMask;
+        for (int i = from; i < to; i++) {
+            p.switchTo(processIds[i]);
+            p.translate((addresses[i] & mask) >>> shift);
+        }
+        recordsReplayed += to - from;
+    }
+
+    /**
+     * Translate a slice of an address array, switching to each record's process first and marking the pages of writes dirty.
+     */
+    public void replay(long[] addresses, byte[] accessTypes, int[] processIds, int from, int to) {
+        TranslationPipeline p = pipeline;
+        int shift = offsetBits;
+        long mask = addressMask;
+        for (int i = from; i < to; i++) {
+            p.switchTo(processIds[i]);
+            p.translate((addresses[i] & mask) >>> shift, accessTypes[i] == BinaryTraceFormat.ACCESS_WRITE);
+        }
+        recordsReplayed += to - from;
+    }
+
+    public String report() {
+        return pipeline.getStats().report(elapsedNanos);
+    }
+}
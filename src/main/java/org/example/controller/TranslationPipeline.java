@@ -0,0 +1,657 @@
+package org.example.controller;
+
+import org.example.model.AddressSpaces;
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+import org.example.model.FrameStore;
+import org.example.model.LongIntIndex;
+import org.example.model.PMState;
+import org.example.model.PageSizes;
+import org.example.model.PageTableState;
+import org.example.model.PageTableStructure;
+import org.example.model.SwapDevice;
+import org.example.model.TLBState;
+import org.example.model.policy.GhostList;
+import org.example.model.prefetch.Prefetcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The TLB -> page table -> frame load pipeline, free of any view dependency.
+ * Each phase can be driven separately (as the step-by-step GUI does) or all at once through {@link #translate(long)}.
+ * <p>
+ * A pipeline built over {@link AddressSpaces} runs many processes: {@link #switchTo(int)} makes another process
+ * current, and the phases then use its page table and tag TLB entries with its ASID. Frames are shared,
+ * so loading a page may evict a page of any process.
+ * <p>
+ * Given {@link PageSizes}, some regions are mapped with huge pages. The size of a page is found before the TLB is
+ * read; one TLB entry then covers a whole huge page, and huge pages are loaded into frame pools of their own size.
+ * Frames are numbered across pools: the base pool first, then each huge page size in turn.
+ * <p>
+ * A write sets the dirty bit of the frame it lands in, and loading a page over a dirty victim adds the cost of
+ * writing the victim back to the fault.
+ * <p>
+ * With a {@link SwapDevice} attached, frames hold real bytes in {@link FrameStore}s and every fault pages through
+ * the swap file: a dirty victim is written out and the new page read in, so the device's I/O time can be measured
+ * next to the modelled latency.
+ * <p>
+ * With a {@link Prefetcher}, every demand fault on a base page and every first use of a prefetched page is shown
+ * to the prefetcher once the access has completed, and the pages it predicts are loaded through the same frame
+ * allocation and replacement policy as faults. They are mapped in the page table but not cached in the TLB.
+ */
+public class TranslationPipeline {
+    private final TLBState tlb;
+    private final PMState pm;
+    private final AddressSpaces spaces;
+    private final boolean flushOnSwitch;
+    private final PageSizes sizes;
+    private final PMState[] pools;
+    private final int[] frameBases;
+    private final long[] pageMasks;
+    private final SimulationStats stats = new SimulationStats();
+    private LatencyModel latency = new LatencyModel();
+    private PageTableStructure pageTable;
+    private FrameStore[] frameStores;
+    private SwapDevice swap;
+    private Prefetcher prefetcher;
+    private long[] predicted;
+    private long pageLimit;
+    private GhostList prefetchVictims; // Pages prefetches pushed out, the last frame count of them
+    private boolean prefetchPending;
+    private long prefetchTrigger;
+    private boolean prefetchTriggerWasHit;
+    private int processId;
+    private int processSlot;
+    private int asid;
+
+    /**
+     * A single-process pipeline: every page belongs to process 0 and TLB entries are untagged.
+     */
+    public TranslationPipeline(TLBState tlb, PageTableStructure pageTable, PMState pm) {
+        this(tlb, pageTable, pm, null, new PMState[0]);
+    }
+
+    /**
+     * A single-process pipeline mixing page sizes.
+     *
+     * @param pageTable  A table taking base page numbers for every size, such as a {@link org.example.model.MixedPageTable}.
+     * @param hugeFrames The frame pool of each huge page size class, smallest size first.
+     */
+    public TranslationPipeline(TLBState tlb, PageTableStructure pageTable, PMState pm, PageSizes sizes, PMState[] hugeFrames) {
+        this.tlb = tlb;
+        this.pageTable = pageTable;
+        this.pm = pm;
+        this.spaces = null;
+        this.flushOnSwitch = false;
+        this.sizes = sizes;
+        this.pools = pools(pm, sizes, hugeFrames);
+        this.frameBases = frameBases(pools);
+        this.pageMasks = pageMasks(sizes);
+    }
+
+    /**
+     * A multi-process pipeline, starting with process 0 current.
+     *
+     * @param flushOnSwitch Flush the whole TLB on every context switch instead of relying on ASIDs.
+     */
+    public TranslationPipeline(TLBState tlb, AddressSpaces spaces, PMState pm, boolean flushOnSwitch) {
+        this(tlb, spaces, pm, flushOnSwitch, null, new PMState[0]);
+    }
+
+    /**
+     * A multi-process pipeline mixing page sizes, starting with process 0 current.
+     *
+     * @param hugeFrames The frame pool of each huge page size class, smallest size first, shared by every process.
+     */
+    public TranslationPipeline(TLBState tlb, AddressSpaces spaces, PMState pm, boolean flushOnSwitch, PageSizes sizes, PMState[] hugeFrames) {
+        this.tlb = tlb;
+        this.pm = pm;
+        this.spaces = spaces;
+        this.flushOnSwitch = flushOnSwitch;
+        this.sizes = sizes;
+        this.pools = pools(pm, sizes, hugeFrames);
+        this.frameBases = frameBases(pools);
+        this.pageMasks = pageMasks(sizes);
+        activate(0);
+    }
+
+    private static PMState[] pools(PMState pm, PageSizes sizes, PMState[] hugeFrames) {
+        int classes = sizes != null ? sizes.getClassCount() : 1;
+        if (hugeFrames.length != classes - 1) {
+            throw new IllegalArgumentException("Every huge page size needs a frame pool: " + hugeFrames.length + " for " + (classes - 1));
+        }
+        PMState[] pools = new PMState[classes];
+        pools[PageSizes.BASE] = pm;
+        System.arraycopy(hugeFrames, 0, pools, 1, hugeFrames.length);
+        return pools;
+    }
+
+    private static int[] frameBases(PMState[] pools) {
+        int[] bases = new int[pools.length];
+        long next = 0;
+        for (int i = 0; i < pools.length; i++) {
+            bases[i] = (int) next;
+            next += pools[i].size();
+        }
+        if (next > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Frame pools hold more than " + Integer.MAX_VALUE + " frames.");
+        }
+        return bases;
+    }
+
+    private static long[] pageMasks(PageSizes sizes) {
+        long[] masks = new long[sizes != null ? sizes.getClassCount() : 1];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = -1L << (sizes != null ? sizes.getShift(i) : 0);
+        }
+        return masks;
+    }
+
+    public TLBState getTlb() {
+        return tlb;
+    }
+
+    /**
+     * @return The page table of the current process.
+     */
+    public PageTableStructure getPageTable() {
+        return pageTable;
+    }
+
+    /**
+     * @return The processes of a multi-process pipeline, or null.
+     */
+    public AddressSpaces getAddressSpaces() {
+        return spaces;
+    }
+
+    public int getProcessId() {
+        return processId;
+    }
+
+    /**
+     * @return Page table bytes allocated by every process.
+     */
+    public long getAllocatedPageTableBytes() {
+        return spaces != null ? spaces.getAllocatedBytes() : pageTable.getAllocatedBytes();
+    }
+
+    /**
+     * Make another process current, counting a context switch if it differs from the current one.
+     * Its TLB entries survive the switch unless the pipeline flushes on switch or its ASID was taken back.
+     *
+     * @throws IllegalStateException if the pipeline was built for a single process.
+     */
+    public void switchTo(int processId) {
+        if (processId == this.processId) {
+            return;
+        }
+        if (spaces == null) {
+            throw new IllegalStateException("A single-process pipeline cannot switch to process " + processId + ".");
+        }
+        stats.recordContextSwitch();
+        if (flushOnSwitch) {
+            stats.recordTlbFlush(tlb.flushAll());
+        }
+        activate(processId);
+    }
+
+    private void activate(int processId) {
+        int slot = spaces.slotOf(processId);
+        int asid = spaces.assignAsid(slot);
+        if (spaces.getLastRecycled() != AddressSpaces.NO_PROCESS) {
+            stats.recordTlbFlush(tlb.flush(asid)); // The previous holder's entries must not leak into this process
+        }
+        this.pageTable = spaces.getPageTable(slot);
+        this.processId = processId;
+        this.processSlot = slot;
+        this.asid = asid;
+    }
+
+    public PMState getPm() {
+        return pm;
+    }
+
+    /**
+     * @return The page sizes of a pipeline mixing them, or null if every page has the base size.
+     */
+    public PageSizes getPageSizes() {
+        return sizes;
+    }
+
+    /**
+     * @return The frame pool of a page size class; class 0 is {@link #getPm()}.
+     */
+    public PMState getFramePool(int pageClass) {
+        return pools[pageClass];
+    }
+
+    private int classOf(long vpn) {
+        return sizes == null ? PageSizes.BASE : sizes.classOf(vpn);
+    }
+
+    /**
+     * Back every frame pool with off-heap memory and page through a swap device from now on.
+     * The caller keeps ownership of the device and closes it.
+     *
+     * @param offsetBits Width of the base page offset, which sets the frame sizes.
+     * @throws IllegalArgumentException if the frames cannot be allocated.
+     */
+    public void attachSwap(SwapDevice swap, int offsetBits) {
+        FrameStore[] stores = new FrameStore[pools.length];
+        for (int i = 0; i < pools.length; i++) {
+            stores[i] = new FrameStore(pools[i].size(), 1L << (offsetBits + pageShift(i)));
+        }
+        this.frameStores = stores;
+        this.swap = swap;
+    }
+
+    /**
+     * Stop backing frames with bytes. The swap device is left open for its owner to close.
+     */
+    public void detachSwap() {
+        this.frameStores = null;
+        this.swap = null;
+    }
+
+    /**
+     * @return The swap device pages go through, or null if frames hold no bytes.
+     */
+    public SwapDevice getSwap() {
+        return swap;
+    }
+
+    /**
+     * @return The bytes of the frames of a page size class, or null without a swap device.
+     */
+    public FrameStore getFrameStore(int pageClass) {
+        return frameStores != null ? frameStores[pageClass] : null;
+    }
+
+    /**
+     * Prefetch after every fault and every first use of a prefetched page from now on, or stop with null.
+     *
+     * @param pageCount Base pages in the address space; predictions beyond it are dropped.
+     */
+    public void setPrefetcher(Prefetcher prefetcher, long pageCount) {
+        this.prefetcher = prefetcher;
+        this.predicted = prefetcher != null ? new long[prefetcher.getDegree()] : null;
+        this.pageLimit = pageCount;
+        this.prefetchVictims = prefetcher != null ? new GhostList(pm.size()) : null;
+        this.prefetchPending = false;
+    }
+
+    /**
+     * @return The prefetcher, or null if pages are only loaded on demand.
+     */
+    public Prefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    private void touchFrame(int pageClass, int frame) {
+        pools[pageClass].touch(frame - frameBases[pageClass]);
+    }
+
+    /**
+     * Count a write to a translated page and set the dirty bit of its frame.
+     *
+     * @param frame The frame the phases translated the page to.
+     */
+    public void recordWrite(long vpn, int frame) {
+        writeFrame(classOf(vpn), frame);
+    }
+
+    private void writeFrame(int pageClass, int frame) {
+        stats.recordWrite();
+        pools[pageClass].markDirty(frame - frameBases[pageClass]);
+        if (frameStores != null) {
+            frameStores[pageClass].recordWrite(frame - frameBases[pageClass]);
+        }
+    }
+
+    public SimulationStats getStats() {
+        return stats;
+    }
+
+    public LatencyModel getLatencyModel() {
+        return latency;
+    }
+
+    /**
+     * Use other step costs for the latencies recorded from now on.
+     */
+    public void setLatencyModel(LatencyModel latency) {
+        latency.validate();
+        this.latency = latency;
+    }
+
+    /**
+     * Phase 1: look the virtual page up in the TLB.
+     *
+     * @return The cached frame, or {@link PageTableState#NO_FRAME} on a TLB miss.
+     */
+    public int lookupTlb(long vpn) {
+        return lookupTlb(classOf(vpn), vpn);
+    }
+
+    private int lookupTlb(int pageClass, long vpn) {
+        int slot = tlb.lookup(asid, vpn & pageMasks[pageClass]);
+        if (slot != TLBState.MISS) {
+            stats.recordTlbHit();
+            stats.recordLatency(latency.tlbHitLatency());
+            int frame = tlb.getFrame(slot);
+            tlb.touch(slot);
+            touchFrame(pageClass, frame);
+            return frame;
+        }
+        stats.recordTlbMiss();
+        return PageTableState.NO_FRAME;
+    }
+
+    /**
+     * Phase 2: walk the page table, caching the translation in the TLB on a hit.
+     * The memory references of the walk are added to the statistics.
+     *
+     * @return The mapped frame, or {@link PageTableState#NO_FRAME} on a page fault.
+     */
+    public int walkPageTable(long vpn) {
+        return walkPageTable(classOf(vpn), vpn);
+    }
+
+    private int walkPageTable(int pageClass, long vpn) {
+        int frame = pageTable.lookup(vpn);
+        stats.recordWalkReferences(pageTable.getLastWalkReferences());
+        if (frame != PageTableState.NO_FRAME) {
+            stats.recordPageTableHit();
+            stats.recordLatency(latency.pageTableHitLatency(pageTable.getLastWalkReferences()));
+            touchFrame(pageClass, frame);
+            tlb.insert(asid, vpn & pageMasks[pageClass], frame, pageShift(pageClass));
+            if (prefetcher != null && pageClass == PageSizes.BASE && pm.clearPrefetched(frame)) {
+                stats.recordUsefulPrefetch();
+                requestPrefetch(vpn, true);
+            }
+        } else {
+            stats.recordPageFault();
+        }
+        return frame;
+    }
+
+    /**
+     * Phase 3: load the page from secondary memory into a frame and map it.
+     * If the replacement policy evicts a page, its page table and TLB entries are invalidated,
+     * and a dirty victim adds a write-back to the latency of the fault. With a swap device, the victim is written
+     * out if dirty and the page read in.
+     * A huge page is loaded whole into a frame of its pool, which only evicts another huge page of its size.
+     *
+     * @return The frame the page was loaded into.
+     */
+    public int loadPage(long vpn) {
+        return loadPage(classOf(vpn), vpn);
+    }
+
+    private int loadPage(int pageClass, long vpn) {
+        double nanos = latency.pageFaultLatency(pageTable.getLastWalkReferences());
+        long page = vpn & pageMasks[pageClass];
+        int frame = install(pageClass, page);
+        if (pools[pageClass].wasLastEvictedDirty()) {
+            nanos += latency.getWriteBackNanos();
+        }
+        stats.recordLatency(nanos);
+        pageTable.map(vpn, frame);
+        tlb.insert(asid, page, frame, pageShift(pageClass));
+        if (prefetcher != null) {
+            long key = PMState.policyKey(processSlot, page);
+            if (prefetchVictims.remove(key)) {
+                stats.recordPollutionFault();
+            }
+            if (pageClass == PageSizes.BASE) {
+                requestPrefetch(vpn, false);
+            }
+        }
+        return frame;
+    }
+
+    /**
+     * Load a page into a frame of its pool, evicting and unmapping the victim the policy chooses.
+     *
+     * @return The frame the page was loaded into, not yet mapped.
+     */
+    private int install(int pageClass, long page) {
+        PMState pool = pools[pageClass];
+        int frame = frameBases[pageClass] + pool.allocate(processId, page, PMState.policyKey(processSlot, page));
+        long victim = pool.getLastEvicted();
+        if (swap != null) {
+            swapPage(pageClass, frame - frameBases[pageClass], victim, page);
+        }
+        if (victim != PMState.FREE) {
+            stats.recordEviction();
+            if (pool.wasLastEvictedDirty()) {
+                stats.recordWriteBack();
+            }
+            if (pool.wasLastEvictedPrefetched()) {
+                stats.recordUnusedPrefetch();
+            }
+            int owner = pool.getLastEvictedProcess();
+            if (owner == processId) {
+                pageTable.invalidate(victim);
+                tlb.invalidate(asid, victim);
+            } else {
+                evictForeign(owner, victim);
+            }
+        }
+        return frame;
+    }
+
+    private void requestPrefetch(long vpn, boolean prefetchHit) {
+        prefetchPending = true;
+        prefetchTrigger = vpn;
+        prefetchTriggerWasHit = prefetchHit;
+    }
+
+    /**
+     * Phase 4: once an access has completed, show it to the prefetcher if it faulted or was the first use of a
+     * prefetched page, and load the base pages predicted that are not resident. Each costs the transfer of a page,
+     * and a write-back for a dirty victim, added to the simulated time.
+     *
+     * @return The number of pages prefetched.
+     */
+    public int prefetch() {
+        if (!prefetchPending) {
+            return 0;
+        }
+        prefetchPending = false;
+        int count = prefetcher.onMiss(processId, prefetchTrigger, prefetchTriggerWasHit, predicted);
+        double nanos = 0;
+        int loaded = 0;
+        for (int i = 0; i < count; i++) {
+            long page = predicted[i];
+            if (Long.compareUnsigned(page, pageLimit) >= 0 || classOf(page) != PageSizes.BASE
+                    || pageTable.lookup(page) != PageTableState.NO_FRAME) {
+                continue;
+            }
+            int frame = install(PageSizes.BASE, page);
+            pm.markPrefetched(frame);
+            nanos += latency.getPrefetchNanos();
+            if (pm.getLastEvicted() != PMState.FREE) {
+                int owner = pm.getLastEvictedProcess();
+                prefetchVictims.addFirst(PMState.policyKey(spaces != null ? spaces.findSlot(owner) : 0, pm.getLastEvicted()));
+                if (pm.wasLastEvictedDirty()) {
+                    nanos += latency.getWriteBackNanos();
+                }
+            }
+            prefetchVictims.remove(PMState.policyKey(processSlot, page));
+            pageTable.map(page, frame);
+            stats.recordPrefetch();
+            loaded++;
+        }
+        stats.recordPrefetchLatency(nanos);
+        return loaded;
+    }
+
+    private void swapPage(int pageClass, int localFrame, long victim, long page) {
+        PMState pool = pools[pageClass];
+        FrameStore store = frameStores[pageClass];
+        try {
+            if (victim != PMState.FREE && pool.wasLastEvictedDirty()) {
+                swap.pageOut(pool.getLastEvictedProcess(), victim, store.frame(localFrame));
+            }
+            swap.pageIn(processId, page, store.frame(localFrame));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private int pageShift(int pageClass) {
+        return sizes == null ? 0 : sizes.getShift(pageClass);
+    }
+
+    /**
+     * Unmap a page of another process. Its TLB entry only exists if the process still holds an ASID.
+     */
+    private void evictForeign(int owner, long victim) {
+        int slot = spaces.findSlot(owner);
+        if (slot == LongIntIndex.ABSENT) {
+            return;
+        }
+        spaces.getPageTable(slot).invalidate(victim);
+        int ownerAsid = spaces.getAsid(slot);
+        if (ownerAsid != AddressSpaces.NO_ASID) {
+            tlb.invalidate(ownerAsid, victim);
+        }
+    }
+
+    /**
+     * Run all phases for one access.
+     *
+     * @return The frame the virtual page was found or loaded in.
+     */
+    public int translate(long vpn) {
+        int pageClass = classOf(vpn);
+        int frame = lookupTlb(pageClass, vpn);
+        if (frame != PageTableState.NO_FRAME) {
+            return frame;
+        }
+        frame = walkPageTable(pageClass, vpn);
+        if (frame == PageTableState.NO_FRAME) {
+            frame = loadPage(pageClass, vpn);
+        }
+        if (prefetchPending) {
+            prefetch();
+        }
+        return frame;
+    }
+
+    /**
+     * Run all phases for one access, marking the page dirty if it is a write.
+     *
+     * @return The frame the virtual page was found or loaded in.
+     */
+    public int translate(long vpn, boolean write) {
+        int pageClass = classOf(vpn);
+        int frame = lookupTlb(pageClass, vpn);
+        if (frame == PageTableState.NO_FRAME) {
+            frame = walkPageTable(pageClass, vpn);
+            if (frame == PageTableState.NO_FRAME) {
+                frame = loadPage(pageClass, vpn);
+            }
+        }
+        if (write) {
+            writeFrame(pageClass, frame);
+        }
+        if (prefetchPending) {
+            prefetch();
+        }
+        return frame;
+    }
+
+    /**
+     * Write the TLB, page tables, frames, replacement bookkeeping, prefetcher state and statistics to a checkpoint.
+     */
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeBoolean(spaces != null);
+        tlb.save(out);
+        for (PMState pool : pools) {
+            pool.save(out);
+        }
+        stats.save(out);
+        out.writeBoolean(prefetcher != null);
+        if (prefetcher != null) {
+            prefetcher.save(out);
+            prefetchVictims.save(out);
+        }
+        if (spaces != null) {
+            spaces.save(out);
+            out.writeInt(processId);
+        } else {
+            pageTable.save(out);
+        }
+    }
+
+    /**
+     * Replace the whole state with one saved from a pipeline built from the same configuration.
+     */
+    public void restore(CheckpointReader in) throws IOException {
+        if (in.readBoolean() != (spaces != null)) {
+            throw new IOException("The checkpoint was saved with " + (spaces != null ? "a single process." : "many processes."));
+        }
+        tlb.restore(in);
+        for (PMState pool : pools) {
+            pool.restore(in);
+        }
+        stats.restore(in);
+        if (in.readBoolean() != (prefetcher != null)) {
+            throw new IOException("The checkpoint was saved " + (prefetcher != null ? "without" : "with") + " a prefetcher.");
+        }
+        if (prefetcher != null) {
+            prefetcher.restore(in);
+            prefetchVictims.restore(in);
+        }
+        prefetchPending = false;
+        if (spaces != null) {
+            spaces.restore(in);
+            int current = in.readInt();
+            int slot = spaces.findSlot(current);
+            if (slot == LongIntIndex.ABSENT || spaces.getAsid(slot) == AddressSpaces.NO_ASID) {
+                throw new IOException("Corrupt checkpoint: process " + current + " is not running.");
+            }
+            this.pageTable = spaces.getPageTable(slot);
+            this.processId = current;
+            this.processSlot = slot;
+            this.asid = spaces.getAsid(slot);
+        } else {
+            pageTable.restore(in);
+        }
+    }
+
+    /**
+     * Empty the TLB, page tables and physical memory and zero the statistics.
+     * A multi-process pipeline forgets every process and starts again with process 0.
+     */
+    public void reset() {
+        tlb.clear();
+        for (PMState pool : pools) {
+            pool.clear();
+        }
+        if (swap != null) {
+            try {
+                swap.clear();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+        if (prefetcher != null) {
+            prefetcher.reset();
+            prefetchVictims.clear();
+        }
+        prefetchPending = false;
+        stats.reset();
+        if (spaces != null) {
+            spaces.clear();
+            processId = 0;
+            activate(0);
+        } else {
+            pageTable.clear();
+        }
+    }
+}
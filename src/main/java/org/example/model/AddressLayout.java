@@ -0,0 +1,129 @@
+package org.example.model;
+
+/**
+ * Splits virtual addresses of up to 64 bits into page number and offset with shifts and masks.
+ * Addresses are carried as {@code long} everywhere; the hex and binary strings shown by the views
+ * are only produced by the formatting helpers here. Page numbers are at most 63 bits, so they are never
+ * negative and never collide with the -1 that marks empty TLB entries and index slots.
+ */
+public final class AddressLayout {
+    public static final int MAX_PAGE_NUMBER_BITS = 63;
+
+    private final int addressBits;
+    private final int offsetBits;
+    private final long addressMask;
+    private final long offsetMask;
+
+    public AddressLayout(int addressBits, int offsetBits) {
+        if (addressBits <= 0 || addressBits > 64) {
+            throw new IllegalArgumentException("Address length must be between 1 and 64 bits: " + addressBits);
+        }
+        if (offsetBits < 0 || offsetBits >= addressBits) {
+            throw new IllegalArgumentException("Offset bits must be between 0 and the address length - 1: " + offsetBits);
+        }
+        if (addressBits - offsetBits > MAX_PAGE_NUMBER_BITS) {
+            throw new IllegalArgumentException("Page numbers must be at most " + MAX_PAGE_NUMBER_BITS + " bits: " + (addressBits - offsetBits));
+        }
+        this.addressBits = addressBits;
+        this.offsetBits = offsetBits;
+        this.addressMask = mask(addressBits);
+        this.offsetMask = mask(offsetBits);
+    }
+
+    private static long mask(int bits) {
+        return bits >= 64 ? -1L : (1L << bits) - 1;
+    }
+
+    public int getAddressBits() {
+        return addressBits;
+    }
+
+    public int getOffsetBits() {
+        return offsetBits;
+    }
+
+    public int getPageNumberBits() {
+        return addressBits - offsetBits;
+    }
+
+    public long getAddressMask() {
+        return addressMask;
+    }
+
+    /**
+     * @return The address with every bit above the address length cleared.
+     */
+    public long truncate(long address) {
+        return address & addressMask;
+    }
+
+    public long pageNumber(long address) {
+        return (address & addressMask) >>> offsetBits;
+    }
+
+    public long offset(long address) {
+        return address & offsetMask;
+    }
+
+    public long address(long pageNumber, long offset) {
+        return ((pageNumber << offsetBits) | (offset & offsetMask)) & addressMask;
+    }
+
+    /**
+     * Parse an unsigned hexadecimal address, keeping only the low {@code addressBits} bits.
+     *
+     * @throws IllegalArgumentException if the string is empty or holds a non-hexadecimal character.
+     */
+    public long parseHex(String hex) {
+        return truncate(parseUnsignedHex(hex));
+    }
+
+    /**
+     * Parse an unsigned hexadecimal value of up to 64 bits. A leading "0x" is accepted.
+     *
+     * @throws IllegalArgumentException if the string is empty or holds a non-hexadecimal character.
+     */
+    public static long parseUnsignedHex(String hex) {
+        int start = hex.startsWith("0x") || hex.startsWith("0X") ? 2 : 0;
+        if (start == hex.length()) {
+            throw new IllegalArgumentException("Empty hexadecimal value");
+        }
+        long value = 0;
+        for (int i = start; i < hex.length(); i++) {
+            char c = hex.charAt(i);
+            int digit = Character.digit(c, 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid hexadecimal character: " + c);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    public static String toHex(long value) {
+        return Long.toHexString(value).toUpperCase();
+    }
+
+    /**
+     * Format the low {@code bits} bits of a value as a zero-padded binary string.
+     */
+    public static String toBinary(long value, int bits) {
+        char[] chars = new char[bits];
+        for (int i = 0; i < bits; i++) {
+            chars[bits - 1 - i] = ((value >>> i) & 1) != 0 ? '1' : '0';
+        }
+        return new String(chars);
+    }
+
+    public String addressToBinary(long address) {
+        return toBinary(address, addressBits);
+    }
+
+    public String pageNumberToBinary(long address) {
+        return toBinary(pageNumber(address), getPageNumberBits());
+    }
+
+    public String offsetToBinary(long address) {
+        return toBinary(offset(address), offsetBits);
+    }
+}
@@ -0,0 +1,195 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * The processes of a multi-process simulation: one page table per process and the assignment of TLB ASIDs.
+ * A process gets a dense slot the first time it runs, found through a primitive hash index, so switching
+ * between thousands of processes costs one index lookup. There are usually fewer ASIDs than processes;
+ * once they run out, they are taken back round-robin from the processes holding them, like the ASID
+ * generations of an operating system, and the caller must flush the taken ASID from the TLB.
+ */
+public class AddressSpaces {
+    public static final int NO_ASID = -1;
+    public static final int NO_PROCESS = -1;
+
+    private static final int INITIAL_PROCESSES = 16;
+
+    private final Supplier<PageTableStructure> pageTableFactory;
+    private final int asidCount;
+    private final LongIntIndex slots = new LongIntIndex(INITIAL_PROCESSES);
+    private PageTableStructure[] pageTables = new PageTableStructure[INITIAL_PROCESSES];
+    private int[] processIds = new int[INITIAL_PROCESSES];
+    private int[] asids = new int[INITIAL_PROCESSES];
+    private final int[] asidOwners; // Slot holding each ASID, or -1
+    private int count;
+    private int nextAsid;
+    private int lastRecycled = NO_PROCESS;
+
+    /**
+     * @param pageTableFactory Builds an empty page table for each new process.
+     * @param asidCount        ASIDs the TLB can tell apart, between 1 and {@link TLBState#MAX_ASIDS}.
+     */
+    public AddressSpaces(Supplier<PageTableStructure> pageTableFactory, int asidCount) {
+        if (asidCount <= 0 || asidCount > TLBState.MAX_ASIDS) {
+            throw new IllegalArgumentException("ASID count must be between 1 and " + TLBState.MAX_ASIDS + ": " + asidCount);
+        }
+        this.pageTableFactory = pageTableFactory;
+        this.asidCount = asidCount;
+        this.asidOwners = new int[asidCount];
+        clear();
+    }
+
+    /**
+     * @return The number of processes seen so far.
+     */
+    public int size() {
+        return count;
+    }
+
+    public int getAsidCount() {
+        return asidCount;
+    }
+
+    /**
+     * Find the slot of a process, creating its address space the first time it is seen.
+     */
+    public int slotOf(int processId) {
+        if (processId < 0) {
+            throw new IllegalArgumentException("Process id must not be negative: " + processId);
+        }
+        int slot = slots.get(processId);
+        if (slot != LongIntIndex.ABSENT) {
+            return slot;
+        }
+        if (count == pageTables.length) {
+            int capacity = count * 2;
+            pageTables = Arrays.copyOf(pageTables, capacity);
+            processIds = Arrays.copyOf(processIds, capacity);
+            asids = Arrays.copyOf(asids, capacity);
+        }
+        slot = count++;
+        pageTables[slot] = pageTableFactory.get();
+        processIds[slot] = processId;
+        asids[slot] = NO_ASID;
+        slots.put(processId, slot);
+        return slot;
+    }
+
+    /**
+     * @return The slot of a process, or {@link LongIntIndex#ABSENT} if it has never run.
+     */
+    public int findSlot(int processId) {
+        return processId < 0 ? LongIntIndex.ABSENT : slots.get(processId);
+    }
+
+    public PageTableStructure getPageTable(int slot) {
+        return pageTables[slot];
+    }
+
+    public int getProcessId(int slot) {
+        return processIds[slot];
+    }
+
+    /**
+     * @return The ASID the process holds, or {@link #NO_ASID}.
+     */
+    public int getAsid(int slot) {
+        return asids[slot];
+    }
+
+    /**
+     * Give a process an ASID, keeping the one it holds. When none is free, the next one round-robin is taken
+     * from its holder, which is reported by {@link #getLastRecycled()}.
+     *
+     * @return The ASID of the process.
+     */
+    public int assignAsid(int slot) {
+        lastRecycled = NO_PROCESS;
+        if (asids[slot] != NO_ASID) {
+            return asids[slot];
+        }
+        int asid = nextAsid;
+        nextAsid = (nextAsid + 1) % asidCount;
+        int holder = asidOwners[asid];
+        if (holder >= 0) {
+            asids[holder] = NO_ASID;
+            lastRecycled = processIds[holder];
+        }
+        asidOwners[asid] = slot;
+        asids[slot] = asid;
+        return asid;
+    }
+
+    /**
+     * @return The process that lost its ASID to the last {@link #assignAsid(int)}, or {@link #NO_PROCESS}.
+     */
+    public int getLastRecycled() {
+        return lastRecycled;
+    }
+
+    /**
+     * @return Page table bytes allocated by every process.
+     */
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        for (int slot = 0; slot < count; slot++) {
+            bytes += pageTables[slot].getAllocatedBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Write every process, its page table and the ASID assignment to a checkpoint.
+     */
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInt(asidCount);
+        out.writeInt(count);
+        out.writeInts(Arrays.copyOf(processIds, count));
+        out.writeInts(Arrays.copyOf(asids, count));
+        out.writeInts(asidOwners);
+        out.writeInt(nextAsid);
+        out.writeInt(lastRecycled);
+        for (int slot = 0; slot < count; slot++) {
+            pageTables[slot].save(out);
+        }
+    }
+
+    /**
+     * Replace every process with those saved, building their page tables with the factory.
+     */
+    public void restore(CheckpointReader in) throws IOException {
+        in.expect("an ASID count of", asidCount);
+        clear();
+        int saved = in.readInt();
+        int[] savedProcessIds = in.readInts();
+        int[] savedAsids = in.readInts();
+        if (saved < 0 || savedProcessIds.length != saved || savedAsids.length != saved) {
+            throw new IOException("Corrupt checkpoint: " + saved + " processes.");
+        }
+        for (int slot = 0; slot < saved; slot++) {
+            slotOf(savedProcessIds[slot]);
+        }
+        System.arraycopy(savedAsids, 0, asids, 0, saved);
+        in.readInts(asidOwners);
+        nextAsid = in.readInt();
+        lastRecycled = in.readInt();
+        for (int slot = 0; slot < saved; slot++) {
+            pageTables[slot].restore(in);
+        }
+    }
+
+    /**
+     * Forget every process.
+     */
+    public void clear() {
+        Arrays.fill(pageTables, null);
+        Arrays.fill(asidOwners, -1);
+        slots.clear();
+        count = 0;
+        nextAsid = 0;
+        lastRecycled = NO_PROCESS;
+    }
+}
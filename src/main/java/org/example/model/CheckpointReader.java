@@ -0,0 +1,131 @@
+package org.example.model;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads state written by a {@link CheckpointWriter}. State is restored into objects built from the same configuration
+ * as the saved ones, so arrays of fixed size are read into the existing arrays and a size mismatch means the checkpoint
+ * does not belong to this configuration.
+ */
+public final class CheckpointReader {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    public CheckpointReader(FileChannel channel) {
+        this.channel = channel;
+        buffer.limit(0);
+    }
+
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        buffer.compact();
+        while (buffer.position() < bytes) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("The checkpoint ends early.");
+            }
+        }
+        buffer.flip();
+    }
+
+    public byte readByte() throws IOException {
+        require(1);
+        return buffer.get();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    public double readDouble() throws IOException {
+        require(Double.BYTES);
+        return buffer.getDouble();
+    }
+
+    /**
+     * Check a value saved to describe the shape of the state, such as a size or a policy.
+     *
+     * @throws IOException if the saved value differs.
+     */
+    public void expect(String what, int expected) throws IOException {
+        int saved = readInt();
+        if (saved != expected) {
+            throw new IOException("The checkpoint was saved with " + what + " " + saved + ", not " + expected + ".");
+        }
+    }
+
+    private int readLength() throws IOException {
+        int length = readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt checkpoint: negative array length " + length + ".");
+        }
+        return length;
+    }
+
+    public int[] readInts() throws IOException {
+        int[] values = new int[readLength()];
+        readElements(values);
+        return values;
+    }
+
+    public long[] readLongs() throws IOException {
+        long[] values = new long[readLength()];
+        readElements(values);
+        return values;
+    }
+
+    /**
+     * Read a saved array into an existing one of the same length.
+     */
+    public void readInts(int[] into) throws IOException {
+        expect("an array of length", into.length);
+        readElements(into);
+    }
+
+    /**
+     * Read a saved array into an existing one of the same length.
+     */
+    public void readLongs(long[] into) throws IOException {
+        expect("an array of length", into.length);
+        readElements(into);
+    }
+
+    private void readElements(int[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            require(Integer.BYTES);
+            int count = Math.min(values.length - i, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().get(values, i, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            i += count;
+        }
+    }
+
+    private void readElements(long[] values) throws IOException {
+        int i = 0;
+        while (i < values.length) {
+            require(Long.BYTES);
+            int count = Math.min(values.length - i, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().get(values, i, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            i += count;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes simulator state to a checkpoint file as little-endian primitives through a {@link FileChannel}.
+ * Arrays are written as their length followed by their elements, copied in bulk through a direct buffer,
+ * so saving millions of entries costs little more than the disk write.
+ */
+public final class CheckpointWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private long bytesWritten;
+
+    public CheckpointWriter(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * @return Bytes written so far, including those still buffered.
+     */
+    public long getBytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    public void writeByte(int value) throws IOException {
+        ensure(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        ensure(Double.BYTES);
+        buffer.putDouble(value);
+    }
+
+    public void writeInts(int[] values) throws IOException {
+        writeInt(values.length);
+        int i = 0;
+        while (i < values.length) {
+            ensure(Integer.BYTES);
+            int count = Math.min(values.length - i, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(values, i, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+            i += count;
+        }
+    }
+
+    public void writeLongs(long[] values) throws IOException {
+        writeInt(values.length);
+        int i = 0;
+        while (i < values.length) {
+            ensure(Long.BYTES);
+            int count = Math.min(values.length - i, buffer.remaining() / Long.BYTES);
+            buffer.asLongBuffer().put(values, i, count);
+            buffer.position(buffer.position() + count * Long.BYTES);
+            i += count;
+        }
+    }
+
+    /**
+     * Write out everything buffered so far.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flush the buffer. The channel belongs to the caller and stays open.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
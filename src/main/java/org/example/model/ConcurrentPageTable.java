@@ -0,0 +1,179 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Hashed page table that many threads can read while one thread at a time changes it, for cores sharing
+ * an address space. Lookups take no lock: they read the current table through a volatile reference and
+ * its slots with volatile reads. Writers must hold a lock of their own; {@link #map(long, int)} writes the
+ * frame before publishing a new key, and growing the table publishes a complete copy.
+ * <p>
+ * Like a hashed page table in hardware, every lookup reads one entry. Keys are kept once created, and an
+ * invalidated page keeps its slot with an empty frame, so readers never see an entry move.
+ */
+public class ConcurrentPageTable implements PageTableStructure {
+    private static final long EMPTY_KEY = -1L;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final class Table {
+        final AtomicLongArray keys;
+        final AtomicIntegerArray frames; // Frame plus one, zero when invalid
+        final int mask;
+        final int shift;
+
+        Table(int capacity) {
+            keys = new AtomicLongArray(capacity);
+            frames = new AtomicIntegerArray(capacity);
+            mask = capacity - 1;
+            shift = 64 - Integer.numberOfTrailingZeros(capacity);
+            for (int i = 0; i < capacity; i++) {
+                keys.setPlain(i, EMPTY_KEY);
+            }
+        }
+
+        int home(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+
+        /**
+         * @return The slot holding the key, or the empty slot ending its probe run as -(slot + 1).
+         */
+        int find(long key) {
+            int i = home(key);
+            while (true) {
+                long k = keys.get(i);
+                if (k == key) {
+                    return i;
+                }
+                if (k == EMPTY_KEY) {
+                    return -(i + 1);
+                }
+                i = (i + 1) & mask;
+            }
+        }
+    }
+
+    private volatile Table table;
+    private int keyCount; // Only touched by writers
+
+    public ConcurrentPageTable() {
+        clear();
+    }
+
+    @Override
+    public int lookup(long vpn) {
+        Table t = table;
+        int slot = t.find(vpn);
+        return slot >= 0 ? t.frames.get(slot) - 1 : NO_FRAME;
+    }
+
+    /**
+     * Map a page. Callers must not run this concurrently with another {@link #map} or {@link #invalidate}.
+     */
+    @Override
+    public void map(long vpn, int frame) {
+        if (vpn < 0) {
+            throw new IllegalArgumentException("Virtual page numbers must not be negative: " + vpn);
+        }
+        Table t = table;
+        int slot = t.find(vpn);
+        if (slot >= 0) {
+            t.frames.set(slot, frame + 1);
+            return;
+        }
+        if (keyCount + 1 > (t.mask + 1) * 3 / 4) {
+            t = grow(t);
+            slot = t.find(vpn);
+        }
+        slot = -slot - 1;
+        t.frames.set(slot, frame + 1);
+        t.keys.set(slot, vpn); // Publishes the frame written above
+        keyCount++;
+    }
+
+    /**
+     * Invalidate a page. Callers must not run this concurrently with {@link #map} or another {@link #invalidate}.
+     */
+    @Override
+    public void invalidate(long vpn) {
+        Table t = table;
+        int slot = t.find(vpn);
+        if (slot >= 0) {
+            t.frames.set(slot, 0);
+        }
+    }
+
+    private Table grow(Table old) {
+        Table grown = new Table((old.mask + 1) << 1);
+        for (int i = 0; i <= old.mask; i++) {
+            long key = old.keys.getPlain(i);
+            if (key != EMPTY_KEY) {
+                int slot = -grown.find(key) - 1;
+                grown.keys.setPlain(slot, key);
+                grown.frames.setPlain(slot, old.frames.getPlain(i));
+            }
+        }
+        table = grown; // Volatile write publishes the plain writes above
+        return grown;
+    }
+
+    @Override
+    public void clear() {
+        table = new Table(INITIAL_CAPACITY);
+        keyCount = 0;
+    }
+
+    /**
+     * Save the table. Callers must not run this concurrently with {@link #map} or {@link #invalidate}.
+     */
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        Table t = table;
+        long[] keys = new long[t.mask + 1];
+        int[] frames = new int[t.mask + 1];
+        for (int i = 0; i <= t.mask; i++) {
+            keys[i] = t.keys.get(i);
+            frames[i] = t.frames.get(i);
+        }
+        out.writeLongs(keys);
+        out.writeInts(frames);
+        out.writeInt(keyCount);
+    }
+
+    /**
+     * Restore a saved table. Callers must not run this concurrently with any other method.
+     */
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        long[] keys = in.readLongs();
+        int[] frames = in.readInts();
+        if (Integer.bitCount(keys.length) != 1 || frames.length != keys.length) {
+            throw new IOException("Corrupt checkpoint: a hashed page table of " + keys.length + " slots.");
+        }
+        Table restored = new Table(keys.length);
+        for (int i = 0; i < keys.length; i++) {
+            restored.keys.setPlain(i, keys[i]);
+            restored.frames.setPlain(i, frames[i]);
+        }
+        keyCount = in.readInt();
+        table = restored;
+    }
+
+    /**
+     * @return Always 1: a hashed table reads one entry per walk.
+     */
+    @Override
+    public int getLastWalkReferences() {
+        return 1;
+    }
+
+    /**
+     * @return Bytes of the hash table, twelve per slot.
+     */
+    @Override
+    public long getAllocatedBytes() {
+        return (table.mask + 1L) * (Long.BYTES + Integer.BYTES);
+    }
+}
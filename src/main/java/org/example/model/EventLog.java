@@ -0,0 +1,89 @@
+package org.example.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity ring buffer of the most recent {@link LogEvent}s.
+ * Producers on any thread claim a sequence number with one atomic increment and store the event in its slot,
+ * overwriting the oldest one; they never wait for a reader or a lock. Readers ask for events by sequence
+ * number and get null for one that is not stored yet or was already overwritten.
+ */
+public class EventLog {
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    private final AtomicReferenceArray<LogEvent> slots;
+    private final AtomicLong next = new AtomicLong();
+    private volatile long clearedBefore;
+
+    public EventLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public EventLog(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Event log capacity must be a positive integer: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Record an event without blocking.
+     *
+     * @return The sequence number of the event.
+     */
+    public long append(LogEvent.Kind kind, String message) {
+        long sequence = next.getAndIncrement();
+        LogEvent event = new LogEvent(sequence, System.currentTimeMillis(), kind, message);
+        int slot = (int) (sequence % slots.length());
+        while (true) {
+            LogEvent current = slots.get(slot);
+            if (current != null && current.getSequence() > sequence) {
+                return sequence; // A producer that lapped this one already stored a newer event here
+            }
+            if (slots.compareAndSet(slot, current, event)) {
+                return sequence;
+            }
+        }
+    }
+
+    public long append(String message) {
+        return append(LogEvent.Kind.INFO, message);
+    }
+
+    /**
+     * @return The sequence number the next event will get.
+     */
+    public long getNextSequence() {
+        return next.get();
+    }
+
+    /**
+     * @return The sequence number of the oldest event still held.
+     */
+    public long getFirstSequence() {
+        return Math.max(clearedBefore, next.get() - slots.length());
+    }
+
+    /**
+     * @return The event with the given sequence number, or null if it is not stored (yet or any more).
+     */
+    public LogEvent get(long sequence) {
+        if (sequence < clearedBefore) {
+            return null;
+        }
+        LogEvent event = slots.get((int) (sequence % slots.length()));
+        return event != null && event.getSequence() == sequence ? event : null;
+    }
+
+    /**
+     * Forget every event recorded so far. Sequence numbers keep increasing.
+     */
+    public void clear() {
+        clearedBefore = next.get();
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * The bytes of physical memory: one page-sized block per frame, held off the Java heap in direct buffers.
+ * Memory is split into slabs of at most {@link #MAX_SLAB_BYTES}, since one buffer cannot address more than 2 GiB.
+ * <p>
+ * The simulator reads and writes no data of its own, so a write only bumps a counter kept in the first eight
+ * bytes of its page; the counter gives every page contents that must survive a trip through swap.
+ */
+public class FrameStore {
+    public static final int MAX_SLAB_BYTES = 1 << 30;
+
+    private final int frameCount;
+    private final int pageBytes;
+    private final int framesPerSlab;
+    private final ByteBuffer[] slabs;
+
+    /**
+     * @param pageBytes Size of a frame, a power of 2 from 8 bytes to {@link #MAX_SLAB_BYTES}.
+     * @throws IllegalArgumentException if the frame size is out of range or the memory cannot be allocated.
+     */
+    public FrameStore(int frameCount, long pageBytes) {
+        if (frameCount < 0) {
+            throw new IllegalArgumentException("Frame count must not be negative: " + frameCount);
+        }
+        if (pageBytes < Long.BYTES || pageBytes > MAX_SLAB_BYTES || Long.bitCount(pageBytes) != 1) {
+            throw new IllegalArgumentException("Frames backed by memory must be a power of 2 from 8 bytes to 1 GiB: " + pageBytes);
+        }
+        this.frameCount = frameCount;
+        this.pageBytes = (int) pageBytes;
+        this.framesPerSlab = MAX_SLAB_BYTES / this.pageBytes;
+        this.slabs = new ByteBuffer[(frameCount + framesPerSlab - 1) / framesPerSlab];
+        try {
+            for (int i = 0; i < slabs.length; i++) {
+                int frames = Math.min(framesPerSlab, frameCount - i * framesPerSlab);
+                slabs[i] = ByteBuffer.allocateDirect(frames * this.pageBytes).order(ByteOrder.nativeOrder());
+            }
+        } catch (OutOfMemoryError ex) {
+            throw new IllegalArgumentException("Cannot allocate " + (long) frameCount * pageBytes
+                    + " bytes of frames off the heap; raise -XX:MaxDirectMemorySize or use fewer frames.", ex);
+        }
+    }
+
+    public int size() {
+        return frameCount;
+    }
+
+    public int getPageBytes() {
+        return pageBytes;
+    }
+
+    /**
+     * @return A buffer over the bytes of one frame, positioned at its start, for page-in and page-out.
+     */
+    public ByteBuffer frame(int frame) {
+        return slabs[frame / framesPerSlab].slice((frame % framesPerSlab) * pageBytes, pageBytes);
+    }
+
+    /**
+     * Record a write to the page held by a frame.
+     */
+    public void recordWrite(int frame) {
+        ByteBuffer slab = slabs[frame / framesPerSlab];
+        int offset = (frame % framesPerSlab) * pageBytes;
+        slab.putLong(offset, slab.getLong(offset) + 1);
+    }
+
+    /**
+     * @return Writes recorded to the page held by a frame since the page was first loaded, across page-outs.
+     */
+    public long getWriteCount(int frame) {
+        return slabs[frame / framesPerSlab].getLong((frame % framesPerSlab) * pageBytes);
+    }
+}
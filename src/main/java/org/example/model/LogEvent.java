@@ -0,0 +1,50 @@
+package org.example.model;
+
+/**
+ * One immutable entry of the {@link EventLog}.
+ */
+public final class LogEvent {
+
+    /**
+     * What an event reports, so views can tell outcomes apart at a glance.
+     */
+    public enum Kind {
+        INFO, HIT, MISS, FAULT, EVICTION
+    }
+
+    private final long sequence;
+    private final long timeMillis;
+    private final Kind kind;
+    private final String message;
+
+    public LogEvent(long sequence, long timeMillis, Kind kind, String message) {
+        this.sequence = sequence;
+        this.timeMillis = timeMillis;
+        this.kind = kind;
+        this.message = message;
+    }
+
+    /**
+     * @return Position of the event in the log, counted from 0 since the log was created.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return message;
+    }
+}
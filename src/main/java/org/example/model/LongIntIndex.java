@@ -0,0 +1,148 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash index from non-negative long keys to int values.
+ * Uses linear probing with backward-shift deletion, so lookups, inserts and removals
+ * are O(1) expected and never allocate once the index is built.
+ */
+public class LongIntIndex {
+    public static final int ABSENT = -1;
+    private static final long EMPTY_KEY = -1L;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int shift;
+    private int count;
+
+    /**
+     * @param expectedEntries The maximum number of entries the index will hold.
+     */
+    public LongIntIndex(int expectedEntries) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedEntries * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        clear();
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int home(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    public int get(long key) {
+        int i = home(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY_KEY) {
+                return ABSENT;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void put(long key, int value) {
+        int i = home(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY_KEY) {
+                if (count + 1 > (mask + 1) * 3 / 4) {
+                    grow();
+                    put(key, value);
+                    return;
+                }
+                keys[i] = key;
+                values[i] = value;
+                count++;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public void remove(long key) {
+        int i = home(key);
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY_KEY) {
+                return;
+            }
+            if (k == key) {
+                break;
+            }
+            i = (i + 1) & mask;
+        }
+        count--;
+        // Shift later entries of the probe run back so no tombstones are needed.
+        int hole = i;
+        int j = (i + 1) & mask;
+        while (keys[j] != EMPTY_KEY) {
+            int h = home(keys[j]);
+            if (((j - h) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = keys[j];
+                values[hole] = values[j];
+                hole = j;
+            }
+            j = (j + 1) & mask;
+        }
+        keys[hole] = EMPTY_KEY;
+    }
+
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(keys);
+        out.writeInts(values);
+        out.writeInt(count);
+    }
+
+    /**
+     * Replace the contents with an index saved by {@link #save(CheckpointWriter)}, whatever its capacity.
+     */
+    public void restore(CheckpointReader in) throws IOException {
+        long[] savedKeys = in.readLongs();
+        int[] savedValues = in.readInts();
+        if (Integer.bitCount(savedKeys.length) != 1 || savedValues.length != savedKeys.length) {
+            throw new IOException("Corrupt checkpoint: an index of " + savedKeys.length + " slots.");
+        }
+        keys = savedKeys;
+        values = savedValues;
+        mask = keys.length - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(keys.length);
+        count = in.readInt();
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY_KEY);
+        count = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int capacity = oldKeys.length << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        clear();
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
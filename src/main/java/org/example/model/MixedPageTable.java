@@ -0,0 +1,99 @@
+package org.example.model;
+
+import java.io.IOException;
+
+/**
+ * Page table of an address space mixing base pages with huge pages. It takes base page numbers like any
+ * page table and maps each one through the table of its page size, keyed by the number of the page that
+ * covers it. Tables of larger sizes have fewer levels, so a walk for a huge page stops as many levels early as
+ * one that meets a large-page entry in an x86-64 table does.
+ */
+public class MixedPageTable implements PageTableStructure {
+    private final PageSizes sizes;
+    private final PageTableStructure[] tables;
+    private PageTableStructure lastWalked;
+
+    /**
+     * @param tables One table per page size class, indexed by page numbers of that size.
+     */
+    public MixedPageTable(PageSizes sizes, PageTableStructure[] tables) {
+        if (tables.length != sizes.getClassCount()) {
+            throw new IllegalArgumentException("A mixed page table needs one table per page size: " + tables.length);
+        }
+        this.sizes = sizes;
+        this.tables = tables.clone();
+        this.lastWalked = tables[PageSizes.BASE];
+    }
+
+    public PageSizes getPageSizes() {
+        return sizes;
+    }
+
+    /**
+     * @return The table holding the pages of one size class.
+     */
+    public PageTableStructure getTable(int pageClass) {
+        return tables[pageClass];
+    }
+
+    @Override
+    public int lookup(long vpn) {
+        int pageClass = sizes.classOf(vpn);
+        lastWalked = tables[pageClass];
+        return lastWalked.lookup(vpn >>> sizes.getShift(pageClass));
+    }
+
+    /**
+     * Map the page of the right size covering a base page.
+     */
+    @Override
+    public void map(long vpn, int frame) {
+        int pageClass = sizes.classOf(vpn);
+        tables[pageClass].map(vpn >>> sizes.getShift(pageClass), frame);
+    }
+
+    @Override
+    public void invalidate(long vpn) {
+        int pageClass = sizes.classOf(vpn);
+        tables[pageClass].invalidate(vpn >>> sizes.getShift(pageClass));
+    }
+
+    @Override
+    public void clear() {
+        for (PageTableStructure table : tables) {
+            table.clear();
+        }
+        lastWalked = tables[PageSizes.BASE];
+    }
+
+    @Override
+    public int getLastWalkReferences() {
+        return lastWalked.getLastWalkReferences();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        for (PageTableStructure table : tables) {
+            bytes += table.getAllocatedBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInt(tables.length);
+        for (PageTableStructure table : tables) {
+            table.save(out);
+        }
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.expect("page sizes", tables.length);
+        for (PageTableStructure table : tables) {
+            table.restore(in);
+        }
+        lastWalked = tables[PageSizes.BASE];
+    }
+}
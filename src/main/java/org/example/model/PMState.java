@@ -0,0 +1,371 @@
+package org.example.model;
+
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.PageReplacementPolicy;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Primitive backing store for physical memory.
+ * Each frame records the virtual page that currently owns it, or {@link #FREE}, and the process that page belongs to;
+ * frames are shared by every process. Free frames are handed out
+ * in ascending order; once memory is full, the configured {@link PageReplacementPolicy} picks the victim.
+ * <p>
+ * Each frame also keeps the referenced and dirty bits of the page table entry mapping it. A frame holds one
+ * page at a time, so keeping them per frame matches keeping them per entry. The referenced bit is set by every
+ * access after the load and cleared by policies that sweep it, such as CLOCK; the dirty bit is set by writes,
+ * and a dirty page must be written back when it is evicted. A third bit marks pages loaded by a prefetcher
+ * that have not been used yet.
+ */
+public class PMState {
+    public static final long FREE = -1L;
+
+    /**
+     * Bits of a policy key above the page number that tell the address spaces of processes apart.
+     */
+    public static final int PROCESS_SLOT_BITS = 15;
+    public static final int MAX_KEYED_PAGE_NUMBER_BITS = 63 - PROCESS_SLOT_BITS;
+
+    private long[] owners;
+    private int[] ownerProcesses;
+    private int[] freeFrames;
+    private int freeCount;
+    private PageReplacement replacement;
+    private PageReplacementPolicy policy;
+    private long[] referenced;
+    private long[] dirty;
+    private long[] prefetched;
+    private int cleanWindow;
+    private long lastEvicted = FREE;
+    private int lastEvictedProcess;
+    private boolean lastEvictedDirty;
+    private boolean lastEvictedPrefetched;
+    private RowChangeListener listener;
+
+    public PMState(int frameCount) {
+        this(frameCount, PageReplacement.FIFO);
+    }
+
+    public PMState(int frameCount, PageReplacement replacement) {
+        this.replacement = replacement;
+        resize(frameCount);
+    }
+
+    public int size() {
+        return owners.length;
+    }
+
+    public PageReplacement getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * @param listener Told about every entry that changes, or null.
+     */
+    public void setRowChangeListener(RowChangeListener listener) {
+        this.listener = listener;
+    }
+
+    public PageReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Reallocate physical memory with the given number of frames, all free, keeping the replacement policy.
+     */
+    public void resize(int frameCount) {
+        if (frameCount < 0) {
+            throw new IllegalArgumentException("Frame count must not be negative: " + frameCount);
+        }
+        owners = new long[frameCount];
+        ownerProcesses = new int[frameCount];
+        freeFrames = new int[frameCount];
+        referenced = new long[(frameCount + 63) >>> 6];
+        dirty = new long[(frameCount + 63) >>> 6];
+        prefetched = new long[(frameCount + 63) >>> 6];
+        policy = replacement.create(frameCount);
+        clear();
+    }
+
+    /**
+     * Switch to another replacement policy. Memory is emptied so every policy starts from the same state.
+     */
+    public void setReplacement(PageReplacement replacement) {
+        this.replacement = replacement;
+        resize(owners.length);
+    }
+
+    public long getOwner(int frame) {
+        return owners[frame];
+    }
+
+    /**
+     * @return The process whose page occupies the frame; meaningless for a free frame.
+     */
+    public int getOwnerProcess(int frame) {
+        return ownerProcesses[frame];
+    }
+
+    public boolean isFree(int frame) {
+        return owners[frame] == FREE;
+    }
+
+    /**
+     * @return Whether the page in the frame has been accessed since it was loaded or its bit was last cleared.
+     */
+    public boolean isReferenced(int frame) {
+        return (referenced[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    /**
+     * @return Whether the page in the frame has been written since it was loaded.
+     */
+    public boolean isDirty(int frame) {
+        return (dirty[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    /**
+     * @return Whether the page in the frame was loaded by a prefetcher and has not been accessed since.
+     */
+    public boolean isPrefetched(int frame) {
+        return (prefetched[frame >>> 6] & (1L << frame)) != 0;
+    }
+
+    /**
+     * @return How many dirty victims replacement may pass over for a clean one.
+     */
+    public int getCleanWindow() {
+        return cleanWindow;
+    }
+
+    /**
+     * Let replacement pass over up to this many dirty victims, in its own eviction order, for a clean one,
+     * trading a few more misses for fewer write-backs. 0 picks victims without looking at the dirty bits.
+     */
+    public void setCleanWindow(int cleanWindow) {
+        if (cleanWindow < 0) {
+            throw new IllegalArgumentException("The clean window must not be negative: " + cleanWindow);
+        }
+        this.cleanWindow = cleanWindow;
+    }
+
+    /**
+     * @return The virtual page evicted by the last {@link #allocate(long)}, or {@link #FREE} if a free frame was used.
+     */
+    public long getLastEvicted() {
+        return lastEvicted;
+    }
+
+    /**
+     * @return The process the page evicted by the last {@link #allocate(int, long, long)} belonged to.
+     */
+    public int getLastEvictedProcess() {
+        return lastEvictedProcess;
+    }
+
+    /**
+     * @return Whether the page evicted by the last {@link #allocate(int, long, long)} was dirty and had to be written back.
+     */
+    public boolean wasLastEvictedDirty() {
+        return lastEvictedDirty;
+    }
+
+    /**
+     * @return Whether the page evicted by the last {@link #allocate(int, long, long)} had been prefetched and never used.
+     */
+    public boolean wasLastEvictedPrefetched() {
+        return lastEvictedPrefetched;
+    }
+
+    /**
+     * Record an access to a resident page, for the replacement policy.
+     */
+    public void touch(int frame) {
+        long bit = 1L << frame;
+        if ((referenced[frame >>> 6] & bit) == 0) {
+            referenced[frame >>> 6] |= bit;
+            if (listener != null) {
+                listener.rowChanged(frame);
+            }
+        }
+        policy.onAccess(frame);
+    }
+
+    /**
+     * Record a write to a resident page by setting its dirty bit.
+     */
+    public void markDirty(int frame) {
+        long bit = 1L << frame;
+        if ((dirty[frame >>> 6] & bit) == 0) {
+            dirty[frame >>> 6] |= bit;
+            if (listener != null) {
+                listener.rowChanged(frame);
+            }
+        }
+    }
+
+    /**
+     * Mark the page just loaded into a frame as prefetched, until {@link #clearPrefetched(int)} records its first use.
+     */
+    public void markPrefetched(int frame) {
+        prefetched[frame >>> 6] |= 1L << frame;
+    }
+
+    /**
+     * Record the use of a page, clearing its prefetched bit.
+     *
+     * @return True if the page had been prefetched and this is its first use.
+     */
+    public boolean clearPrefetched(int frame) {
+        long bit = 1L << frame;
+        if ((prefetched[frame >>> 6] & bit) == 0) {
+            return false;
+        }
+        prefetched[frame >>> 6] &= ~bit;
+        return true;
+    }
+
+    /**
+     * Load a virtual page of process 0.
+     *
+     * @return The frame the page was loaded into.
+     */
+    public int allocate(long vpn) {
+        return allocate(0, vpn, vpn);
+    }
+
+    /**
+     * The key a replacement policy knows a page by, so the ghost entries of one process are never taken for the
+     * same page number of another. Slot 0 keys a page by its number alone; other slots pack the slot above the
+     * page number, as the TLB packs ASIDs, which limits their page numbers to {@link #MAX_KEYED_PAGE_NUMBER_BITS} bits.
+     *
+     * @param slot The dense slot of the process owning the page, see {@link AddressSpaces#slotOf(int)}.
+     */
+    public static long policyKey(int slot, long vpn) {
+        if (slot == 0) {
+            return vpn;
+        }
+        if (slot < 0 || slot >= 1 << PROCESS_SLOT_BITS) {
+            throw new IllegalArgumentException("Process slots must be between 0 and " + ((1 << PROCESS_SLOT_BITS) - 1) + ": " + slot);
+        }
+        if ((vpn >>> MAX_KEYED_PAGE_NUMBER_BITS) != 0) {
+            throw new IllegalArgumentException("Page numbers of several processes are at most " + MAX_KEYED_PAGE_NUMBER_BITS
+                    + " bits: " + Long.toHexString(vpn).toUpperCase());
+        }
+        return (long) slot << MAX_KEYED_PAGE_NUMBER_BITS | vpn;
+    }
+
+    /**
+     * Load a virtual page into a free frame, or into the victim chosen by the replacement policy.
+     * The evicted page, if any, is reported by {@link #getLastEvicted()} and {@link #getLastEvictedProcess()},
+     * and whether it must be written back by {@link #wasLastEvictedDirty()}. The new page starts clean.
+     *
+     * @param key The page as the replacement policy knows it, from {@link #policyKey(int, long)}.
+     * @return The frame the page was loaded into.
+     */
+    public int allocate(int process, long vpn, long key) {
+        int frame;
+        if (freeCount > 0) {
+            frame = freeFrames[--freeCount];
+            lastEvicted = FREE;
+            lastEvictedDirty = false;
+            lastEvictedPrefetched = false;
+        } else {
+            frame = cleanWindow == 0 ? policy.selectVictim(key) : policy.selectVictim(key, dirty, cleanWindow);
+            lastEvicted = owners[frame];
+            lastEvictedProcess = ownerProcesses[frame];
+            lastEvictedDirty = isDirty(frame);
+            lastEvictedPrefetched = isPrefetched(frame);
+        }
+        referenced[frame >>> 6] &= ~(1L << frame);
+        dirty[frame >>> 6] &= ~(1L << frame);
+        prefetched[frame >>> 6] &= ~(1L << frame);
+        owners[frame] = vpn;
+        ownerProcesses[frame] = process;
+        policy.onLoad(frame, key);
+        if (listener != null) {
+            listener.rowChanged(frame);
+        }
+        return frame;
+    }
+
+    /**
+     * Release a frame without evicting it through the replacement policy. A dirty page is dropped unwritten.
+     */
+    public void free(int frame) {
+        if (owners[frame] != FREE) {
+            policy.onRemove(frame);
+            referenced[frame >>> 6] &= ~(1L << frame);
+            dirty[frame >>> 6] &= ~(1L << frame);
+            prefetched[frame >>> 6] &= ~(1L << frame);
+            owners[frame] = FREE;
+            freeFrames[freeCount++] = frame;
+            if (listener != null) {
+                listener.rowChanged(frame);
+            }
+        }
+    }
+
+    /**
+     * Write the frames and the replacement bookkeeping to a checkpoint.
+     */
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInt(owners.length);
+        out.writeInt(replacement.ordinal());
+        out.writeLongs(owners);
+        out.writeInts(ownerProcesses);
+        out.writeInts(freeFrames);
+        out.writeInt(freeCount);
+        out.writeLongs(referenced);
+        out.writeLongs(dirty);
+        out.writeLongs(prefetched);
+        out.writeInt(cleanWindow);
+        out.writeLong(lastEvicted);
+        out.writeInt(lastEvictedProcess);
+        out.writeBoolean(lastEvictedDirty);
+        out.writeBoolean(lastEvictedPrefetched);
+        policy.save(out);
+    }
+
+    /**
+     * Replace the contents with those saved from a memory of the same size and policy.
+     * The row change listener is not told.
+     */
+    public void restore(CheckpointReader in) throws IOException {
+        in.expect("a frame count of", owners.length);
+        in.expect("page replacement", replacement.ordinal());
+        in.readLongs(owners);
+        in.readInts(ownerProcesses);
+        in.readInts(freeFrames);
+        freeCount = in.readInt();
+        in.readLongs(referenced);
+        in.readLongs(dirty);
+        in.readLongs(prefetched);
+        in.expect("a clean window of", cleanWindow);
+        lastEvicted = in.readLong();
+        lastEvictedProcess = in.readInt();
+        lastEvictedDirty = in.readBoolean();
+        lastEvictedPrefetched = in.readBoolean();
+        policy.restore(in);
+    }
+
+    public void clear() {
+        Arrays.fill(owners, FREE);
+        Arrays.fill(ownerProcesses, 0);
+        // Stack of free frames, popped in ascending order.
+        for (int i = 0; i < freeFrames.length; i++) {
+            freeFrames[i] = freeFrames.length - 1 - i;
+        }
+        freeCount = freeFrames.length;
+        Arrays.fill(referenced, 0);
+        Arrays.fill(dirty, 0);
+        Arrays.fill(prefetched, 0);
+        policy.reset(owners.length);
+        policy.bindReferencedBits(referenced);
+        lastEvicted = FREE;
+        lastEvictedProcess = 0;
+        lastEvictedDirty = false;
+        lastEvictedPrefetched = false;
+    }
+}
@@ -1,94 +1,137 @@
 package org.example.model;
 
+import org.example.model.policy.PageReplacement;
+
 import javax.swing.table.AbstractTableModel;
 
+/**
+ * Read-only table view over a {@link PMState}. Cell text is computed on demand.
+ * The referenced and dirty bits of the page table entry mapping each occupied frame are shown next to its content.
+ */
 public class PMTable extends AbstractTableModel {
-    private String[][] table;
-    private int index;
+    private final PMState state;
+    private final TableUpdateCoalescer updates = new TableUpdateCoalescer(this);
+    private StateSnapshot snapshot;
+    private int offset = 2;
 
     public PMTable() {
-        int rowCount = 100;
-        int columnCount = 2;
-        table = new String[rowCount][columnCount];
-
-        for (int i = 0; i < rowCount; i++) {
-            for (int j = 0; j < columnCount; j++) {
-                table[i][j] = "";
-            }
-        }
+        this(new PMState(100));
+    }
+
+    public PMTable(PMState state) {
+        this.state = state;
+        state.setRowChangeListener(updates);
+    }
+
+    public PMState getState() {
+        return state;
+    }
+
+    /**
+     * @return Where changed rows wait to be published to the view.
+     */
+    public TableUpdateCoalescer getUpdates() {
+        return updates;
     }
 
     @Override
     public int getRowCount() {
-        return table.length;
+        return snapshot != null ? snapshot.getFrameCount() : state.size();
     }
 
     @Override
     public int getColumnCount() {
-        return 2;
+        return 4;
     }
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        if (rowIndex < table.length && columnIndex < getColumnCount()) {
-            return table[rowIndex][columnIndex];
+        if (rowIndex >= getRowCount()) {
+            return null;
         }
-        return null;
-    }
-
-    public void setValue(Object s, int r, int c) {
-        if (r < table.length && c < getColumnCount()) {
-            table[r][c] = s.toString();
+        long owner = snapshot != null ? snapshot.getFrameOwner(rowIndex) : state.getOwner(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return Integer.toHexString(rowIndex).toUpperCase();
+            case 1:
+                if (owner == PMState.FREE) {
+                    return "";
+                }
+                return "Block " + Long.toHexString(owner).toUpperCase() + " from 0-" + (1L << offset);
+            case 2:
+                if (owner == PMState.FREE) {
+                    return "";
+                }
+                return (snapshot != null ? snapshot.isFrameReferenced(rowIndex) : state.isReferenced(rowIndex)) ? "1" : "0";
+            case 3:
+                if (owner == PMState.FREE) {
+                    return "";
+                }
+                return (snapshot != null ? snapshot.isFrameDirty(rowIndex) : state.isDirty(rowIndex)) ? "1" : "0";
+            default:
+                return null;
         }
-        fireTableDataChanged();
     }
 
     @Override
     public String getColumnName(int c) {
         if (c == 0) return "Physical Page";
         if (c == 1) return "Content";
+        if (c == 2) return "Referenced";
+        if (c == 3) return "Dirty";
         return null;
     }
 
-    public void setSize(int rowCount) {
-        int columnCount = 2;
-        table = new String[rowCount][columnCount];
-
-        for (int i = 0; i < rowCount; i++) {
-            setValue((Integer.toHexString(i)).toUpperCase(), i, 0);
-            for (int j = 1; j < columnCount; j++) {
-                table[i][j] = "";
-            }
-        }
+    /**
+     * Show a snapshot instead of the live state, for while another thread runs the simulation.
+     * Changes to the live state are not tracked until {@link #showLive()}.
+     */
+    public void showSnapshot(StateSnapshot snapshot) {
+        this.snapshot = snapshot;
+        state.setRowChangeListener(null);
+        updates.discard();
         fireTableDataChanged();
     }
 
-    public int addValue(String s, int offset) {
-        StringBuilder s2 = new StringBuilder();
-        s2.append("Block ").append(s).append(" from 0-").append((int) (Math.pow(2, offset)));
-        setValue(s2.toString(), index, 1); // Set the value at the current index.
+    /**
+     * Go back to showing the live state. Must be called on the thread that changes it.
+     */
+    public void showLive() {
+        snapshot = null;
+        state.setRowChangeListener(updates);
+        updates.discard();
+        fireTableDataChanged();
+    }
 
-        int currentIndex = index; // Store the current index to return later.
+    public void setSize(int rowCount) {
+        state.resize(rowCount);
+        updates.discard();
+        fireTableDataChanged();
+    }
 
-        index++; // Increment the index.
-        if (index >= getRowCount()) { // Wrap around if we reach the end of the table.
-            index = 0;
-        }
+    /**
+     * Resize physical memory and change its page replacement policy.
+     */
+    public void setSize(int rowCount, PageReplacement replacement) {
+        state.setReplacement(replacement);
+        setSize(rowCount);
+    }
 
-        fireTableDataChanged(); // Notify the table of the changes.
-        return currentIndex; // Return the current index where the value was added.
+    /**
+     * Set the number of offset bits used to describe the byte range of each block.
+     */
+    public void setOffset(int offset) {
+        this.offset = offset;
+        updates.discard();
+        fireTableDataChanged();
     }
 
     /**
      * Clear all values in the table, resetting it to its initial empty state.
      */
     public void clear() {
-        for (int i = 0; i < table.length; i++) {
-            for (int j = 1; j < getColumnCount(); j++) {
-                table[i][j] = ""; // Clear the content column
-            }
-        }
-        index = 0; // Reset the index to the starting point.
+        state.clear();
+        updates.discard();
         fireTableDataChanged(); // Notify the table of the changes.
     }
 }
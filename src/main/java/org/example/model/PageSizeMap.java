@@ -0,0 +1,281 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The regions of a virtual address space mapped with huge pages, such as 2 MiB or 1 GiB pages, as hugetlbfs
+ * mappings or transparent huge pages would be. Addresses outside every region use the base page size, the
+ * configured offset. Huge pages of each size are loaded into a pool of frames of that size, like the pages
+ * reserved for hugetlbfs, so they never compete with base pages for frames.
+ * <p>
+ * Sizes, bounds and lengths are in bytes. Regions must be aligned to their page size and must not overlap.
+ */
+public class PageSizeMap {
+    private static final class Region {
+        final int pageShift;
+        final long start;
+        final long length;
+
+        Region(int pageShift, long start, long length) {
+            this.pageShift = pageShift;
+            this.start = start;
+            this.length = length;
+        }
+    }
+
+    private final List<Region> regions = new ArrayList<>();
+    private final Map<Integer, Integer> frameCounts = new TreeMap<>(); // Page shift to frames
+
+    /**
+     * Map a region with pages of the given size.
+     *
+     * @throws IllegalArgumentException if the page size is not a power of two.
+     */
+    public PageSizeMap map(long pageBytes, long start, long length) {
+        regions.add(new Region(shiftOf(pageBytes), start, length));
+        return this;
+    }
+
+    /**
+     * @param frames Frames of the pool that pages of the given size are loaded into.
+     * @throws IllegalArgumentException if the page size is not a power of two.
+     */
+    public PageSizeMap setFrameCount(long pageBytes, int frames) {
+        frameCounts.put(shiftOf(pageBytes), frames);
+        return this;
+    }
+
+    /**
+     * @return Frames of the pool of a page size given by its width in bits, or 0 if it has none.
+     */
+    public int getFrameCount(int pageShift) {
+        return frameCounts.getOrDefault(pageShift, 0);
+    }
+
+    public boolean isEmpty() {
+        return regions.isEmpty();
+    }
+
+    /**
+     * @return The distinct huge page sizes of the regions, as widths in bits, smallest first.
+     */
+    public int[] getPageShifts() {
+        return regions.stream().mapToInt(r -> r.pageShift).distinct().sorted().toArray();
+    }
+
+    private static int shiftOf(long pageBytes) {
+        if (pageBytes <= 0 || Long.bitCount(pageBytes) != 1) {
+            throw new IllegalArgumentException("Page sizes must be powers of 2: " + pageBytes);
+        }
+        return Long.numberOfTrailingZeros(pageBytes);
+    }
+
+    /**
+     * Check that the regions fit an address space and are backed by frames.
+     *
+     * @throws IllegalArgumentException if a region is out of range, misaligned or overlaps another one.
+     */
+    public void validate(int addressBits, int offsetBits) {
+        List<Region> sorted = sortedRegions();
+        long addressEnd = addressBits >= 64 ? -1L : 1L << addressBits; // -1 stands for 2^64, compared unsigned
+        long previousEnd = 0;
+        for (Region region : sorted) {
+            long pageBytes = 1L << region.pageShift;
+            if (region.pageShift <= offsetBits || region.pageShift >= addressBits) {
+                throw new IllegalArgumentException("Huge pages of " + formatSize(pageBytes) + " must be larger than the "
+                        + offsetBits + "-bit base page and smaller than the " + addressBits + "-bit address space.");
+            }
+            if (region.length <= 0 || ((region.start | region.length) & (pageBytes - 1)) != 0) {
+                throw new IllegalArgumentException("The region at " + AddressLayout.toHex(region.start)
+                        + " must be a positive whole number of " + formatSize(pageBytes) + " pages, aligned to their size.");
+            }
+            long end = region.start + region.length;
+            if (Long.compareUnsigned(end, region.start) < 0 && end != 0
+                    || addressEnd != -1L && Long.compareUnsigned(end, addressEnd) > 0) {
+                throw new IllegalArgumentException("The region at " + AddressLayout.toHex(region.start)
+                        + " does not fit in " + addressBits + " bits.");
+            }
+            if (Long.compareUnsigned(region.start, previousEnd) < 0) {
+                throw new IllegalArgumentException("The region at " + AddressLayout.toHex(region.start) + " overlaps another region.");
+            }
+            previousEnd = end;
+            if (getFrameCount(region.pageShift) <= 0) {
+                throw new IllegalArgumentException("Pages of " + formatSize(pageBytes) + " need a positive frame count.");
+            }
+        }
+    }
+
+    private List<Region> sortedRegions() {
+        List<Region> sorted = new ArrayList<>(regions);
+        sorted.sort((a, b) -> Long.compareUnsigned(a.start, b.start));
+        return sorted;
+    }
+
+    /**
+     * Convert the regions to page numbers of the base page size, for lookups during translation.
+     */
+    public PageSizes resolve(int offsetBits) {
+        List<Region> sorted = sortedRegions();
+        int[] shifts = getPageShifts();
+        long[] starts = new long[sorted.size()];
+        long[] ends = new long[sorted.size()];
+        int[] classes = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            Region region = sorted.get(i);
+            starts[i] = region.start >>> offsetBits;
+            ends[i] = starts[i] + (region.length >>> offsetBits);
+            classes[i] = 1 + Arrays.binarySearch(shifts, region.pageShift);
+        }
+        int[] classShifts = new int[shifts.length + 1];
+        for (int i = 0; i < shifts.length; i++) {
+            classShifts[i + 1] = shifts[i] - offsetBits;
+        }
+        return new PageSizes(classShifts, starts, ends, classes);
+    }
+
+    public PageSizeMap copy() {
+        PageSizeMap copy = new PageSizeMap();
+        copy.regions.addAll(regions);
+        copy.frameCounts.putAll(frameCounts);
+        return copy;
+    }
+
+    /**
+     * Write the regions and frame pools to a checkpoint.
+     */
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInt(regions.size());
+        for (Region region : regions) {
+            out.writeInt(region.pageShift);
+            out.writeLong(region.start);
+            out.writeLong(region.length);
+        }
+        out.writeInt(frameCounts.size());
+        for (Map.Entry<Integer, Integer> entry : frameCounts.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+    }
+
+    /**
+     * Read regions and frame pools written by {@link #save(CheckpointWriter)}.
+     */
+    public static PageSizeMap read(CheckpointReader in) throws IOException {
+        PageSizeMap map = new PageSizeMap();
+        int regionCount = in.readInt();
+        for (int i = 0; i < regionCount; i++) {
+            map.regions.add(new Region(checkShift(in.readInt()), in.readLong(), in.readLong()));
+        }
+        int poolCount = in.readInt();
+        for (int i = 0; i < poolCount; i++) {
+            map.frameCounts.put(checkShift(in.readInt()), in.readInt());
+        }
+        return map;
+    }
+
+    private static int checkShift(int shift) throws IOException {
+        if (shift <= 0 || shift >= 64) {
+            throw new IOException("Corrupt checkpoint: a page size of 2^" + shift + " bytes.");
+        }
+        return shift;
+    }
+
+    /**
+     * Parse regions written as {@code <size>@<start>+<length>} and frame pools written as {@code <size>=<frames>},
+     * both comma-separated, for example {@code 2M@0x40000000+1G,1G@0x80000000+2G} and {@code 2M=64,1G=1}.
+     * Sizes and lengths take a K, M, G or T suffix; starts may be hexadecimal with a leading 0x.
+     *
+     * @throws IllegalArgumentException if either list is malformed.
+     */
+    public static PageSizeMap parse(String regions, String frames) {
+        PageSizeMap map = new PageSizeMap();
+        for (String spec : regions.split(",")) {
+            int at = spec.indexOf('@');
+            int plus = spec.indexOf('+', at);
+            if (at <= 0 || plus < 0) {
+                throw new IllegalArgumentException("A huge page region is <size>@<start>+<length>: " + spec);
+            }
+            map.map(parseSize(spec.substring(0, at)), parseSize(spec.substring(at + 1, plus)), parseSize(spec.substring(plus + 1)));
+        }
+        if (frames != null) {
+            for (String spec : frames.split(",")) {
+                int eq = spec.indexOf('=');
+                if (eq <= 0) {
+                    throw new IllegalArgumentException("A huge frame pool is <size>=<frames>: " + spec);
+                }
+                map.setFrameCount(parseSize(spec.substring(0, eq)), Integer.parseInt(spec.substring(eq + 1).trim()));
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Parse a byte count such as 4096, 0x200000, 2M or 1G.
+     *
+     * @throws IllegalArgumentException if the value is malformed or overflows 64 bits.
+     */
+    public static long parseSize(String value) {
+        String s = value.trim();
+        if (s.startsWith("0x") || s.startsWith("0X")) {
+            return AddressLayout.parseUnsignedHex(s);
+        }
+        int unit = 0;
+        if (!s.isEmpty()) {
+            switch (Character.toUpperCase(s.charAt(s.length() - 1))) {
+                case 'K':
+                    unit = 10;
+                    break;
+                case 'M':
+                    unit = 20;
+                    break;
+                case 'G':
+                    unit = 30;
+                    break;
+                case 'T':
+                    unit = 40;
+                    break;
+                default:
+                    break;
+            }
+        }
+        long number = Long.parseLong(unit == 0 ? s : s.substring(0, s.length() - 1));
+        if (number < 0 || (number << unit) >>> unit != number) {
+            throw new IllegalArgumentException("Size out of range: " + value);
+        }
+        return number << unit;
+    }
+
+    /**
+     * Format a power-of-two byte count with the largest exact unit, such as 2M.
+     */
+    public static String formatSize(long bytes) {
+        String[] units = {"", "K", "M", "G", "T"};
+        int unit = 0;
+        while (unit < units.length - 1 && bytes != 0 && (bytes & 1023) == 0) {
+            bytes >>>= 10;
+            unit++;
+        }
+        return bytes + units[unit];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Region region : sortedRegions()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(formatSize(1L << region.pageShift)).append("@0x").append(AddressLayout.toHex(region.start))
+                    .append('+').append(formatSize(region.length));
+        }
+        for (Map.Entry<Integer, Integer> entry : frameCounts.entrySet()) {
+            sb.append(' ').append(formatSize(1L << entry.getKey())).append('=').append(entry.getValue());
+        }
+        return sb.toString();
+    }
+}
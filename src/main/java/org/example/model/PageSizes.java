@@ -0,0 +1,63 @@
+package org.example.model;
+
+/**
+ * The page size of every virtual page number, as used during translation. Page numbers are those of the
+ * base page size; class 0 is the base size and each huge page size gets a class of its own, smallest first.
+ * <p>
+ * The size of a page is found with one binary search over the few huge page regions, the way a range check
+ * finds a segment, so the TLB and page table are then consulted once for the right size instead of once per size.
+ */
+public final class PageSizes {
+    public static final int BASE = 0;
+
+    private final int[] shifts;
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] classes;
+
+    /**
+     * @param shifts  Base pages per page of each class, as a power of 2; element 0 is 0.
+     * @param starts  First base page of each region, ascending.
+     * @param ends    Base page after the last one of each region.
+     * @param classes Page size class of each region.
+     */
+    PageSizes(int[] shifts, long[] starts, long[] ends, int[] classes) {
+        this.shifts = shifts;
+        this.starts = starts;
+        this.ends = ends;
+        this.classes = classes;
+    }
+
+    /**
+     * @return The number of page sizes, the base size included.
+     */
+    public int getClassCount() {
+        return shifts.length;
+    }
+
+    /**
+     * @return Base pages per page of a class, as a power of 2.
+     */
+    public int getShift(int pageClass) {
+        return shifts[pageClass];
+    }
+
+    /**
+     * @return The page size class of a base page number.
+     */
+    public int classOf(long vpn) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (Long.compareUnsigned(vpn, starts[mid]) < 0) {
+                high = mid - 1;
+            } else if (Long.compareUnsigned(vpn, ends[mid]) >= 0) {
+                low = mid + 1;
+            } else {
+                return classes[mid];
+            }
+        }
+        return BASE;
+    }
+}
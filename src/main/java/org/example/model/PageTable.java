@@ -1,26 +1,129 @@
 package org.example.model;
 
 import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.BitSet;
 
+/**
+ * Read-only table view over a {@link PageTableState}. Cell text is computed on demand.
+ * <p>
+ * A {@link PageTableFilter} picks the rows: every entry, only the valid ones, the recently touched ones, or a
+ * summary of one row per range of pages. Filtered rows are kept as an array of page numbers, so a view of a
+ * few hundred valid entries stays a few hundred rows however large the table is. Tables of more than
+ * {@link #SUMMARY_THRESHOLD} entries start out in the summary, and the unfiltered view shows a window of at
+ * most {@link #MAX_VIEW_ROWS} rows that {@link #reveal(long)} moves, since a table component cannot scroll
+ * through hundreds of millions of rows.
+ */
 public class PageTable extends AbstractTableModel {
+    /**
+     * Tables with more entries than this start out showing the summary.
+     */
+    public static final int SUMMARY_THRESHOLD = 1 << 17;
 
-    private String[][] table;
+    /**
+     * The most rows the unfiltered view shows at once.
+     */
+    public static final int MAX_VIEW_ROWS = 1 << 22;
 
-    public PageTable() {
-        int rowCount = 100;
-        int columnCount = 3;
-        table = new String[rowCount][columnCount];
+    /**
+     * The most rows of the summary; each covers a power of 2 of pages.
+     */
+    static final int SUMMARY_ROWS = 1024;
 
-        for (int i = 0; i < rowCount; i++) {
-            for (int j = 0; j < columnCount; j++) {
-                table[i][j] = "";
+    /**
+     * Frames listed per summary row.
+     */
+    static final int SUMMARY_SAMPLES = 4;
+
+    /**
+     * Entries remembered as recently touched.
+     */
+    static final int RECENT_CAPACITY = 256;
+
+    private final PageTableState state;
+    private final TableUpdateCoalescer updates = new TableUpdateCoalescer(this) {
+        @Override
+        protected void publish(BitSet rows) {
+            if (filter == PageTableFilter.ALL && windowStart == 0) {
+                super.publish(rows);
+            } else {
+                publishFiltered(rows);
             }
         }
+    };
+    private final RowChangeListener listener = this::entryChanged;
+    private StateSnapshot snapshot;
+    private PageTableFilter filter = PageTableFilter.ALL;
+    private int windowStart;
+    private int summaryShift;
+    private int[] rows = new int[64];
+    private int rowCount;
+    private final int[] recent = new int[RECENT_CAPACITY];
+    private int recentCount;
+
+    public PageTable() {
+        this(new PageTableState(100));
+    }
+
+    public PageTable(PageTableState state) {
+        this.state = state;
+        state.setRowChangeListener(listener);
+    }
+
+    public PageTableState getState() {
+        return state;
+    }
+
+    /**
+     * @return Where changed rows wait to be published to the view.
+     */
+    public TableUpdateCoalescer getUpdates() {
+        return updates;
+    }
+
+    public PageTableFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Change which entries are shown. The columns are rebuilt, since the summary has columns of its own.
+     */
+    public void setFilter(PageTableFilter filter) {
+        if (filter == this.filter) {
+            return;
+        }
+        this.filter = filter;
+        windowStart = 0;
+        updateRows();
+        updates.discard();
+        fireTableStructureChanged();
+    }
+
+    /**
+     * @return The number of entries in the table, shown or not.
+     */
+    public int getPageCount() {
+        return snapshot != null ? snapshot.getPageCount() : state.size();
+    }
+
+    /**
+     * @return The number of valid entries in the table, shown or not.
+     */
+    public int getValidCount() {
+        return snapshot != null ? snapshot.getValidPageCount() : state.countValid(0, state.size());
     }
 
     @Override
     public int getRowCount() {
-        return table.length;
+        switch (filter) {
+            case VALID:
+            case RECENT:
+                return rowCount;
+            case SUMMARY:
+                return (int) ((getPageCount() + (1L << summaryShift) - 1) >>> summaryShift);
+            default:
+                return Math.min(getPageCount() - windowStart, MAX_VIEW_ROWS);
+        }
     }
 
     @Override
@@ -28,45 +131,283 @@ public class PageTable extends AbstractTableModel {
         return 3;
     }
 
+    /**
+     * @return The page shown in a row, or the first page of its range in the summary.
+     */
+    public int getVpn(int rowIndex) {
+        switch (filter) {
+            case VALID:
+            case RECENT:
+                return rows[rowIndex];
+            case SUMMARY:
+                return rowIndex << summaryShift;
+            default:
+                return windowStart + rowIndex;
+        }
+    }
+
+    /**
+     * Find the row showing a page, moving the window of the unfiltered view onto it if need be.
+     *
+     * @return The row, or -1 if the page is outside the table or hidden by the filter.
+     */
+    public int reveal(long vpn) {
+        if (vpn < 0 || vpn >= getPageCount()) {
+            return -1;
+        }
+        int page = (int) vpn;
+        switch (filter) {
+            case VALID:
+                return Math.max(Arrays.binarySearch(rows, 0, rowCount, page), -1);
+            case RECENT:
+                for (int row = 0; row < rowCount; row++) {
+                    if (rows[row] == page) {
+                        return row;
+                    }
+                }
+                return -1;
+            case SUMMARY:
+                return page >>> summaryShift;
+            default:
+                if (page < windowStart || page - windowStart >= MAX_VIEW_ROWS) {
+                    windowStart = Math.max(0, Math.min(page - MAX_VIEW_ROWS / 2, getPageCount() - MAX_VIEW_ROWS));
+                    updates.discard();
+                    fireTableDataChanged();
+                }
+                return page - windowStart;
+        }
+    }
+
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        if (rowIndex < table.length && columnIndex < getColumnCount()) {
-            return table[rowIndex][columnIndex];
+        if (rowIndex >= getRowCount()) {
+            return null;
+        }
+        if (filter == PageTableFilter.SUMMARY) {
+            return getSummaryAt(rowIndex, columnIndex);
+        }
+        int vpn = getVpn(rowIndex);
+        int frame = frameOf(vpn);
+        switch (columnIndex) {
+            case 0:
+                return Integer.toHexString(vpn).toUpperCase();
+            case 1:
+                return frame != PageTableState.NO_FRAME ? "1" : "0";
+            case 2:
+                return frame != PageTableState.NO_FRAME ? Integer.toHexString(frame).toUpperCase() : "";
+            default:
+                return null;
         }
-        return null;
     }
 
-    public void setValue(Object s, int r, int c) {
-        if (r < table.length && c < getColumnCount()) {
-            table[r][c] = s.toString();
+    private Object getSummaryAt(int rowIndex, int columnIndex) {
+        int from = rowIndex << summaryShift;
+        int to = (int) Math.min((long) from + (1L << summaryShift), getPageCount());
+        switch (columnIndex) {
+            case 0:
+                return Integer.toHexString(from).toUpperCase() + "-" + Integer.toHexString(to - 1).toUpperCase();
+            case 1:
+                return countValid(from, to) + "/" + (to - from);
+            case 2:
+                StringBuilder frames = new StringBuilder();
+                int samples = 0;
+                for (int vpn = nextValid(from, to); vpn >= 0; vpn = nextValid(vpn + 1, to)) {
+                    if (samples++ == SUMMARY_SAMPLES) {
+                        frames.append(", ...");
+                        break;
+                    }
+                    frames.append(samples > 1 ? ", " : "").append(Integer.toHexString(frameOf(vpn)).toUpperCase());
+                }
+                return frames.toString();
+            default:
+                return null;
         }
-        fireTableDataChanged();
     }
 
     @Override
     public String getColumnName(int c) {
+        if (filter == PageTableFilter.SUMMARY) {
+            if (c == 0) return "Pages";
+            if (c == 1) return "Valid";
+            if (c == 2) return "Sample Frames";
+            return null;
+        }
         if (c == 0) return "Index";
         if (c == 1) return "Valid";
         if (c == 2) return "Physical Page";
         return null;
     }
 
-    public void setSize(int rowCount) {
-        int columnCount = 3;
-        table = new String[rowCount][columnCount];
-
-        for (int i = 0; i < rowCount; i++) {
-            setValue((Integer.toHexString(i)).toUpperCase(), i, 0);
-            table[i][1] = "0";
-            for (int j = 2; j < columnCount; j++) {
-                table[i][j] = "";
+    private int frameOf(int vpn) {
+        return snapshot != null ? snapshot.getPageFrame(vpn) : state.lookup(vpn);
+    }
+
+    private int countValid(int from, int to) {
+        return snapshot != null ? snapshot.countValidPages(from, to) : state.countValid(from, to);
+    }
+
+    /**
+     * @return The first valid entry from {@code from} inclusive to {@code to} exclusive, or -1 if there is none.
+     */
+    private int nextValid(int from, int to) {
+        int vpn = snapshot != null ? snapshot.nextValidPage(from) : state.nextValid(from);
+        return vpn < to ? vpn : -1;
+    }
+
+    /**
+     * Recompute the rows of the current filter from the shown state.
+     */
+    private void updateRows() {
+        int pageCount = getPageCount();
+        summaryShift = 0;
+        while (((long) pageCount + (1L << summaryShift) - 1) >>> summaryShift > SUMMARY_ROWS) {
+            summaryShift++;
+        }
+        windowStart = Math.max(0, Math.min(windowStart, pageCount - MAX_VIEW_ROWS));
+        rowCount = 0;
+        if (filter == PageTableFilter.VALID) {
+            for (int vpn = nextValid(0, pageCount); vpn >= 0; vpn = nextValid(vpn + 1, pageCount)) {
+                addRow(vpn);
             }
+        } else if (filter == PageTableFilter.RECENT) {
+            for (int i = 0; i < recentCount; i++) {
+                if (recent[i] < pageCount) {
+                    addRow(recent[i]);
+                }
+            }
+        }
+    }
+
+    private void addRow(int vpn) {
+        if (rowCount == rows.length) {
+            rows = Arrays.copyOf(rows, rowCount * 2);
+        }
+        rows[rowCount++] = vpn;
+    }
+
+    /**
+     * Publish changed entries to a view that does not show one row per entry.
+     */
+    private void publishFiltered(BitSet changed) {
+        switch (filter) {
+            case VALID:
+            case RECENT:
+                int[] before = Arrays.copyOf(rows, rowCount);
+                updateRows();
+                if (!Arrays.equals(before, 0, before.length, rows, 0, rowCount)) {
+                    fireTableDataChanged();
+                } else if (rowCount > 0) {
+                    fireTableRowsUpdated(0, rowCount - 1);
+                }
+                return;
+            case SUMMARY:
+                int firstRange = changed.nextSetBit(0) >>> summaryShift;
+                if (firstRange < getRowCount()) {
+                    fireTableRowsUpdated(firstRange, Math.min((changed.length() - 1) >>> summaryShift, getRowCount() - 1));
+                }
+                return;
+            default:
+                int end = windowStart + getRowCount();
+                int first = changed.nextSetBit(windowStart);
+                if (first >= 0 && first < end) {
+                    fireTableRowsUpdated(first - windowStart, changed.previousSetBit(end - 1) - windowStart);
+                }
+        }
+    }
+
+    private void entryChanged(int vpn) {
+        touch(vpn);
+        updates.rowChanged(vpn);
+    }
+
+    /**
+     * Move an entry to the front of the recently touched ones.
+     */
+    private void touch(int vpn) {
+        int index = 0;
+        while (index < recentCount && recent[index] != vpn) {
+            index++;
+        }
+        if (index == recentCount && recentCount < RECENT_CAPACITY) {
+            recentCount++;
         }
+        System.arraycopy(recent, 0, recent, 1, Math.min(index, RECENT_CAPACITY - 1));
+        recent[0] = vpn;
+    }
+
+    /**
+     * Take the entries that differ between a snapshot and a later snapshot, or the live table if that is null,
+     * as touched. Differences are found with a vectorized array comparison; of many, only the last
+     * {@link #RECENT_CAPACITY} are kept.
+     */
+    private void touchChanges(StateSnapshot before, StateSnapshot after) {
+        int[] changed = new int[RECENT_CAPACITY];
+        int count = 0;
+        for (int vpn = nextChange(before, after, 0); vpn >= 0; vpn = nextChange(before, after, vpn + 1)) {
+            changed[count++ % changed.length] = vpn;
+        }
+        for (int i = Math.max(0, count - changed.length); i < count; i++) {
+            touch(changed[i % changed.length]);
+        }
+    }
+
+    private int nextChange(StateSnapshot before, StateSnapshot after, int from) {
+        return after != null ? before.nextChangedPage(after, from) : before.nextChangedPage(state, from);
+    }
+
+    /**
+     * Show a snapshot instead of the live state, for while another thread runs the simulation.
+     * Changes to the live state are not tracked until {@link #showLive()}; entries that differ from the
+     * previous snapshot count as touched.
+     */
+    public void showSnapshot(StateSnapshot snapshot) {
+        if (this.snapshot != null) {
+            touchChanges(this.snapshot, snapshot);
+        }
+        this.snapshot = snapshot;
+        state.setRowChangeListener(null);
+        updateRows();
+        updates.discard();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Go back to showing the live state. Must be called on the thread that changes it.
+     */
+    public void showLive() {
+        if (snapshot != null) {
+            touchChanges(snapshot, null);
+        }
+        snapshot = null;
+        state.setRowChangeListener(listener);
+        updateRows();
+        updates.discard();
         fireTableDataChanged();
     }
 
+    /**
+     * Reallocate the table with the given number of entries. A table of more than {@link #SUMMARY_THRESHOLD}
+     * entries switches from the unfiltered view to the summary.
+     */
+    public void setSize(int rowCount) {
+        state.resize(rowCount);
+        recentCount = 0;
+        windowStart = 0;
+        boolean summarize = rowCount > SUMMARY_THRESHOLD && filter == PageTableFilter.ALL;
+        if (summarize) {
+            filter = PageTableFilter.SUMMARY;
+        }
+        updateRows();
+        updates.discard();
+        if (summarize) {
+            fireTableStructureChanged();
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
     public int searchPageTable(String n) {
-        if (table[Integer.parseInt(n, 16)][1].equals("1")) return 1;
+        if (state.isValid(Integer.parseInt(n, 16))) return 1;
         return -1;
     }
 
@@ -74,12 +415,10 @@ public class PageTable extends AbstractTableModel {
      * Clear all values in the table, resetting it to its initial empty state.
      */
     public void clear() {
-        for (int i = 0; i < table.length; i++) {
-            table[i][1] = "0"; // Reset valid bit
-            for (int j = 2; j < getColumnCount(); j++) {
-                table[i][j] = ""; // Clear physical page and other data
-            }
-        }
+        state.clear();
+        recentCount = 0;
+        updateRows();
+        updates.discard();
         fireTableDataChanged();
     }
 }
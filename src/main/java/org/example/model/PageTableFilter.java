@@ -0,0 +1,34 @@
+package org.example.model;
+
+/**
+ * Which page table entries a {@link PageTable} view shows.
+ */
+public enum PageTableFilter {
+    /**
+     * Every entry, one row per virtual page.
+     */
+    ALL("All entries"),
+    /**
+     * Only the entries mapped to a frame.
+     */
+    VALID("Valid only"),
+    /**
+     * The entries most recently mapped or invalidated, newest first.
+     */
+    RECENT("Recently touched"),
+    /**
+     * One row per range of pages, with its count of valid entries and a sample of their frames.
+     */
+    SUMMARY("Summary");
+
+    private final String label;
+
+    PageTableFilter(String label) {
+        this.label = label;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,296 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Primitive backing store for a flat page table.
+ * Valid bits are packed 64 per long and frame numbers are kept in int arrays, so a lookup never allocates.
+ * Entries are allocated in blocks of {@link #BLOCK_SIZE} the first time one of them is mapped, so memory grows
+ * with the pages touched rather than the size of the table; see {@link RadixPageTable} for spaces beyond an int.
+ */
+public class PageTableState implements PageTableStructure {
+    /**
+     * Entries allocated together when the first of them is mapped.
+     */
+    public static final int BLOCK_SIZE = 1 << 12;
+
+    /**
+     * The widest page numbers a flat table holds, so that its size fits an int.
+     */
+    public static final int MAX_PAGE_NUMBER_BITS = 30;
+
+    private static final int BLOCK_SHIFT = 12;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    private static final int[] INVALID_BLOCK = invalidBlock();
+
+    private long[][] validBits;
+    private int[][] frames;
+    private int size;
+    private RowChangeListener listener;
+
+    public PageTableState(int size) {
+        resize(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param listener Told about every entry that changes, or null.
+     */
+    public void setRowChangeListener(RowChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reallocate the table with the given number of entries, all invalid.
+     */
+    public void resize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Page table size must not be negative: " + size);
+        }
+        this.size = size;
+        int blocks = (int) (((long) size + BLOCK_MASK) >>> BLOCK_SHIFT);
+        this.validBits = new long[blocks][];
+        this.frames = new int[blocks][];
+    }
+
+    private static int[] invalidBlock() {
+        int[] block = new int[BLOCK_SIZE];
+        Arrays.fill(block, NO_FRAME);
+        return block;
+    }
+
+    /**
+     * @return The number of blocks of entries allocated so far.
+     */
+    public int getAllocatedBlocks() {
+        int allocated = 0;
+        for (int[] block : frames) {
+            if (block != null) {
+                allocated++;
+            }
+        }
+        return allocated;
+    }
+
+    public boolean isValid(int vpn) {
+        long[] bits = validBits[vpn >>> BLOCK_SHIFT];
+        return bits != null && (bits[(vpn & BLOCK_MASK) >>> 6] & (1L << vpn)) != 0;
+    }
+
+    /**
+     * @return The frame mapped to the virtual page, or {@link #NO_FRAME} if the entry is invalid.
+     */
+    @Override
+    public int lookup(long vpn) {
+        int[] block = frames[(int) vpn >>> BLOCK_SHIFT];
+        return block != null ? block[(int) vpn & BLOCK_MASK] : NO_FRAME; // Invalid entries hold NO_FRAME
+    }
+
+    /**
+     * @return The first valid entry at or after the given one, or -1 if there is none. Unallocated blocks are skipped.
+     */
+    public int nextValid(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        for (int block = from >>> BLOCK_SHIFT; block < validBits.length; block++) {
+            if (validBits[block] != null) {
+                int start = block << BLOCK_SHIFT;
+                int next = nextSetBit(validBits[block], Math.max(from - start, 0), Math.min(size - start, BLOCK_SIZE));
+                if (next >= 0) {
+                    return start + next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The number of valid entries from {@code from} inclusive to {@code to} exclusive, counted 64 at a time.
+     */
+    public int countValid(int from, int to) {
+        int count = 0;
+        for (int block = from >>> BLOCK_SHIFT; from < to; block++) {
+            int start = block << BLOCK_SHIFT;
+            int end = Math.min(to - start, BLOCK_SIZE);
+            if (validBits[block] != null) {
+                count += countSetBits(validBits[block], from - start, end);
+            }
+            from = start + end;
+        }
+        return count;
+    }
+
+    /**
+     * @return The first entry at or after {@code from} mapped differently in another table of the same size,
+     *         or -1 if there is none. Blocks the two tables share, or neither has allocated, are skipped.
+     */
+    public int nextDifference(PageTableState other, int from) {
+        if (other.size != size || from < 0) {
+            return -1;
+        }
+        for (int block = from >>> BLOCK_SHIFT; block < frames.length; block++) {
+            int[] mine = frames[block];
+            int[] theirs = other.frames[block];
+            if (mine == theirs) {
+                continue;
+            }
+            int start = block << BLOCK_SHIFT;
+            int first = Math.max(from - start, 0);
+            int offset = Arrays.mismatch(mine != null ? mine : INVALID_BLOCK, first, BLOCK_SIZE,
+                    theirs != null ? theirs : INVALID_BLOCK, first, BLOCK_SIZE);
+            if (offset >= 0) {
+                return start + first + offset;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return A copy of every entry, for {@link StateSnapshot}. Only allocated blocks are copied, and the copy
+     *         has no listener. Must be called on the thread that changes the table.
+     */
+    public PageTableState copy() {
+        PageTableState copy = new PageTableState(size);
+        for (int block = 0; block < frames.length; block++) {
+            if (frames[block] != null) {
+                copy.frames[block] = frames[block].clone();
+                copy.validBits[block] = validBits[block].clone();
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @return The first bit set at or after {@code from} and before {@code size}, or -1 if there is none.
+     */
+    static int nextSetBit(long[] bits, int from, int size) {
+        if (from >= size) {
+            return -1;
+        }
+        int word = from >>> 6;
+        long masked = bits[word] & (-1L << from);
+        while (masked == 0) {
+            if (++word == bits.length) {
+                return -1;
+            }
+            masked = bits[word];
+        }
+        int index = (word << 6) + Long.numberOfTrailingZeros(masked);
+        return index < size ? index : -1;
+    }
+
+    /**
+     * @return The number of bits set from {@code from} inclusive to {@code to} exclusive.
+     */
+    static int countSetBits(long[] bits, int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long lowMask = -1L << from;
+        long highMask = -1L >>> (63 - ((to - 1) & 63));
+        if (first == last) {
+            return Long.bitCount(bits[first] & lowMask & highMask);
+        }
+        int count = Long.bitCount(bits[first] & lowMask);
+        for (int word = first + 1; word < last; word++) {
+            count += Long.bitCount(bits[word]);
+        }
+        return count + Long.bitCount(bits[last] & highMask);
+    }
+
+    @Override
+    public void map(long vpn, int frame) {
+        int index = (int) vpn;
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Page " + index + " outside a table of " + size);
+        }
+        int block = index >>> BLOCK_SHIFT;
+        if (frames[block] == null) {
+            frames[block] = INVALID_BLOCK.clone();
+            validBits[block] = new long[BLOCK_SIZE >>> 6];
+        }
+        frames[block][index & BLOCK_MASK] = frame;
+        validBits[block][(index & BLOCK_MASK) >>> 6] |= 1L << index;
+        if (listener != null) {
+            listener.rowChanged(index);
+        }
+    }
+
+    @Override
+    public void invalidate(long vpn) {
+        int index = (int) vpn;
+        int block = index >>> BLOCK_SHIFT;
+        if (frames[block] != null) {
+            frames[block][index & BLOCK_MASK] = NO_FRAME;
+            validBits[block][(index & BLOCK_MASK) >>> 6] &= ~(1L << index);
+        }
+        if (listener != null) {
+            listener.rowChanged(index);
+        }
+    }
+
+    /**
+     * A flat table is a single array indexed by page number.
+     */
+    @Override
+    public int getLastWalkReferences() {
+        return 1;
+    }
+
+    /**
+     * @return Bytes of the allocated blocks plus the references to every block.
+     */
+    @Override
+    public long getAllocatedBytes() {
+        return getAllocatedBlocks() * (BLOCK_SIZE * 4L + BLOCK_SIZE / 8) + frames.length * 16L;
+    }
+
+    /**
+     * Write the allocated blocks only, each after its index.
+     */
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInt(size);
+        out.writeInt(getAllocatedBlocks());
+        for (int block = 0; block < frames.length; block++) {
+            if (frames[block] != null) {
+                out.writeInt(block);
+                out.writeLongs(validBits[block]);
+                out.writeInts(frames[block]);
+            }
+        }
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.expect("a page table of size", size);
+        clear();
+        int blocks = in.readInt();
+        for (int i = 0; i < blocks; i++) {
+            int block = in.readInt();
+            if (block < 0 || block >= frames.length || frames[block] != null) {
+                throw new IOException("Corrupt checkpoint: page table block " + block + ".");
+            }
+            validBits[block] = new long[BLOCK_SIZE >>> 6];
+            frames[block] = new int[BLOCK_SIZE];
+            in.readLongs(validBits[block]);
+            in.readInts(frames[block]);
+        }
+    }
+
+    /**
+     * Invalidate every entry while keeping the current size. Blocks are released.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(validBits, null);
+        Arrays.fill(frames, null);
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.model;
+
+import java.io.IOException;
+
+/**
+ * A page table mapping virtual page numbers to frames, whatever its organization.
+ */
+public interface PageTableStructure {
+    int NO_FRAME = -1;
+
+    /**
+     * @return The frame mapped to the virtual page, or {@link #NO_FRAME} if the entry is invalid.
+     */
+    int lookup(long vpn);
+
+    void map(long vpn, int frame);
+
+    void invalidate(long vpn);
+
+    /**
+     * Invalidate every entry.
+     */
+    void clear();
+
+    /**
+     * @return Memory references made by the most recent {@link #lookup(long)}, one per table level read.
+     */
+    int getLastWalkReferences();
+
+    /**
+     * @return Bytes of page table entries currently allocated.
+     */
+    long getAllocatedBytes();
+
+    /**
+     * Write every entry to a checkpoint.
+     */
+    void save(CheckpointWriter out) throws IOException;
+
+    /**
+     * Replace every entry with those saved by a table of the same organization and size.
+     * Row change listeners are not told.
+     */
+    void restore(CheckpointReader in) throws IOException;
+}
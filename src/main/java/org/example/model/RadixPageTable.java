@@ -0,0 +1,245 @@
+package org.example.model;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Sparse multi-level page table, organized like the x86-64 4- and 5-level tables.
+ * The page number is split into one index per level, root first; a node of a level has 2^bits entries.
+ * Only the root exists up front, every other node is allocated the first time a page below it is mapped,
+ * so memory grows with the touched footprint rather than with the size of the virtual address space.
+ * <p>
+ * The nodes of a level are packed into one int array: an inner entry holds the index of its child node plus one,
+ * a leaf entry holds its frame plus one, and zero marks an empty entry.
+ */
+public class RadixPageTable implements PageTableStructure {
+    public static final int MIN_LEVELS = 2;
+    public static final int MAX_LEVELS = 5;
+    public static final int MAX_LEVEL_BITS = 20;
+
+    private final int pageNumberBits;
+    private final int levels;
+    private final int[] bits;
+    private final int[] shifts;
+    private final int[] masks;
+    private int[][] entries;
+    private int[] nodeCounts;
+    private int lastWalkReferences;
+
+    /**
+     * Split the page number evenly over the levels, giving any remainder to the levels nearest the root.
+     * 36 page number bits over 4 levels gives the x86-64 layout of 9 bits per level.
+     */
+    public RadixPageTable(int pageNumberBits, int levels) {
+        this(splitBits(pageNumberBits, levels));
+    }
+
+    /**
+     * @param levelBits Index width of each level, root first.
+     */
+    public RadixPageTable(int... levelBits) {
+        if (levelBits.length < MIN_LEVELS || levelBits.length > MAX_LEVELS) {
+            throw new IllegalArgumentException("A radix page table has between " + MIN_LEVELS + " and " + MAX_LEVELS + " levels: " + levelBits.length);
+        }
+        this.levels = levelBits.length;
+        this.bits = levelBits.clone();
+        this.shifts = new int[levels];
+        this.masks = new int[levels];
+        int total = 0;
+        for (int level = levels - 1; level >= 0; level--) {
+            if (bits[level] <= 0 || bits[level] > MAX_LEVEL_BITS) {
+                throw new IllegalArgumentException("Level " + level + " must index between 1 and " + MAX_LEVEL_BITS + " bits: " + bits[level]);
+            }
+            shifts[level] = total;
+            masks[level] = (1 << bits[level]) - 1;
+            total += bits[level];
+        }
+        if (total > 63) {
+            throw new IllegalArgumentException("Page numbers are at most 63 bits: " + total);
+        }
+        this.pageNumberBits = total;
+        clear();
+    }
+
+    static int[] splitBits(int pageNumberBits, int levels) {
+        if (levels < MIN_LEVELS || levels > MAX_LEVELS) {
+            throw new IllegalArgumentException("A radix page table has between " + MIN_LEVELS + " and " + MAX_LEVELS + " levels: " + levels);
+        }
+        if (pageNumberBits < levels) {
+            throw new IllegalArgumentException(pageNumberBits + " page number bits cannot be split over " + levels + " levels.");
+        }
+        int[] levelBits = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            levelBits[level] = pageNumberBits / levels + (level < pageNumberBits % levels ? 1 : 0);
+        }
+        return levelBits;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public int getPageNumberBits() {
+        return pageNumberBits;
+    }
+
+    /**
+     * @return Index width of a level, counted from the root.
+     */
+    public int getLevelBits(int level) {
+        return bits[level];
+    }
+
+    /**
+     * @return Nodes allocated at a level, counted from the root.
+     */
+    public int getNodeCount(int level) {
+        return nodeCounts[level];
+    }
+
+    public long getNodeCount() {
+        long count = 0;
+        for (int level = 0; level < levels; level++) {
+            count += nodeCounts[level];
+        }
+        return count;
+    }
+
+    private int indexAt(long vpn, int level) {
+        return (int) (vpn >>> shifts[level]) & masks[level];
+    }
+
+    /**
+     * Walk from the root, reading one entry per level. A walk stops early at the first missing node.
+     */
+    @Override
+    public int lookup(long vpn) {
+        int node = 0;
+        int last = levels - 1;
+        for (int level = 0; level < last; level++) {
+            int child = entries[level][(node << bits[level]) + indexAt(vpn, level)];
+            if (child == 0) {
+                lastWalkReferences = level + 1;
+                return NO_FRAME;
+            }
+            node = child - 1;
+        }
+        lastWalkReferences = levels;
+        return entries[last][(node << bits[last]) + indexAt(vpn, last)] - 1;
+    }
+
+    /**
+     * Map a page, allocating the missing nodes on its path.
+     *
+     * @throws IllegalArgumentException if the page number does not fit the table.
+     */
+    @Override
+    public void map(long vpn, int frame) {
+        if (vpn < 0 || (vpn >>> pageNumberBits) != 0) {
+            throw new IllegalArgumentException("Virtual page " + Long.toHexString(vpn).toUpperCase() + " does not fit in " + pageNumberBits + " bits.");
+        }
+        int node = 0;
+        int last = levels - 1;
+        for (int level = 0; level < last; level++) {
+            int entry = (node << bits[level]) + indexAt(vpn, level);
+            int child = entries[level][entry];
+            if (child == 0) {
+                child = allocateNode(level + 1) + 1;
+                entries[level][entry] = child;
+            }
+            node = child - 1;
+        }
+        entries[last][(node << bits[last]) + indexAt(vpn, last)] = frame + 1;
+    }
+
+    /**
+     * Clear the leaf entry of a page. Nodes are kept once allocated, as an operating system would.
+     */
+    @Override
+    public void invalidate(long vpn) {
+        int node = 0;
+        int last = levels - 1;
+        for (int level = 0; level < last; level++) {
+            int child = entries[level][(node << bits[level]) + indexAt(vpn, level)];
+            if (child == 0) {
+                return;
+            }
+            node = child - 1;
+        }
+        entries[last][(node << bits[last]) + indexAt(vpn, last)] = 0;
+    }
+
+    private int allocateNode(int level) {
+        int node = nodeCounts[level];
+        long end = (long) (node + 1) << bits[level];
+        if (end > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Page table level " + level + " cannot hold more than " + node + " nodes.");
+        }
+        if (end > entries[level].length) {
+            long capacity = Math.min(Math.max((long) entries[level].length * 2, 1L << bits[level]), Integer.MAX_VALUE - 8);
+            entries[level] = Arrays.copyOf(entries[level], (int) Math.max(capacity, end));
+        }
+        nodeCounts[level] = node + 1;
+        return node;
+    }
+
+    @Override
+    public int getLastWalkReferences() {
+        return lastWalkReferences;
+    }
+
+    /**
+     * @return Bytes of the allocated nodes, four per entry.
+     */
+    @Override
+    public long getAllocatedBytes() {
+        long bytes = 0;
+        for (int level = 0; level < levels; level++) {
+            bytes += ((long) nodeCounts[level] << bits[level]) * Integer.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Saves the allocated nodes of every level, not the spare capacity behind them.
+     */
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInts(bits);
+        for (int level = 0; level < levels; level++) {
+            out.writeInts(Arrays.copyOf(entries[level], nodeCounts[level] << bits[level]));
+        }
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        if (!Arrays.equals(in.readInts(), bits)) {
+            throw new IOException("The checkpoint was saved with a page table of other levels.");
+        }
+        int[][] saved = new int[levels][];
+        int[] counts = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            saved[level] = in.readInts();
+            counts[level] = saved[level].length >>> bits[level];
+        }
+        entries = saved;
+        nodeCounts = counts;
+        lastWalkReferences = 0;
+    }
+
+    /**
+     * Drop every node but an empty root. Lower levels start without storage, which keeps the table of a process
+     * that touches few pages small.
+     */
+    @Override
+    public void clear() {
+        entries = new int[levels][];
+        nodeCounts = new int[levels];
+        entries[0] = new int[1 << bits[0]];
+        nodeCounts[0] = 1;
+        for (int level = 1; level < levels; level++) {
+            entries[level] = new int[0];
+        }
+        lastWalkReferences = 0;
+    }
+}
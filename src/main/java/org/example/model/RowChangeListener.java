@@ -0,0 +1,9 @@
+package org.example.model;
+
+/**
+ * Told which row of a state changed, so views can repaint just that row.
+ */
+@FunctionalInterface
+public interface RowChangeListener {
+    void rowChanged(int row);
+}
@@ -0,0 +1,127 @@
+package org.example.model;
+
+/**
+ * Immutable copy of the TLB, page table and frame contents, taken so a view can show them while
+ * another thread keeps changing the live state.
+ */
+public final class StateSnapshot {
+    private static final byte REFERENCED = 1;
+    private static final byte DIRTY = 2;
+
+    private final long[] tlbVpns;
+    private final int[] tlbFrames;
+    private final PageTableState pages;
+    private final int validPages;
+    private final long[] frameOwners;
+    private final byte[] frameBits;
+
+    private StateSnapshot(long[] tlbVpns, int[] tlbFrames, PageTableState pages, long[] frameOwners, byte[] frameBits) {
+        this.tlbVpns = tlbVpns;
+        this.tlbFrames = tlbFrames;
+        this.pages = pages;
+        this.validPages = pages.countValid(0, pages.size());
+        this.frameOwners = frameOwners;
+        this.frameBits = frameBits;
+    }
+
+    /**
+     * Copy the given state. Must be called on the thread that changes it.
+     */
+    public static StateSnapshot capture(TLBState tlb, PageTableState pageTable, PMState pm) {
+        long[] tlbVpns = new long[tlb.size()];
+        int[] tlbFrames = new int[tlb.size()];
+        for (int slot = 0; slot < tlbVpns.length; slot++) {
+            tlbVpns[slot] = tlb.getVpn(slot);
+            tlbFrames[slot] = tlb.getFrame(slot);
+        }
+        PageTableState pages = pageTable.copy(); // Only the blocks touched so far
+        long[] frameOwners = new long[pm.size()];
+        byte[] frameBits = new byte[pm.size()];
+        for (int frame = 0; frame < frameOwners.length; frame++) {
+            frameOwners[frame] = pm.getOwner(frame);
+            frameBits[frame] = (byte) ((pm.isReferenced(frame) ? REFERENCED : 0) | (pm.isDirty(frame) ? DIRTY : 0));
+        }
+        return new StateSnapshot(tlbVpns, tlbFrames, pages, frameOwners, frameBits);
+    }
+
+    public int getTlbSize() {
+        return tlbVpns.length;
+    }
+
+    /**
+     * @return The page cached in a TLB slot, or {@link TLBState#EMPTY}.
+     */
+    public long getTlbVpn(int slot) {
+        return tlbVpns[slot];
+    }
+
+    public int getTlbFrame(int slot) {
+        return tlbFrames[slot];
+    }
+
+    public int getPageCount() {
+        return pages.size();
+    }
+
+    /**
+     * @return The number of valid page table entries, counted when the snapshot was taken.
+     */
+    public int getValidPageCount() {
+        return validPages;
+    }
+
+    /**
+     * @return The frame a page is mapped to, or {@link PageTableState#NO_FRAME}.
+     */
+    public int getPageFrame(int vpn) {
+        return pages.lookup(vpn);
+    }
+
+    /**
+     * @return The first valid page at or after the given one, or -1 if there is none.
+     */
+    public int nextValidPage(int from) {
+        return pages.nextValid(from);
+    }
+
+    /**
+     * @return The number of valid pages from {@code from} inclusive to {@code to} exclusive.
+     */
+    public int countValidPages(int from, int to) {
+        return pages.countValid(from, to);
+    }
+
+    /**
+     * @return The first page at or after {@code from} mapped differently in a later snapshot, or -1 if there is none.
+     */
+    public int nextChangedPage(StateSnapshot later, int from) {
+        return pages.nextDifference(later.pages, from);
+    }
+
+    /**
+     * @return The first page at or after {@code from} mapped differently in the live table, or -1 if there is none.
+     *         Must be called on the thread that changes it.
+     */
+    public int nextChangedPage(PageTableState live, int from) {
+        return pages.nextDifference(live, from);
+    }
+
+    public int getFrameCount() {
+        return frameOwners.length;
+    }
+
+    /**
+     * @return The page held by a frame, or {@link PMState#FREE}.
+     */
+    public long getFrameOwner(int frame) {
+        return frameOwners[frame];
+    }
+
+    public boolean isFrameReferenced(int frame) {
+        return (frameBits[frame] & REFERENCED) != 0;
+    }
+
+    public boolean isFrameDirty(int frame) {
+        return (frameBits[frame] & DIRTY) != 0;
+    }
+}
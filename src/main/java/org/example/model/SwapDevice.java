@@ -0,0 +1,186 @@
+package org.example.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Secondary memory as a swap file on disk. A page gets a slot in the file the first time it is written out and
+ * keeps it; pages are read and written with positional {@link FileChannel} I/O, so the cost of paging is that of
+ * the real device. A page that was never written out is zero-filled instead of read, as on first touch.
+ * <p>
+ * Slots are keyed by process and page, and sized by the page, so huge pages take one slot of their own size.
+ * The time spent in I/O is measured and kept with the page counts.
+ */
+public class SwapDevice implements Closeable {
+    private static final ByteBuffer ZEROS = ByteBuffer.allocateDirect(1 << 16);
+
+    private final Path file;
+    private final boolean deleteOnClose;
+    private final FileChannel channel;
+    private final Map<Integer, LongIntIndex> slotsByProcess = new HashMap<>();
+    private long[] slotPositions = new long[1024];
+    private int slotCount;
+    private long fileBytes;
+    private int lastProcess = -1;
+    private LongIntIndex lastSlots;
+    private long pagesIn;
+    private long pagesOut;
+    private long zeroFills;
+    private long ioNanos;
+
+    /**
+     * Open a swap file, emptying it if it exists.
+     *
+     * @param deleteOnClose Delete the file again on {@link #close()}.
+     */
+    public SwapDevice(Path file, boolean deleteOnClose) throws IOException {
+        this.file = file;
+        this.deleteOnClose = deleteOnClose;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Open a swap file in the temporary directory, deleted again on {@link #close()}.
+     */
+    public static SwapDevice createTemporary() throws IOException {
+        Path file = Files.createTempFile("vm-swap", ".swp");
+        file.toFile().deleteOnExit(); // In case the device is never closed
+        return new SwapDevice(file, true);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    private LongIntIndex slots(int process) {
+        if (process != lastProcess || lastSlots == null) {
+            lastSlots = slotsByProcess.computeIfAbsent(process, p -> new LongIntIndex(1024));
+            lastProcess = process;
+        }
+        return lastSlots;
+    }
+
+    /**
+     * Write a page out to its slot, giving it one at the end of the file if it has none yet.
+     *
+     * @param bytes The page contents; read from its position to its limit.
+     */
+    public void pageOut(int process, long page, ByteBuffer bytes) throws IOException {
+        long start = System.nanoTime();
+        LongIntIndex slots = slots(process);
+        int slot = slots.get(page);
+        if (slot == LongIntIndex.ABSENT) {
+            if (slotCount == slotPositions.length) {
+                slotPositions = Arrays.copyOf(slotPositions, slotCount * 2);
+            }
+            slot = slotCount++;
+            slotPositions[slot] = fileBytes;
+            fileBytes += bytes.remaining();
+            slots.put(page, slot);
+        }
+        long position = slotPositions[slot];
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+        pagesOut++;
+        ioNanos += System.nanoTime() - start;
+    }
+
+    /**
+     * Read a page in from its slot, or zero-fill it if it was never written out.
+     *
+     * @param bytes Receives the page contents, from its position to its limit.
+     * @return True if the page was read, false if it was zero-filled.
+     */
+    public boolean pageIn(int process, long page, ByteBuffer bytes) throws IOException {
+        long start = System.nanoTime();
+        int slot = slots(process).get(page);
+        if (slot == LongIntIndex.ABSENT) {
+            while (bytes.hasRemaining()) {
+                bytes.put(ZEROS.duplicate().limit(Math.min(ZEROS.capacity(), bytes.remaining())));
+            }
+            zeroFills++;
+            ioNanos += System.nanoTime() - start;
+            return false;
+        }
+        long position = slotPositions[slot];
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, position);
+            if (read < 0) {
+                throw new IOException("The swap file " + file + " ends inside the slot of page " + AddressLayout.toHex(page) + ".");
+            }
+            position += read;
+        }
+        pagesIn++;
+        ioNanos += System.nanoTime() - start;
+        return true;
+    }
+
+    /**
+     * @return Pages read back from the file.
+     */
+    public long getPagesIn() {
+        return pagesIn;
+    }
+
+    /**
+     * @return Pages written to the file.
+     */
+    public long getPagesOut() {
+        return pagesOut;
+    }
+
+    /**
+     * @return Pages loaded for the first time, zero-filled without reading the file.
+     */
+    public long getZeroFills() {
+        return zeroFills;
+    }
+
+    /**
+     * @return Wall-clock time spent reading, writing and zero-filling pages.
+     */
+    public long getIoNanos() {
+        return ioNanos;
+    }
+
+    /**
+     * @return Bytes of the file taken by slots.
+     */
+    public long getFileBytes() {
+        return fileBytes;
+    }
+
+    /**
+     * Forget every slot and empty the file.
+     */
+    public void clear() throws IOException {
+        channel.truncate(0);
+        slotsByProcess.clear();
+        lastProcess = -1;
+        lastSlots = null;
+        slotCount = 0;
+        fileBytes = 0;
+        pagesIn = 0;
+        pagesOut = 0;
+        zeroFills = 0;
+        ioNanos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        if (deleteOnClose) {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.model;
+
+/**
+ * How TLB slots are grouped into sets.
+ */
+public enum TLBOrganization {
+    FULLY_ASSOCIATIVE("Fully Associative"),
+    SET_ASSOCIATIVE("Set-Associative"),
+    DIRECT_MAPPED("Direct-Mapped");
+
+    private final String label;
+
+    TLBOrganization(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @return The number of ways per set for a TLB of the given size.
+     */
+    public int waysFor(int size, int requestedWays) {
+        switch (this) {
+            case FULLY_ASSOCIATIVE:
+                return Math.max(size, 1);
+            case DIRECT_MAPPED:
+                return 1;
+            default:
+                return requestedWays;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,356 @@
+package org.example.model;
+
+import org.example.model.policy.TLBReplacement;
+import org.example.model.policy.TLBReplacementPolicy;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Primitive backing store for the TLB.
+ * Each slot holds a virtual page number and the frame it maps to; empty slots hold {@link #EMPTY}.
+ * Slots are grouped into sets of {@code ways} consecutive slots, and a hash index from virtual
+ * page number to slot makes lookups O(1) whatever the organization. A new translation fills an empty
+ * way of its set if there is one; otherwise the {@link TLBReplacementPolicy} picks the way to overwrite.
+ * <p>
+ * Entries are tagged with an address space identifier (ASID, PCID on x86), so translations of several
+ * processes can be cached side by side. ASID 0 is the untagged default; the index key of a tagged entry
+ * packs the ASID above the page number, which limits tagged page numbers to {@link #MAX_TAGGED_PAGE_NUMBER_BITS} bits.
+ */
+public class TLBState {
+    public static final long EMPTY = -1L;
+    public static final int MISS = -1;
+    public static final int ASID_BITS = 12;
+    public static final int MAX_ASIDS = 1 << ASID_BITS;
+    public static final int MAX_TAGGED_PAGE_NUMBER_BITS = 63 - ASID_BITS;
+
+    private long[] vpns;
+    private int[] asids;
+    private int[] frames;
+    private int[] freeWays;
+    private int[] freeCount;
+    private LongIntIndex index;
+    private TLBOrganization organization;
+    private TLBReplacement replacement = TLBReplacement.FIFO;
+    private TLBReplacementPolicy policy;
+    private int ways;
+    private int sets;
+    private RowChangeListener listener;
+
+    public TLBState(int size) {
+        this(size, TLBOrganization.FULLY_ASSOCIATIVE, size);
+    }
+
+    public TLBState(int size, TLBOrganization organization, int ways) {
+        configure(size, organization, ways);
+    }
+
+    public TLBState(int size, TLBOrganization organization, int ways, TLBReplacement replacement) {
+        this.replacement = replacement;
+        configure(size, organization, ways);
+    }
+
+    public int size() {
+        return vpns.length;
+    }
+
+    public TLBOrganization getOrganization() {
+        return organization;
+    }
+
+    public int getWays() {
+        return ways;
+    }
+
+    public int getSets() {
+        return sets;
+    }
+
+    public TLBReplacement getReplacement() {
+        return replacement;
+    }
+
+    /**
+     * @param listener Told about every entry that changes, or null.
+     */
+    public void setRowChangeListener(RowChangeListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Switch to another replacement policy. The TLB is emptied so every policy starts from the same state.
+     */
+    public void setReplacement(TLBReplacement replacement) {
+        this.replacement = replacement;
+        configure(vpns.length, organization, ways);
+    }
+
+    /**
+     * Reallocate the TLB with the given number of slots, all empty, keeping the organization.
+     */
+    public void resize(int size) {
+        configure(size, organization, ways);
+    }
+
+    /**
+     * Reallocate the TLB with the given number of slots and organization, all empty.
+     *
+     * @param ways Ways per set; only used for {@link TLBOrganization#SET_ASSOCIATIVE}.
+     */
+    public void configure(int size, TLBOrganization organization, int ways) {
+        if (size < 0) {
+            throw new IllegalArgumentException("TLB size must not be negative: " + size);
+        }
+        int effectiveWays = organization.waysFor(size, ways);
+        if (effectiveWays <= 0 || (size > 0 && size % effectiveWays != 0)) {
+            throw new IllegalArgumentException("TLB size " + size + " is not a multiple of " + effectiveWays + " ways.");
+        }
+        int sets = Math.max(size / effectiveWays, 1);
+        TLBReplacementPolicy policy = replacement.create();
+        policy.reset(sets, effectiveWays); // Rejects geometries the policy cannot handle before anything changes
+        this.policy = policy;
+        this.organization = organization;
+        this.ways = effectiveWays;
+        this.sets = sets;
+        vpns = new long[size];
+        asids = new int[size];
+        frames = new int[size];
+        freeWays = new int[size];
+        freeCount = new int[sets];
+        index = new LongIntIndex(size);
+        clear();
+    }
+
+    /**
+     * @return The set a virtual page maps to.
+     */
+    public int setOf(long vpn) {
+        return (int) (vpn % sets);
+    }
+
+    private static long key(int asid, long vpn) {
+        if (asid == 0) {
+            return vpn;
+        }
+        if (asid < 0 || asid >= MAX_ASIDS) {
+            throw new IllegalArgumentException("ASID must be between 0 and " + (MAX_ASIDS - 1) + ": " + asid);
+        }
+        if ((vpn >>> MAX_TAGGED_PAGE_NUMBER_BITS) != 0) {
+            throw new IllegalArgumentException("Tagged page numbers are at most " + MAX_TAGGED_PAGE_NUMBER_BITS + " bits: "
+                    + Long.toHexString(vpn).toUpperCase());
+        }
+        return (long) asid << MAX_TAGGED_PAGE_NUMBER_BITS | vpn;
+    }
+
+    /**
+     * Find the slot caching the given virtual page of ASID 0.
+     *
+     * @return The slot index, or {@link #MISS} if the page is not cached.
+     */
+    public int lookup(long vpn) {
+        return index.get(vpn);
+    }
+
+    /**
+     * Find the slot caching the given virtual page of an address space.
+     *
+     * @return The slot index, or {@link #MISS} if the page is not cached.
+     */
+    public int lookup(int asid, long vpn) {
+        return index.get(key(asid, vpn));
+    }
+
+    public long getVpn(int slot) {
+        return vpns[slot];
+    }
+
+    public int getAsid(int slot) {
+        return asids[slot];
+    }
+
+    public int getFrame(int slot) {
+        return frames[slot];
+    }
+
+    public boolean isOccupied(int slot) {
+        return vpns[slot] != EMPTY;
+    }
+
+    /**
+     * Record a hit on a slot, for the replacement policy.
+     */
+    public void touch(int slot) {
+        policy.onHit(slot);
+    }
+
+    /**
+     * Cache a translation of ASID 0.
+     *
+     * @return The slot that was written.
+     */
+    public int insert(long vpn, int frame) {
+        return insert(0, vpn, frame);
+    }
+
+    /**
+     * Cache a translation in the page's set, filling an empty way or replacing the policy's victim.
+     *
+     * @return The slot that was written.
+     */
+    public int insert(int asid, long vpn, int frame) {
+        return insert(asid, vpn, frame, 0);
+    }
+
+    /**
+     * Cache the translation of a huge page, keyed by its first base page. The set is chosen by the number of the
+     * huge page, so the huge pages of a region spread over every set instead of sharing the set of their first page.
+     *
+     * @param pageShift Base pages per page, as a power of 2; 0 for a base page.
+     * @return The slot that was written.
+     */
+    public int insert(int asid, long vpn, int frame, int pageShift) {
+        if (vpns.length == 0) {
+            return MISS;
+        }
+        long key = key(asid, vpn);
+        int existing = index.get(key);
+        if (existing != MISS) {
+            frames[existing] = frame;
+            policy.onHit(existing);
+            if (listener != null) {
+                listener.rowChanged(existing);
+            }
+            return existing;
+        }
+        int set = setOf(vpn >>> pageShift);
+        int slot;
+        if (freeCount[set] > 0) {
+            slot = freeWays[set * ways + --freeCount[set]];
+        } else {
+            slot = policy.selectVictim(set);
+            index.remove(key(asids[slot], vpns[slot]));
+        }
+        vpns[slot] = vpn;
+        asids[slot] = asid;
+        frames[slot] = frame;
+        index.put(key, slot);
+        policy.onFill(slot);
+        if (listener != null) {
+            listener.rowChanged(slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Drop the cached translation for a virtual page of ASID 0, if any.
+     *
+     * @return The slot that was cleared, or {@link #MISS}.
+     */
+    public int invalidate(long vpn) {
+        return invalidate(0, vpn);
+    }
+
+    /**
+     * Drop the cached translation for a virtual page of an address space, if any.
+     *
+     * @return The slot that was cleared, or {@link #MISS}.
+     */
+    public int invalidate(int asid, long vpn) {
+        long key = key(asid, vpn);
+        int slot = index.get(key);
+        if (slot != MISS) {
+            index.remove(key);
+            vpns[slot] = EMPTY;
+            asids[slot] = 0;
+            frames[slot] = PageTableState.NO_FRAME;
+            policy.onInvalidate(slot);
+            int set = slot / ways;
+            freeWays[set * ways + freeCount[set]++] = slot;
+            if (listener != null) {
+                listener.rowChanged(slot);
+            }
+        }
+        return slot;
+    }
+
+    /**
+     * Drop every cached translation of one address space, as an INVPCID single-context flush does.
+     *
+     * @return The number of entries dropped.
+     */
+    public int flush(int asid) {
+        int flushed = 0;
+        for (int slot = 0; slot < vpns.length; slot++) {
+            if (vpns[slot] != EMPTY && asids[slot] == asid) {
+                invalidate(asid, vpns[slot]);
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Drop every cached translation, as a CR3 write without PCIDs does, telling the listener about each one.
+     *
+     * @return The number of entries dropped.
+     */
+    public int flushAll() {
+        int flushed = 0;
+        for (int slot = 0; slot < vpns.length; slot++) {
+            if (vpns[slot] != EMPTY) {
+                invalidate(asids[slot], vpns[slot]);
+                flushed++;
+            }
+        }
+        return flushed;
+    }
+
+    /**
+     * Write the cached translations and the replacement bookkeeping to a checkpoint.
+     */
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInt(vpns.length);
+        out.writeInt(ways);
+        out.writeInt(replacement.ordinal());
+        out.writeLongs(vpns);
+        out.writeInts(asids);
+        out.writeInts(frames);
+        out.writeInts(freeWays);
+        out.writeInts(freeCount);
+        index.save(out);
+        policy.save(out);
+    }
+
+    /**
+     * Replace the contents with those saved from a TLB of the same size, organization and policy.
+     * The row change listener is not told.
+     */
+    public void restore(CheckpointReader in) throws IOException {
+        in.expect("a TLB size of", vpns.length);
+        in.expect("TLB ways", ways);
+        in.expect("TLB replacement", replacement.ordinal());
+        in.readLongs(vpns);
+        in.readInts(asids);
+        in.readInts(frames);
+        in.readInts(freeWays);
+        in.readInts(freeCount);
+        index.restore(in);
+        policy.restore(in);
+    }
+
+    public void clear() {
+        Arrays.fill(vpns, EMPTY);
+        Arrays.fill(asids, 0);
+        Arrays.fill(frames, PageTableState.NO_FRAME);
+        // Per-set stacks of empty slots, popped in ascending way order.
+        for (int set = 0; set * ways < vpns.length; set++) {
+            int base = set * ways;
+            for (int way = 0; way < ways; way++) {
+                freeWays[base + way] = base + ways - 1 - way;
+            }
+            freeCount[set] = ways;
+        }
+        index.clear();
+        policy.reset(sets, ways);
+    }
+}
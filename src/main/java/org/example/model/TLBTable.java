@@ -1,26 +1,40 @@
 package org.example.model;
 
+import org.example.model.policy.TLBReplacement;
+
 import javax.swing.table.AbstractTableModel;
 
+/**
+ * Read-only table view over a {@link TLBState}. Cell text is computed on demand.
+ */
 public class TLBTable extends AbstractTableModel {
-    private int index = 0;
-    private String[][] table;
+    private final TLBState state;
+    private final TableUpdateCoalescer updates = new TableUpdateCoalescer(this);
+    private StateSnapshot snapshot;
 
     public TLBTable() {
-        int rowCount = 100;
-        int columnCount = 3;
-        table = new String[rowCount][columnCount];
-
-        for (int i = 0; i < rowCount; i++) {
-            for (int j = 0; j < columnCount; j++) {
-                table[i][j] = "";
-            }
-        }
+        this(new TLBState(100));
+    }
+
+    public TLBTable(TLBState state) {
+        this.state = state;
+        state.setRowChangeListener(updates);
+    }
+
+    public TLBState getState() {
+        return state;
+    }
+
+    /**
+     * @return Where changed rows wait to be published to the view.
+     */
+    public TableUpdateCoalescer getUpdates() {
+        return updates;
     }
 
     @Override
     public int getRowCount() {
-        return table.length;
+        return snapshot != null ? snapshot.getTlbSize() : state.size();
     }
 
     @Override
@@ -30,17 +44,23 @@ public class TLBTable extends AbstractTableModel {
 
     @Override
     public Object getValueAt(int rowIndex, int columnIndex) {
-        if (rowIndex < table.length && columnIndex < getColumnCount()) {
-            return table[rowIndex][columnIndex];
+        if (rowIndex >= getRowCount()) {
+            return null;
         }
-        return null;
-    }
-
-    public void setValue(Object s, int r, int c) {
-        if (r < table.length && c < getColumnCount()) {
-            table[r][c] = s.toString();
+        long vpn = snapshot != null ? snapshot.getTlbVpn(rowIndex) : state.getVpn(rowIndex);
+        switch (columnIndex) {
+            case 0:
+                return Integer.toHexString(rowIndex).toUpperCase();
+            case 1:
+                return vpn != TLBState.EMPTY ? Long.toHexString(vpn).toUpperCase() : "";
+            case 2:
+                if (vpn == TLBState.EMPTY) {
+                    return "";
+                }
+                return Integer.toHexString(snapshot != null ? snapshot.getTlbFrame(rowIndex) : state.getFrame(rowIndex)).toUpperCase();
+            default:
+                return null;
         }
-        fireTableDataChanged();
     }
 
     @Override
@@ -51,46 +71,64 @@ public class TLBTable extends AbstractTableModel {
         return null;
     }
 
-    public void setSize(int rowCount) {
-        int columnCount = 3;
-        table = new String[rowCount][columnCount];
-
-        for (int i = 0; i < rowCount; i++) {
-            setValue((Integer.toHexString(i)).toUpperCase(), i, 0);
-            for (int j = 1; j < columnCount; j++) {
-                table[i][j] = "";
-            }
-        }
+    /**
+     * Show a snapshot instead of the live state, for while another thread runs the simulation.
+     * Changes to the live state are not tracked until {@link #showLive()}.
+     */
+    public void showSnapshot(StateSnapshot snapshot) {
+        this.snapshot = snapshot;
+        state.setRowChangeListener(null);
+        updates.discard();
         fireTableDataChanged();
     }
 
-    public int searchTLB(String s) {
-        for (int i = 0; i < getRowCount(); i++) {
-            if (table[i][1].equals(s)) {
-                return i;
-            }
-        }
-        return -1;
+    /**
+     * Go back to showing the live state. Must be called on the thread that changes it.
+     */
+    public void showLive() {
+        snapshot = null;
+        state.setRowChangeListener(updates);
+        updates.discard();
+        fireTableDataChanged();
     }
 
-    public void addValue(String s, String index1) {
-        table[index][1] = s;
-        setValue(index1, index, 2);
-        if (index == getRowCount() - 1) index = 0;
-        else index++;
+    public void setSize(int rowCount) {
+        state.resize(rowCount);
+        updates.discard();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Resize the TLB and change how its slots are grouped into sets.
+     *
+     * @param ways Ways per set; only used for {@link TLBOrganization#SET_ASSOCIATIVE}.
+     */
+    public void setSize(int rowCount, TLBOrganization organization, int ways) {
+        state.configure(rowCount, organization, ways);
+        updates.discard();
         fireTableDataChanged();
     }
 
+    /**
+     * Resize the TLB and change both its organization and its replacement policy.
+     *
+     * @param ways Ways per set; only used for {@link TLBOrganization#SET_ASSOCIATIVE}.
+     */
+    public void setSize(int rowCount, TLBOrganization organization, int ways, TLBReplacement replacement) {
+        state.setReplacement(replacement);
+        setSize(rowCount, organization, ways);
+    }
+
+    public int searchTLB(String s) {
+        return state.lookup(Long.parseLong(s, 16));
+    }
+
     /**
      * Clear all values in the TLB table, resetting it to its initial empty state.
      */
     public void clear() {
-        for (int i = 0; i < table.length; i++) {
-            for (int j = 1; j < getColumnCount(); j++) {
-                table[i][j] = ""; // Clear virtual and physical page columns
-            }
-        }
-        index = 0; // Reset the index to the starting point
+        state.clear();
+        updates.discard();
         fireTableDataChanged(); // Notify the table of the changes
     }
 }
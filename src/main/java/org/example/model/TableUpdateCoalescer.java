@@ -0,0 +1,108 @@
+package org.example.model;
+
+import javax.swing.Timer;
+import javax.swing.table.AbstractTableModel;
+import java.util.BitSet;
+
+/**
+ * Collects the rows of a table model that changed and publishes them on the event dispatch thread
+ * as {@code fireTableRowsUpdated} ranges, at most once per interval. Any number of changes between
+ * two publications, from any thread, costs a single repaint of the affected rows.
+ */
+public class TableUpdateCoalescer implements RowChangeListener {
+    /**
+     * Default publication interval, about 30 updates per second.
+     */
+    public static final int DEFAULT_INTERVAL_MS = 33;
+
+    /**
+     * Beyond this many separate ranges, one range from the first to the last changed row is published instead.
+     */
+    static final int MAX_RANGES = 32;
+
+    private final AbstractTableModel model;
+    private final Timer timer;
+    private BitSet dirty = new BitSet();
+    private BitSet spare = new BitSet();
+
+    public TableUpdateCoalescer(AbstractTableModel model) {
+        this(model, DEFAULT_INTERVAL_MS);
+    }
+
+    public TableUpdateCoalescer(AbstractTableModel model, int intervalMs) {
+        this.model = model;
+        this.timer = new Timer(intervalMs, e -> flush());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Change the minimum time between two publications.
+     */
+    public void setInterval(int intervalMs) {
+        timer.setInitialDelay(intervalMs);
+        timer.setDelay(intervalMs);
+    }
+
+    /**
+     * Mark a row as changed. The row is published by the next flush.
+     */
+    @Override
+    public void rowChanged(int row) {
+        boolean schedule;
+        synchronized (this) {
+            schedule = dirty.isEmpty();
+            dirty.set(row);
+        }
+        if (schedule) {
+            timer.restart(); // Thread-safe; the flush itself runs on the event dispatch thread
+        }
+    }
+
+    /**
+     * Forget pending rows, for when the whole table is about to be repainted anyway.
+     */
+    public synchronized void discard() {
+        dirty.clear();
+    }
+
+    /**
+     * Publish the pending rows now. Must be called on the event dispatch thread, or with no table attached.
+     */
+    public void flush() {
+        BitSet rows;
+        synchronized (this) {
+            if (dirty.isEmpty()) {
+                return;
+            }
+            rows = dirty;
+            dirty = spare;
+            spare = rows;
+        }
+        publish(rows);
+        rows.clear();
+    }
+
+    /**
+     * Fire update events for a batch of changed rows. A model that does not show one row per changed index
+     * overrides this to translate the rows into its own; the set is cleared again once this returns.
+     */
+    protected void publish(BitSet rows) {
+        int rowCount = model.getRowCount();
+        int first = rows.nextSetBit(0);
+        if (first >= rowCount) {
+            return; // The table shrank since the rows changed
+        }
+        int last = Math.min(rows.length(), rowCount) - 1;
+        int ranges = 0;
+        for (int start = first; start >= 0 && start <= last && ranges <= MAX_RANGES; start = rows.nextSetBit(rows.nextClearBit(start))) {
+            ranges++;
+        }
+        if (ranges > MAX_RANGES) {
+            model.fireTableRowsUpdated(first, last);
+            return;
+        }
+        for (int start = first; start >= 0 && start <= last; start = rows.nextSetBit(rows.nextClearBit(start))) {
+            model.fireTableRowsUpdated(start, Math.min(rows.nextClearBit(start), last + 1) - 1);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Adaptive Replacement Cache (Megiddo and Modha).
+ * Resident pages are split between T1 (seen once recently) and T2 (seen at least twice), and the ghost lists
+ * B1 and B2 remember pages recently evicted from each. Hits in a ghost list move the target size p of T1,
+ * so the policy adapts between recency and frequency without any tuning parameter.
+ */
+public class ARCPolicy implements PageReplacementPolicy {
+    private static final long NONE = -1L;
+
+    private IntrusiveList t1;
+    private IntrusiveList t2;
+    private GhostList b1;
+    private GhostList b2;
+    private long[] frameVpn;
+    private int capacity;
+    private int p;
+    private long preparedVpn = NONE; // Page whose ghost bookkeeping was already done by selectVictim
+
+    public ARCPolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        capacity = frameCount;
+        t1 = new IntrusiveList(frameCount);
+        t2 = new IntrusiveList(frameCount);
+        b1 = new GhostList(frameCount);
+        b2 = new GhostList(frameCount);
+        frameVpn = new long[frameCount];
+        p = 0;
+        preparedVpn = NONE;
+    }
+
+    /**
+     * @return The current target size of T1.
+     */
+    public int getTarget() {
+        return p;
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        frameVpn[frame] = vpn;
+        boolean prepared = vpn == preparedVpn;
+        preparedVpn = NONE;
+        if (b1.contains(vpn)) {
+            if (!prepared) adaptTowardsRecency();
+            b1.remove(vpn);
+            t2.addFirst(frame);
+        } else if (b2.contains(vpn)) {
+            if (!prepared) adaptTowardsFrequency();
+            b2.remove(vpn);
+            t2.addFirst(frame);
+        } else {
+            if (!prepared) trimGhosts();
+            t1.addFirst(frame);
+        }
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        if (t1.contains(frame)) {
+            t1.remove(frame);
+            t2.addFirst(frame);
+        } else {
+            t2.moveToFirst(frame);
+        }
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        if (t1.contains(frame)) {
+            t1.remove(frame);
+        } else if (t2.contains(frame)) {
+            t2.remove(frame);
+        }
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        return selectVictim(incomingVpn, null, 0);
+    }
+
+    /**
+     * Evict from the same list, T1 or T2, as {@link #selectVictim(long)}, but the least recently used clean frame
+     * among its {@code window + 1} least recently used, or its LRU frame if they are all dirty.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        preparedVpn = incomingVpn;
+        if (b1.contains(incomingVpn)) {
+            adaptTowardsRecency();
+            return replace(false, dirty, window);
+        }
+        if (b2.contains(incomingVpn)) {
+            adaptTowardsFrequency();
+            return replace(true, dirty, window);
+        }
+        if (t1.size() + b1.size() >= capacity) {
+            if (t1.size() < capacity) {
+                b1.removeLast();
+                return replace(false, dirty, window);
+            }
+            return removeLast(t1, dirty, window); // T1 alone fills the cache: drop its LRU page without a ghost
+        }
+        if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * capacity) {
+            b2.removeLast();
+        }
+        return replace(false, dirty, window);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        t1.save(out);
+        t2.save(out);
+        b1.save(out);
+        b2.save(out);
+        out.writeLongs(frameVpn);
+        out.writeInt(p);
+        out.writeLong(preparedVpn);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        t1.restore(in);
+        t2.restore(in);
+        b1.restore(in);
+        b2.restore(in);
+        in.readLongs(frameVpn);
+        p = in.readInt();
+        preparedVpn = in.readLong();
+    }
+
+    private void adaptTowardsRecency() {
+        p = Math.min(capacity, p + Math.max(b2.size() / Math.max(b1.size(), 1), 1));
+    }
+
+    private void adaptTowardsFrequency() {
+        p = Math.max(0, p - Math.max(b1.size() / Math.max(b2.size(), 1), 1));
+    }
+
+    /**
+     * Keep the directory bounded when a new page is loaded into a free frame.
+     */
+    private void trimGhosts() {
+        if (t1.size() + b1.size() >= capacity) {
+            b1.removeLast();
+        } else if (t1.size() + t2.size() + b1.size() + b2.size() >= 2 * capacity) {
+            b2.removeLast();
+        }
+    }
+
+    private int replace(boolean incomingInB2, long[] dirty, int window) {
+        int t1Size = t1.size();
+        if (t1Size > 0 && (t1Size > p || (incomingInB2 && t1Size == p) || t2.isEmpty())) {
+            int frame = removeLast(t1, dirty, window);
+            b1.addFirst(frameVpn[frame]);
+            return frame;
+        }
+        int frame = removeLast(t2, dirty, window);
+        b2.addFirst(frameVpn[frame]);
+        return frame;
+    }
+
+    private static int removeLast(IntrusiveList list, long[] dirty, int window) {
+        return window == 0 ? list.removeLast() : list.removeLastUnmarked(dirty, window);
+    }
+}
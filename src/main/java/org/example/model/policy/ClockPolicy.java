@@ -0,0 +1,106 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * CLOCK: a hand sweeps the frames in order, clearing reference bits, and evicts the first unreferenced frame.
+ * Bound to the referenced bits of memory, the hand clears the accessed bits of the page table entries.
+ */
+public class ClockPolicy implements PageReplacementPolicy {
+    private long[] referenced;
+    private long[] resident;
+    private int frameCount;
+    private int hand;
+
+    public ClockPolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        this.frameCount = frameCount;
+        referenced = new long[(frameCount + 63) >>> 6];
+        resident = new long[(frameCount + 63) >>> 6];
+        hand = 0;
+    }
+
+    @Override
+    public void bindReferencedBits(long[] referenced) {
+        this.referenced = referenced;
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        resident[frame >>> 6] |= 1L << frame;
+        referenced[frame >>> 6] &= ~(1L << frame);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        referenced[frame >>> 6] |= 1L << frame;
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        resident[frame >>> 6] &= ~(1L << frame);
+        referenced[frame >>> 6] &= ~(1L << frame);
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        return selectVictim(incomingVpn, null, 0);
+    }
+
+    /**
+     * The hand also passes over up to {@code window} unreferenced dirty frames, leaving them resident, and evicts
+     * the first unreferenced clean frame it meets; if the next unreferenced frame is dirty too, or the hand comes
+     * back round to the first one passed over, that one goes.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        // At most two sweeps and a step: the first clears every reference bit it passes, and the second ends at the
+        // first frame passed over however large the window is.
+        int skipped = 0;
+        int firstSkipped = -1;
+        while (true) {
+            int frame = hand;
+            hand = (hand + 1 == frameCount) ? 0 : hand + 1;
+            long bit = 1L << frame;
+            if ((resident[frame >>> 6] & bit) == 0) {
+                continue;
+            }
+            if ((referenced[frame >>> 6] & bit) != 0) {
+                referenced[frame >>> 6] &= ~bit;
+            } else if (skipped > 0 && (dirty[frame >>> 6] & bit) != 0) {
+                if (skipped == window || frame == firstSkipped) {
+                    resident[firstSkipped >>> 6] &= ~(1L << firstSkipped);
+                    return firstSkipped;
+                }
+                skipped++;
+            } else if (window > 0 && (dirty[frame >>> 6] & bit) != 0) {
+                firstSkipped = frame;
+                skipped++;
+            } else {
+                resident[frame >>> 6] &= ~bit;
+                return frame;
+            }
+        }
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(referenced);
+        out.writeLongs(resident);
+        out.writeInt(hand);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readLongs(referenced);
+        in.readLongs(resident);
+        hand = in.readInt();
+    }
+}
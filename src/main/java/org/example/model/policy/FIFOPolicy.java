@@ -0,0 +1,59 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * First in, first out: evicts the frame that was loaded longest ago, whatever its accesses.
+ */
+public class FIFOPolicy implements PageReplacementPolicy {
+    private IntrusiveList queue;
+
+    public FIFOPolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        queue = new IntrusiveList(frameCount);
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        queue.addFirst(frame);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        queue.remove(frame);
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        return queue.removeLast();
+    }
+
+    /**
+     * Evict the oldest clean frame among the {@code window + 1} oldest, or the oldest frame if they are all dirty.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        return queue.removeLastUnmarked(dirty, window);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        queue.save(out);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        queue.restore(in);
+    }
+}
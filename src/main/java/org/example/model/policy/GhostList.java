@@ -0,0 +1,106 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+import org.example.model.LongIntIndex;
+
+import java.io.IOException;
+
+/**
+ * Recency-ordered list of recently evicted virtual pages, with O(1) membership tests.
+ * Used by adaptive policies to remember pages they no longer hold a frame for, and by the prefetcher statistics
+ * to remember pages a prefetch pushed out. Pages are known by their policy keys, and the list never holds more
+ * than its capacity: adding to a full list forgets the oldest page.
+ */
+public final class GhostList {
+    private final IntrusiveList order;
+    private final long[] vpns;
+    private final int[] freeSlots;
+    private final LongIntIndex slots;
+    private final int capacity;
+    private int freeCount;
+
+    public GhostList(int capacity) {
+        this.capacity = capacity;
+        order = new IntrusiveList(capacity);
+        vpns = new long[capacity];
+        freeSlots = new int[capacity];
+        slots = new LongIntIndex(capacity);
+        clear();
+    }
+
+    public int size() {
+        return order.size();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    public boolean contains(long vpn) {
+        return slots.get(vpn) != LongIntIndex.ABSENT;
+    }
+
+    /**
+     * @return True if the page was in the list.
+     */
+    public boolean remove(long vpn) {
+        int slot = slots.get(vpn);
+        if (slot == LongIntIndex.ABSENT) {
+            return false;
+        }
+        slots.remove(vpn);
+        order.remove(slot);
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Remember a page as the most recent entry, dropping the oldest one if the list is full.
+     */
+    public void addFirst(long vpn) {
+        if (capacity == 0) {
+            return;
+        }
+        if (freeCount == 0) {
+            removeLast();
+        }
+        int slot = freeSlots[--freeCount];
+        vpns[slot] = vpn;
+        slots.put(vpn, slot);
+        order.addFirst(slot);
+    }
+
+    void removeLast() {
+        int slot = order.removeLast();
+        if (slot != IntrusiveList.NIL) {
+            slots.remove(vpns[slot]);
+            freeSlots[freeCount++] = slot;
+        }
+    }
+
+    public void save(CheckpointWriter out) throws IOException {
+        order.save(out);
+        out.writeLongs(vpns);
+        out.writeInts(freeSlots);
+        out.writeInt(freeCount);
+        slots.save(out);
+    }
+
+    public void restore(CheckpointReader in) throws IOException {
+        order.restore(in);
+        in.readLongs(vpns);
+        in.readInts(freeSlots);
+        freeCount = in.readInt();
+        slots.restore(in);
+    }
+
+    public void clear() {
+        order.clear();
+        slots.clear();
+        for (int i = 0; i < capacity; i++) {
+            freeSlots[i] = i;
+        }
+        freeCount = capacity;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Doubly-linked list threaded through int arrays indexed by node (frame or slot) number.
+ * Every operation is O(1) and nothing is allocated after construction. The head is the most recently
+ * added end of the list and the tail the oldest.
+ */
+public final class IntrusiveList {
+    public static final int NIL = -1;
+    private static final int DETACHED = -2;
+
+    private final int[] prev;
+    private final int[] next;
+    private int head = NIL;
+    private int tail = NIL;
+    private int size;
+
+    public IntrusiveList(int capacity) {
+        prev = new int[capacity];
+        next = new int[capacity];
+        Arrays.fill(prev, DETACHED);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int node) {
+        return prev[node] != DETACHED;
+    }
+
+    public int head() {
+        return head;
+    }
+
+    public int tail() {
+        return tail;
+    }
+
+    /**
+     * @return The node after the given one, walking from head to tail, or {@link #NIL}.
+     */
+    public int next(int node) {
+        return next[node];
+    }
+
+    /**
+     * @return The node before the given one, walking from tail to head, or {@link #NIL}.
+     */
+    public int previous(int node) {
+        return prev[node];
+    }
+
+    /**
+     * Remove the oldest node not marked in a bit set, looking at most {@code window} marked nodes past the tail.
+     *
+     * @param marked Bit set indexed by node.
+     * @return The removed node, or the removed tail if every node looked at is marked.
+     */
+    public int removeLastUnmarked(long[] marked, int window) {
+        int node = tail;
+        for (int skipped = 0; node != NIL && skipped <= window; skipped++) {
+            if ((marked[node >>> 6] & (1L << node)) == 0) {
+                remove(node);
+                return node;
+            }
+            node = prev[node];
+        }
+        return removeLast();
+    }
+
+    public void addFirst(int node) {
+        prev[node] = NIL;
+        next[node] = head;
+        if (head != NIL) {
+            prev[head] = node;
+        } else {
+            tail = node;
+        }
+        head = node;
+        size++;
+    }
+
+    public void remove(int node) {
+        int p = prev[node];
+        int n = next[node];
+        if (p != NIL) {
+            next[p] = n;
+        } else {
+            head = n;
+        }
+        if (n != NIL) {
+            prev[n] = p;
+        } else {
+            tail = p;
+        }
+        prev[node] = DETACHED;
+        size--;
+    }
+
+    public void moveToFirst(int node) {
+        if (head != node) {
+            remove(node);
+            addFirst(node);
+        }
+    }
+
+    /**
+     * @return The removed tail node, or {@link #NIL} if the list is empty.
+     */
+    public int removeLast() {
+        int node = tail;
+        if (node != NIL) {
+            remove(node);
+        }
+        return node;
+    }
+
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInts(prev);
+        out.writeInts(next);
+        out.writeInt(head);
+        out.writeInt(tail);
+        out.writeInt(size);
+    }
+
+    /**
+     * Replace the contents with a list of the same capacity saved by {@link #save(CheckpointWriter)}.
+     */
+    public void restore(CheckpointReader in) throws IOException {
+        in.readInts(prev);
+        in.readInts(next);
+        head = in.readInt();
+        tail = in.readInt();
+        size = in.readInt();
+    }
+
+    public void clear() {
+        Arrays.fill(prev, DETACHED);
+        head = NIL;
+        tail = NIL;
+        size = 0;
+    }
+}
@@ -0,0 +1,218 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Least frequently used, with least recently used among pages of equal frequency.
+ * Frames are kept in frequency buckets that form an ascending linked list, so that loads, accesses
+ * and evictions are all O(1): an access only ever moves a frame to the neighbouring bucket.
+ */
+public class LFUPolicy implements PageReplacementPolicy {
+    private static final int NIL = IntrusiveList.NIL;
+
+    // Per-frame links inside its bucket (head = most recent).
+    private int[] itemPrev;
+    private int[] itemNext;
+    private int[] itemBucket;
+
+    // Bucket nodes, pooled; buckets form a list in ascending frequency.
+    private long[] bucketFrequency;
+    private int[] bucketHead;
+    private int[] bucketTail;
+    private int[] bucketPrev;
+    private int[] bucketNext;
+    private int[] freeBuckets;
+    private int freeBucketCount;
+    private int firstBucket;
+
+    public LFUPolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        itemPrev = new int[frameCount];
+        itemNext = new int[frameCount];
+        itemBucket = new int[frameCount];
+        Arrays.fill(itemBucket, NIL);
+
+        // One bucket per frame, plus the one created by an access before the old bucket is released.
+        int buckets = frameCount + 1;
+        bucketFrequency = new long[buckets];
+        bucketHead = new int[buckets];
+        bucketTail = new int[buckets];
+        bucketPrev = new int[buckets];
+        bucketNext = new int[buckets];
+        freeBuckets = new int[buckets];
+        for (int i = 0; i < buckets; i++) {
+            freeBuckets[i] = buckets - 1 - i;
+        }
+        freeBucketCount = buckets;
+        firstBucket = NIL;
+    }
+
+    /**
+     * @return The number of accesses recorded for the page in the frame, including its load.
+     */
+    public long frequencyOf(int frame) {
+        int bucket = itemBucket[frame];
+        return bucket == NIL ? 0 : bucketFrequency[bucket];
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        int bucket = firstBucket;
+        if (bucket == NIL || bucketFrequency[bucket] != 1) {
+            bucket = newBucketAfter(NIL, 1);
+        }
+        addItem(bucket, frame);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        int bucket = itemBucket[frame];
+        long frequency = bucketFrequency[bucket] + 1;
+        int target = bucketNext[bucket];
+        if (target == NIL || bucketFrequency[target] != frequency) {
+            target = newBucketAfter(bucket, frequency);
+        }
+        removeItem(frame);
+        addItem(target, frame);
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        removeItem(frame);
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        int frame = bucketTail[firstBucket];
+        removeItem(frame);
+        return frame;
+    }
+
+    /**
+     * Walk the frames in eviction order, least frequent first and least recent first within a frequency, and
+     * evict the first clean one among the {@code window + 1} first, or the LFU frame if they are all dirty.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        int bucket = firstBucket;
+        int frame = bucketTail[bucket];
+        for (int skipped = 0; skipped <= window; skipped++) {
+            if ((dirty[frame >>> 6] & (1L << frame)) == 0) {
+                removeItem(frame);
+                return frame;
+            }
+            frame = itemPrev[frame];
+            if (frame == NIL) {
+                bucket = bucketNext[bucket];
+                if (bucket == NIL) {
+                    break;
+                }
+                frame = bucketTail[bucket];
+            }
+        }
+        return selectVictim(incomingVpn);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInts(itemPrev);
+        out.writeInts(itemNext);
+        out.writeInts(itemBucket);
+        out.writeLongs(bucketFrequency);
+        out.writeInts(bucketHead);
+        out.writeInts(bucketTail);
+        out.writeInts(bucketPrev);
+        out.writeInts(bucketNext);
+        out.writeInts(freeBuckets);
+        out.writeInt(freeBucketCount);
+        out.writeInt(firstBucket);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readInts(itemPrev);
+        in.readInts(itemNext);
+        in.readInts(itemBucket);
+        in.readLongs(bucketFrequency);
+        in.readInts(bucketHead);
+        in.readInts(bucketTail);
+        in.readInts(bucketPrev);
+        in.readInts(bucketNext);
+        in.readInts(freeBuckets);
+        freeBucketCount = in.readInt();
+        firstBucket = in.readInt();
+    }
+
+    private int newBucketAfter(int previous, long frequency) {
+        int bucket = freeBuckets[--freeBucketCount];
+        bucketFrequency[bucket] = frequency;
+        bucketHead[bucket] = NIL;
+        bucketTail[bucket] = NIL;
+        int following = previous == NIL ? firstBucket : bucketNext[previous];
+        bucketPrev[bucket] = previous;
+        bucketNext[bucket] = following;
+        if (previous == NIL) {
+            firstBucket = bucket;
+        } else {
+            bucketNext[previous] = bucket;
+        }
+        if (following != NIL) {
+            bucketPrev[following] = bucket;
+        }
+        return bucket;
+    }
+
+    private void releaseBucket(int bucket) {
+        int p = bucketPrev[bucket];
+        int n = bucketNext[bucket];
+        if (p == NIL) {
+            firstBucket = n;
+        } else {
+            bucketNext[p] = n;
+        }
+        if (n != NIL) {
+            bucketPrev[n] = p;
+        }
+        freeBuckets[freeBucketCount++] = bucket;
+    }
+
+    private void addItem(int bucket, int frame) {
+        itemBucket[frame] = bucket;
+        itemPrev[frame] = NIL;
+        itemNext[frame] = bucketHead[bucket];
+        if (bucketHead[bucket] != NIL) {
+            itemPrev[bucketHead[bucket]] = frame;
+        } else {
+            bucketTail[bucket] = frame;
+        }
+        bucketHead[bucket] = frame;
+    }
+
+    private void removeItem(int frame) {
+        int bucket = itemBucket[frame];
+        int p = itemPrev[frame];
+        int n = itemNext[frame];
+        if (p != NIL) {
+            itemNext[p] = n;
+        } else {
+            bucketHead[bucket] = n;
+        }
+        if (n != NIL) {
+            itemPrev[n] = p;
+        } else {
+            bucketTail[bucket] = p;
+        }
+        itemBucket[frame] = NIL;
+        if (bucketHead[bucket] == NIL) {
+            releaseBucket(bucket);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Least recently used: evicts the frame whose page has gone longest without an access.
+ */
+public class LRUPolicy implements PageReplacementPolicy {
+    private IntrusiveList recency;
+
+    public LRUPolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        recency = new IntrusiveList(frameCount);
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        recency.addFirst(frame);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        recency.moveToFirst(frame);
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        recency.remove(frame);
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        return recency.removeLast();
+    }
+
+    /**
+     * Clean-first LRU: evict the least recently used clean frame among the {@code window + 1} least recently used,
+     * or the least recently used frame if they are all dirty.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        return recency.removeLastUnmarked(dirty, window);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        recency.save(out);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        recency.restore(in);
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.model.policy;
+
+/**
+ * The available page replacement policies.
+ */
+public enum PageReplacement {
+    FIFO("FIFO"),
+    LRU("LRU"),
+    CLOCK("CLOCK"),
+    SECOND_CHANCE("Second Chance"),
+    LFU("LFU"),
+    ARC("ARC"),
+    TWO_Q("2Q");
+
+    private final String label;
+
+    PageReplacement(String label) {
+        this.label = label;
+    }
+
+    public PageReplacementPolicy create(int frameCount) {
+        switch (this) {
+            case LRU:
+                return new LRUPolicy(frameCount);
+            case CLOCK:
+                return new ClockPolicy(frameCount);
+            case SECOND_CHANCE:
+                return new SecondChancePolicy(frameCount);
+            case LFU:
+                return new LFUPolicy(frameCount);
+            case ARC:
+                return new ARCPolicy(frameCount);
+            case TWO_Q:
+                return new TwoQueuePolicy(frameCount);
+            default:
+                return new FIFOPolicy(frameCount);
+        }
+    }
+
+    /**
+     * Look a policy up by its label or constant name, ignoring case, dashes and spaces.
+     */
+    public static PageReplacement parse(String name) {
+        String key = name.replaceAll("[-_ ]", "");
+        for (PageReplacement policy : values()) {
+            if (policy.name().replace("_", "").equalsIgnoreCase(key) || policy.label.replace(" ", "").equalsIgnoreCase(key)) {
+                return policy;
+            }
+        }
+        throw new IllegalArgumentException("Unknown page replacement policy: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
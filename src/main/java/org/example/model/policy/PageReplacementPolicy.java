@@ -0,0 +1,69 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Chooses which physical frame to evict when memory is full.
+ * Implementations keep their bookkeeping in primitive arrays indexed by frame number and run in O(1) amortized time.
+ * Pages are passed as the keys of {@link org.example.model.PMState#policyKey(int, long)}, which tell the same
+ * page number of different processes apart.
+ */
+public interface PageReplacementPolicy {
+
+    /**
+     * Forget all bookkeeping and size the policy for the given number of frames.
+     */
+    void reset(int frameCount);
+
+    /**
+     * A page has been loaded into a frame.
+     */
+    void onLoad(int frame, long vpn);
+
+    /**
+     * A resident page has been accessed.
+     */
+    void onAccess(int frame);
+
+    /**
+     * A frame has been released without being chosen as a victim.
+     */
+    void onRemove(int frame);
+
+    /**
+     * Pick the frame to evict so that the given page can be loaded. Only called when every frame is occupied.
+     * The returned frame is no longer tracked by the policy until it is passed to {@link #onLoad(int, long)} again.
+     */
+    int selectVictim(long incomingVpn);
+
+    /**
+     * Pick a victim as {@link #selectVictim(long)} does, but pass over up to {@code window} frames holding
+     * modified pages for a clean one, which can be dropped without writing it back. Every policy walks its own
+     * eviction order, and falls back to the victim it would have chosen if the window holds no clean frame.
+     *
+     * @param dirty  Bit set of the frames holding modified pages.
+     * @param window Dirty candidates that may be passed over, in eviction order.
+     */
+    int selectVictim(long incomingVpn, long[] dirty, int window);
+
+    /**
+     * Share the referenced bits kept by memory, one per frame, as the accessed bits of the page table entries.
+     * Policies that sweep reference bits then read and clear these instead of bits of their own.
+     * Must be called again after every {@link #reset(int)}.
+     */
+    default void bindReferencedBits(long[] referenced) {
+    }
+
+    /**
+     * Write the bookkeeping to a checkpoint.
+     */
+    void save(CheckpointWriter out) throws IOException;
+
+    /**
+     * Replace the bookkeeping with the one saved by a policy of the same kind and frame count.
+     */
+    void restore(CheckpointReader in) throws IOException;
+}
@@ -0,0 +1,105 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Second chance: FIFO order, but a referenced page at the head of the queue has its bit cleared
+ * and is moved to the back instead of being evicted.
+ * Bound to the referenced bits of memory, it clears the accessed bits of the page table entries.
+ */
+public class SecondChancePolicy implements PageReplacementPolicy {
+    private IntrusiveList queue;
+    private long[] referenced;
+
+    public SecondChancePolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        queue = new IntrusiveList(frameCount);
+        referenced = new long[(frameCount + 63) >>> 6];
+    }
+
+    @Override
+    public void bindReferencedBits(long[] referenced) {
+        this.referenced = referenced;
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        queue.addFirst(frame);
+        referenced[frame >>> 6] &= ~(1L << frame);
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        referenced[frame >>> 6] |= 1L << frame;
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        queue.remove(frame);
+        referenced[frame >>> 6] &= ~(1L << frame);
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        while (true) {
+            int frame = queue.removeLast();
+            long bit = 1L << frame;
+            if ((referenced[frame >>> 6] & bit) == 0) {
+                return frame;
+            }
+            referenced[frame >>> 6] &= ~bit;
+            queue.addFirst(frame);
+        }
+    }
+
+    /**
+     * Walk from the oldest page as {@link #selectVictim(long)} does, but leave up to {@code window} unreferenced dirty
+     * pages in place and evict the first unreferenced clean one; if the next unreferenced page is dirty too,
+     * or none is left, the first one passed over goes.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        int skipped = 0;
+        int firstSkipped = IntrusiveList.NIL;
+        int frame = queue.tail();
+        while (frame != IntrusiveList.NIL) {
+            int newer = queue.previous(frame);
+            long bit = 1L << frame;
+            if ((referenced[frame >>> 6] & bit) != 0) {
+                referenced[frame >>> 6] &= ~bit;
+                queue.moveToFirst(frame);
+            } else if ((dirty[frame >>> 6] & bit) == 0 || window == 0) {
+                queue.remove(frame);
+                return frame;
+            } else if (skipped == window) {
+                break;
+            } else {
+                if (skipped++ == 0) {
+                    firstSkipped = frame;
+                }
+            }
+            frame = newer;
+        }
+        queue.remove(firstSkipped);
+        return firstSkipped;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        queue.save(out);
+        out.writeLongs(referenced);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        queue.restore(in);
+        in.readLongs(referenced);
+    }
+}
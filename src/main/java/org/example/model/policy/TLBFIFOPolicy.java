@@ -0,0 +1,49 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Round-robin replacement within each set, ignoring accesses.
+ */
+public class TLBFIFOPolicy implements TLBReplacementPolicy {
+    private int[] nextWay;
+    private int ways;
+
+    @Override
+    public void reset(int sets, int ways) {
+        this.ways = ways;
+        nextWay = new int[sets];
+    }
+
+    @Override
+    public void onFill(int slot) {
+    }
+
+    @Override
+    public void onHit(int slot) {
+    }
+
+    @Override
+    public void onInvalidate(int slot) {
+    }
+
+    @Override
+    public int selectVictim(int set) {
+        int way = nextWay[set];
+        nextWay[set] = (way == ways - 1) ? 0 : way + 1;
+        return set * ways + way;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInts(nextWay);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readInts(nextWay);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * True LRU within each set: one recency list per set, threaded through slot-indexed arrays.
+ */
+public class TLBLRUPolicy implements TLBReplacementPolicy {
+    private static final int NIL = IntrusiveList.NIL;
+
+    private int[] prev;
+    private int[] next;
+    private int[] head;
+    private int[] tail;
+    private int ways;
+
+    @Override
+    public void reset(int sets, int ways) {
+        this.ways = ways;
+        prev = new int[sets * ways];
+        next = new int[sets * ways];
+        head = new int[sets];
+        tail = new int[sets];
+        Arrays.fill(head, NIL);
+        Arrays.fill(tail, NIL);
+    }
+
+    @Override
+    public void onFill(int slot) {
+        addFirst(slot / ways, slot);
+    }
+
+    @Override
+    public void onHit(int slot) {
+        int set = slot / ways;
+        if (head[set] != slot) {
+            unlink(set, slot);
+            addFirst(set, slot);
+        }
+    }
+
+    @Override
+    public void onInvalidate(int slot) {
+        unlink(slot / ways, slot);
+    }
+
+    @Override
+    public int selectVictim(int set) {
+        int slot = tail[set];
+        unlink(set, slot);
+        return slot;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInts(prev);
+        out.writeInts(next);
+        out.writeInts(head);
+        out.writeInts(tail);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readInts(prev);
+        in.readInts(next);
+        in.readInts(head);
+        in.readInts(tail);
+    }
+
+    private void addFirst(int set, int slot) {
+        prev[slot] = NIL;
+        next[slot] = head[set];
+        if (head[set] != NIL) {
+            prev[head[set]] = slot;
+        } else {
+            tail[set] = slot;
+        }
+        head[set] = slot;
+    }
+
+    private void unlink(int set, int slot) {
+        int p = prev[slot];
+        int n = next[slot];
+        if (p != NIL) {
+            next[p] = n;
+        } else {
+            head[set] = n;
+        }
+        if (n != NIL) {
+            prev[n] = p;
+        } else {
+            tail[set] = p;
+        }
+    }
+}
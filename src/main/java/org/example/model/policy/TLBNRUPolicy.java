@@ -0,0 +1,85 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Not recently used: one reference bit per slot, set on every fill and hit. The victim is the first way
+ * whose bit is clear; when every way of a set is marked, all bits of the set except the one just used are cleared.
+ */
+public class TLBNRUPolicy implements TLBReplacementPolicy {
+    private long[] referenced;
+    private int ways;
+
+    @Override
+    public void reset(int sets, int ways) {
+        this.ways = ways;
+        referenced = new long[(int) (((long) sets * ways + 63) >>> 6)];
+    }
+
+    @Override
+    public void onFill(int slot) {
+        onHit(slot);
+    }
+
+    @Override
+    public void onHit(int slot) {
+        referenced[slot >>> 6] |= 1L << slot;
+        int base = slot - slot % ways;
+        if (firstClear(base) < 0) {
+            clearRange(base);
+            referenced[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    @Override
+    public void onInvalidate(int slot) {
+        referenced[slot >>> 6] &= ~(1L << slot);
+    }
+
+    @Override
+    public int selectVictim(int set) {
+        int base = set * ways;
+        int slot = firstClear(base);
+        if (slot < 0) { // Only possible for a one-way set
+            clearRange(base);
+            slot = base;
+        }
+        return slot;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(referenced);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readLongs(referenced);
+    }
+
+    /**
+     * @return The first slot of the set starting at {@code base} whose bit is clear, or -1.
+     */
+    private int firstClear(int base) {
+        int end = base + ways;
+        int bit = base;
+        while (bit < end) {
+            long word = ~referenced[bit >>> 6] & (-1L << bit);
+            if (word != 0) {
+                int found = (bit & ~63) + Long.numberOfTrailingZeros(word);
+                return found < end ? found : -1;
+            }
+            bit = (bit & ~63) + 64;
+        }
+        return -1;
+    }
+
+    private void clearRange(int base) {
+        for (int bit = base, end = base + ways; bit < end; bit++) {
+            referenced[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Replaces a uniformly random way of the set. Seeded, so runs are reproducible. The generator is SplitMix64
+ * kept in a single long, so a checkpoint can carry its state.
+ */
+public class TLBRandomPolicy implements TLBReplacementPolicy {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private long state;
+    private int ways;
+
+    public TLBRandomPolicy(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public void reset(int sets, int ways) {
+        this.ways = ways;
+        state = seed;
+    }
+
+    @Override
+    public void onFill(int slot) {
+    }
+
+    @Override
+    public void onHit(int slot) {
+    }
+
+    @Override
+    public void onInvalidate(int slot) {
+    }
+
+    @Override
+    public int selectVictim(int set) {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return set * ways + (int) (((z >>> 32) * ways) >>> 32);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeLong(state);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        state = in.readLong();
+    }
+}
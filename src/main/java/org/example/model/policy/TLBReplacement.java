@@ -0,0 +1,56 @@
+package org.example.model.policy;
+
+/**
+ * The available TLB replacement policies.
+ */
+public enum TLBReplacement {
+    FIFO("FIFO"),
+    LRU("LRU"),
+    TREE_PLRU("Tree PLRU"),
+    RANDOM("Random"),
+    NRU("NRU");
+
+    private static final long RANDOM_SEED = 0x5EEDL;
+
+    private final String label;
+
+    TLBReplacement(String label) {
+        this.label = label;
+    }
+
+    public TLBReplacementPolicy create() {
+        switch (this) {
+            case LRU:
+                return new TLBLRUPolicy();
+            case TREE_PLRU:
+                return new TLBTreePLRUPolicy();
+            case RANDOM:
+                return new TLBRandomPolicy(RANDOM_SEED);
+            case NRU:
+                return new TLBNRUPolicy();
+            default:
+                return new TLBFIFOPolicy();
+        }
+    }
+
+    /**
+     * Look a policy up by its label or constant name, ignoring case, dashes and spaces.
+     */
+    public static TLBReplacement parse(String name) {
+        String key = name.replaceAll("[-_ ]", "");
+        for (TLBReplacement policy : values()) {
+            if (policy.name().replace("_", "").equalsIgnoreCase(key) || policy.label.replace(" ", "").equalsIgnoreCase(key)) {
+                return policy;
+            }
+        }
+        if (key.equalsIgnoreCase("plru")) {
+            return TREE_PLRU;
+        }
+        throw new IllegalArgumentException("Unknown TLB replacement policy: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
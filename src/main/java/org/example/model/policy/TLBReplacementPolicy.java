@@ -0,0 +1,48 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Chooses which way of a TLB set to overwrite when the set is full.
+ * Slots are numbered {@code set * ways + way}. The hit path ({@link #onHit(int)}) must not allocate.
+ */
+public interface TLBReplacementPolicy {
+
+    /**
+     * Forget all bookkeeping and size the policy for the given geometry.
+     */
+    void reset(int sets, int ways);
+
+    /**
+     * A translation has been written into a slot.
+     */
+    void onFill(int slot);
+
+    /**
+     * A lookup hit the slot.
+     */
+    void onHit(int slot);
+
+    /**
+     * The slot's translation has been invalidated.
+     */
+    void onInvalidate(int slot);
+
+    /**
+     * Pick the slot to overwrite in a full set.
+     */
+    int selectVictim(int set);
+
+    /**
+     * Write the bookkeeping to a checkpoint.
+     */
+    void save(CheckpointWriter out) throws IOException;
+
+    /**
+     * Replace the bookkeeping with the one saved by a policy of the same kind and geometry.
+     */
+    void restore(CheckpointReader in) throws IOException;
+}
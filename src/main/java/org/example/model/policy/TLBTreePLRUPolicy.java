@@ -0,0 +1,82 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Tree pseudo-LRU, as used in many L1 TLBs: each set keeps ways - 1 bits arranged as a binary tree,
+ * and every bit points towards the half of the set that was used less recently.
+ * A hit or a victim search touches log2(ways) bits. Requires a power-of-two number of ways.
+ */
+public class TLBTreePLRUPolicy implements TLBReplacementPolicy {
+    private long[] bits;
+    private int ways;
+    private int levels;
+
+    @Override
+    public void reset(int sets, int ways) {
+        if (Integer.bitCount(ways) != 1) {
+            throw new IllegalArgumentException("Tree pseudo-LRU needs a power-of-two number of ways: " + ways);
+        }
+        this.ways = ways;
+        this.levels = Integer.numberOfTrailingZeros(ways);
+        // Node n (1 .. ways - 1) of set s lives at bit s * ways + n.
+        bits = new long[(int) (((long) sets * ways + 63) >>> 6)];
+    }
+
+    @Override
+    public void onFill(int slot) {
+        onHit(slot);
+    }
+
+    @Override
+    public void onHit(int slot) {
+        int base = slot - slot % ways;
+        int way = slot - base;
+        int node = 1;
+        for (int level = levels - 1; level >= 0; level--) {
+            int direction = (way >>> level) & 1;
+            // Point away from the half that was just used.
+            set(base + node, direction == 0);
+            node = (node << 1) | direction;
+        }
+    }
+
+    @Override
+    public void onInvalidate(int slot) {
+    }
+
+    @Override
+    public int selectVictim(int set) {
+        int base = set * ways;
+        int node = 1;
+        for (int level = 0; level < levels; level++) {
+            node = (node << 1) | (get(base + node) ? 1 : 0);
+        }
+        return base + (node - ways);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(bits);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readLongs(bits);
+    }
+
+    private boolean get(int bit) {
+        return (bits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    private void set(int bit, boolean value) {
+        if (value) {
+            bits[bit >>> 6] |= 1L << bit;
+        } else {
+            bits[bit >>> 6] &= ~(1L << bit);
+        }
+    }
+}
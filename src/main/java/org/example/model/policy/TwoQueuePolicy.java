@@ -0,0 +1,94 @@
+package org.example.model.policy;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * 2Q (Johnson and Shasha). New pages enter the FIFO A1in; pages evicted from it are remembered in the ghost
+ * queue A1out, and only a page that returns while still remembered is promoted to the LRU queue Am.
+ * One-off scans therefore never displace the hot set in Am.
+ */
+public class TwoQueuePolicy implements PageReplacementPolicy {
+    private IntrusiveList a1in;
+    private IntrusiveList am;
+    private GhostList a1out;
+    private long[] frameVpn;
+    private int kin;
+
+    public TwoQueuePolicy(int frameCount) {
+        reset(frameCount);
+    }
+
+    @Override
+    public void reset(int frameCount) {
+        kin = Math.max(1, frameCount / 4);
+        a1in = new IntrusiveList(frameCount);
+        am = new IntrusiveList(frameCount);
+        a1out = new GhostList(Math.max(1, frameCount / 2));
+        frameVpn = new long[frameCount];
+    }
+
+    @Override
+    public void onLoad(int frame, long vpn) {
+        frameVpn[frame] = vpn;
+        if (a1out.remove(vpn)) {
+            am.addFirst(frame);
+        } else {
+            a1in.addFirst(frame);
+        }
+    }
+
+    @Override
+    public void onAccess(int frame) {
+        if (am.contains(frame)) {
+            am.moveToFirst(frame);
+        }
+        // Accesses to pages still in A1in are deliberately ignored: they are likely correlated references.
+    }
+
+    @Override
+    public void onRemove(int frame) {
+        if (a1in.contains(frame)) {
+            a1in.remove(frame);
+        } else if (am.contains(frame)) {
+            am.remove(frame);
+        }
+    }
+
+    @Override
+    public int selectVictim(long incomingVpn) {
+        return selectVictim(incomingVpn, null, 0);
+    }
+
+    /**
+     * Evict from the same queue as {@link #selectVictim(long)}, but the oldest clean frame among its
+     * {@code window + 1} oldest, or its oldest frame if they are all dirty.
+     */
+    @Override
+    public int selectVictim(long incomingVpn, long[] dirty, int window) {
+        if (a1in.size() > kin || am.isEmpty()) {
+            int frame = window == 0 ? a1in.removeLast() : a1in.removeLastUnmarked(dirty, window);
+            a1out.addFirst(frameVpn[frame]);
+            return frame;
+        }
+        return window == 0 ? am.removeLast() : am.removeLastUnmarked(dirty, window);
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        a1in.save(out);
+        am.save(out);
+        a1out.save(out);
+        out.writeLongs(frameVpn);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        a1in.restore(in);
+        am.restore(in);
+        a1out.restore(in);
+        in.readLongs(frameVpn);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.model.prefetch;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+import org.example.model.LongIntIndex;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Correlation (Markov) prefetching: remembers which pages missed right after each page, and on a miss predicts
+ * the pages that followed it before, most recent first. It learns irregular but repeating miss sequences, such as
+ * the walk of a linked structure, that neither readahead nor stride detection can follow.
+ * <p>
+ * The table holds {@link #TABLE_SIZE} pages with up to a degree's worth of successors each, and forgets the page
+ * that entered it longest ago when full. Misses of every process feed one sequence, so a process switch links the
+ * last page of one process to the first of the next, as a shared hardware table would.
+ */
+public class MarkovPrefetcher implements Prefetcher {
+    static final int TABLE_SIZE = 1 << 14;
+    private static final long EMPTY = -1L;
+
+    private final int ways;
+    private final LongIntIndex rows = new LongIntIndex(TABLE_SIZE);
+    private final long[] pages = new long[TABLE_SIZE];
+    private final long[] successors;
+    private int nextRow;
+    private long previous = EMPTY;
+
+    /**
+     * @param ways Successors remembered per page, and so the most pages predicted per miss.
+     */
+    public MarkovPrefetcher(int ways) {
+        if (ways <= 0) {
+            throw new IllegalArgumentException("The prefetch degree must be positive: " + ways);
+        }
+        this.ways = ways;
+        this.successors = new long[TABLE_SIZE * ways];
+        reset();
+    }
+
+    @Override
+    public int getDegree() {
+        return ways;
+    }
+
+    @Override
+    public int onMiss(int process, long vpn, boolean prefetchHit, long[] candidates) {
+        if (previous != EMPTY && previous != vpn) {
+            learn(previous, vpn);
+        }
+        previous = vpn;
+        int row = rows.get(vpn);
+        if (row == LongIntIndex.ABSENT) {
+            return 0;
+        }
+        int count = 0;
+        for (int base = row * ways; count < ways && successors[base + count] != EMPTY; count++) {
+            candidates[count] = successors[base + count];
+        }
+        return count;
+    }
+
+    /**
+     * Record that a miss on {@code next} followed one on {@code page}, moving it to the front of the successors.
+     */
+    private void learn(long page, long next) {
+        int row = rows.get(page);
+        if (row == LongIntIndex.ABSENT) {
+            row = nextRow;
+            nextRow = (nextRow + 1) % TABLE_SIZE;
+            if (pages[row] != EMPTY) {
+                rows.remove(pages[row]);
+            }
+            pages[row] = page;
+            rows.put(page, row);
+            Arrays.fill(successors, row * ways, (row + 1) * ways, EMPTY);
+        }
+        int base = row * ways;
+        int at = 0;
+        while (at < ways - 1 && successors[base + at] != next && successors[base + at] != EMPTY) {
+            at++;
+        }
+        System.arraycopy(successors, base, successors, base + 1, at);
+        successors[base] = next;
+    }
+
+    @Override
+    public void reset() {
+        rows.clear();
+        Arrays.fill(pages, EMPTY);
+        Arrays.fill(successors, EMPTY);
+        nextRow = 0;
+        previous = EMPTY;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        rows.save(out);
+        out.writeLongs(pages);
+        out.writeLongs(successors);
+        out.writeInt(nextRow);
+        out.writeLong(previous);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        rows.restore(in);
+        in.readLongs(pages);
+        in.readLongs(successors);
+        nextRow = in.readInt();
+        previous = in.readLong();
+        if (nextRow < 0 || nextRow >= TABLE_SIZE) {
+            throw new IOException("Corrupt checkpoint: Markov table row " + nextRow + ".");
+        }
+    }
+}
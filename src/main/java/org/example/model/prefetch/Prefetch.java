@@ -0,0 +1,56 @@
+package org.example.model.prefetch;
+
+/**
+ * The available prefetchers.
+ */
+public enum Prefetch {
+    NONE("None"),
+    SEQUENTIAL("Sequential"),
+    STRIDE("Stride"),
+    MARKOV("Markov");
+
+    private final String label;
+
+    Prefetch(String label) {
+        this.label = label;
+    }
+
+    /**
+     * @param degree The most pages predicted per miss: the largest readahead window, the distance a stride runs
+     *               ahead, or the successors remembered per page.
+     * @return A new prefetcher, or null for {@link #NONE}.
+     */
+    public Prefetcher create(int degree) {
+        switch (this) {
+            case SEQUENTIAL:
+                return new SequentialPrefetcher(degree);
+            case STRIDE:
+                return new StridePrefetcher(degree);
+            case MARKOV:
+                return new MarkovPrefetcher(degree);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Look a prefetcher up by its label or constant name, ignoring case, dashes and spaces.
+     */
+    public static Prefetch parse(String name) {
+        String key = name.replaceAll("[-_ ]", "");
+        for (Prefetch prefetch : values()) {
+            if (prefetch.name().replace("_", "").equalsIgnoreCase(key) || prefetch.label.replace(" ", "").equalsIgnoreCase(key)) {
+                return prefetch;
+            }
+        }
+        if (key.equalsIgnoreCase("readahead")) {
+            return SEQUENTIAL;
+        }
+        throw new IllegalArgumentException("Unknown prefetcher: " + name);
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.model.prefetch;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+
+/**
+ * Predicts the pages a process is about to fault on, so they can be loaded before they are touched.
+ * A prefetcher sees the miss stream: every demand fault, and the first use of every page it brought in, which is
+ * the fault that prefetch saved. Implementations keep fixed-size primitive state and never allocate once built.
+ */
+public interface Prefetcher {
+
+    /**
+     * @return The most pages one call to {@link #onMiss} may predict.
+     */
+    int getDegree();
+
+    /**
+     * Learn from a miss and predict the pages to load next. Predictions may name pages that are already resident
+     * or outside the address space; the caller skips those.
+     *
+     * @param prefetchHit True for the first access to a prefetched page, false for a demand fault.
+     * @param candidates  Receives the predicted base page numbers, most urgent first; at least {@link #getDegree()} long.
+     * @return The number of pages predicted.
+     */
+    int onMiss(int process, long vpn, boolean prefetchHit, long[] candidates);
+
+    /**
+     * Forget everything learnt.
+     */
+    void reset();
+
+    /**
+     * Write the learnt state to a checkpoint.
+     */
+    void save(CheckpointWriter out) throws IOException;
+
+    /**
+     * Replace the learnt state with the one saved by a prefetcher of the same kind and degree.
+     */
+    void restore(CheckpointReader in) throws IOException;
+}
@@ -0,0 +1,125 @@
+package org.example.model.prefetch;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Sequential readahead with an adaptive window, after the Linux page cache. A fault on the page after one of the
+ * last {@link #HISTORY} faults starts a sequential stream and reads a small window of pages ahead; a fault just
+ * past the window continues the stream with a window twice as large, up to the degree. The first page of each
+ * window is a marker: its first use reads the next window before the stream reaches it, so a steady stream stops
+ * faulting at all. Faults elsewhere, such as those of random accesses mixed in, leave the stream alone.
+ * <p>
+ * One stream is followed at a time, as a file descriptor keeps one readahead state.
+ */
+public class SequentialPrefetcher implements Prefetcher {
+    static final int INITIAL_WINDOW = 4;
+    static final int HISTORY = 8;
+    private static final long NONE = Long.MIN_VALUE; // Never one less than a page number
+
+    private final int maxWindow;
+    private final long[] recentMisses = new long[HISTORY];
+    private final int[] recentProcesses = new int[HISTORY];
+    private int nextRecent;
+    private int process;
+    private long windowStart = NONE;
+    private int windowSize;
+
+    /**
+     * @param maxWindow Largest readahead window, in pages.
+     */
+    public SequentialPrefetcher(int maxWindow) {
+        if (maxWindow <= 0) {
+            throw new IllegalArgumentException("The readahead window must be positive: " + maxWindow);
+        }
+        this.maxWindow = maxWindow;
+        reset();
+    }
+
+    @Override
+    public int getDegree() {
+        return maxWindow;
+    }
+
+    /**
+     * @return Pages in the current readahead window, 0 before the first stream.
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    @Override
+    public int onMiss(int process, long vpn, boolean prefetchHit, long[] candidates) {
+        boolean inStream = windowSize > 0 && process == this.process;
+        if (prefetchHit) {
+            return inStream && vpn == windowStart ? readAhead(windowStart + windowSize, candidates) : 0;
+        }
+        if (inStream && vpn == windowStart + windowSize) {
+            return readAhead(vpn + 1, candidates); // The stream outran its window
+        }
+        boolean follows = followsRecentMiss(process, vpn);
+        recentMisses[nextRecent] = vpn;
+        recentProcesses[nextRecent] = process;
+        nextRecent = (nextRecent + 1) % HISTORY;
+        if (!follows) {
+            return 0;
+        }
+        this.process = process;
+        windowSize = 0;
+        return readAhead(vpn + 1, candidates);
+    }
+
+    private boolean followsRecentMiss(int process, long vpn) {
+        for (int i = 0; i < HISTORY; i++) {
+            if (recentMisses[i] == vpn - 1 && recentProcesses[i] == process) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int readAhead(long start, long[] candidates) {
+        windowSize = windowSize == 0 ? Math.min(INITIAL_WINDOW, maxWindow) : Math.min(windowSize * 2, maxWindow);
+        windowStart = start;
+        for (int i = 0; i < windowSize; i++) {
+            candidates[i] = start + i;
+        }
+        return windowSize;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(recentMisses, NONE);
+        Arrays.fill(recentProcesses, 0);
+        nextRecent = 0;
+        process = 0;
+        windowStart = NONE;
+        windowSize = 0;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeLongs(recentMisses);
+        out.writeInts(recentProcesses);
+        out.writeInt(nextRecent);
+        out.writeInt(process);
+        out.writeLong(windowStart);
+        out.writeInt(windowSize);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readLongs(recentMisses);
+        in.readInts(recentProcesses);
+        nextRecent = in.readInt();
+        process = in.readInt();
+        windowStart = in.readLong();
+        windowSize = in.readInt();
+        if (nextRecent < 0 || nextRecent >= HISTORY || windowSize < 0 || windowSize > maxWindow) {
+            throw new IOException("Corrupt checkpoint: readahead state " + nextRecent + "/" + windowSize + ".");
+        }
+    }
+}
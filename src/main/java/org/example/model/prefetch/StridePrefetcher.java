@@ -0,0 +1,137 @@
+package org.example.model.prefetch;
+
+import org.example.model.CheckpointReader;
+import org.example.model.CheckpointWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Stride detection over a small table of streams, after the reference prediction table of hardware prefetchers.
+ * Each stream remembers the last page it missed on, its stride and a 2-bit confidence; a miss belongs to the
+ * stream of its process that predicted it, or else to the nearest one within {@link #MAX_DISTANCE} pages, and
+ * starts a stream of its own otherwise. Once a stride has repeated, the stream runs the degree's worth of
+ * strides ahead of the miss.
+ * <p>
+ * Traces carry no instruction addresses, so streams are told apart by process and by address rather than by
+ * the instruction that issues them; interleaved streams over distinct regions still keep separate entries.
+ */
+public class StridePrefetcher implements Prefetcher {
+    static final int STREAMS = 16;
+    static final long MAX_DISTANCE = 256;
+    private static final int MAX_CONFIDENCE = 3;
+
+    private final int degree;
+    private final int[] processes = new int[STREAMS];
+    private final long[] lastPages = new long[STREAMS];
+    private final long[] strides = new long[STREAMS];
+    private final int[] confidences = new int[STREAMS];
+    private final long[] lastUsed = new long[STREAMS];
+    private long clock;
+
+    /**
+     * @param degree Strides to run ahead of a confirmed stream.
+     */
+    public StridePrefetcher(int degree) {
+        if (degree <= 0) {
+            throw new IllegalArgumentException("The prefetch degree must be positive: " + degree);
+        }
+        this.degree = degree;
+        reset();
+    }
+
+    @Override
+    public int getDegree() {
+        return degree;
+    }
+
+    @Override
+    public int onMiss(int process, long vpn, boolean prefetchHit, long[] candidates) {
+        int stream = find(process, vpn);
+        lastUsed[stream] = ++clock;
+        long delta = vpn - lastPages[stream];
+        if (delta == 0) {
+            return 0;
+        }
+        if (delta == strides[stream]) {
+            confidences[stream] = Math.min(confidences[stream] + 1, MAX_CONFIDENCE);
+        } else if (confidences[stream] > 0) {
+            confidences[stream]--; // Keep the stride through one irregular miss
+        } else {
+            strides[stream] = delta;
+        }
+        lastPages[stream] = vpn;
+        if (confidences[stream] == 0) {
+            return 0;
+        }
+        long stride = strides[stream];
+        for (int i = 0; i < degree; i++) {
+            candidates[i] = vpn + stride * (i + 1);
+        }
+        return degree;
+    }
+
+    /**
+     * @return The stream a miss belongs to, replacing the least recently used one if none is near.
+     */
+    private int find(int process, long vpn) {
+        int nearest = -1;
+        long nearestDistance = MAX_DISTANCE + 1;
+        int oldest = 0;
+        for (int i = 0; i < STREAMS; i++) {
+            if (lastUsed[i] < lastUsed[oldest]) {
+                oldest = i;
+            }
+            if (processes[i] != process || lastUsed[i] == 0) {
+                continue;
+            }
+            long delta = vpn - lastPages[i];
+            if (delta == strides[i] && delta != 0) {
+                return i;
+            }
+            long distance = Math.abs(delta);
+            if (distance < nearestDistance) {
+                nearest = i;
+                nearestDistance = distance;
+            }
+        }
+        if (nearest >= 0) {
+            return nearest;
+        }
+        processes[oldest] = process;
+        lastPages[oldest] = vpn;
+        strides[oldest] = 0;
+        confidences[oldest] = 0;
+        return oldest;
+    }
+
+    @Override
+    public void reset() {
+        Arrays.fill(processes, 0);
+        Arrays.fill(lastPages, 0);
+        Arrays.fill(strides, 0);
+        Arrays.fill(confidences, 0);
+        Arrays.fill(lastUsed, 0);
+        clock = 0;
+    }
+
+    @Override
+    public void save(CheckpointWriter out) throws IOException {
+        out.writeInts(processes);
+        out.writeLongs(lastPages);
+        out.writeLongs(strides);
+        out.writeInts(confidences);
+        out.writeLongs(lastUsed);
+        out.writeLong(clock);
+    }
+
+    @Override
+    public void restore(CheckpointReader in) throws IOException {
+        in.readInts(processes);
+        in.readLongs(lastPages);
+        in.readLongs(strides);
+        in.readInts(confidences);
+        in.readLongs(lastUsed);
+        clock = in.readLong();
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A stream of virtual addresses delivered in primitive batches.
+ */
+public interface AddressTrace extends Closeable {
+
+    /**
+     * Fill the buffers with the next records of the trace. Traces that do not carry an access type or a
+     * process id report {@link BinaryTraceFormat#ACCESS_READ} and process 0.
+     *
+     * @param addresses    Destination for the addresses.
+     * @param accessTypes  Destination for the access types, or null if not needed.
+     * @param processIds   Destination for the process ids, or null if not needed.
+     * @return The number of records written, or -1 once the trace is exhausted.
+     */
+    int next(long[] addresses, byte[] accessTypes, int[] processIds) throws IOException;
+
+    /**
+     * Fill the buffer with the next addresses of the trace.
+     *
+     * @param buffer Destination for the addresses.
+     * @return The number of addresses written, or -1 once the trace is exhausted.
+     */
+    default int next(long[] buffer) throws IOException {
+        return next(buffer, null, null);
+    }
+
+    /**
+     * Skip records without delivering them, for example to resume a run from a checkpoint.
+     *
+     * @return The number of records skipped, fewer than asked only if the trace ends first.
+     */
+    default long skip(long records) throws IOException {
+        long[] discard = new long[(int) Math.min(Math.max(records, 1), 8192)];
+        long skipped = 0;
+        while (skipped < records) {
+            if (records - skipped < discard.length) {
+                discard = new long[(int) (records - skipped)];
+            }
+            int count = next(discard);
+            if (count < 0) {
+                break;
+            }
+            skipped += count;
+        }
+        return skipped;
+    }
+
+    @Override
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Layout of the compact binary trace format (".vmt").
+ *
+ * <pre>
+ * Header (16 bytes, little-endian):
+ *   int   magic         'V' 'M' 'T' 'R'
+ *   byte  version       1
+ *   byte  flags         bit 0: records carry an access type, bit 1: records carry a process id
+ *   byte  addressBytes  4 or 8
+ *   byte  reserved
+ *   long  recordCount
+ * Record (fixed width, little-endian):
+ *   address      4 or 8 bytes, unsigned
+ *   accessType   1 byte  (if FLAG_ACCESS_TYPE)
+ *   processId    4 bytes (if FLAG_PROCESS_ID)
+ * </pre>
+ *
+ * A trace of 8-byte addresses without optional fields is a plain array of longs after the header,
+ * which lets readers view a mapped file directly as a {@link java.nio.LongBuffer}.
+ */
+public final class BinaryTraceFormat {
+    public static final int MAGIC = 0x52544D56; // "VMTR" read as a little-endian int
+    public static final byte VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+
+    public static final int FLAG_ACCESS_TYPE = 1;
+    public static final int FLAG_PROCESS_ID = 1 << 1;
+
+    public static final byte ACCESS_READ = 0;
+    public static final byte ACCESS_WRITE = 1;
+    public static final byte ACCESS_FETCH = 2;
+    /**
+     * Mask of every access type, one bit per type code, see {@link #parseAccessTypeMask(String)}.
+     */
+    public static final int ALL_ACCESS_TYPES = 1 << ACCESS_READ | 1 << ACCESS_WRITE | 1 << ACCESS_FETCH;
+
+    private final int flags;
+    private final int addressBytes;
+    private final long recordCount;
+
+    public BinaryTraceFormat(int flags, int addressBytes, long recordCount) {
+        if (addressBytes != 4 && addressBytes != 8) {
+            throw new IllegalArgumentException("Address width must be 4 or 8 bytes: " + addressBytes);
+        }
+        this.flags = flags;
+        this.addressBytes = addressBytes;
+        this.recordCount = recordCount;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean hasAccessType() {
+        return (flags & FLAG_ACCESS_TYPE) != 0;
+    }
+
+    public boolean hasProcessId() {
+        return (flags & FLAG_PROCESS_ID) != 0;
+    }
+
+    public int getAddressBytes() {
+        return addressBytes;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getRecordSize() {
+        return addressBytes + (hasAccessType() ? 1 : 0) + (hasProcessId() ? 4 : 0);
+    }
+
+    /**
+     * @return Byte offset of the access type inside a record.
+     */
+    public int accessTypeOffset() {
+        return addressBytes;
+    }
+
+    /**
+     * @return Byte offset of the process id inside a record.
+     */
+    public int processIdOffset() {
+        return addressBytes + (hasAccessType() ? 1 : 0);
+    }
+
+    public ByteBuffer encodeHeader() {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).put(VERSION).put((byte) flags).put((byte) addressBytes).put((byte) 0).putLong(recordCount);
+        header.flip();
+        return header;
+    }
+
+    /**
+     * Decode a header from the first {@link #HEADER_SIZE} bytes of the buffer.
+     *
+     * @throws IOException if the bytes are not a supported trace header.
+     */
+    public static BinaryTraceFormat decodeHeader(ByteBuffer buffer) throws IOException {
+        ByteBuffer header = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (header.remaining() < HEADER_SIZE || header.getInt() != MAGIC) {
+            throw new IOException("Not a binary trace file.");
+        }
+        byte version = header.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported trace version: " + version);
+        }
+        int flags = header.get();
+        int addressBytes = header.get();
+        header.get();
+        long recordCount = header.getLong();
+        try {
+            return new BinaryTraceFormat(flags, addressBytes, recordCount);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException(ex.getMessage(), ex);
+        }
+    }
+
+    public static byte parseAccessType(char c) {
+        switch (c) {
+            case 'R':
+            case 'r':
+            case 'L':
+            case 'l':
+                return ACCESS_READ;
+            case 'W':
+            case 'w':
+            case 'S':
+            case 's':
+                return ACCESS_WRITE;
+            case 'I':
+            case 'i':
+            case 'X':
+            case 'x':
+                return ACCESS_FETCH;
+            default:
+                throw new IllegalArgumentException("Unknown access type: " + c);
+        }
+    }
+
+    /**
+     * @param letters Access types to keep, as letters accepted by {@link #parseAccessType(char)}, for example "RW";
+     *                commas are ignored.
+     * @return A mask with bit (1 &lt;&lt; type) set for every type given.
+     */
+    public static int parseAccessTypeMask(String letters) {
+        int mask = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            char c = letters.charAt(i);
+            if (c != ',') {
+                mask |= 1 << parseAccessType(c);
+            }
+        }
+        if (mask == 0) {
+            throw new IllegalArgumentException("No access types given.");
+        }
+        return mask;
+    }
+}
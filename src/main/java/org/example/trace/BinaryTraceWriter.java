@@ -0,0 +1,81 @@
+package org.example.trace;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes records in the {@link BinaryTraceFormat}. The record count in the header is filled in on {@link #close()}.
+ */
+public class BinaryTraceWriter implements Closeable {
+    private final FileChannel channel;
+    private final int flags;
+    private final int addressBytes;
+    private final ByteBuffer buffer;
+    private final long addressLimit;
+    private long recordCount;
+
+    public BinaryTraceWriter(Path path, int flags, int addressBytes) throws IOException {
+        this.flags = flags;
+        this.addressBytes = addressBytes;
+        this.addressLimit = addressBytes == 8 ? -1L : (1L << (addressBytes * 8)) - 1;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+        channel.write(new BinaryTraceFormat(flags, addressBytes, 0).encodeHeader());
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void write(long address, byte accessType, int processId) throws IOException {
+        if (addressBytes == 4 && (address & ~addressLimit) != 0) {
+            throw new IllegalArgumentException("Address " + Long.toHexString(address).toUpperCase() + " does not fit in 4 bytes.");
+        }
+        if (buffer.remaining() < 13) {
+            flush();
+        }
+        if (addressBytes == 8) {
+            buffer.putLong(address);
+        } else {
+            buffer.putInt((int) address);
+        }
+        if ((flags & BinaryTraceFormat.FLAG_ACCESS_TYPE) != 0) {
+            buffer.put(accessType);
+        }
+        if ((flags & BinaryTraceFormat.FLAG_PROCESS_ID) != 0) {
+            buffer.putInt(processId);
+        }
+        recordCount++;
+    }
+
+    public void write(long address) throws IOException {
+        write(address, BinaryTraceFormat.ACCESS_READ, 0);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            ByteBuffer header = new BinaryTraceFormat(flags, addressBytes, recordCount).encodeHeader();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Text formats of memory traces written by instrumentation tools, parsed straight from bytes by
+ * {@link ParallelTraceReader}.
+ */
+public enum ExternalTraceFormat {
+    /**
+     * Valgrind Lackey with {@code --trace-mem=yes}: {@code "I  04000000,3"} for a fetch and {@code " L 7ff000398,8"},
+     * {@code " S ..."} or {@code " M ..."} for a load, store or modify. A modify is kept once, as a write.
+     * Lines of Valgrind's own output, starting with "==", are skipped.
+     */
+    LACKEY {
+        @Override
+        void parseLine(byte[] b, int start, int end, ParsedChunk out, int accessTypes) {
+            int i = skipSpaces(b, start, end);
+            if (i == end || b[i] == '=' || b[i] == '#') {
+                return;
+            }
+            byte type;
+            switch (b[i]) {
+                case 'I':
+                    type = BinaryTraceFormat.ACCESS_FETCH;
+                    break;
+                case 'L':
+                    type = BinaryTraceFormat.ACCESS_READ;
+                    break;
+                case 'S':
+                case 'M':
+                    type = BinaryTraceFormat.ACCESS_WRITE;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown access type");
+            }
+            int addressStart = skipSpaces(b, i + 1, end);
+            if (addressStart == i + 1) {
+                throw new IllegalArgumentException("Missing space after the access type");
+            }
+            if ((accessTypes & 1 << type) == 0) {
+                return;
+            }
+            int addressEnd = addressStart;
+            while (addressEnd < end && b[addressEnd] != ',') {
+                addressEnd++;
+            }
+            out.add(parseHex(b, addressStart, addressEnd), type);
+        }
+    },
+    /**
+     * Pin memory tracers such as pinatrace: {@code "0x7f5e4e5e9ea3: W 0x7ffd9c4c6a58"}, an optional instruction
+     * pointer followed by the access type (R, W or I) and the address, with anything after the address ignored.
+     * Lines starting with '#' are skipped.
+     */
+    PIN {
+        @Override
+        void parseLine(byte[] b, int start, int end, ParsedChunk out, int accessTypes) {
+            int i = skipSpaces(b, start, end);
+            if (i == end || b[i] == '#') {
+                return;
+            }
+            int tokenEnd = skipToken(b, i, end);
+            if (b[tokenEnd - 1] == ':') {
+                i = skipSpaces(b, tokenEnd, end);
+                tokenEnd = skipToken(b, i, end);
+            }
+            if (tokenEnd - i != 1) {
+                throw new IllegalArgumentException("Missing access type");
+            }
+            byte type;
+            switch (b[i]) {
+                case 'R':
+                    type = BinaryTraceFormat.ACCESS_READ;
+                    break;
+                case 'W':
+                    type = BinaryTraceFormat.ACCESS_WRITE;
+                    break;
+                case 'I':
+                    type = BinaryTraceFormat.ACCESS_FETCH;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown access type");
+            }
+            if ((accessTypes & 1 << type) == 0) {
+                return;
+            }
+            int addressStart = skipSpaces(b, tokenEnd, end);
+            out.add(parseHex(b, addressStart, skipToken(b, addressStart, end)), type);
+        }
+    };
+
+    private static final int SNIFF_BYTES = 4096;
+    private static final byte[] HEX_DIGITS = new byte[256];
+
+    static {
+        Arrays.fill(HEX_DIGITS, (byte) -1);
+        for (int c = '0'; c <= '9'; c++) HEX_DIGITS[c] = (byte) (c - '0');
+        for (int c = 'a'; c <= 'f'; c++) HEX_DIGITS[c] = (byte) (c - 'a' + 10);
+        for (int c = 'A'; c <= 'F'; c++) HEX_DIGITS[c] = (byte) (c - 'A' + 10);
+    }
+
+    /**
+     * Parse one line, without its line terminator, and append its access unless its type is filtered out.
+     * Accesses that are filtered out are not checked beyond their type.
+     *
+     * @param accessTypes Mask of the access types to keep, bit (1 &lt;&lt; type) per type.
+     * @throws IllegalArgumentException if the line is malformed, with a message that leaves out its position.
+     */
+    abstract void parseLine(byte[] b, int start, int end, ParsedChunk out, int accessTypes);
+
+    /**
+     * @return The format with the given name: lackey or pin.
+     */
+    public static ExternalTraceFormat parse(String name) {
+        switch (name.toLowerCase()) {
+            case "lackey":
+            case "valgrind":
+                return LACKEY;
+            case "pin":
+            case "pinatrace":
+                return PIN;
+            default:
+                throw new IllegalArgumentException("Unknown trace format: " + name);
+        }
+    }
+
+    /**
+     * Guess the format from the first data line of a file.
+     *
+     * @return The format, or null if the file does not look like any of them.
+     */
+    public static ExternalTraceFormat detect(Path path) throws IOException {
+        byte[] bytes;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SNIFF_BYTES, channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+                // Keep reading until the buffer is full or the file ends.
+            }
+            bytes = buffer.array();
+        }
+        int start = 0;
+        while (start < bytes.length) {
+            int end = start;
+            while (end < bytes.length && bytes[end] != '\n') {
+                end++;
+            }
+            if (end == bytes.length && start > 0) {
+                return null; // Only a partial line is left
+            }
+            int lineEnd = end > start && bytes[end - 1] == '\r' ? end - 1 : end;
+            int first = skipSpaces(bytes, start, lineEnd);
+            if (first < lineEnd && bytes[first] != '#' && bytes[first] != '=') {
+                ParsedChunk probe = new ParsedChunk(1);
+                for (ExternalTraceFormat format : values()) {
+                    try {
+                        format.parseLine(bytes, start, lineEnd, probe, BinaryTraceFormat.ALL_ACCESS_TYPES);
+                        if (probe.count == 1) {
+                            return format;
+                        }
+                    } catch (IllegalArgumentException ex) {
+                        // Try the next format
+                    }
+                }
+                return null;
+            }
+            start = end + 1;
+        }
+        return null;
+    }
+
+    static int skipSpaces(byte[] b, int i, int end) {
+        while (i < end && (b[i] == ' ' || b[i] == '\t')) i++;
+        return i;
+    }
+
+    static int skipToken(byte[] b, int i, int end) {
+        while (i < end && b[i] != ' ' && b[i] != '\t') i++;
+        return i;
+    }
+
+    /**
+     * @return The value of up to 16 hexadecimal digits with an optional "0x".
+     */
+    static long parseHex(byte[] b, int start, int end) {
+        if (end - start > 2 && b[start] == '0' && (b[start + 1] == 'x' || b[start + 1] == 'X')) {
+            start += 2;
+        }
+        if (start == end || end - start > 16) {
+            throw new IllegalArgumentException(start == end ? "Missing address" : "Address too long");
+        }
+        long value = 0;
+        int invalid = 0;
+        for (int i = start; i < end; i++) {
+            int digit = HEX_DIGITS[b[i] & 0xFF];
+            invalid |= digit;
+            value = (value << 4) | digit;
+        }
+        if (invalid < 0) {
+            throw new IllegalArgumentException("Invalid hexadecimal address");
+        }
+        return value;
+    }
+}
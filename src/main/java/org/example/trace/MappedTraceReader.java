@@ -0,0 +1,157 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a {@link BinaryTraceFormat} file through {@link FileChannel#map}.
+ * The file is mapped in record-aligned windows of up to 1 GiB, so traces larger than the address space of a single
+ * mapping are supported. {@link #nextChunk()} hands out the mapped records themselves, without copying.
+ */
+public class MappedTraceReader implements AddressTrace {
+    private static final long MAX_WINDOW = 1L << 30;
+
+    private final FileChannel channel;
+    private final BinaryTraceFormat format;
+    private final int recordSize;
+    private final long recordCount;
+    private final long recordsPerWindow;
+
+    private ByteBuffer window;
+    private long nextRecord; // First record not yet mapped
+    private long recordsRead;
+
+    public MappedTraceReader(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(BinaryTraceFormat.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+                // Keep reading until the header is complete or the file ends.
+            }
+            header.flip();
+            format = BinaryTraceFormat.decodeHeader(header);
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+        recordSize = format.getRecordSize();
+        long available = (channel.size() - BinaryTraceFormat.HEADER_SIZE) / recordSize;
+        // A writer that did not close cleanly leaves a zero count; fall back to the file size.
+        recordCount = format.getRecordCount() > 0 ? Math.min(format.getRecordCount(), available) : available;
+        recordsPerWindow = MAX_WINDOW / recordSize;
+    }
+
+    /**
+     * @return True if the file starts with the binary trace magic number.
+     */
+    public static boolean isBinaryTrace(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(magic, 0);
+            return magic.position() == 4 && magic.getInt(0) == BinaryTraceFormat.MAGIC;
+        }
+    }
+
+    public BinaryTraceFormat getFormat() {
+        return format;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return The number of records handed out so far.
+     */
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    private boolean ensureWindow() throws IOException {
+        if (window != null && window.hasRemaining()) {
+            return true;
+        }
+        if (nextRecord >= recordCount) {
+            return false;
+        }
+        long records = Math.min(recordsPerWindow, recordCount - nextRecord);
+        window = channel.map(FileChannel.MapMode.READ_ONLY,
+                BinaryTraceFormat.HEADER_SIZE + nextRecord * recordSize, records * recordSize)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        nextRecord += records;
+        return true;
+    }
+
+    /**
+     * Hand out the rest of the current mapped window.
+     *
+     * @return A little-endian buffer holding whole records from position 0, or null once the trace is exhausted.
+     */
+    public ByteBuffer nextChunk() throws IOException {
+        if (!ensureWindow()) {
+            return null;
+        }
+        ByteBuffer chunk = window.slice().order(ByteOrder.LITTLE_ENDIAN);
+        window.position(window.limit());
+        recordsRead += chunk.remaining() / recordSize;
+        return chunk;
+    }
+
+    @Override
+    public int next(long[] addresses, byte[] accessTypes, int[] processIds) throws IOException {
+        if (!ensureWindow()) {
+            return -1;
+        }
+        int count = Math.min(addresses.length, window.remaining() / recordSize);
+        int start = window.position();
+        boolean wide = format.getAddressBytes() == 8;
+        if (wide && recordSize == 8) { // Addresses only; a 4-byte address and a pid also make 8 bytes
+            LongBuffer longs = window.asLongBuffer();
+            longs.get(addresses, 0, count);
+        } else {
+            for (int i = 0, pos = start; i < count; i++, pos += recordSize) {
+                addresses[i] = wide ? window.getLong(pos) : window.getInt(pos) & 0xFFFFFFFFL;
+            }
+        }
+        if (accessTypes != null) {
+            for (int i = 0, pos = start + format.accessTypeOffset(); i < count; i++, pos += recordSize) {
+                accessTypes[i] = format.hasAccessType() ? window.get(pos) : BinaryTraceFormat.ACCESS_READ;
+            }
+        }
+        if (processIds != null) {
+            for (int i = 0, pos = start + format.processIdOffset(); i < count; i++, pos += recordSize) {
+                processIds[i] = format.hasProcessId() ? window.getInt(pos) : 0;
+            }
+        }
+        window.position(start + count * recordSize);
+        recordsRead += count;
+        return count;
+    }
+
+    /**
+     * Jump over records without reading them.
+     */
+    @Override
+    public long skip(long records) {
+        long skipped = Math.min(Math.max(records, 0), recordCount - recordsRead);
+        recordsRead += skipped;
+        nextRecord = recordsRead;
+        window = null;
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+}
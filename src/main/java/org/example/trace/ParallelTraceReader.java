@@ -0,0 +1,226 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Reads a Valgrind Lackey or Pin text trace by parsing chunks of the file in parallel on a fork-join pool.
+ * The file is cut at fixed byte offsets; a chunk owns every line that starts inside it, reading past its end to finish
+ * the last one, so chunks need no coordination. A bounded window of chunks is parsed ahead of the reader and
+ * handed out strictly in file order, which keeps memory flat however large the trace is.
+ * <p>
+ * Every record is reported with its access type and process 0; records whose type is not in the filter are dropped
+ * while parsing.
+ */
+public class ParallelTraceReader implements AddressTrace {
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private final ExternalTraceFormat format;
+    private final int accessTypes;
+    private final ForkJoinPool pool;
+    private final int chunkBytes;
+    private final int window;
+    private final ArrayDeque<ForkJoinTask<ParsedChunk>> pending = new ArrayDeque<>();
+
+    private long nextChunkStart;
+    private ParsedChunk current;
+    private int position;
+
+    /**
+     * Parse on the common pool, keeping every access type.
+     */
+    public ParallelTraceReader(Path path, ExternalTraceFormat format) throws IOException {
+        this(path, format, BinaryTraceFormat.ALL_ACCESS_TYPES, ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * @param accessTypes Mask of the access types to keep, see {@link BinaryTraceFormat#parseAccessTypeMask(String)}.
+     * @param chunkBytes  Bytes of the file parsed by one task.
+     */
+    public ParallelTraceReader(Path path, ExternalTraceFormat format, int accessTypes, ForkJoinPool pool, int chunkBytes) throws IOException {
+        if (chunkBytes <= 0) {
+            throw new IllegalArgumentException("Chunks must not be empty: " + chunkBytes);
+        }
+        if ((accessTypes & BinaryTraceFormat.ALL_ACCESS_TYPES) == 0) {
+            throw new IllegalArgumentException("The filter drops every access type.");
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.format = format;
+        this.accessTypes = accessTypes;
+        this.pool = pool;
+        this.chunkBytes = chunkBytes;
+        this.window = pool.getParallelism() * 2;
+    }
+
+    public ExternalTraceFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public int next(long[] addresses, byte[] accessTypes, int[] processIds) throws IOException {
+        while (current == null || position == current.count) {
+            if (!advance()) {
+                return -1;
+            }
+        }
+        int count = Math.min(addresses.length, current.count - position);
+        System.arraycopy(current.addresses, position, addresses, 0, count);
+        if (accessTypes != null) System.arraycopy(current.accessTypes, position, accessTypes, 0, count);
+        if (processIds != null) Arrays.fill(processIds, 0, count, 0);
+        position += count;
+        return count;
+    }
+
+    /**
+     * Take the oldest parsed chunk, keeping the window of chunks ahead of it full.
+     *
+     * @return False once every chunk has been handed out.
+     */
+    private boolean advance() throws IOException {
+        submitChunks();
+        ForkJoinTask<ParsedChunk> task = pending.poll();
+        if (task == null) {
+            current = null;
+            return false;
+        }
+        current = task.join();
+        position = 0;
+        if (current.ioFailure != null) {
+            throw current.ioFailure;
+        }
+        if (current.formatFailure != null) {
+            throw current.formatFailure;
+        }
+        submitChunks();
+        return true;
+    }
+
+    private void submitChunks() {
+        while (pending.size() < window && nextChunkStart < size) {
+            long start = nextChunkStart;
+            long end = Math.min(start + chunkBytes, size);
+            pending.add(pool.submit(new ChunkTask(start, end)));
+            nextChunkStart = end;
+        }
+    }
+
+    /**
+     * Parses the lines that start in [start, end).
+     */
+    private final class ChunkTask extends RecursiveTask<ParsedChunk> {
+        private final long start;
+        private final long end;
+
+        ChunkTask(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        /**
+         * Failures are kept with the chunk, so the reader rethrows them in order and as they were.
+         */
+        @Override
+        protected ParsedChunk compute() {
+            try {
+                return parse();
+            } catch (IOException ex) {
+                ParsedChunk failed = new ParsedChunk(0);
+                failed.ioFailure = ex;
+                return failed;
+            } catch (IllegalArgumentException ex) {
+                ParsedChunk failed = new ParsedChunk(0);
+                failed.formatFailure = ex;
+                return failed;
+            }
+        }
+
+        private ParsedChunk parse() throws IOException {
+            // One byte before the chunk tells whether its first line starts right at the boundary
+            long base = start == 0 ? 0 : start - 1;
+            int limit = (int) (end - base);
+            byte[] bytes = new byte[limit];
+            int length = read(bytes, 0, limit, base);
+            ParsedChunk chunk = new ParsedChunk(limit / 16);
+
+            int lineStart = start == 0 ? 0 : indexOfNewline(bytes, 0, length) + 1;
+            if (lineStart == 0 && start != 0) {
+                return chunk; // No line starts in this chunk
+            }
+            while (lineStart < limit) {
+                int newline = indexOfNewline(bytes, lineStart, length);
+                while (newline < 0 && base + length < size) {
+                    // The last line runs into the next chunk
+                    if (length == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, bytes.length + Math.max(bytes.length / 8, 4096));
+                    }
+                    int searchFrom = length;
+                    length += read(bytes, length, bytes.length - length, base + length);
+                    newline = indexOfNewline(bytes, searchFrom, length);
+                }
+                int lineEnd = newline < 0 ? length : newline;
+                int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+                try {
+                    format.parseLine(bytes, lineStart, contentEnd, chunk, accessTypes);
+                } catch (IllegalArgumentException ex) {
+                    throw new IllegalArgumentException(ex.getMessage() + " in the " + format + " line at byte " + (base + lineStart)
+                            + ": " + new String(bytes, lineStart, Math.min(contentEnd - lineStart, 120), StandardCharsets.US_ASCII), ex);
+                }
+                lineStart = lineEnd + 1;
+            }
+            return chunk;
+        }
+    }
+
+    private static int indexOfNewline(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Positional read, safe to run from many tasks at once.
+     *
+     * @return Bytes read, fewer than asked only at the end of the file.
+     */
+    private int read(byte[] bytes, int offset, int length, long filePosition) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, filePosition + buffer.position() - offset);
+            if (n < 0) {
+                break;
+            }
+        }
+        return buffer.position() - offset;
+    }
+
+    /**
+     * Stop parsing ahead and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        for (ForkJoinTask<ParsedChunk> task : pending) {
+            task.cancel(false);
+        }
+        for (ForkJoinTask<ParsedChunk> task : pending) {
+            task.quietlyJoin(); // Let running tasks finish with the channel before it closes
+        }
+        pending.clear();
+        current = null;
+        channel.close();
+    }
+}
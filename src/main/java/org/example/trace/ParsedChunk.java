@@ -0,0 +1,30 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Accesses parsed from one chunk of a text trace, in file order, or the failure that stopped the parse.
+ */
+final class ParsedChunk {
+    long[] addresses;
+    byte[] accessTypes;
+    int count;
+    IOException ioFailure;
+    IllegalArgumentException formatFailure;
+
+    ParsedChunk(int capacity) {
+        addresses = new long[Math.max(capacity, 16)];
+        accessTypes = new byte[addresses.length];
+    }
+
+    void add(long address, byte accessType) {
+        if (count == addresses.length) {
+            addresses = Arrays.copyOf(addresses, count * 2);
+            accessTypes = Arrays.copyOf(accessTypes, count * 2);
+        }
+        addresses[count] = address;
+        accessTypes[count] = accessType;
+        count++;
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.trace;
+
+import org.example.workload.AddressGenerator;
+
+import java.util.Arrays;
+
+/**
+ * A trace of a fixed number of addresses drawn from a generator as they are read, so a synthetic workload
+ * can be replayed without ever being stored. Every access is a read by process 0.
+ */
+public class SyntheticTrace implements AddressTrace {
+    private final AddressGenerator generator;
+    private long remaining;
+
+    /**
+     * @param length Number of addresses the trace delivers.
+     */
+    public SyntheticTrace(AddressGenerator generator, long length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("A trace length must not be negative: " + length);
+        }
+        this.generator = generator;
+        this.remaining = length;
+    }
+
+    @Override
+    public int next(long[] addresses, byte[] accessTypes, int[] processIds) {
+        if (remaining == 0) {
+            return -1;
+        }
+        int count = (int) Math.min(remaining, addresses.length);
+        generator.fill(addresses, 0, count);
+        if (accessTypes != null) Arrays.fill(accessTypes, 0, count, BinaryTraceFormat.ACCESS_READ);
+        if (processIds != null) Arrays.fill(processIds, 0, count, 0);
+        remaining -= count;
+        return count;
+    }
+}
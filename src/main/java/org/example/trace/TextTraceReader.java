@@ -0,0 +1,84 @@
+package org.example.trace;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads a trace of hexadecimal addresses, one per line, as accepted by the GUI.
+ * Each line may carry an access type (R, W or I) and a decimal process id after the address.
+ * Blank lines and lines starting with '#' are skipped; a leading "0x" is optional.
+ */
+public class TextTraceReader implements AddressTrace {
+    private final BufferedReader reader;
+    private long lineNumber;
+
+    public TextTraceReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 1 << 16);
+    }
+
+    @Override
+    public int next(long[] addresses, byte[] accessTypes, int[] processIds) throws IOException {
+        int count = 0;
+        String line;
+        while (count < addresses.length && (line = reader.readLine()) != null) {
+            lineNumber++;
+            int end = line.length();
+            int start = skipWhitespace(line, 0, end);
+            if (start == end || line.charAt(start) == '#') {
+                continue;
+            }
+            int tokenEnd = skipToken(line, start, end);
+            addresses[count] = parseHex(line, start, tokenEnd);
+
+            byte accessType = BinaryTraceFormat.ACCESS_READ;
+            int processId = 0;
+            start = skipWhitespace(line, tokenEnd, end);
+            if (start < end) {
+                tokenEnd = skipToken(line, start, end);
+                accessType = BinaryTraceFormat.parseAccessType(line.charAt(start));
+                start = skipWhitespace(line, tokenEnd, end);
+                if (start < end) {
+                    processId = Integer.parseInt(line, start, skipToken(line, start, end), 10);
+                }
+            }
+            if (accessTypes != null) accessTypes[count] = accessType;
+            if (processIds != null) processIds[count] = processId;
+            count++;
+        }
+        return count == 0 ? -1 : count;
+    }
+
+    private static int skipWhitespace(String s, int i, int end) {
+        while (i < end && Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private static int skipToken(String s, int i, int end) {
+        while (i < end && !Character.isWhitespace(s.charAt(i))) i++;
+        return i;
+    }
+
+    private long parseHex(CharSequence s, int start, int end) {
+        if (end - start > 2 && s.charAt(start) == '0' && (s.charAt(start + 1) == 'x' || s.charAt(start + 1) == 'X')) {
+            start += 2;
+        }
+        if (end - start > 16) {
+            throw new IllegalArgumentException("Address too long at line " + lineNumber);
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Invalid hexadecimal character '" + s.charAt(i) + "' at line " + lineNumber);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.trace;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * One-off migration of text traces (hex address per line, optional access type and process id)
+ * to the {@link BinaryTraceFormat}. Valgrind Lackey and Pin traces are imported the same way with --format,
+ * parsed in parallel by {@link ParallelTraceReader}.
+ *
+ * <pre>
+ * java -cp target/classes org.example.trace.TraceConverter input.txt output.vmt [--address-bytes 4|8] [--access-type] [--pid]
+ * java -cp target/classes org.example.trace.TraceConverter lackey.out output.vmt --format lackey --access-types RW --access-type
+ * </pre>
+ */
+public class TraceConverter {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: TraceConverter <input.txt> <output.vmt> [--address-bytes 4|8] [--access-type] [--pid]");
+            System.out.println("                      [--format text|lackey|pin] [--access-types RWI]");
+            return;
+        }
+        int addressBytes = 8;
+        int flags = 0;
+        ExternalTraceFormat format = null;
+        int accessTypes = BinaryTraceFormat.ALL_ACCESS_TYPES;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--address-bytes":
+                    addressBytes = Integer.parseInt(args[++i]);
+                    break;
+                case "--access-type":
+                    flags |= BinaryTraceFormat.FLAG_ACCESS_TYPE;
+                    break;
+                case "--pid":
+                    flags |= BinaryTraceFormat.FLAG_PROCESS_ID;
+                    break;
+                case "--format":
+                    String name = args[++i];
+                    format = name.equals("text") ? null : ExternalTraceFormat.parse(name);
+                    break;
+                case "--access-types":
+                    accessTypes = BinaryTraceFormat.parseAccessTypeMask(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        long records;
+        if (format != null) {
+            try (AddressTrace reader = new ParallelTraceReader(Paths.get(args[0]), format, accessTypes,
+                    ForkJoinPool.commonPool(), ParallelTraceReader.DEFAULT_CHUNK_BYTES)) {
+                records = convert(reader, Paths.get(args[1]), flags, addressBytes);
+            }
+        } else if (accessTypes != BinaryTraceFormat.ALL_ACCESS_TYPES) {
+            throw new IllegalArgumentException("--access-types applies to Lackey and Pin traces.");
+        } else {
+            records = convert(Paths.get(args[0]), Paths.get(args[1]), flags, addressBytes);
+        }
+        System.out.printf("Converted %,d records in %.3f s%n", records, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Convert a text trace to a binary one.
+     *
+     * @return The number of records written.
+     */
+    public static long convert(Path input, Path output, int flags, int addressBytes) throws IOException {
+        try (TextTraceReader reader = new TextTraceReader(Files.newBufferedReader(input, StandardCharsets.US_ASCII))) {
+            return convert(reader, output, flags, addressBytes);
+        }
+    }
+
+    /**
+     * Write the rest of a trace to a binary one.
+     *
+     * @return The number of records written.
+     */
+    public static long convert(AddressTrace reader, Path output, int flags, int addressBytes) throws IOException {
+        long[] addresses = new long[8192];
+        byte[] accessTypes = new byte[addresses.length];
+        int[] processIds = new int[addresses.length];
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(output, flags, addressBytes)) {
+            int count;
+            while ((count = reader.next(addresses, accessTypes, processIds)) >= 0) {
+                for (int i = 0; i < count; i++) {
+                    writer.write(addresses[i], accessTypes[i], processIds[i]);
+                }
+            }
+            return writer.getRecordCount();
+        }
+    }
+}
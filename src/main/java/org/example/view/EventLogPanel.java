@@ -1,24 +1,36 @@
 package org.example.view;
 
+import org.example.model.EventLog;
+import org.example.model.LogEvent;
+
 import javax.swing.*;
 import java.awt.*;
 
 public class EventLogPanel extends JPanel {
-    private JTextArea logArea;
+    private static final int REFRESH_INTERVAL_MS = 50; // At most 20 repaints per second, however fast events arrive
+
+    private final EventLog eventLog;
+    private final EventListModel listModel;
+    private JList<LogEvent> logList;
     private JButton nextButton;
 
     public EventLogPanel() {
+        this(new EventLog());
+    }
+
+    public EventLogPanel(EventLog eventLog) {
+        this.eventLog = eventLog;
         setLayout(new BorderLayout()); // Use BorderLayout for dynamic resizing
         setBorder(BorderFactory.createTitledBorder("Event Log"));
 
-        // Log Area
-        logArea = new JTextArea();
-        logArea.setEditable(false);
-        logArea.setLineWrap(true);
-        logArea.setWrapStyleWord(true);
+        // Log List: only the visible rows are rendered, since every row has the prototype's size
+        listModel = new EventListModel();
+        logList = new JList<>(listModel);
+        logList.setCellRenderer(new EventRenderer());
+        logList.setPrototypeCellValue(new LogEvent(0, 0, LogEvent.Kind.INFO, "M".repeat(120)));
 
         // Add a JScrollPane with always-visible vertical scrollbar
-        JScrollPane scrollPane = new JScrollPane(logArea);
+        JScrollPane scrollPane = new JScrollPane(logList);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS); // Always show vertical scrollbar
         scrollPane.setHorizontalScrollBarPolicy(JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED); // Horizontal scrollbar if needed
         add(scrollPane, BorderLayout.CENTER); // Centered scroll pane to occupy full space
@@ -26,21 +38,126 @@ public class EventLogPanel extends JPanel {
         // Next Button
         nextButton = new JButton("Next");
         add(nextButton, BorderLayout.SOUTH); // Add the button at the bottom
+
+        // Pick up new events on the event dispatch thread
+        new Timer(REFRESH_INTERVAL_MS, e -> refresh()).start();
     }
 
-    // Method to append log messages to the text area
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    // Method to append log messages; safe to call from any thread and never blocks
     public void appendLog(String logMessage) {
-        logArea.append(logMessage + "\n");
-        logArea.setCaretPosition(logArea.getDocument().getLength()); // Scroll to the latest entry
+        appendLog(LogEvent.Kind.INFO, logMessage);
+    }
+
+    // Method to append a log message of the given kind
+    public void appendLog(LogEvent.Kind kind, String logMessage) {
+        eventLog.append(kind, logMessage.strip());
     }
 
     // Method to clear the logs
     public void clearLog() {
-        logArea.setText("");
+        eventLog.clear();
+        if (SwingUtilities.isEventDispatchThread()) {
+            refresh();
+        }
     }
 
     // Method to set action for the Next button
     public void setNextButtonAction(Runnable action) {
         nextButton.addActionListener(e -> action.run());
     }
+
+    /**
+     * Move the shown window to the events currently held by the log, following the newest event
+     * if the view was already scrolled to the bottom.
+     */
+    private void refresh() {
+        int oldSize = listModel.getSize();
+        boolean atBottom = oldSize == 0 || logList.getLastVisibleIndex() >= oldSize - 1;
+        if (listModel.update(eventLog.getFirstSequence(), eventLog.getNextSequence()) && atBottom && listModel.getSize() > 0) {
+            logList.ensureIndexIsVisible(listModel.getSize() - 1); // Scroll to the latest entry
+        }
+    }
+
+    /**
+     * List model over a window of event sequence numbers; rows are read from the ring buffer when painted.
+     */
+    private class EventListModel extends AbstractListModel<LogEvent> {
+        private long first;
+        private long end;
+
+        @Override
+        public int getSize() {
+            return (int) (end - first);
+        }
+
+        @Override
+        public LogEvent getElementAt(int index) {
+            LogEvent event = eventLog.get(first + index);
+            return event != null ? event : new LogEvent(first + index, 0, LogEvent.Kind.INFO, "");
+        }
+
+        /**
+         * @return Whether the window changed.
+         */
+        boolean update(long newFirst, long newEnd) {
+            if (newFirst == first && newEnd == end) {
+                return false;
+            }
+            int oldSize = getSize();
+            long dropped = Math.min(newFirst - first, oldSize);
+            if (newFirst < first || newFirst >= end) {
+                // Cleared, or everything shown was overwritten: replace the whole window.
+                first = newFirst;
+                end = newEnd;
+                if (oldSize > 0) {
+                    fireIntervalRemoved(this, 0, oldSize - 1);
+                }
+                if (getSize() > 0) {
+                    fireIntervalAdded(this, 0, getSize() - 1);
+                }
+                return true;
+            }
+            first = newFirst;
+            if (dropped > 0) {
+                fireIntervalRemoved(this, 0, (int) dropped - 1);
+            }
+            int kept = oldSize - (int) dropped;
+            end = newEnd;
+            if (getSize() > kept) {
+                fireIntervalAdded(this, kept, getSize() - 1);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Renders one event per row, colored by its kind.
+     */
+    private static class EventRenderer extends DefaultListCellRenderer {
+        private static final Color HIT = new Color(0, 120, 0);
+        private static final Color FAULT = new Color(170, 0, 0);
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+            super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            if (!isSelected && value instanceof LogEvent) {
+                switch (((LogEvent) value).getKind()) {
+                    case HIT:
+                        setForeground(HIT);
+                        break;
+                    case FAULT:
+                    case EVICTION:
+                        setForeground(FAULT);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return this;
+        }
+    }
 }
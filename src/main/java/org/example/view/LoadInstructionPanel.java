@@ -1,5 +1,7 @@
 package org.example.view;
 
+import org.example.model.AddressLayout;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
@@ -12,11 +14,13 @@ public class LoadInstructionPanel extends JPanel {
     private JTextField pageNumberField;        // Virtual Page Number (Binary)
     private JTextField offsetField;            // Page Offset
     private JButton generateButton;            // Generate Button
+    private JCheckBox writeCheckBox;           // Whether the access writes to its page
     private JButton submitButton;              // Submit Button
 
-    private final int OFFSET_BITS = 2;         // Fixed Offset Bits for demonstration purposes
     private Runnable submitFunction;           // Submit function for integration with the controller
     private int addressLength;                 // Address length calculated by the simulator GUI
+    private AddressLayout layout;              // Splits addresses into page number and offset
+    private long generatedAddress;             // Store the generated address
     private String generatedHexAddress;        // Store the generated hex address
 
     public LoadInstructionPanel() {
@@ -76,11 +80,16 @@ public class LoadInstructionPanel extends JPanel {
         offsetField.setEditable(false);
         add(offsetField, gbc);
 
-        // Row 6: Buttons
+        // Row 6: Buttons, with the access type next to Generate
         gbc.gridx = 0;
         gbc.gridy = 5;
+        JPanel generatePanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
         generateButton = new JButton("Generate");
-        add(generateButton, gbc);
+        generatePanel.add(generateButton);
+        writeCheckBox = new JCheckBox("Write");
+        writeCheckBox.setToolTipText("Write to the page, setting its dirty bit");
+        generatePanel.add(writeCheckBox);
+        add(generatePanel, gbc);
 
         gbc.gridx = 1;
         submitButton = new JButton("Submit");
@@ -99,15 +108,17 @@ public class LoadInstructionPanel extends JPanel {
     }
 
     /**
-     * Initialize the Load Instruction Panel with the given address length.
+     * Initialize the Load Instruction Panel with the given address length and page offset.
      *
      * @param addressLength The address length (calculated by the simulator GUI).
+     * @param offsetBits    The offset length entered in the settings.
      */
-    public void initialize(int addressLength) {
+    public void initialize(int addressLength, int offsetBits) {
         if (addressLength <= 0) {
             throw new IllegalArgumentException("Address length must be a positive integer.");
         }
         this.addressLength = addressLength;
+        this.layout = new AddressLayout(addressLength, offsetBits);
         resetFields(); // Reset fields when re-initializing
     }
 
@@ -119,25 +130,18 @@ public class LoadInstructionPanel extends JPanel {
             if (this.addressLength <= 0) {
                 throw new IllegalStateException("Address length is not initialized.");
             }
-            // Step 1: Generate Random Binary Address
+            // Step 1: Generate Random Address
             Random random = new Random();
-            StringBuilder binaryAddress = new StringBuilder();
-            for (int i = 0; i < this.addressLength; i++) {
-                binaryAddress.append(random.nextInt(2)); // Append 0 or 1
-            }
-            String binaryAddressString = binaryAddress.toString();
-            binaryAddressField.setText(binaryAddressString); // Fill binary address field
-            // Step 2: Convert Binary Address to Hexadecimal
-            generatedHexAddress = binaryToHex(binaryAddressString);
+            generatedAddress = layout.truncate(random.nextLong());
+            binaryAddressField.setText(layout.addressToBinary(generatedAddress)); // Fill binary address field
+            // Step 2: Convert Address to Hexadecimal
+            generatedHexAddress = AddressLayout.toHex(generatedAddress);
             hexAddressField.setText(generatedHexAddress); // Fill hex address field
-            // Step 3: Split Binary Address into Page Number and Offset
-            String pageNumberBinary = binaryAddressString.substring(0, binaryAddressString.length() - OFFSET_BITS); // Remove last OFFSET_BITS
-            String offset = binaryAddressString.substring(binaryAddressString.length() - OFFSET_BITS);         // Last OFFSET_BITS
-            pageNumberField.setText(pageNumberBinary);
+            // Step 3: Split Address into Page Number and Offset
+            pageNumberField.setText(layout.pageNumberToBinary(generatedAddress));
             // Step 4: Convert Virtual Page Number to Hexadecimal
-            String pageNumberHex = binaryToHex(pageNumberBinary);
-            pageNumberHexField.setText(pageNumberHex); // Fill virtual page number hex field
-            offsetField.setText(offset);
+            pageNumberHexField.setText(AddressLayout.toHex(layout.pageNumber(generatedAddress))); // Fill virtual page number hex field
+            offsetField.setText(layout.offsetToBinary(generatedAddress));
             // Enable the submit button now that an address is generated
             submitButton.setEnabled(true);
 
@@ -147,16 +151,10 @@ public class LoadInstructionPanel extends JPanel {
     }
 
     /**
-     * Convert a binary string to a hex string.
-     * Ensures the binary string is padded to a multiple of 4 bits.
+     * Get the generated address. Only meaningful once {@link #getGeneratedHexAddress()} is not null.
      */
-    private String binaryToHex(String binary) {
-        int length = binary.length();
-        int paddedLength = ((length + 3) / 4) * 4; // Ensure multiple of 4
-        String paddedBinary = String.format("%" + paddedLength + "s", binary).replace(' ', '0');
-
-        int decimalValue = Integer.parseInt(paddedBinary, 2);
-        return Integer.toHexString(decimalValue).toUpperCase();
+    public long getGeneratedAddress() {
+        return generatedAddress;
     }
 
     /**
@@ -166,6 +164,13 @@ public class LoadInstructionPanel extends JPanel {
         return generatedHexAddress;
     }
 
+    /**
+     * @return Whether the submitted access is a write rather than a read.
+     */
+    public boolean isWriteSelected() {
+        return writeCheckBox.isSelected();
+    }
+
     /**
      * Set the function to be called when the Submit button is clicked.
      */
@@ -182,7 +187,9 @@ public class LoadInstructionPanel extends JPanel {
         pageNumberHexField.setText("");
         pageNumberField.setText("");
         offsetField.setText("");
+        generatedAddress = 0;
         generatedHexAddress = null;
+        writeCheckBox.setSelected(false);
         submitButton.setEnabled(false); // Disable submit until new address is generated
     }
 
@@ -2,15 +2,26 @@ package org.example.view;
 
 import org.example.model.TLBTable;
 import org.example.model.PageTable;
+import org.example.model.PageTableFilter;
 import org.example.model.PMTable;
 
 import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 
 public class MemoryPanel extends JPanel {
     private JTable tlbTable;
     private JTable pageTable;
     private JTable physicalMemoryTable;
+    private JComboBox<PageTableFilter> pageTableFilter;
+    private JTextField goToField;
+    private JLabel pageTableSummary;
+    private PageTable pageTableModel;
+    private final TableModelListener pageTableListener = this::updatePageTableSummary;
 
     public MemoryPanel() {
         setLayout(new GridLayout(1, 3, 10, 10));
@@ -23,7 +34,7 @@ public class MemoryPanel extends JPanel {
 
         // Add scrollable tables to panel
         add(createScrollPane(tlbTable, "Translation Lookaside Buffer"));
-        add(createScrollPane(pageTable, "Page Table"));
+        add(createPageTablePane());
         add(createScrollPane(physicalMemoryTable, "Physical Memory"));
     }
 
@@ -36,12 +47,123 @@ public class MemoryPanel extends JPanel {
         return scrollPane;
     }
 
+    /**
+     * The page table with a filter, a field to jump to a page and a count of valid entries.
+     * Double-clicking a summary row shows the entries of its range.
+     */
+    private JPanel createPageTablePane() {
+        pageTableFilter = new JComboBox<>(PageTableFilter.values());
+        pageTableFilter.setName("Page Table Filter");
+        pageTableFilter.addActionListener(e -> {
+            if (pageTableModel != null) {
+                pageTableModel.setFilter((PageTableFilter) pageTableFilter.getSelectedItem());
+            }
+        });
+
+        goToField = new JTextField(5);
+        goToField.setName("Go To Page");
+        goToField.setToolTipText("Virtual page number in hex");
+        goToField.addActionListener(e -> goToPage());
+        JButton goToButton = new JButton("Go");
+        goToButton.setMargin(new Insets(2, 6, 2, 6));
+        goToButton.addActionListener(e -> goToPage());
+
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 4, 2));
+        controls.add(pageTableFilter);
+        controls.add(goToField);
+        controls.add(goToButton);
+
+        pageTableSummary = new JLabel(" ");
+        pageTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int row = pageTable.rowAtPoint(e.getPoint());
+                if (e.getClickCount() == 2 && row >= 0 && pageTableModel != null && pageTableModel.getFilter() == PageTableFilter.SUMMARY) {
+                    int vpn = pageTableModel.getVpn(row);
+                    pageTableModel.setFilter(PageTableFilter.ALL);
+                    select(pageTableModel.reveal(vpn));
+                }
+            }
+        });
+
+        JPanel pane = new JPanel(new BorderLayout());
+        pane.setBorder(BorderFactory.createTitledBorder("Page Table"));
+        pane.add(controls, BorderLayout.NORTH);
+        pane.add(new JScrollPane(pageTable), BorderLayout.CENTER);
+        pane.add(pageTableSummary, BorderLayout.SOUTH);
+        return pane;
+    }
+
+    /**
+     * Select and scroll to the page typed in the field, showing every entry if the filter hides it.
+     */
+    private void goToPage() {
+        if (pageTableModel == null) {
+            return;
+        }
+        String text = goToField.getText().trim();
+        try {
+            long vpn = Long.parseLong(text.startsWith("0x") || text.startsWith("0X") ? text.substring(2) : text, 16);
+            int row = pageTableModel.reveal(vpn);
+            if (row < 0 && vpn >= 0 && vpn < pageTableModel.getPageCount()) {
+                pageTableModel.setFilter(PageTableFilter.ALL);
+                row = pageTableModel.reveal(vpn);
+            }
+            if (row < 0) {
+                pageTableSummary.setText("Page " + text.toUpperCase() + " is outside the page table.");
+                return;
+            }
+            select(row);
+        } catch (NumberFormatException ex) {
+            pageTableSummary.setText("Enter a page number in hex.");
+        }
+    }
+
+    private void select(int row) {
+        if (row >= 0 && row < pageTable.getRowCount()) {
+            pageTable.changeSelection(row, 0, false, false); // Scrolls the row into view
+        }
+    }
+
+    private void updatePageTableSummary(TableModelEvent e) {
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+            pageTableFilter.setSelectedItem(pageTableModel.getFilter());
+        }
+        int pages = pageTableModel.getPageCount();
+        String summary = String.format("%,d of %,d pages valid", pageTableModel.getValidCount(), pages);
+        int rows = pageTableModel.getRowCount();
+        if (pageTableModel.getFilter() == PageTableFilter.ALL && rows < pages) {
+            int first = pageTableModel.getVpn(0);
+            summary += ", showing " + Integer.toHexString(first).toUpperCase() + "-" + Integer.toHexString(first + rows - 1).toUpperCase();
+        } else if (pageTableModel.getFilter() == PageTableFilter.VALID || pageTableModel.getFilter() == PageTableFilter.RECENT) {
+            summary += String.format(", %,d shown", rows);
+        }
+        pageTableSummary.setText(summary);
+    }
+
     /**
      * Update tables with new models for TLB, Page Table, and Physical Memory.
+     * A model that is already shown is kept, since setting it again rebuilds the columns and repaints every row;
+     * its changes reach the table through its own row update events.
      */
     public void updateTables(TLBTable tlbTableModel, PageTable pageTableModel, PMTable pmTableModel) {
-        tlbTable.setModel(tlbTableModel);
-        pageTable.setModel(pageTableModel);
-        physicalMemoryTable.setModel(pmTableModel);
+        setModel(tlbTable, tlbTableModel);
+        setModel(pageTable, pageTableModel);
+        setModel(physicalMemoryTable, pmTableModel);
+        if (this.pageTableModel != pageTableModel) {
+            if (this.pageTableModel != null) {
+                this.pageTableModel.removeTableModelListener(pageTableListener);
+            }
+            this.pageTableModel = pageTableModel;
+            pageTableModel.addTableModelListener(pageTableListener);
+        }
+        pageTableFilter.setSelectedItem(pageTableModel.getFilter());
+        updatePageTableSummary(new TableModelEvent(pageTableModel));
+    }
+
+    private static void setModel(JTable table, TableModel model) {
+        if (table.getModel() != model) {
+            table.setModel(model);
+        }
     }
 }
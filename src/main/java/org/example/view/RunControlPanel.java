@@ -0,0 +1,87 @@
+package org.example.view;
+
+import javax.swing.*;
+import java.awt.*;
+
+public class RunControlPanel extends JPanel {
+    private JButton runButton;                 // Run until paused
+    private JButton pauseButton;               // Pause a running simulation
+    private JButton stepButton;                // Run a fixed number of addresses
+    private JTextField stepCountField;         // Addresses per Step N
+    private JTextField rateField;              // Addresses per second, 0 for full speed
+    private JLabel processedLabel;             // Addresses translated by the current run
+
+    public RunControlPanel() {
+        setBorder(BorderFactory.createTitledBorder("Auto Run"));
+        setLayout(new FlowLayout(FlowLayout.LEFT, 10, 0));
+
+        runButton = new JButton("Run");
+        pauseButton = new JButton("Pause");
+        stepButton = new JButton("Step N");
+        stepCountField = new JTextField("1000", 8);
+        stepCountField.setName("Step Count");
+        rateField = new JTextField("0", 8);
+        rateField.setName("Rate");
+        processedLabel = new JLabel("Processed: 0");
+
+        add(runButton);
+        add(pauseButton);
+        add(stepButton);
+        add(new JLabel("N:"));
+        add(stepCountField);
+        add(new JLabel("Addresses/s (0 = full speed):"));
+        add(rateField);
+        add(processedLabel);
+
+        setRunning(false);
+    }
+
+    /**
+     * Get the number of addresses for Step N.
+     */
+    public long getStepCount() {
+        long count = Long.parseLong(stepCountField.getText().trim());
+        if (count <= 0) {
+            throw new IllegalArgumentException("N must be a positive integer.");
+        }
+        return count;
+    }
+
+    /**
+     * Get the rate in addresses per second, 0 for full speed.
+     */
+    public int getRate() {
+        int rate = Integer.parseInt(rateField.getText().trim());
+        if (rate < 0) {
+            throw new IllegalArgumentException("The rate must not be negative.");
+        }
+        return rate;
+    }
+
+    /**
+     * Enable the controls that fit whether a run is in progress.
+     */
+    public void setRunning(boolean running) {
+        runButton.setEnabled(!running);
+        stepButton.setEnabled(!running);
+        pauseButton.setEnabled(running);
+        stepCountField.setEnabled(!running);
+        rateField.setEnabled(!running);
+    }
+
+    public void setProcessed(long processed) {
+        processedLabel.setText(String.format("Processed: %,d", processed));
+    }
+
+    public void setRunAction(Runnable action) {
+        runButton.addActionListener(e -> action.run());
+    }
+
+    public void setPauseAction(Runnable action) {
+        pauseButton.addActionListener(e -> action.run());
+    }
+
+    public void setStepAction(Runnable action) {
+        stepButton.addActionListener(e -> action.run());
+    }
+}
@@ -1,10 +1,22 @@
 package org.example.view;
 
+import org.example.model.TLBOrganization;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.example.model.prefetch.Prefetch;
+
 import javax.swing.*;
 import java.awt.*;
 
 public class SettingsPanel extends JPanel {
-    private JTextField physicalPageSizeField, tlbSizeField, offsetField, virtualMemorySizeField;
+    private static final String DEFAULT_OFFSET = "2";
+
+    private JTextField physicalPageSizeField, tlbSizeField, offsetField, virtualMemorySizeField, tlbWaysField;
+    private JComboBox<TLBOrganization> tlbOrganizationBox;
+    private JComboBox<PageReplacement> pageReplacementBox;
+    private JComboBox<TLBReplacement> tlbReplacementBox;
+    private JComboBox<Prefetch> prefetchBox;
+    private JCheckBox swapBox;
     private JButton submitButton, resetButton; // Added reset button
 
     public SettingsPanel() {
@@ -39,16 +51,15 @@ public class SettingsPanel extends JPanel {
         tlbSizeField.setName("TLB Size");
         add(tlbSizeField, gbc);
 
-        // Row 3: Offset (pre-filled and non-editable)
+        // Row 3: Offset, the page size as a power of 2
         gbc.gridx = 0;
         gbc.gridy = 2;
-        JLabel offsetLabel = new JLabel("Offset:");
+        JLabel offsetLabel = new JLabel("<html>Offset<br>(bits - page size is 2^offset):</html>");
         offsetLabel.setName("Offset Label");
         add(offsetLabel, gbc);
 
         gbc.gridx = 1;
-        offsetField = new JTextField("2");
-        offsetField.setEditable(false);
+        offsetField = new JTextField(DEFAULT_OFFSET, 20);
         offsetField.setName("Offset");
         add(offsetField, gbc);
 
@@ -64,9 +75,64 @@ public class SettingsPanel extends JPanel {
         virtualMemorySizeField.setName("Virtual Memory Size");
         add(virtualMemorySizeField, gbc);
 
-        // Row 5: Submit Button
-        gbc.gridx = 1;
+        // Row 5: TLB Organization and ways per set
+        gbc.gridx = 0;
         gbc.gridy = 4;
+        JLabel tlbOrganizationLabel = new JLabel("<html>TLB Organization<br>(ways per set):</html>");
+        tlbOrganizationLabel.setName("TLB Organization Label");
+        add(tlbOrganizationLabel, gbc);
+
+        gbc.gridx = 1;
+        JPanel tlbOrganizationPanel = new JPanel(new BorderLayout(5, 0));
+        tlbOrganizationBox = new JComboBox<>(TLBOrganization.values());
+        tlbOrganizationBox.setName("TLB Organization");
+        tlbWaysField = new JTextField("4", 4);
+        tlbWaysField.setName("TLB Ways");
+        tlbWaysField.setEnabled(false); // Only used for set-associative TLBs
+        tlbOrganizationBox.addActionListener(e ->
+                tlbWaysField.setEnabled(getTlbOrganization() == TLBOrganization.SET_ASSOCIATIVE));
+        tlbOrganizationPanel.add(tlbOrganizationBox, BorderLayout.CENTER);
+        tlbOrganizationPanel.add(tlbWaysField, BorderLayout.EAST);
+        add(tlbOrganizationPanel, gbc);
+
+        // Row 6: Page and TLB Replacement Policies
+        gbc.gridx = 0;
+        gbc.gridy = 5;
+        JLabel pageReplacementLabel = new JLabel("<html>Replacement<br>(Page / TLB):</html>");
+        pageReplacementLabel.setName("Page Replacement Label");
+        add(pageReplacementLabel, gbc);
+
+        gbc.gridx = 1;
+        JPanel replacementPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        pageReplacementBox = new JComboBox<>(PageReplacement.values());
+        pageReplacementBox.setName("Page Replacement");
+        tlbReplacementBox = new JComboBox<>(TLBReplacement.values());
+        tlbReplacementBox.setName("TLB Replacement");
+        replacementPanel.add(pageReplacementBox);
+        replacementPanel.add(tlbReplacementBox);
+        add(replacementPanel, gbc);
+
+        // Row 7: Prefetcher and swap file
+        gbc.gridx = 0;
+        gbc.gridy = 6;
+        JLabel prefetchLabel = new JLabel("Prefetch:");
+        prefetchLabel.setName("Prefetch Label");
+        add(prefetchLabel, gbc);
+
+        gbc.gridx = 1;
+        JPanel pagingPanel = new JPanel(new GridLayout(1, 2, 5, 0));
+        prefetchBox = new JComboBox<>(Prefetch.values());
+        prefetchBox.setName("Prefetch");
+        swapBox = new JCheckBox("Swap file");
+        swapBox.setName("Swap File");
+        swapBox.setToolTipText("Give frames real bytes and page them through a temporary file, deleted on exit");
+        pagingPanel.add(prefetchBox);
+        pagingPanel.add(swapBox);
+        add(pagingPanel, gbc);
+
+        // Row 8: Submit Button
+        gbc.gridx = 1;
+        gbc.gridy = 7;
         submitButton = new JButton("Submit");
         submitButton.setName("Submit Button");
         submitButton.addActionListener(e -> {
@@ -79,9 +145,9 @@ public class SettingsPanel extends JPanel {
         });
         add(submitButton, gbc);
 
-        // Row 6: Reset Button
+        // Row 9: Reset Button
         gbc.gridx = 0;
-        gbc.gridy = 4;
+        gbc.gridy = 7;
         resetButton = new JButton("Reset");
         resetButton.setName("Reset Button");
         resetButton.addActionListener(e -> {
@@ -112,12 +178,68 @@ public class SettingsPanel extends JPanel {
     }
 
     /**
-     * Get the Offset value.
+     * Get the selected TLB organization.
+     *
+     * @return The TLB organization.
+     */
+    public TLBOrganization getTlbOrganization() {
+        return (TLBOrganization) tlbOrganizationBox.getSelectedItem();
+    }
+
+    /**
+     * Get the number of ways per TLB set entered by the user.
+     *
+     * @return Ways per set as an integer.
+     * @throws NumberFormatException if the input is not a valid integer.
+     */
+    public int getTlbWays() throws NumberFormatException {
+        return Integer.parseInt(tlbWaysField.getText());
+    }
+
+    /**
+     * Get the selected page replacement policy.
      *
-     * @return Offset as an integer. Always returns 2 (pre-filled value).
+     * @return The page replacement policy.
      */
-    public int getOffset() {
-        return Integer.parseInt(offsetField.getText()); // Offset is fixed at 2
+    public PageReplacement getPageReplacement() {
+        return (PageReplacement) pageReplacementBox.getSelectedItem();
+    }
+
+    /**
+     * Get the selected TLB replacement policy.
+     *
+     * @return The TLB replacement policy.
+     */
+    public TLBReplacement getTlbReplacement() {
+        return (TLBReplacement) tlbReplacementBox.getSelectedItem();
+    }
+
+    /**
+     * Get the selected prefetcher.
+     *
+     * @return The prefetcher, {@link Prefetch#NONE} to load pages on demand only.
+     */
+    public Prefetch getPrefetch() {
+        return (Prefetch) prefetchBox.getSelectedItem();
+    }
+
+    /**
+     * Whether frames should hold real bytes and page through a swap file.
+     *
+     * @return True if Swap file is ticked.
+     */
+    public boolean isSwapEnabled() {
+        return swapBox.isSelected();
+    }
+
+    /**
+     * Get the Offset entered by the user, the number of address bits that select a byte within a page.
+     *
+     * @return Offset as an integer.
+     * @throws NumberFormatException if the input is not a valid integer.
+     */
+    public int getOffset() throws NumberFormatException {
+        return Integer.parseInt(offsetField.getText().trim());
     }
 
     /**
@@ -137,8 +259,14 @@ public class SettingsPanel extends JPanel {
     public void resetFields() {
         physicalPageSizeField.setText("");
         tlbSizeField.setText("");
-        offsetField.setText("2"); // Reset offset to default value
+        offsetField.setText(DEFAULT_OFFSET); // Reset offset to default value
         virtualMemorySizeField.setText("");
+        tlbOrganizationBox.setSelectedItem(TLBOrganization.FULLY_ASSOCIATIVE);
+        tlbWaysField.setText("4");
+        pageReplacementBox.setSelectedItem(PageReplacement.FIFO);
+        tlbReplacementBox.setSelectedItem(TLBReplacement.FIFO);
+        prefetchBox.setSelectedItem(Prefetch.NONE);
+        swapBox.setSelected(false);
     }
 
     /**
@@ -165,8 +293,38 @@ public class SettingsPanel extends JPanel {
                 throw new IllegalArgumentException("Virtual Memory Size must be a power of 2.");
             }
 
-            getTlbSize();
-            getOffset();
+            int tlbSize = getTlbSize();
+            int offset = getOffset();
+            if (offset <= 0 || (1L << offset) >= virtualMemorySize) {
+                throw new IllegalArgumentException("Offset must be positive and 2^offset smaller than the Virtual Memory Size.");
+            }
+            if ((1L << offset) > physicalPageSize) {
+                throw new IllegalArgumentException("Physical memory must hold at least one page of 2^offset bytes.");
+            }
+
+            if (getTlbOrganization() == TLBOrganization.SET_ASSOCIATIVE) {
+                int ways = getTlbWays();
+                if (ways <= 0 || tlbSize % ways != 0) {
+                    throw new IllegalArgumentException("TLB Size must be a multiple of the number of ways.");
+                }
+            }
+
+            if (getTlbReplacement() == TLBReplacement.TREE_PLRU) {
+                int ways;
+                switch (getTlbOrganization()) {
+                    case SET_ASSOCIATIVE:
+                        ways = getTlbWays();
+                        break;
+                    case DIRECT_MAPPED:
+                        ways = 1;
+                        break;
+                    default:
+                        ways = tlbSize;
+                }
+                if (!isPowerOfTwo(ways)) {
+                    throw new IllegalArgumentException("Tree PLRU needs a power-of-2 number of ways per TLB set.");
+                }
+            }
         } catch (NumberFormatException ex) {
             throw new IllegalArgumentException("All inputs must be valid integers.");
         }
@@ -1,12 +1,23 @@
 package org.example.view;
 
 import org.example.controller.MemoryController;
+import org.example.controller.SimulationRunner;
+import org.example.controller.SimulationSnapshot;
+import org.example.controller.SimulationStats;
 import org.example.model.PMTable;
 import org.example.model.PageTable;
+import org.example.model.StateSnapshot;
+import org.example.model.TLBOrganization;
 import org.example.model.TLBTable;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
 
 public class SimulatorGUI extends JFrame {
     private SettingsPanel settingsPanel;
@@ -14,20 +25,29 @@ public class SimulatorGUI extends JFrame {
     private MemoryPanel memoryPanel;
     private EventLogPanel eventLogPanel;
     private StatusPanel statusPanel;
+    private RunControlPanel runControlPanel;
 
     public TLBTable tlbTableModel;
     public PageTable pageTableModel;
     public PMTable pmTableModel;
     private MemoryController memoryController;
+    private SimulationRunner runner; // Non-null while a run owns the simulation state
 
     private int simulationStep = 0;
-    private String[] addressArray;
+    private long[] addressArray;
+    private boolean writeAccess;
     private int currentAddressIndex = 0;
 
     public SimulatorGUI() {
         // Frame setup
         setTitle("Virtual Memory Simulator");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                shutDown(); // Runs before the frame exits the JVM
+            }
+        });
         setLayout(null); // Absolute positioning for precise layout
         setExtendedState(JFrame.MAXIMIZED_BOTH); // Full screen
 
@@ -45,14 +65,14 @@ public class SimulatorGUI extends JFrame {
 
         // Settings Panel
         settingsPanel = new SettingsPanel();
-        settingsPanel.setBounds(20, 70, 400, 280);
+        settingsPanel.setBounds(20, 70, 400, 335);
         settingsPanel.setName("Settings Panel"); // Add name for testing
         settingsPanel.setResetButtonFunction(this::resetSimulator); // Attach reset functionality
         add(settingsPanel);
 
         // Load Instruction Panel
         loadInstructionPanel = new LoadInstructionPanel();
-        loadInstructionPanel.setBounds(20, 380, 400, 240);
+        loadInstructionPanel.setBounds(20, 410, 400, 210);
         loadInstructionPanel.setName("Load Instruction Panel"); // Add name for testing
         add(loadInstructionPanel);
 
@@ -74,6 +94,15 @@ public class SimulatorGUI extends JFrame {
         eventLogPanel.setName("Event Log Panel"); // Add name for testing
         add(eventLogPanel);
 
+        // Run Control Panel
+        runControlPanel = new RunControlPanel();
+        runControlPanel.setBounds(20, 795, 1500, 60);
+        runControlPanel.setName("Run Control Panel"); // Add name for testing
+        runControlPanel.setRunAction(() -> startRun(SimulationRunner.UNLIMITED));
+        runControlPanel.setStepAction(this::startStepRun);
+        runControlPanel.setPauseAction(this::pauseRun);
+        add(runControlPanel);
+
         // Add functionality to the SettingsPanel submit button
         settingsPanel.setSubmitButtonFunction(this::initializeMemoryVisualization);
 
@@ -90,48 +119,68 @@ public class SimulatorGUI extends JFrame {
 
     private void initializeMemoryVisualization() {
         try {
+            requireStopped();
             int physicalMemorySize = settingsPanel.getPhysicalPageSize();
             int virtualMemorySize = settingsPanel.getVirtualMemorySize();
             int tlbSize = settingsPanel.getTlbSize();
             int offset = settingsPanel.getOffset();
+            TLBOrganization tlbOrganization = settingsPanel.getTlbOrganization();
+            int tlbWays = tlbOrganization == TLBOrganization.SET_ASSOCIATIVE ? settingsPanel.getTlbWays() : tlbSize;
+            PageReplacement pageReplacement = settingsPanel.getPageReplacement();
+            TLBReplacement tlbReplacement = settingsPanel.getTlbReplacement();
 
             if (physicalMemorySize <= 0 || virtualMemorySize <= 0 || tlbSize <= 0 || offset <= 0) {
                 throw new IllegalArgumentException("All values must be positive integers!");
             }
 
-            int pageTableSize = (int) (virtualMemorySize / Math.pow(2, offset));
-            int physicalMemoryRows = (int) (physicalMemorySize / Math.pow(2, offset));
+            if (offset >= Integer.SIZE - 1 || virtualMemorySize >>> offset == 0 || physicalMemorySize >>> offset == 0) {
+                throw new IllegalArgumentException("Memory sizes must hold at least one page of 2^" + offset + " bytes!");
+            }
+            int pageTableSize = virtualMemorySize >>> offset;
+            int physicalMemoryRows = physicalMemorySize >>> offset;
 
-            tlbTableModel.setSize(tlbSize);
+            tlbTableModel.setSize(tlbSize, tlbOrganization, tlbWays, tlbReplacement);
             pageTableModel.setSize(pageTableSize);
-            pmTableModel.setSize(physicalMemoryRows);
+            pmTableModel.setSize(physicalMemoryRows, pageReplacement);
+            pmTableModel.setOffset(offset);
 
             memoryPanel.updateTables(tlbTableModel, pageTableModel, pmTableModel);
 
             int addressLength = (int) (Math.log(virtualMemorySize) / Math.log(2));
             int pmAddressLength = (int) (Math.log(physicalMemorySize) / Math.log(2));
 
-            loadInstructionPanel.initialize(addressLength);
+            loadInstructionPanel.initialize(addressLength, offset);
 
+            if (memoryController != null) {
+                memoryController.close();
+            }
             memoryController = new MemoryController(
                     physicalMemoryRows,
                     tlbSize,
                     null, // No initial address
-                    new String[0],
+                    new long[0],
                     tlbTableModel,
                     pageTableModel,
                     pmTableModel,
                     addressLength,
+                    offset,
                     eventLogPanel,
                     statusPanel
             );
 
+            memoryController.setPrefetch(settingsPanel.getPrefetch());
+            memoryController.setSwap(settingsPanel.isSwapEnabled());
             memoryController.resetStatistics();
 
             eventLogPanel.appendLog("Memory visualization initialized successfully.\n");
             eventLogPanel.appendLog("TLB Size: " + tlbSize);
+            eventLogPanel.appendLog("TLB Organization: " + tlbOrganization + " (" + tlbTableModel.getState().getSets()
+                    + " sets x " + tlbTableModel.getState().getWays() + " ways, " + tlbReplacement + " replacement)");
             eventLogPanel.appendLog("Page Table Rows: Virtual Memory Size / 2^ offset =  " + pageTableSize);
             eventLogPanel.appendLog("Physical Memory Rows: Physical Memory Size / 2^ offset = " + physicalMemoryRows);
+            eventLogPanel.appendLog("Page Replacement: " + pageReplacement);
+            eventLogPanel.appendLog("Prefetch: " + settingsPanel.getPrefetch());
+            eventLogPanel.appendLog("Swap File: " + (memoryController.getPipeline().getSwap() != null ? "yes" : "no"));
             eventLogPanel.appendLog("Virtual Address Length: log 2 ( Virtual Memory Size ) = " + addressLength + " bits");
             eventLogPanel.appendLog("Physical Address Length: log 2 ( Physical Memory Size ) = " + pmAddressLength + " bits\n");
 
@@ -155,13 +204,14 @@ public class SimulatorGUI extends JFrame {
         try {
             String generatedHexAddress = loadInstructionPanel.getGeneratedHexAddress();
             if (generatedHexAddress != null && !generatedHexAddress.isEmpty()) {
-                addressArray = new String[]{generatedHexAddress};
+                addressArray = new long[]{loadInstructionPanel.getGeneratedAddress()};
+                writeAccess = loadInstructionPanel.isWriteSelected();
                 currentAddressIndex = 0;
                 simulationStep = 1; // Start simulation at step 1
 
                 memoryController.setInstructionArray(addressArray);
 
-                eventLogPanel.appendLog("Submitted Address (Hex): " + generatedHexAddress + "\n");
+                eventLogPanel.appendLog("Submitted " + (writeAccess ? "Write" : "Read") + " Address (Hex): " + generatedHexAddress + "\n");
             } else {
                 throw new IllegalStateException("No address has been generated yet. Please generate an address first.");
             }
@@ -172,12 +222,13 @@ public class SimulatorGUI extends JFrame {
 
     private void processNextStep() {
         try {
+            requireStopped();
             if (addressArray == null || addressArray.length == 0 || currentAddressIndex >= addressArray.length) {
                 throw new IllegalStateException("No addresses to process. Generate and submit an address first.");
             }
 
-            String currentAddress = addressArray[currentAddressIndex];
-            boolean isHit = memoryController.processSimulationStep(currentAddress, simulationStep);
+            long currentAddress = addressArray[currentAddressIndex];
+            boolean isHit = memoryController.processSimulationStep(currentAddress, simulationStep, writeAccess);
 
             if (isHit || simulationStep == 4) {
                 simulationStep = 1; // Reset for the next address
@@ -197,6 +248,10 @@ public class SimulatorGUI extends JFrame {
     }
 
     private void resetSimulator() {
+        if (runner != null) {
+            JOptionPane.showMessageDialog(this, "Pause the simulation first.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         // Step 1: Set table sizes to 0 rows
         tlbTableModel.setSize(0); // Reset TLB to no rows
         pageTableModel.setSize(0); // Reset Page Table to no rows
@@ -224,6 +279,117 @@ public class SimulatorGUI extends JFrame {
 
 
 
+    /**
+     * Stop a run and delete the swap file of the controller, if any.
+     */
+    private void shutDown() {
+        if (runner != null) {
+            runner.requestStop();
+            try {
+                runner.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException ex) {
+                // The run is abandoned either way
+            }
+        }
+        if (memoryController != null) {
+            memoryController.close();
+            memoryController = null;
+        }
+    }
+
+    private void requireStopped() {
+        if (runner != null) {
+            throw new IllegalStateException("Pause the simulation first.");
+        }
+    }
+
+    private void startStepRun() {
+        try {
+            startRun(runControlPanel.getStepCount());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid input! Please enter a valid N.", "Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * Translate random addresses on a background thread. The tables show snapshots until the run ends,
+     * so the live state is only ever touched by one thread at a time.
+     */
+    private void startRun(long limit) {
+        try {
+            if (memoryController == null) {
+                throw new IllegalStateException("Submit the settings first.");
+            }
+            requireStopped();
+            int rate = runControlPanel.getRate();
+            SplittableRandom random = new SplittableRandom();
+            SimulationRunner started = new SimulationRunner(memoryController.getPipeline(), memoryController.getAddressLayout(),
+                    random::nextLong, limit, rate, this::showSnapshot) {
+                @Override
+                protected void done() {
+                    finishRun(this);
+                }
+            };
+
+            // Detach the tables from the live state before the worker starts changing it
+            StateSnapshot initial = StateSnapshot.capture(tlbTableModel.getState(), pageTableModel.getState(), pmTableModel.getState());
+            tlbTableModel.showSnapshot(initial);
+            pageTableModel.showSnapshot(initial);
+            pmTableModel.showSnapshot(initial);
+
+            runner = started;
+            runControlPanel.setRunning(true);
+            runControlPanel.setProcessed(0);
+            eventLogPanel.appendLog(limit == SimulationRunner.UNLIMITED
+                    ? "Running at " + (rate > 0 ? rate + " addresses/s." : "full speed.")
+                    : "Running " + limit + " addresses at " + (rate > 0 ? rate + " addresses/s." : "full speed."));
+            started.execute();
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(this, "Invalid input! Please enter a valid rate.", "Error", JOptionPane.ERROR_MESSAGE);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            JOptionPane.showMessageDialog(this, ex.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private void pauseRun() {
+        if (runner != null) {
+            runner.requestStop();
+        }
+    }
+
+    private void showSnapshot(SimulationSnapshot snapshot) {
+        tlbTableModel.showSnapshot(snapshot.getState());
+        pageTableModel.showSnapshot(snapshot.getState());
+        pmTableModel.showSnapshot(snapshot.getState());
+        SimulationStats stats = snapshot.getStats();
+        statusPanel.updateStatistics(stats.getHits(), stats.getMisses());
+        statusPanel.updateLatency(stats.getEffectiveAccessNanos(), stats.getSimulatedNanos(), stats.getLatencyHistogram().getPercentile(99));
+        runControlPanel.setProcessed(snapshot.getProcessed());
+    }
+
+    private void finishRun(SimulationRunner finished) {
+        runner = null;
+        tlbTableModel.showLive();
+        pageTableModel.showLive();
+        pmTableModel.showLive();
+        runControlPanel.setRunning(false);
+        try {
+            SimulationStats stats = finished.get();
+            statusPanel.updateStatistics(stats.getHits(), stats.getMisses());
+            statusPanel.updateLatency(stats.getEffectiveAccessNanos(), stats.getSimulatedNanos(), stats.getLatencyHistogram().getPercentile(99));
+            runControlPanel.setProcessed(stats.getAccesses());
+            eventLogPanel.appendLog("Run stopped after " + stats.getAccesses() + " translations in total.\n");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            JOptionPane.showMessageDialog(this, "Error during run: " + ex.getCause().getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     public static void main(String[] args) {
         new SimulatorGUI();
     }
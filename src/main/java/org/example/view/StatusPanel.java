@@ -1,23 +1,34 @@
 package org.example.view;
 
+import org.example.controller.LatencyHistogram;
+
 import javax.swing.*;
 import java.awt.*;
 
 public class StatusPanel extends JPanel {
     private JLabel hitRateLabel;
     private JLabel missRateLabel;
+    private JLabel effectiveAccessLabel;
+    private JLabel simulatedTimeLabel;
+    private JLabel p99Label;
 
     public StatusPanel() {
         setBorder(BorderFactory.createTitledBorder("Statistics"));
-        setLayout(new GridLayout(2, 1, 5, 5));
+        setLayout(new GridLayout(5, 1, 5, 5));
 
         // Initialize Labels
         hitRateLabel = new JLabel("Hit Rate: [ 0% ]");
         missRateLabel = new JLabel("Miss Rate: [ 0% ]");
+        effectiveAccessLabel = new JLabel("EAT: [ 0 ns ]");
+        simulatedTimeLabel = new JLabel("Time: [ 0 ns ]");
+        p99Label = new JLabel("p99: [ 0 ns ]");
 
         // Add Labels to Panel
         add(hitRateLabel);
         add(missRateLabel);
+        add(effectiveAccessLabel);
+        add(simulatedTimeLabel);
+        add(p99Label);
     }
 
     /**
@@ -26,8 +37,8 @@ public class StatusPanel extends JPanel {
      * @param hitCount  The number of hits.
      * @param missCount The number of misses.
      */
-    public void updateStatistics(int hitCount, int missCount) {
-        int totalCount = hitCount + missCount;
+    public void updateStatistics(long hitCount, long missCount) {
+        long totalCount = hitCount + missCount;
 
         if (totalCount == 0) {
             hitRateLabel.setText("Hit Rate: [ 0% ]");
@@ -42,11 +53,25 @@ public class StatusPanel extends JPanel {
     }
 
     /**
-     * Resets the hit and miss rates to their default values (0%).
+     * Update the simulated latency in the statistics panel.
+     *
+     * @param effectiveAccessNanos The mean latency per access.
+     * @param simulatedNanos       The simulated time of all accesses.
+     * @param p99Nanos             The 99th percentile latency.
+     */
+    public void updateLatency(double effectiveAccessNanos, double simulatedNanos, long p99Nanos) {
+        effectiveAccessLabel.setText("EAT: [ " + LatencyHistogram.formatNanos(effectiveAccessNanos) + " ]");
+        simulatedTimeLabel.setText("Time: [ " + LatencyHistogram.formatNanos(simulatedNanos) + " ]");
+        p99Label.setText("p99: [ " + LatencyHistogram.formatNanos(p99Nanos) + " ]");
+    }
+
+    /**
+     * Resets the hit and miss rates and the latencies to their default values.
      */
     public void resetStatus() {
         hitRateLabel.setText("Hit Rate: [ 0% ]");
         missRateLabel.setText("Miss Rate: [ 0% ]");
+        updateLatency(0, 0, 0);
     }
 
 }
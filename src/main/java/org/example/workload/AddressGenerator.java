@@ -0,0 +1,29 @@
+package org.example.workload;
+
+import java.util.function.LongSupplier;
+
+/**
+ * An endless, lazily computed stream of virtual addresses.
+ * Generators are seeded, so the same parameters and seed always give the same stream, and they are not thread-safe.
+ */
+public interface AddressGenerator extends LongSupplier {
+
+    /**
+     * @return The next address of the stream.
+     */
+    long next();
+
+    @Override
+    default long getAsLong() {
+        return next();
+    }
+
+    /**
+     * Write the next addresses of the stream into a buffer.
+     */
+    default void fill(long[] buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer[i] = next();
+        }
+    }
+}
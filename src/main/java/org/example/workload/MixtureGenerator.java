@@ -0,0 +1,48 @@
+package org.example.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Interleaves several generators at random, each access coming from one of them with a fixed probability,
+ * like a hot set served alongside a background scan.
+ */
+public final class MixtureGenerator implements AddressGenerator {
+    private final AddressGenerator[] components;
+    private final double[] cumulative;
+    private final SplittableRandom random;
+
+    /**
+     * @param weights Relative weight of each component, all positive.
+     */
+    public MixtureGenerator(AddressGenerator[] components, double[] weights, long seed) {
+        if (components.length == 0 || components.length != weights.length) {
+            throw new IllegalArgumentException("Every component needs a weight.");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight > 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weights must be positive: " + weight);
+            }
+            total += weight;
+        }
+        this.components = components.clone();
+        this.cumulative = new double[weights.length];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum / total;
+        }
+        cumulative[weights.length - 1] = 1.0; // No rounding gap at the top
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public long next() {
+        double u = random.nextDouble();
+        int i = 0;
+        while (u >= cumulative[i]) {
+            i++;
+        }
+        return components[i].next();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.workload;
+
+/**
+ * Runs several generators one after another, each for a fixed number of accesses, and starts over after the last,
+ * like a program moving between phases with different working sets. Each generator resumes where it left off.
+ */
+public final class PhaseGenerator implements AddressGenerator {
+    private final AddressGenerator[] phases;
+    private final long[] lengths;
+    private int phase;
+    private long remaining;
+
+    /**
+     * @param lengths Accesses of each phase, all positive.
+     */
+    public PhaseGenerator(AddressGenerator[] phases, long[] lengths) {
+        if (phases.length == 0 || phases.length != lengths.length) {
+            throw new IllegalArgumentException("Every phase needs a length.");
+        }
+        for (long length : lengths) {
+            if (length <= 0) {
+                throw new IllegalArgumentException("Phase lengths must be positive: " + length);
+            }
+        }
+        this.phases = phases.clone();
+        this.lengths = lengths.clone();
+        this.remaining = lengths[0];
+    }
+
+    @Override
+    public long next() {
+        if (remaining == 0) {
+            phase = (phase + 1) % phases.length;
+            remaining = lengths[phase];
+        }
+        remaining--;
+        return phases[phase].next();
+    }
+
+    @Override
+    public void fill(long[] buffer, int from, int to) {
+        int i = from;
+        while (i < to) {
+            if (remaining == 0) {
+                phase = (phase + 1) % phases.length;
+                remaining = lengths[phase];
+            }
+            int count = (int) Math.min(remaining, to - i);
+            phases[phase].fill(buffer, i, i + count);
+            remaining -= count;
+            i += count;
+        }
+    }
+}
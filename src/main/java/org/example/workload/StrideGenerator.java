@@ -0,0 +1,50 @@
+package org.example.workload;
+
+/**
+ * Walks a region at a fixed stride, wrapping around at its end: a sequential scan with a word stride,
+ * strided access (for example one element per row of a matrix) with a larger one, and a looping working set
+ * when the region is small enough to be revisited often.
+ */
+public final class StrideGenerator implements AddressGenerator {
+    private final long base;
+    private final long bytes;
+    private final long stride;
+    private long position;
+
+    /**
+     * @param base   First byte of the region.
+     * @param bytes  Length of the region.
+     * @param stride Distance between consecutive addresses, at most the region length.
+     */
+    public StrideGenerator(long base, long bytes, long stride) {
+        if (bytes <= 0 || stride <= 0 || stride > bytes) {
+            throw new IllegalArgumentException("The stride must be positive and at most the region: " + stride + " of " + bytes);
+        }
+        this.base = base;
+        this.bytes = bytes;
+        this.stride = stride;
+    }
+
+    @Override
+    public long next() {
+        long address = base + position;
+        position += stride;
+        if (position >= bytes) {
+            position -= bytes;
+        }
+        return address;
+    }
+
+    @Override
+    public void fill(long[] buffer, int from, int to) {
+        long p = position;
+        for (int i = from; i < to; i++) {
+            buffer[i] = base + p;
+            p += stride;
+            if (p >= bytes) {
+                p -= bytes;
+            }
+        }
+        position = p;
+    }
+}
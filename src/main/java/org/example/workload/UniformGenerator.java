@@ -0,0 +1,40 @@
+package org.example.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Every byte of a region is equally likely, as the GUI's random addresses.
+ */
+public final class UniformGenerator implements AddressGenerator {
+    private final long base;
+    private final long bytes;
+    private final SplittableRandom random;
+
+    /**
+     * @param base  First byte of the region.
+     * @param bytes Length of the region.
+     */
+    public UniformGenerator(long base, long bytes, long seed) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("A region must not be empty: " + bytes);
+        }
+        this.base = base;
+        this.bytes = bytes;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public long next() {
+        return base + random.nextLong(bytes);
+    }
+
+    @Override
+    public void fill(long[] buffer, int from, int to) {
+        SplittableRandom r = random;
+        long b = base;
+        long n = bytes;
+        for (int i = from; i < to; i++) {
+            buffer[i] = b + r.nextLong(n);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.workload;
+
+import org.example.model.AddressLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Builds generators from short textual specifications, as given on the command line.
+ * <pre>
+ * uniform[:pages]          every byte of the region, or of its first pages, equally likely
+ * zipf:pages[:s]           Zipf-distributed hot set over the pages (s defaults to 0.99)
+ * seq:pages                word by word scan over the pages, wrapping around
+ * stride:pages:bytes       fixed stride over the pages, wrapping around
+ * loop:pages               one access per page, looping over a working set
+ * </pre>
+ * Components combine into a mixture with {@code weight*spec+weight*spec}, and mixtures or single components into
+ * phases with {@code spec@accesses>spec@accesses}, for example {@code 0.9*zipf:1024+0.1*seq:65536@1000000>loop:64@200000}.
+ * Every component gets its own region of the address space, so components never share pages.
+ */
+public final class Workloads {
+    public static final double DEFAULT_ZIPF_EXPONENT = 0.99;
+
+    private Workloads() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if the specification is malformed or does not fit the layout.
+     */
+    public static AddressGenerator parse(String spec, AddressLayout layout, long seed) {
+        String[] phaseSpecs = spec.trim().split(">");
+        int components = 0;
+        for (String phaseSpec : phaseSpecs) {
+            components += phaseSpec.split("\\+").length;
+        }
+        int regionBits = Math.min(layout.getAddressBits() - (64 - Long.numberOfLeadingZeros(components - 1)), 62);
+        if (regionBits < layout.getOffsetBits()) {
+            throw new IllegalArgumentException(components + " workload components do not fit in " + layout.getAddressBits() + "-bit addresses.");
+        }
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Builder builder = new Builder(layout.getOffsetBits(), regionBits, seeds);
+
+        if (phaseSpecs.length == 1) {
+            return builder.mixture(phaseSpecs[0]);
+        }
+        AddressGenerator[] phases = new AddressGenerator[phaseSpecs.length];
+        long[] lengths = new long[phaseSpecs.length];
+        for (int i = 0; i < phaseSpecs.length; i++) {
+            int at = phaseSpecs[i].lastIndexOf('@');
+            if (at < 0) {
+                throw new IllegalArgumentException("Every phase needs a length, as in spec@accesses: " + phaseSpecs[i]);
+            }
+            phases[i] = builder.mixture(phaseSpecs[i].substring(0, at));
+            lengths[i] = parseLong(phaseSpecs[i].substring(at + 1));
+        }
+        return new PhaseGenerator(phases, lengths);
+    }
+
+    private static final class Builder {
+        private final int pageBits;
+        private final int regionBits;
+        private final SplittableRandom seeds;
+        private int nextRegion;
+
+        Builder(int pageBits, int regionBits, SplittableRandom seeds) {
+            this.pageBits = pageBits;
+            this.regionBits = regionBits;
+            this.seeds = seeds;
+        }
+
+        AddressGenerator mixture(String spec) {
+            String[] parts = spec.split("\\+");
+            if (parts.length == 1) {
+                return component(parts[0]);
+            }
+            List<AddressGenerator> components = new ArrayList<>(parts.length);
+            double[] weights = new double[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                int star = parts[i].indexOf('*');
+                if (star < 0) {
+                    throw new IllegalArgumentException("Every mixture component needs a weight, as in weight*spec: " + parts[i]);
+                }
+                weights[i] = parseDouble(parts[i].substring(0, star));
+                components.add(component(parts[i].substring(star + 1)));
+            }
+            return new MixtureGenerator(components.toArray(new AddressGenerator[0]), weights, seeds.nextLong());
+        }
+
+        private AddressGenerator component(String spec) {
+            String[] fields = spec.trim().split(":");
+            long base = (long) nextRegion++ << regionBits;
+            long regionPages = 1L << (regionBits - pageBits);
+            long pages = fields.length > 1 ? parseLong(fields[1]) : regionPages;
+            if (pages <= 0 || pages > regionPages) {
+                throw new IllegalArgumentException("A component has between 1 and " + regionPages + " pages: " + spec.trim());
+            }
+            long bytes = pages << pageBits;
+            long pageSize = 1L << pageBits;
+            switch (fields[0].trim().toLowerCase()) {
+                case "uniform":
+                    expectFields(spec, fields, 1, 2);
+                    return new UniformGenerator(base, bytes, seeds.nextLong());
+                case "zipf":
+                    expectFields(spec, fields, 2, 3);
+                    double exponent = fields.length > 2 ? parseDouble(fields[2]) : DEFAULT_ZIPF_EXPONENT;
+                    return new ZipfGenerator(base, pages, pageBits, exponent, seeds.nextLong());
+                case "seq":
+                    expectFields(spec, fields, 2, 2);
+                    return new StrideGenerator(base, bytes, Math.min(Long.BYTES, pageSize));
+                case "stride":
+                    expectFields(spec, fields, 3, 3);
+                    return new StrideGenerator(base, bytes, parseLong(fields[2]));
+                case "loop":
+                    expectFields(spec, fields, 2, 2);
+                    return new StrideGenerator(base, bytes, pageSize);
+                default:
+                    throw new IllegalArgumentException("Unknown workload: " + fields[0].trim());
+            }
+        }
+    }
+
+    private static void expectFields(String spec, String[] fields, int min, int max) {
+        if (fields.length < min || fields.length > max) {
+            throw new IllegalArgumentException("Wrong number of parameters: " + spec.trim());
+        }
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim().replace("_", ""));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Not a number: " + value.trim());
+        }
+    }
+
+    private static double parseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Not a number: " + value.trim());
+        }
+    }
+}
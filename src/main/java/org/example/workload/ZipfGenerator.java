@@ -0,0 +1,195 @@
+package org.example.workload;
+
+import java.util.SplittableRandom;
+
+/**
+ * Accesses to the pages of a region follow a Zipf distribution: the page of popularity rank k is accessed with
+ * probability proportional to 1 / k^s. Up to {@link #TABLE_PAGES} pages, ranks come from an alias table in constant
+ * time with one random number; larger regions draw them with the rejection-inversion method of Hörmann and Derflinger,
+ * which needs no table but a few logarithms per access. Ranks are scattered over the region by a fixed permutation,
+ * so the hot pages do not sit next to each other.
+ */
+public final class ZipfGenerator implements AddressGenerator {
+    /**
+     * Largest region drawn from an alias table, which takes eight bytes per page.
+     */
+    public static final long TABLE_PAGES = 1 << 20;
+
+    private final long base;
+    private final long pages;
+    private final int pageBits;
+    private final long offsetMask;
+    private final long permutationMask;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralPages;
+    private final double squeeze;
+    private final int[] thresholds;
+    private final int[] aliases;
+    private final SplittableRandom random;
+
+    /**
+     * @param base     First byte of the region.
+     * @param pages    Pages in the region.
+     * @param pageBits Log2 of the page size; every access goes to a random byte of its page.
+     * @param exponent Skew s of the distribution, greater than 0; around 1 for typical hot sets.
+     */
+    public ZipfGenerator(long base, long pages, int pageBits, double exponent, long seed) {
+        if (pages <= 0 || !(exponent > 0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException("A Zipf distribution needs pages and a positive exponent: " + pages + ", " + exponent);
+        }
+        if (pageBits < 0 || pageBits > 62 || (pages - 1) >>> (62 - pageBits) != 0) {
+            throw new IllegalArgumentException("The region must be at most 2^62 bytes: " + pages + " pages of 2^" + pageBits);
+        }
+        this.base = base;
+        this.pages = pages;
+        this.pageBits = pageBits;
+        this.offsetMask = (1L << pageBits) - 1;
+        this.permutationMask = pages == 1 ? 0 : (Long.highestOneBit(pages - 1) << 1) - 1;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralPages = hIntegral(pages + 0.5);
+        this.squeeze = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+        this.random = new SplittableRandom(seed);
+        if (pages <= TABLE_PAGES) {
+            this.thresholds = new int[(int) pages];
+            this.aliases = new int[(int) pages];
+            buildAliasTable();
+        } else {
+            this.thresholds = null;
+            this.aliases = null;
+        }
+    }
+
+    /**
+     * Vose's alias method over the scrambled pages: every column holds its own page up to its threshold and tops up
+     * with its alias page, so a draw picks a column uniformly and compares once. Thresholds are unsigned fractions of 2^32.
+     */
+    private void buildAliasTable() {
+        int n = thresholds.length;
+        double[] scaled = new double[n];
+        double total = 0;
+        for (int k = 1; k <= n; k++) {
+            double weight = h(k);
+            scaled[(int) pageOf(k)] = weight;
+            total += weight;
+        }
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int k = 0; k < n; k++) {
+            scaled[k] = scaled[k] * n / total;
+            if (scaled[k] < 1) {
+                small[smallCount++] = k;
+            } else {
+                large[largeCount++] = k;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[largeCount - 1];
+            thresholds[less] = (int) (long) (scaled[less] * 0x1p32);
+            aliases[less] = more;
+            scaled[more] -= 1 - scaled[less];
+            if (scaled[more] < 1) {
+                largeCount--;
+                small[smallCount++] = more;
+            }
+        }
+        // Columns left over are full up to rounding
+        while (largeCount > 0) {
+            int k = large[--largeCount];
+            thresholds[k] = -1;
+            aliases[k] = k;
+        }
+        while (smallCount > 0) {
+            int k = small[--smallCount];
+            thresholds[k] = -1;
+            aliases[k] = k;
+        }
+    }
+
+    /**
+     * @return A page of the region, drawn with its Zipf probability.
+     */
+    long nextPage() {
+        if (thresholds == null) {
+            return pageOf(nextRank());
+        }
+        long bits = random.nextLong();
+        int column = (int) (((bits >>> 32) * thresholds.length) >>> 32);
+        int alias = aliases[column];
+        // All ones below the threshold; without a branch, as the outcome is close to random
+        long keep = ((bits & 0xFFFFFFFFL) - Integer.toUnsignedLong(thresholds[column])) >> 63;
+        return alias ^ ((column ^ alias) & keep);
+    }
+
+    /**
+     * @return A popularity rank between 1 and the number of pages, by rejection-inversion.
+     */
+    long nextRank() {
+        while (true) {
+            double u = hIntegralPages + random.nextDouble() * (hIntegralX1 - hIntegralPages);
+            double x = hIntegralInverse(u);
+            long k = (long) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > pages) {
+                k = pages;
+            }
+            if (k - x <= squeeze || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * Bijective scrambling of ranks onto pages: an odd multiplier permutes the enclosing power of two,
+     * and values past the last page are walked on until they land inside.
+     */
+    long pageOf(long rank) {
+        long page = rank - 1;
+        do {
+            page = (page * 0x9E3779B97F4A7C15L + 0x632BE59BD9B4E019L) & permutationMask;
+        } while (page >= pages);
+        return page;
+    }
+
+    @Override
+    public long next() {
+        long page = nextPage();
+        return base + (page << pageBits) + (random.nextLong() & offsetMask);
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1; // Rounding guard, the true value is at least -1
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    /**
+     * log(1 + x) / x, accurate near 0.
+     */
+    private static double helper1(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    /**
+     * (e^x - 1) / x, accurate near 0.
+     */
+    private static double helper2(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x / 3 * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,38 @@
+package org.example;
+
+import org.example.controller.SimulationConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HeadlessMainTest {
+
+    @Test
+    public void testUnknownOptionsAreRejected() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> HeadlessMain.parseOptions(new String[]{"--trace", "a.vmt", "--frmaes", "64"}));
+        assertTrue(ex.getMessage().contains("--frmaes"), ex.getMessage());
+
+        Map<String, String> options = HeadlessMain.parseOptions(new String[]{"--trace", "a.vmt", "--frames", "64", "--processes"});
+        assertEquals("64", options.get("frames"));
+        assertEquals("true", options.get("processes"));
+    }
+
+    @Test
+    public void testBadSweepValuesNameTheirOption() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> HeadlessMain.parseConfigs(HeadlessMain.parseOptions(new String[]{"--trace", "a.vmt", "--frames", "64,6x4"})));
+        assertTrue(ex.getMessage().contains("--frames: 6x4"), ex.getMessage());
+
+        ex = assertThrows(IllegalArgumentException.class,
+                () -> HeadlessMain.parseConfigs(HeadlessMain.parseOptions(new String[]{"--trace", "a.vmt", "--tlb-size", "16,0"})));
+        assertTrue(ex.getMessage().contains("tlb=0"), "An out-of-range configuration of a sweep is named: " + ex.getMessage());
+
+        List<SimulationConfig> configs = HeadlessMain.parseConfigs(
+                HeadlessMain.parseOptions(new String[]{"--trace", "a.vmt", "--frames", "64,128", "--page-policy", "lru,arc"}));
+        assertEquals(4, configs.size());
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.controller;
+
+import org.example.model.TLBOrganization;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static long[] addresses(int count) {
+        SplittableRandom random = new SplittableRandom(11);
+        long[] addresses = new long[count];
+        for (int i = 0; i < count; i++) {
+            addresses[i] = (random.nextInt(3) == 0 ? random.nextLong(1 << 22) : random.nextLong(1 << 17)) | (long) random.nextInt(4) << 28;
+        }
+        return addresses;
+    }
+
+    private static void assertSameStats(SimulationStats expected, SimulationStats actual, String message) {
+        assertEquals(expected.getAccesses(), actual.getAccesses(), message);
+        assertEquals(expected.getTlbHits(), actual.getTlbHits(), message);
+        assertEquals(expected.getPageTableHits(), actual.getPageTableHits(), message);
+        assertEquals(expected.getPageFaults(), actual.getPageFaults(), message);
+        assertEquals(expected.getEvictions(), actual.getEvictions(), message);
+        assertEquals(expected.getWalkReferences(), actual.getWalkReferences(), message);
+        assertEquals(expected.getContextSwitches(), actual.getContextSwitches(), message);
+        assertEquals(expected.getSimulatedNanos(), actual.getSimulatedNanos(), message);
+        assertEquals(expected.getLatencyHistogram().getPercentile(90), actual.getLatencyHistogram().getPercentile(90), message);
+    }
+
+    @Test
+    public void testRestoredRunContinuesExactlyWithEveryPolicy() throws IOException {
+        long[] trace = addresses(40_000);
+        Path file = tempDir.resolve("run.ckpt");
+        for (PageReplacement pagePolicy : PageReplacement.values()) {
+            for (TLBReplacement tlbPolicy : TLBReplacement.values()) {
+                SimulationConfig config = new SimulationConfig()
+                        .setAddressBits(32)
+                        .setOffsetBits(12)
+                        .setPageTableLevels(3)
+                        .setTlbSize(16)
+                        .setTlbOrganization(TLBOrganization.SET_ASSOCIATIVE)
+                        .setTlbWays(4)
+                        .setTlbReplacement(tlbPolicy)
+                        .setFrameCount(96)
+                        .setPageReplacement(pagePolicy);
+                String name = pagePolicy + "/" + tlbPolicy;
+                TraceReplayEngine straight = new TraceReplayEngine(config);
+                straight.replay(trace, 0, trace.length);
+
+                TraceReplayEngine first = new TraceReplayEngine(config);
+                first.replay(trace, 0, 25_000);
+                Checkpoint.save(first, file);
+                TraceReplayEngine resumed = Checkpoint.restore(file);
+                assertEquals(25_000, resumed.getRecordsReplayed(), name);
+                assertSameStats(first.getStats(), resumed.getStats(), name);
+                resumed.replay(trace, 25_000, trace.length);
+                assertSameStats(straight.getStats(), resumed.getStats(), name);
+            }
+        }
+    }
+
+    @Test
+    public void testRestoresProcessesAndTraceCursor() throws IOException {
+        long[] trace = addresses(20_000);
+        int[] processIds = new int[trace.length];
+        for (int i = 0; i < processIds.length; i++) {
+            processIds[i] = (i / 37) % 7;
+        }
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(32)
+                .setOffsetBits(12)
+                .setTlbSize(32)
+                .setFrameCount(200)
+                .setPageReplacement(PageReplacement.LRU)
+                .setAsidCount(3)
+                .setMultiProcess(true);
+        TraceReplayEngine straight = new TraceReplayEngine(config);
+        straight.replay(trace, processIds, 0, trace.length);
+
+        TraceReplayEngine first = new TraceReplayEngine(config);
+        first.replay(trace, processIds, 0, 9_999);
+        Path file = tempDir.resolve("processes.ckpt");
+        Checkpoint.save(first, file);
+        TraceReplayEngine resumed = Checkpoint.restore(file);
+        assertTrue(resumed.getConfig().isMultiProcess());
+        assertEquals(first.getPipeline().getProcessId(), resumed.getPipeline().getProcessId());
+        assertEquals(7, resumed.getPipeline().getAddressSpaces().size());
+        resumed.replay(trace, processIds, (int) resumed.getRecordsReplayed(), trace.length);
+        assertSameStats(straight.getStats(), resumed.getStats(), "Multi-process");
+        assertEquals(trace.length, resumed.getRecordsReplayed());
+    }
+
+    @Test
+    public void testDamagedCheckpointsAreRejected() throws IOException {
+        TraceReplayEngine engine = new TraceReplayEngine(new SimulationConfig().setAddressBits(20).setFrameCount(16));
+        engine.replay(addresses(1000), 0, 1000);
+        Path file = tempDir.resolve("damaged.ckpt");
+        long size = Checkpoint.save(engine, file);
+        assertEquals(size, Files.size(file));
+        assertFalse(Files.exists(tempDir.resolve("damaged.ckpt.tmp")));
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+        assertThrows(IOException.class, () -> Checkpoint.restore(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), 0);
+        }
+        IOException ex = assertThrows(IOException.class, () -> Checkpoint.restore(file));
+        assertTrue(ex.getMessage().startsWith("Not a checkpoint"), ex.getMessage());
+    }
+
+    @Test
+    public void testCheckpointsOnlyResumeTheirOwnTrace() throws IOException {
+        Path trace = tempDir.resolve("a.txt");
+        Path copy = tempDir.resolve("b.txt");
+        Path other = tempDir.resolve("c.txt");
+        Files.writeString(trace, "1000\n2000\n3000\n");
+        Files.copy(trace, copy);
+        Files.writeString(other, "1000\n2000\n3001\n");
+        assertEquals(Checkpoint.traceId(trace), Checkpoint.traceId(copy), "A trace is known by its contents, not its path");
+        assertNotEquals(Checkpoint.traceId(trace), Checkpoint.traceId(other));
+        assertNotEquals(Checkpoint.traceId("zipf:4096 seed 1"), Checkpoint.traceId("zipf:4096 seed 2"));
+
+        TraceReplayEngine engine = new TraceReplayEngine(new SimulationConfig().setAddressBits(20).setFrameCount(16));
+        engine.replay(new long[]{0x1000, 0x2000}, 0, 2);
+        Path file = tempDir.resolve("run.ckpt");
+        Checkpoint.save(engine, file, Checkpoint.traceId(trace));
+        assertEquals(2, Checkpoint.restore(file, Checkpoint.traceId(copy)).getRecordsReplayed());
+        IOException ex = assertThrows(IOException.class, () -> Checkpoint.restore(file, Checkpoint.traceId(other)));
+        assertTrue(ex.getMessage().contains("another trace"), ex.getMessage());
+        assertEquals(2, Checkpoint.restore(file, Checkpoint.UNKNOWN_TRACE).getRecordsReplayed(), "Standard input is not checked");
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.controller;
+
+import org.example.model.MixedPageTable;
+import org.example.model.PageSizeMap;
+import org.example.model.RadixPageTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HugePageTest {
+    private static final long MB2 = 1L << 21;
+    private static final long GB1 = 1L << 30;
+
+    @TempDir
+    Path tempDir;
+
+    private static SimulationConfig x86(PageSizeMap hugePages) {
+        return new SimulationConfig()
+                .setAddressBits(48)
+                .setOffsetBits(12)
+                .setPageTableLevels(4)
+                .setTlbSize(16)
+                .setFrameCount(64)
+                .setHugePages(hugePages);
+    }
+
+    private static PageSizeMap mixed() {
+        return new PageSizeMap()
+                .map(MB2, 0x40000000L, 64 * MB2)
+                .map(GB1, 0x80000000L, 2 * GB1)
+                .setFrameCount(MB2, 4)
+                .setFrameCount(GB1, 1);
+    }
+
+    @Test
+    public void testOneTlbEntryCoversAHugePage() {
+        TraceReplayEngine engine = new TraceReplayEngine(x86(mixed()));
+        long[] addresses = new long[512];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = 0x40000000L + i * 4096L; // Every 4 KiB page of the first 2 MiB page
+        }
+        engine.replay(addresses, 0, addresses.length);
+
+        SimulationStats stats = engine.getStats();
+        assertEquals(1, stats.getPageFaults());
+        assertEquals(511, stats.getTlbHits());
+        assertEquals(engine.getPipeline().getPm().size(), countFree(engine), "No base frame is used");
+        assertFalse(engine.getPipeline().getFramePool(1).isFree(0));
+    }
+
+    private static int countFree(TraceReplayEngine engine) {
+        int free = 0;
+        for (int frame = 0; frame < engine.getPipeline().getPm().size(); frame++) {
+            if (engine.getPipeline().getPm().isFree(frame)) {
+                free++;
+            }
+        }
+        return free;
+    }
+
+    @Test
+    public void testLargerPagesAreFoundInFewerLevels() {
+        TraceReplayEngine engine = new TraceReplayEngine(x86(mixed()).setTlbSize(1));
+        MixedPageTable table = (MixedPageTable) engine.getPipeline().getPageTable();
+        assertEquals(4, ((RadixPageTable) table.getTable(0)).getLevels());
+        assertEquals(3, ((RadixPageTable) table.getTable(1)).getLevels());
+        assertEquals(2, ((RadixPageTable) table.getTable(2)).getLevels());
+
+        // Each page faults in, then a one-entry TLB forces a full walk on the way back.
+        long[] addresses = {0x1000, 0x40000000L, 0x80000000L, 0x1000, 0x40001000L, 0x80200000L};
+        engine.replay(addresses, 0, 3);
+        long before = engine.getStats().getWalkReferences();
+        engine.replay(addresses, 3, 4);
+        assertEquals(4, engine.getStats().getWalkReferences() - before);
+        engine.replay(addresses, 4, 5);
+        assertEquals(4 + 3, engine.getStats().getWalkReferences() - before);
+        engine.replay(addresses, 5, 6);
+        assertEquals(4 + 3 + 2, engine.getStats().getWalkReferences() - before);
+        assertEquals(3, engine.getStats().getPageTableHits());
+    }
+
+    @Test
+    public void testHugePagesEvictOnlyHugePages() {
+        SimulationConfig config = x86(new PageSizeMap().map(MB2, 0, 16 * MB2).setFrameCount(MB2, 2)).setFrameCount(2);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+        long[] addresses = {0, MB2, 2 * MB2, 0, 0x10000000L, 0x10001000L, 0x10002000L};
+        engine.replay(addresses, 0, addresses.length);
+
+        SimulationStats stats = engine.getStats();
+        assertEquals(7, stats.getPageFaults());
+        assertEquals(3, stats.getEvictions()); // Two 2 MiB pages evicted, one 4 KiB page
+        assertEquals(-1, engine.getPipeline().getPageTable().lookup(MB2 >>> 12), "Page 1 was evicted by page 2");
+        assertNotEquals(-1, engine.getPipeline().getPageTable().lookup(2 * MB2 >>> 12));
+        assertNotEquals(-1, engine.getPipeline().getPageTable().lookup((2 * MB2 >>> 12) + 7), "Any base page of a huge page maps");
+    }
+
+    @Test
+    public void testHugePagesMatchABasePageRunOfTheSameSize() {
+        // With one 2 MiB region covering everything touched, the run equals one with 2 MiB base pages.
+        long[] addresses = new long[20_000];
+        long state = 7;
+        for (int i = 0; i < addresses.length; i++) {
+            state = state * 6364136223846793005L + 1442695040888963407L;
+            addresses[i] = (state >>> 40) & (64 * MB2 - 1);
+        }
+        TraceReplayEngine huge = new TraceReplayEngine(x86(new PageSizeMap().map(MB2, 0, 64 * MB2).setFrameCount(MB2, 24)));
+        TraceReplayEngine base = new TraceReplayEngine(x86(new PageSizeMap()).setOffsetBits(21).setPageTableLevels(3).setFrameCount(24));
+        huge.replay(addresses, 0, addresses.length);
+        base.replay(addresses, 0, addresses.length);
+        assertEquals(base.getStats().getTlbHits(), huge.getStats().getTlbHits());
+        assertEquals(base.getStats().getPageFaults(), huge.getStats().getPageFaults());
+        assertEquals(base.getStats().getWalkReferences(), huge.getStats().getWalkReferences());
+    }
+
+    @Test
+    public void testCheckpointKeepsHugePages() throws IOException {
+        long[] addresses = {0x40000000L, 0x80000000L, 0x1000, 0x40200000L, 0x40000010L, 0xC0000000L};
+        TraceReplayEngine straight = new TraceReplayEngine(x86(mixed()));
+        straight.replay(addresses, 0, addresses.length);
+
+        TraceReplayEngine first = new TraceReplayEngine(x86(mixed()));
+        first.replay(addresses, 0, 3);
+        Path file = tempDir.resolve("huge.ckpt");
+        Checkpoint.save(first, file);
+        TraceReplayEngine resumed = Checkpoint.restore(file);
+        assertEquals(first.getConfig().toString(), resumed.getConfig().toString());
+        resumed.replay(addresses, 3, addresses.length);
+        assertEquals(straight.getStats().getTlbHits(), resumed.getStats().getTlbHits());
+        assertEquals(straight.getStats().getPageFaults(), resumed.getStats().getPageFaults());
+    }
+
+    @Test
+    public void testRejectsBadRegions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> x86(new PageSizeMap().map(MB2, 0x1000, MB2).setFrameCount(MB2, 1)).validate(), "Misaligned");
+        assertThrows(IllegalArgumentException.class,
+                () -> x86(new PageSizeMap().map(MB2, 0, 4 * MB2).map(GB1, 0, GB1).setFrameCount(MB2, 1).setFrameCount(GB1, 1)).validate(),
+                "Overlapping");
+        assertThrows(IllegalArgumentException.class, () -> x86(new PageSizeMap().map(MB2, 0, MB2)).validate(), "No frames");
+        assertThrows(IllegalArgumentException.class,
+                () -> x86(new PageSizeMap().map(4096, 0, MB2).setFrameCount(4096, 1)).validate(), "Not larger than a base page");
+        assertThrows(IllegalArgumentException.class, () -> PageSizeMap.parse("2M@0", null));
+        assertThrows(IllegalArgumentException.class, () -> PageSizeMap.parse("3M@0+6M", "3M=1"));
+    }
+
+    @Test
+    public void testParsesRegionsAndPools() {
+        PageSizeMap map = PageSizeMap.parse("1G@0x80000000+2G,2M@0x40000000+128M", "2M=64,1G=1");
+        assertArrayEquals(new int[]{21, 30}, map.getPageShifts());
+        assertEquals(64, map.getFrameCount(21));
+        assertEquals(1, map.getFrameCount(30));
+        assertEquals("2M@0x40000000+128M,1G@0x80000000+2G 2M=64 1G=1", map.toString());
+        x86(map).validate();
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.controller;
+
+import org.example.trace.TextTraceReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketsCoverEveryValueWithinAnEighth() {
+        for (long value : new long[]{0, 7, 8, 15, 16, 17, 101, 1000, 8_000_201, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.indexOf(value);
+            assertTrue(LatencyHistogram.lowerBound(index) <= value && value <= LatencyHistogram.upperBound(index), Long.toString(value));
+            assertTrue(LatencyHistogram.upperBound(index) - LatencyHistogram.lowerBound(index) <= value / 8, Long.toString(value));
+        }
+        assertEquals(LatencyHistogram.upperBound(LatencyHistogram.indexOf(99)) + 1,
+                LatencyHistogram.lowerBound(LatencyHistogram.indexOf(99) + 1), "Buckets are contiguous");
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(101);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(8_000_201);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(103, histogram.getPercentile(50), "Upper end of the 96-103 bucket");
+        assertEquals(103, histogram.getPercentile(99));
+        assertEquals(8_000_201, histogram.getPercentile(99.9), "Capped at the maximum");
+        assertEquals(0, new LatencyHistogram().getPercentile(99));
+    }
+
+    @Test
+    public void testEffectiveAccessTimeFollowsTheModel() throws IOException {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(16)
+                .setOffsetBits(4)
+                .setTlbSize(2)
+                .setFrameCount(8)
+                .setLatencyModel(new LatencyModel().setTlbNanos(1).setWalkLevelNanos(50).setMemoryNanos(100).setPageFaultNanos(10_000));
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+
+        // As in TraceReplayEngineTest: one TLB hit, one page table hit and three faults.
+        SimulationStats stats = engine.replay(new TextTraceReader(new StringReader("10\n20\n1F\n30\n15\n")));
+
+        double expected = 101 + 151 + 3 * 10_151;
+        assertEquals(expected, stats.getSimulatedNanos(), 1e-9);
+        assertEquals(expected / 5, stats.getEffectiveAccessNanos(), 1e-9);
+        assertEquals(5, stats.getLatencyHistogram().getCount());
+        assertEquals(10_151, stats.getLatencyHistogram().getMax());
+        assertTrue(stats.report(0).contains("Effective access:"));
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.controller;
+
+import org.example.model.policy.PageReplacement;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MulticoreReplayEngineTest {
+
+    private static long[] randomAddresses(long seed, int count) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] addresses = new long[count];
+        for (int i = 0; i < count; i++) {
+            addresses[i] = random.nextInt(4) == 0 ? random.nextLong(1L << 20) : random.nextLong(1L << 14);
+        }
+        return addresses;
+    }
+
+    @Test
+    public void testOneCoreMatchesSingleCoreReplay() {
+        long[] addresses = randomAddresses(11, 100_000);
+        for (PageReplacement replacement : new PageReplacement[]{PageReplacement.FIFO, PageReplacement.LRU, PageReplacement.ARC}) {
+            SimulationConfig config = new SimulationConfig().setAddressBits(20).setOffsetBits(8)
+                    .setTlbSize(16).setFrameCount(64).setPageReplacement(replacement);
+            TraceReplayEngine single = new TraceReplayEngine(config);
+            single.replay(addresses, 0, addresses.length);
+            SimulationStats expected = single.getStats();
+
+            for (int stripes : new int[]{0, 1, 16}) { // 0 is the default, 4 stripes for one core
+                MulticoreReplayEngine multi = new MulticoreReplayEngine(config.copy().setFrameStripes(stripes).setPageTableLevels(2), 1);
+                SimulationStats stats = multi.replay(new long[][]{addresses});
+
+                String label = replacement + " with " + multi.getStripeCount() + " stripes";
+                assertEquals(expected.getTlbHits(), stats.getTlbHits(), label);
+                assertEquals(expected.getPageTableHits(), stats.getPageTableHits(), label);
+                assertEquals(expected.getPageFaults(), stats.getPageFaults(), label);
+                assertEquals(expected.getEvictions(), stats.getEvictions(), label);
+                assertEquals(0, stats.getShootdowns(), "A single core never interrupts another");
+                assertEquals(stats.getTlbMisses(), stats.getWalkReferences(), "A hashed page table reads one entry per walk");
+            }
+        }
+    }
+
+    @Test
+    public void testEvictingSharedPagesShootsDownOtherCores() {
+        // Both cores cycle over the same 8 pages with only 4 frames, so every eviction hits a page the other core cached.
+        long[] pages = new long[40_000];
+        for (int i = 0; i < pages.length; i++) {
+            pages[i] = (long) (i % 8) << 12;
+        }
+        SimulationConfig config = new SimulationConfig().setAddressBits(32).setOffsetBits(12)
+                .setTlbSize(8).setFrameCount(4).setFrameStripes(1);
+        MulticoreReplayEngine engine = new MulticoreReplayEngine(config, 2);
+        SimulationStats stats = engine.replay(new long[][]{pages, pages.clone()});
+
+        assertEquals(2 * pages.length, stats.getAccesses());
+        assertEquals(stats.getAccesses(), stats.getTlbHits() + stats.getPageTableHits() + stats.getPageFaults());
+        assertEquals(stats.getPageFaults() - 4, stats.getEvictions(), "Every fault after the first four evicts");
+        assertTrue(stats.getShootdowns() > 0);
+        assertEquals(stats.getShootdowns(), stats.getShootdownIpis(), "With two cores each shootdown interrupts the other one");
+        assertEquals(stats.getShootdowns() * 2000 + stats.getShootdownIpis() * 1000, engine.getShootdownCycles());
+    }
+
+    @Test
+    public void testManyCoresKeepCountsConsistent() {
+        int cores = 4;
+        long[][] traces = new long[cores][];
+        for (int c = 0; c < cores; c++) {
+            traces[c] = randomAddresses(c, 50_000);
+        }
+        SimulationConfig config = new SimulationConfig().setAddressBits(20).setOffsetBits(8)
+                .setTlbSize(32).setFrameCount(256).setPageReplacement(PageReplacement.LRU);
+        MulticoreReplayEngine engine = new MulticoreReplayEngine(config, cores);
+        SimulationStats stats = engine.replay(traces);
+
+        assertEquals(cores * 50_000L, stats.getAccesses());
+        assertEquals(stats.getAccesses(), stats.getTlbHits() + stats.getPageTableHits() + stats.getPageFaults());
+        assertTrue(stats.getEvictions() <= stats.getPageFaults());
+        assertEquals(16, engine.getStripeCount());
+    }
+}
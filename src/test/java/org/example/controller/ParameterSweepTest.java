@@ -0,0 +1,54 @@
+package org.example.controller;
+
+import org.example.model.policy.PageReplacement;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParameterSweepTest {
+
+    @Test
+    public void testSweepMatchesSequentialRuns() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] addresses = new long[50_000];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = random.nextInt(4) == 0 ? random.nextLong(1L << 20) : random.nextLong(1L << 14);
+        }
+        SimulationConfig base = new SimulationConfig().setAddressBits(20).setOffsetBits(8);
+        List<SimulationConfig> configs = ParameterSweep.grid(base, List.of(8, 10), List.of(4, 16), List.of(32, 128),
+                List.of(), List.of(PageReplacement.FIFO, PageReplacement.LRU));
+        assertEquals(16, configs.size());
+        assertEquals(20, configs.get(15).getAddressBits(), "Unswept parameters keep the base value");
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<ParameterSweep.Result> results;
+        try {
+            results = new ParameterSweep(configs).run(addresses, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(configs.size(), results.size());
+        for (int i = 0; i < configs.size(); i++) {
+            assertSame(configs.get(i), results.get(i).getConfig());
+            TraceReplayEngine engine = new TraceReplayEngine(configs.get(i));
+            engine.replay(addresses, 0, addresses.length);
+            SimulationStats expected = engine.getStats();
+            SimulationStats actual = results.get(i).getStats();
+            assertEquals(expected.getTlbHits(), actual.getTlbHits(), configs.get(i).toString());
+            assertEquals(expected.getPageFaults(), actual.getPageFaults(), configs.get(i).toString());
+            assertEquals(addresses.length, actual.getAccesses());
+        }
+        assertTrue(ParameterSweep.formatTable(results).contains("frames=128 (LRU)"));
+    }
+
+    @Test
+    public void testRejectsInvalidConfigurationUpFront() {
+        List<SimulationConfig> configs = List.of(new SimulationConfig(), new SimulationConfig().setTlbSize(0));
+        assertThrows(IllegalArgumentException.class, () -> new ParameterSweep(configs));
+    }
+}
@@ -0,0 +1,155 @@
+package org.example.controller;
+
+import org.example.model.policy.PageReplacement;
+import org.example.model.prefetch.Prefetch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefetchTest {
+    @TempDir
+    Path tempDir;
+
+    private static SimulationConfig config(int frames, Prefetch prefetch, int degree) {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(32)
+                .setOffsetBits(12)
+                .setTlbSize(4)
+                .setFrameCount(frames)
+                .setPrefetch(prefetch)
+                .setPrefetchDegree(degree);
+        config.getLatencyModel()
+                .setTlbNanos(0)
+                .setWalkLevelNanos(0)
+                .setMemoryNanos(0)
+                .setPageFaultNanos(500)
+                .setPrefetchNanos(10);
+        return config;
+    }
+
+    private static long[] scan(long firstPage, int pages) {
+        long[] addresses = new long[pages];
+        for (int i = 0; i < pages; i++) {
+            addresses[i] = (firstPage + i) << 12;
+        }
+        return addresses;
+    }
+
+    @Test
+    public void testReadaheadStopsAScanFromFaulting() {
+        TraceReplayEngine engine = new TraceReplayEngine(config(64, Prefetch.SEQUENTIAL, 8));
+        long[] addresses = scan(0x100, 1000);
+        engine.replay(addresses, 0, addresses.length);
+
+        SimulationStats stats = engine.getStats();
+        assertEquals(2, stats.getPageFaults(), "Two faults start the stream, then every window is read ahead of it");
+        assertEquals(998, stats.getUsefulPrefetches());
+        assertEquals(998, stats.getPageTableHits(), "A prefetched page is mapped but not in the TLB");
+        assertTrue(stats.getPrefetchAccuracy() > 0.98, "Only the last window reads past the end of the scan");
+        assertEquals(998.0 / 1000, stats.getPrefetchCoverage(), 1e-9);
+        assertEquals(stats.getPageFaults() + stats.getPrefetches() - 64, stats.getEvictions(), "Prefetched pages take frames like faults");
+        assertEquals(2 * 500 + stats.getPrefetches() * 10, stats.getSimulatedNanos(), 1e-6);
+        assertTrue(engine.report().contains("Coverage:         99.80% of misses avoided"));
+    }
+
+    @Test
+    public void testPrefetchesThatDisplaceUsedPagesArePollution() {
+        TraceReplayEngine engine = new TraceReplayEngine(config(4, Prefetch.SEQUENTIAL, 4));
+        long[] addresses = {0x0000, 0x1000, 0x0000};
+        engine.replay(addresses, 0, addresses.length);
+
+        // Page 1 reads pages 2 to 5 ahead, which push pages 0 and 1 out of the four frames.
+        SimulationStats stats = engine.getStats();
+        assertEquals(4, stats.getPrefetches());
+        assertEquals(3, stats.getPageFaults());
+        assertEquals(1, stats.getPollutionFaults(), "Page 0 was evicted by a prefetch");
+        assertEquals(1, stats.getUnusedPrefetches(), "Page 2 was evicted before its first use");
+        assertEquals(0, stats.getUsefulPrefetches());
+        assertEquals(0.0, stats.getPrefetchCoverage());
+    }
+
+    @Test
+    public void testPollutionIsCountedPerProcess() {
+        TraceReplayEngine engine = new TraceReplayEngine(config(5, Prefetch.SEQUENTIAL, 4).setMultiProcess(true));
+        long[] addresses = {0x0000, 0x1000, 0x0000, 0x1000, 0x0000};
+        int[] processIds = {1, 1, 2, 2, 1};
+        engine.replay(addresses, processIds, 0, addresses.length);
+
+        // Both processes read pages 2 to 5 ahead, and process 2's prefetches also push out its own page 0.
+        // Process 1's page 0 was evicted by a prefetch too, and only its fault counts: the pages share a number
+        // but not a process. Five frames keep every prefetch victim remembered.
+        SimulationStats stats = engine.getStats();
+        assertEquals(1, stats.getPollutionFaults());
+    }
+
+    @Test
+    public void testOnlyRecentPrefetchVictimsAreRemembered() {
+        TraceReplayEngine engine = new TraceReplayEngine(config(8, Prefetch.SEQUENTIAL, 8));
+        long[] addresses = scan(0, 1000);
+        engine.replay(addresses, 0, addresses.length);
+        long pollution = engine.getStats().getPollutionFaults();
+        engine.replay(new long[]{0}, 0, 1);
+
+        // Page 0 was pushed out by a prefetch, but hundreds of prefetches ago: LRU would have evicted it as well
+        assertEquals(pollution, engine.getStats().getPollutionFaults());
+    }
+
+    @Test
+    public void testResidentAndOutOfRangePagesAreNotPrefetched() {
+        TraceReplayEngine engine = new TraceReplayEngine(config(64, Prefetch.STRIDE, 4).setAddressBits(16));
+        long[] addresses = {0x0000, 0x2000, 0x4000, 0x6000, 0x8000, 0xA000, 0xC000, 0xE000};
+        engine.replay(addresses, 0, 3);
+        assertEquals(4, engine.getStats().getPrefetches(), "Pages 6, 8, 10 and 12");
+        engine.replay(addresses, 3, addresses.length);
+        assertEquals(5, engine.getStats().getPrefetches(), "Only page 14 was left, page 16 is past the address space");
+        assertEquals(3, engine.getStats().getPageFaults());
+    }
+
+    @Test
+    public void testPrefetchedPagesFollowTheReplacementPolicy() {
+        SimulationConfig config = config(8, Prefetch.SEQUENTIAL, 4).setPageReplacement(PageReplacement.CLOCK);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+        long[] addresses = scan(0, 8);
+        engine.replay(addresses, 0, 2);
+        for (int frame = 2; frame < 6; frame++) {
+            assertTrue(engine.getPipeline().getPm().isPrefetched(frame));
+            assertFalse(engine.getPipeline().getPm().isReferenced(frame), "Not accessed yet");
+        }
+        engine.replay(addresses, 2, 3);
+        assertFalse(engine.getPipeline().getPm().isPrefetched(2), "Used");
+        assertTrue(engine.getPipeline().getPm().isReferenced(2));
+    }
+
+    @Test
+    public void testCheckpointKeepsWhatThePrefetcherLearnt() throws IOException {
+        SimulationConfig config = config(32, Prefetch.MARKOV, 4);
+        long[] addresses = new long[3000];
+        for (int i = 0; i < addresses.length; i++) {
+            addresses[i] = ((i * 37L) % 200) << 12; // A repeating irregular walk over 200 pages
+        }
+        TraceReplayEngine straight = new TraceReplayEngine(config);
+        straight.replay(addresses, 0, addresses.length);
+        assertTrue(straight.getStats().getUsefulPrefetches() > 0);
+
+        TraceReplayEngine first = new TraceReplayEngine(config);
+        first.replay(addresses, 0, 1234);
+        Path file = tempDir.resolve("prefetch.ckpt");
+        Checkpoint.save(first, file);
+        TraceReplayEngine resumed = Checkpoint.restore(file);
+        assertEquals(first.getConfig().toString(), resumed.getConfig().toString());
+        resumed.replay(addresses, 1234, addresses.length);
+        assertEquals(straight.getStats().getPageFaults(), resumed.getStats().getPageFaults());
+        assertEquals(straight.getStats().getUsefulPrefetches(), resumed.getStats().getUsefulPrefetches());
+        assertEquals(straight.getStats().getPollutionFaults(), resumed.getStats().getPollutionFaults());
+    }
+
+    @Test
+    public void testRejectsUnsupportedSetups() {
+        assertThrows(IllegalArgumentException.class, () -> config(8, Prefetch.STRIDE, 0).validate());
+        assertThrows(IllegalArgumentException.class, () -> new MulticoreReplayEngine(config(8, Prefetch.STRIDE, 2), 2));
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.controller;
+
+import org.example.model.AddressLayout;
+import org.example.model.PMState;
+import org.example.model.PageTableState;
+import org.example.model.StateSnapshot;
+import org.example.model.TLBState;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationRunnerTest {
+
+    @Test
+    public void testStepRunTranslatesExactlyN() throws Exception {
+        TranslationPipeline pipeline = new TranslationPipeline(new TLBState(4), new PageTableState(64), new PMState(8));
+        SplittableRandom random = new SplittableRandom(1);
+        SimulationRunner runner = new SimulationRunner(pipeline, new AddressLayout(10, 4), random::nextLong,
+                50_000, 0, snapshot -> { });
+        runner.execute();
+
+        SimulationStats stats = runner.get(10, TimeUnit.SECONDS);
+        assertEquals(50_000, stats.getAccesses());
+        assertEquals(stats.getAccesses(), stats.getTlbHits() + stats.getPageTableHits() + stats.getPageFaults());
+        assertNotSame(pipeline.getStats(), stats, "The result is a copy the worker no longer changes");
+    }
+
+    @Test
+    public void testStopPublishesFinalSnapshot() throws Exception {
+        TranslationPipeline pipeline = new TranslationPipeline(new TLBState(4), new PageTableState(64), new PMState(8));
+        AtomicReference<SimulationSnapshot> latest = new AtomicReference<>();
+        SimulationRunner runner = new SimulationRunner(pipeline, new AddressLayout(10, 4), () -> 0x3F0L,
+                SimulationRunner.UNLIMITED, 1000, latest::set);
+        runner.execute();
+        Thread.sleep(50);
+        runner.requestStop();
+
+        SimulationStats stats = runner.get(10, TimeUnit.SECONDS);
+        assertTrue(stats.getAccesses() > 0 && stats.getAccesses() < 1000, "Rate-limited to about 50 addresses in 50 ms");
+        assertEquals(1, stats.getPageFaults());
+
+        StateSnapshot state = StateSnapshot.capture(pipeline.getTlb(), (PageTableState) pipeline.getPageTable(), pipeline.getPm());
+        assertEquals(0, state.getPageFrame(0x3F));
+        assertEquals(0x3F, state.getFrameOwner(0));
+    }
+}
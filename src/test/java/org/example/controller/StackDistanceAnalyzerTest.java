@@ -0,0 +1,76 @@
+package org.example.controller;
+
+import org.example.model.PMState;
+import org.example.model.TLBOrganization;
+import org.example.model.TLBState;
+import org.example.model.policy.PageReplacement;
+import org.example.model.policy.TLBReplacement;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StackDistanceAnalyzerTest {
+
+    @Test
+    public void testSmallTraceDistances() {
+        StackDistanceAnalyzer analyzer = new StackDistanceAnalyzer(4);
+        // Distances: a, b, c cold; a = 2; a = 0; b = 2; c = 2.
+        for (long vpn : new long[]{1, 2, 3, 1, 1, 2, 3}) {
+            analyzer.access(vpn);
+        }
+        MissRatioCurve curve = analyzer.getCurve();
+        assertEquals(7, curve.getAccesses());
+        assertEquals(3, curve.getColdMisses());
+        assertEquals(0, curve.getHits(0));
+        assertEquals(1, curve.getHits(1));
+        assertEquals(1, curve.getHits(2));
+        assertEquals(4, curve.getHits(3));
+        assertEquals(4, curve.getHits(4));
+        assertThrows(IllegalArgumentException.class, () -> curve.getHits(5));
+    }
+
+    @Test
+    public void testCurveMatchesLruSimulationAtEveryCapacity() {
+        SplittableRandom random = new SplittableRandom(11);
+        long[] vpns = new long[30_000];
+        for (int i = 0; i < vpns.length; i++) {
+            vpns[i] = random.nextInt(3) == 0 ? random.nextInt(2000) : random.nextInt(60);
+        }
+        // A tiny position budget forces many compactions.
+        StackDistanceAnalyzer analyzer = new StackDistanceAnalyzer(256, 16);
+        for (long vpn : vpns) {
+            analyzer.access(vpn);
+        }
+        MissRatioCurve curve = analyzer.getCurve();
+
+        for (int capacity : new int[]{1, 7, 32, 100, 256}) {
+            PMState memory = new PMState(capacity, PageReplacement.LRU);
+            TLBState tlb = new TLBState(capacity, TLBOrganization.FULLY_ASSOCIATIVE, capacity, TLBReplacement.LRU);
+            long[] frameOf = new long[2000];
+            Arrays.fill(frameOf, -1);
+            long memoryHits = 0;
+            long tlbHits = 0;
+            for (long vpn : vpns) {
+                int frame = (int) frameOf[(int) vpn];
+                if (frame >= 0 && memory.getOwner(frame) == vpn) {
+                    memory.touch(frame);
+                    memoryHits++;
+                } else {
+                    frameOf[(int) vpn] = memory.allocate(vpn);
+                }
+                int slot = tlb.lookup(vpn);
+                if (slot != TLBState.MISS) {
+                    tlb.touch(slot);
+                    tlbHits++;
+                } else {
+                    tlb.insert(vpn, 0);
+                }
+            }
+            assertEquals(memoryHits, curve.getHits(capacity), "frames=" + capacity);
+            assertEquals(tlbHits, curve.getHits(capacity), "TLB entries=" + capacity);
+        }
+    }
+}
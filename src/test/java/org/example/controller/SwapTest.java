@@ -0,0 +1,78 @@
+package org.example.controller;
+
+import org.example.model.FrameStore;
+import org.example.model.PageSizeMap;
+import org.example.model.SwapDevice;
+import org.example.trace.BinaryTraceFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwapTest {
+    private static final byte R = BinaryTraceFormat.ACCESS_READ;
+    private static final byte W = BinaryTraceFormat.ACCESS_WRITE;
+
+    @TempDir
+    Path tempDir;
+
+    private static SimulationConfig twoFrames() {
+        return new SimulationConfig()
+                .setAddressBits(20)
+                .setOffsetBits(12)
+                .setTlbSize(2)
+                .setFrameCount(2);
+    }
+
+    @Test
+    public void testOnlyDirtyPagesAreWrittenOutAndTheyComeBack() throws IOException {
+        TraceReplayEngine engine = new TraceReplayEngine(twoFrames());
+        try (SwapDevice swap = new SwapDevice(tempDir.resolve("run.swp"), true)) {
+            engine.getPipeline().attachSwap(swap, 12);
+            long[] addresses = {0x1000, 0x1008, 0x1010, 0x2000, 0x3000, 0x4000, 0x1000};
+            engine.replay(addresses, new byte[]{W, W, W, R, R, R, R}, 0, addresses.length);
+
+            assertEquals(1, swap.getPagesOut(), "Only page 1 was dirty");
+            assertEquals(1, swap.getPagesIn(), "Page 1 came back from swap");
+            assertEquals(4, swap.getZeroFills());
+            assertEquals(engine.getStats().getWriteBacks(), swap.getPagesOut());
+            FrameStore frames = engine.getPipeline().getFrameStore(0);
+            int frame = engine.getPipeline().getPageTable().lookup(1);
+            assertEquals(3, frames.getWriteCount(frame), "The page kept its three writes");
+            assertFalse(engine.getPipeline().getPm().isDirty(frame), "A page read back from swap is clean");
+
+            engine.getPipeline().reset();
+            assertEquals(0, swap.getFileBytes());
+        }
+    }
+
+    @Test
+    public void testHugePagesTakeSlotsOfTheirSize() throws IOException {
+        SimulationConfig config = twoFrames()
+                .setAddressBits(32)
+                .setHugePages(new PageSizeMap().map(1L << 16, 0x100000, 4L << 16).setFrameCount(1L << 16, 1));
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+        try (SwapDevice swap = new SwapDevice(tempDir.resolve("huge.swp"), true)) {
+            engine.getPipeline().attachSwap(swap, 12);
+            assertEquals(1 << 16, engine.getPipeline().getFrameStore(1).getPageBytes());
+            long[] addresses = {0x100000, 0x110000, 0x100000};
+            engine.replay(addresses, new byte[]{W, R, R}, 0, addresses.length);
+            assertEquals(1, swap.getPagesOut());
+            assertEquals(1, swap.getPagesIn());
+            assertEquals(1L << 16, swap.getFileBytes());
+            assertEquals(1, engine.getPipeline().getFrameStore(1).getWriteCount(0));
+        }
+    }
+
+    @Test
+    public void testSwappedRunsAreNotCheckpointed() throws IOException {
+        TraceReplayEngine engine = new TraceReplayEngine(twoFrames());
+        try (SwapDevice swap = new SwapDevice(tempDir.resolve("ckpt.swp"), true)) {
+            engine.getPipeline().attachSwap(swap, 12);
+            assertThrows(IllegalArgumentException.class, () -> Checkpoint.save(engine, tempDir.resolve("run.ckpt")));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.controller;
+
+import org.example.trace.TextTraceReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceReplayEngineTest {
+
+    @Test
+    public void testReplayCountsEveryPhase() throws IOException {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(16)
+                .setOffsetBits(4)
+                .setTlbSize(2)
+                .setFrameCount(8);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+
+        // Pages 1, 2, 1, 3, 1 (TLB holds two entries, so page 1 is evicted by page 3 and found in the page table).
+        String trace = "0x10\n# comment\n20\n1F\n\n30\n15\n";
+        SimulationStats stats = engine.replay(new TextTraceReader(new StringReader(trace)));
+
+        assertEquals(5, stats.getAccesses());
+        assertEquals(1, stats.getTlbHits());
+        assertEquals(4, stats.getTlbMisses());
+        assertEquals(1, stats.getPageTableHits());
+        assertEquals(3, stats.getPageFaults());
+        assertEquals(2, stats.getHits());
+        assertEquals(3, stats.getMisses());
+    }
+
+    @Test
+    public void testReplaysFortyEightBitAddresses() throws IOException {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(48)
+                .setOffsetBits(30)
+                .setTlbSize(4)
+                .setFrameCount(4);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+
+        // Both addresses lie in the top page of the 48-bit space; the bits above bit 47 are ignored.
+        SimulationStats stats = engine.replay(new TextTraceReader(new StringReader("FFFFFFFFF000\nFFFFFFFFFFFFFFFF\n")));
+
+        assertEquals(2, stats.getAccesses());
+        assertEquals(1, stats.getTlbHits());
+        assertEquals(1, stats.getPageFaults());
+        assertEquals(0, engine.getPipeline().getTlb().lookup((1L << 18) - 1));
+    }
+
+    @Test
+    public void testRadixPageTableCountsWalkReferences() throws IOException {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(57)
+                .setOffsetBits(12)
+                .setPageTableLevels(5)
+                .setTlbSize(1)
+                .setFrameCount(4);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+
+        // Page 1FFFFFFFFFFFF is faulted in, then found in the page table after page 0 takes the only TLB entry.
+        String trace = "1FFFFFFFFFFFF000\n0\n1FFFFFFFFFFFF123\n";
+        SimulationStats stats = engine.replay(new TextTraceReader(new StringReader(trace)));
+
+        assertEquals(3, stats.getTlbMisses());
+        assertEquals(1, stats.getPageTableHits());
+        assertEquals(1 + 1 + 5, stats.getWalkReferences());
+        assertEquals(9 * 512 * Integer.BYTES, engine.getPipeline().getPageTable().getAllocatedBytes());
+        assertThrows(IllegalArgumentException.class, () -> config.copy().setPageTableLevels(1).validate());
+    }
+
+    @Test
+    public void testProcessesShareFramesButNotPages() throws IOException {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(16)
+                .setOffsetBits(4)
+                .setTlbSize(4)
+                .setFrameCount(2)
+                .setMultiProcess(true);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+
+        // Page 1 of process 7, page 1 of process 8, then back to process 7: its entry survives the switch in the TLB.
+        // Page 2 of process 8 then evicts process 7's page (FIFO), which must vanish from both its page table and the TLB.
+        String trace = "10 R 7\n10 R 8\n14 R 7\n20 W 8\n10 R 7\n";
+        SimulationStats stats = engine.replay(new TextTraceReader(new StringReader(trace)));
+
+        assertEquals(5, stats.getAccesses());
+        assertEquals(1, stats.getTlbHits());
+        assertEquals(4, stats.getPageFaults());
+        assertEquals(5, stats.getContextSwitches(), "Process 0 to 7, then four changes of process");
+        assertEquals(2, stats.getEvictions());
+        assertEquals(3, engine.getPipeline().getAddressSpaces().size());
+
+        SimulationStats flushed = new TraceReplayEngine(config.copy().setFlushOnSwitch(true))
+                .replay(new TextTraceReader(new StringReader(trace)));
+        assertEquals(0, flushed.getTlbHits(), "Flushing on every switch loses process 7's entry");
+        assertTrue(flushed.getFlushedTlbEntries() > 0);
+    }
+
+    @Test
+    public void testAsidsAreRecycledWhenProcessesOutnumberThem() {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(16)
+                .setOffsetBits(4)
+                .setPageTableLevels(2)
+                .setTlbSize(64)
+                .setFrameCount(64)
+                .setMultiProcess(true)
+                .setAsidCount(2);
+        TraceReplayEngine engine = new TraceReplayEngine(config);
+
+        long[] addresses = {0x10, 0x10, 0x10, 0x10, 0x10};
+        int[] processIds = {1, 2, 3, 1, 3};
+        engine.replay(addresses, processIds, 0, addresses.length);
+
+        // With two ASIDs, processes 2 and 3 take them from processes 0 and 1, and process 1 takes one back from 2.
+        SimulationStats stats = engine.getStats();
+        assertEquals(5, stats.getContextSwitches());
+        assertEquals(1, stats.getTlbHits(), "Process 3 still holds its ASID when it runs again");
+        assertEquals(1, stats.getPageTableHits(), "Process 1 lost its TLB entry with its ASID, not its page table");
+        assertEquals(3, stats.getPageFaults());
+        assertEquals(2, stats.getFlushedTlbEntries());
+    }
+
+    @Test
+    public void testRejectsInvalidAddress() {
+        TraceReplayEngine engine = new TraceReplayEngine(new SimulationConfig());
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.replay(new TextTraceReader(new StringReader("12G4\n"))));
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.controller;
+
+import org.example.trace.BinaryTraceFormat;
+import org.example.trace.BinaryTraceWriter;
+import org.example.trace.MappedTraceReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBackTest {
+    private static final byte R = BinaryTraceFormat.ACCESS_READ;
+    private static final byte W = BinaryTraceFormat.ACCESS_WRITE;
+
+    @TempDir
+    Path tempDir;
+
+    private static SimulationConfig twoFrames() {
+        SimulationConfig config = new SimulationConfig()
+                .setAddressBits(16)
+                .setOffsetBits(4)
+                .setTlbSize(2)
+                .setFrameCount(2);
+        config.getLatencyModel()
+                .setTlbNanos(0)
+                .setWalkLevelNanos(0)
+                .setMemoryNanos(0)
+                .setPageFaultNanos(500)
+                .setWriteBackNanos(1000);
+        return config;
+    }
+
+    @Test
+    public void testDirtyVictimsAreWrittenBack() {
+        TraceReplayEngine engine = new TraceReplayEngine(twoFrames());
+        long[] addresses = {0x10, 0x20, 0x30, 0x40};
+        engine.replay(addresses, new byte[]{W, R, R, R}, 0, addresses.length);
+
+        SimulationStats stats = engine.getStats();
+        assertEquals(1, stats.getWrites());
+        assertEquals(2, stats.getEvictions());
+        assertEquals(1, stats.getWriteBacks(), "Page 1 was written, page 2 only read");
+        assertEquals(4 * 500 + 1000, stats.getSimulatedNanos());
+        assertTrue(engine.report().contains("Write-backs:      1"));
+    }
+
+    @Test
+    public void testWritesAfterTheLoadDirtyThePage() {
+        TraceReplayEngine engine = new TraceReplayEngine(twoFrames());
+        long[] addresses = {0x10, 0x11, 0x20, 0x30};
+        engine.replay(addresses, new byte[]{R, W, R, R}, 0, addresses.length);
+
+        assertEquals(2, engine.getStats().getWrites() + engine.getStats().getWriteBacks(), "A TLB hit that writes dirties the page");
+        assertFalse(engine.getPipeline().getPm().isDirty(0), "The frame was reloaded clean");
+    }
+
+    @Test
+    public void testCleanWindowAvoidsWriteBacks() {
+        long[] addresses = {0x10, 0x20, 0x30, 0x40};
+        byte[] types = {W, R, R, R};
+        TraceReplayEngine plain = new TraceReplayEngine(twoFrames());
+        plain.replay(addresses, types, 0, addresses.length);
+        TraceReplayEngine cleanFirst = new TraceReplayEngine(twoFrames().setCleanWindow(1));
+        cleanFirst.replay(addresses, types, 0, addresses.length);
+
+        assertEquals(plain.getStats().getPageFaults(), cleanFirst.getStats().getPageFaults());
+        assertEquals(0, cleanFirst.getStats().getWriteBacks(), "Page 1 stays while clean pages come and go");
+        assertEquals(0x10 >>> 4, cleanFirst.getPipeline().getPm().getOwner(0));
+        assertThrows(IllegalArgumentException.class, () -> twoFrames().setCleanWindow(3).validate());
+    }
+
+    @Test
+    public void testEveryInputPathCarriesWrites() throws IOException {
+        long[] addresses = new long[5000];
+        byte[] types = new byte[addresses.length];
+        long state = 11;
+        Path binary = tempDir.resolve("typed.vmt");
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(binary, BinaryTraceFormat.FLAG_ACCESS_TYPE, 4)) {
+            for (int i = 0; i < addresses.length; i++) {
+                state = state * 6364136223846793005L + 1442695040888963407L;
+                addresses[i] = (state >>> 48) & 0x3FF;
+                types[i] = (state & 3) == 0 ? W : R;
+                writer.write(addresses[i], types[i], 0);
+            }
+        }
+        SimulationConfig config = twoFrames().setFrameCount(16);
+        TraceReplayEngine arrays = new TraceReplayEngine(config);
+        arrays.replay(addresses, types, 0, addresses.length);
+        assertTrue(arrays.getStats().getWriteBacks() > 0);
+
+        TraceReplayEngine mapped = new TraceReplayEngine(config);
+        try (MappedTraceReader reader = new MappedTraceReader(binary)) {
+            mapped.replay(reader);
+        }
+        assertEquals(arrays.getStats().getWrites(), mapped.getStats().getWrites());
+        assertEquals(arrays.getStats().getWriteBacks(), mapped.getStats().getWriteBacks());
+
+        byte[][] loadedTypes = new byte[1][];
+        long[] loaded;
+        try (MappedTraceReader reader = new MappedTraceReader(binary)) {
+            loaded = ParameterSweep.load(reader, loadedTypes, null);
+        }
+        List<ParameterSweep.Result> results = new ParameterSweep(List.of(config)).run(loaded, loadedTypes[0], null, ForkJoinPool.commonPool());
+        assertEquals(arrays.getStats().getWriteBacks(), results.get(0).getStats().getWriteBacks());
+    }
+
+    @Test
+    public void testCheckpointKeepsDirtyPages() throws IOException {
+        long[] addresses = {0x10, 0x20, 0x21, 0x30, 0x40, 0x10, 0x50};
+        byte[] types = {W, R, W, R, R, R, R};
+        SimulationConfig config = twoFrames().setFrameCount(3).setCleanWindow(1);
+        TraceReplayEngine straight = new TraceReplayEngine(config);
+        straight.replay(addresses, types, 0, addresses.length);
+
+        TraceReplayEngine first = new TraceReplayEngine(config);
+        first.replay(addresses, types, 0, 3);
+        Path file = tempDir.resolve("dirty.ckpt");
+        Checkpoint.save(first, file);
+        TraceReplayEngine resumed = Checkpoint.restore(file);
+        assertEquals(first.getConfig().toString(), resumed.getConfig().toString());
+        assertTrue(resumed.getPipeline().getPm().isDirty(1));
+        resumed.replay(addresses, types, 3, addresses.length);
+        assertEquals(straight.getStats().getWriteBacks(), resumed.getStats().getWriteBacks());
+        assertEquals(straight.getStats().getPageFaults(), resumed.getStats().getPageFaults());
+        assertEquals(straight.getStats().getSimulatedNanos(), resumed.getStats().getSimulatedNanos());
+    }
+}
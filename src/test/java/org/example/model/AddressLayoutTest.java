@@ -0,0 +1,54 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AddressLayoutTest {
+
+    @Test
+    public void testSplitsAddressWithShiftsAndMasks() {
+        AddressLayout layout = new AddressLayout(8, 2);
+        long address = layout.parseHex("B7"); // 1011 0111
+        assertEquals(0x2D, layout.pageNumber(address));
+        assertEquals(3, layout.offset(address));
+        assertEquals("10110111", layout.addressToBinary(address));
+        assertEquals("101101", layout.pageNumberToBinary(address));
+        assertEquals("11", layout.offsetToBinary(address));
+        assertEquals(address, layout.address(0x2D, 3));
+    }
+
+    @Test
+    public void testWideAddresses() {
+        AddressLayout x86 = new AddressLayout(48, 12);
+        long address = x86.parseHex("0x7FFFFFFFF123");
+        assertEquals(0x7FFFFFFFFL, x86.pageNumber(address));
+        assertEquals(0x123, x86.offset(address));
+
+        AddressLayout la57 = new AddressLayout(57, 12);
+        assertEquals((1L << 45) - 1, la57.pageNumber(-1L), "Bits above the address length are ignored");
+
+        AddressLayout full = new AddressLayout(64, 12);
+        long top = full.parseHex("FFFFFFFFFFFFF000");
+        assertEquals(0xFFFFFFFFFFFFFL, full.pageNumber(top));
+        assertEquals("FFFFFFFFFFFFF000", AddressLayout.toHex(top));
+    }
+
+    @Test
+    public void testRejectsInvalidInput() {
+        AddressLayout layout = new AddressLayout(16, 4);
+        assertThrows(IllegalArgumentException.class, () -> layout.parseHex("12G4"));
+        assertThrows(IllegalArgumentException.class, () -> layout.parseHex(""));
+        assertThrows(IllegalArgumentException.class, () -> new AddressLayout(65, 12));
+        assertThrows(IllegalArgumentException.class, () -> new AddressLayout(12, 12));
+    }
+
+    @Test
+    public void testPageNumbersStayNonNegative() {
+        assertThrows(IllegalArgumentException.class, () -> new AddressLayout(64, 0), "A 64-bit page number would wrap negative");
+        AddressLayout widest = new AddressLayout(64, 1);
+        assertEquals(AddressLayout.MAX_PAGE_NUMBER_BITS, widest.getPageNumberBits());
+        assertEquals(Long.MAX_VALUE, widest.pageNumber(-1L));
+        assertEquals(Long.MAX_VALUE, new AddressLayout(63, 0).pageNumber(-1L));
+    }
+}
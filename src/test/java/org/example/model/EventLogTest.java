@@ -0,0 +1,53 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventLogTest {
+
+    @Test
+    public void testKeepsOnlyTheNewestEvents() {
+        EventLog log = new EventLog(4);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, log.append("event " + i));
+        }
+        assertEquals(6, log.getFirstSequence());
+        assertEquals(10, log.getNextSequence());
+        assertNull(log.get(5), "Overwritten events are gone");
+        assertEquals("event 6", log.get(6).getMessage());
+        assertEquals("event 9", log.get(9).getMessage());
+        assertNull(log.get(10), "Not written yet");
+
+        log.clear();
+        assertEquals(10, log.getFirstSequence());
+        assertNull(log.get(9));
+        log.append(LogEvent.Kind.FAULT, "after clear");
+        assertEquals(LogEvent.Kind.FAULT, log.get(10).getKind());
+    }
+
+    @Test
+    public void testConcurrentProducersNeverLoseSequenceNumbers() throws InterruptedException {
+        EventLog log = new EventLog(1024);
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread producer = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    log.append(LogEvent.Kind.HIT, "x");
+                }
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertEquals(40_000, log.getNextSequence());
+        for (long sequence = log.getFirstSequence(); sequence < log.getNextSequence(); sequence++) {
+            assertEquals(sequence, log.get(sequence).getSequence());
+        }
+    }
+}
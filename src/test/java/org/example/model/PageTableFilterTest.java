@@ -0,0 +1,162 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageTableFilterTest {
+
+    @Test
+    public void testValidEntriesAreCountedAndFound64AtATime() {
+        PageTableState state = new PageTableState(1000);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 200; i++) {
+            state.map(random.nextInt(1000), i);
+        }
+        for (int from = 0; from < 1000; from += 37) {
+            for (int to = from; to <= 1000; to += 53) {
+                int count = 0;
+                for (int vpn = from; vpn < to; vpn++) {
+                    count += state.isValid(vpn) ? 1 : 0;
+                }
+                assertEquals(count, state.countValid(from, to), from + "-" + to);
+            }
+            int next = from;
+            while (next < 1000 && !state.isValid(next)) {
+                next++;
+            }
+            assertEquals(next < 1000 ? next : -1, state.nextValid(from));
+        }
+        assertEquals(-1, state.nextValid(1000));
+    }
+
+    @Test
+    public void testValidFilterShowsOnlyMappedEntries() {
+        PageTable pageTable = new PageTable(new PageTableState(4096));
+        pageTable.getUpdates().setInterval(60_000); // Only the explicit flushes below publish
+        pageTable.getState().map(0x300, 7);
+        pageTable.getState().map(0x10, 2);
+        pageTable.setFilter(PageTableFilter.VALID);
+        List<TableModelEvent> events = new ArrayList<>();
+        pageTable.addTableModelListener(events::add);
+
+        assertEquals(2, pageTable.getRowCount());
+        assertEquals("10", pageTable.getValueAt(0, 0));
+        assertEquals("300", pageTable.getValueAt(1, 0));
+        assertEquals("7", pageTable.getValueAt(1, 2));
+        assertEquals(1, pageTable.reveal(0x300));
+        assertEquals(-1, pageTable.reveal(0x301), "Invalid entries are hidden");
+
+        pageTable.getState().map(0x20, 9);
+        pageTable.getUpdates().flush();
+        assertEquals(3, pageTable.getRowCount(), "New mappings appear on the next flush");
+        assertEquals(0x20, pageTable.getVpn(1));
+        assertEquals(1, events.size());
+
+        events.clear();
+        pageTable.getState().map(0x20, 4);
+        pageTable.getUpdates().flush();
+        assertEquals(1, events.size());
+        assertEquals(2, events.get(0).getLastRow(), "The same rows are only repainted");
+        assertEquals("4", pageTable.getValueAt(1, 2));
+    }
+
+    @Test
+    public void testRecentFilterShowsTouchedEntriesNewestFirst() {
+        PageTable pageTable = new PageTable(new PageTableState(4096));
+        pageTable.setFilter(PageTableFilter.RECENT);
+        pageTable.getState().map(5, 1);
+        pageTable.getState().map(9, 2);
+        pageTable.getState().invalidate(5);
+        pageTable.getUpdates().flush();
+        assertEquals(2, pageTable.getRowCount(), "A page touched twice is shown once");
+        assertEquals(5, pageTable.getVpn(0));
+        assertEquals("0", pageTable.getValueAt(0, 1), "Invalidated entries count as touched");
+        assertEquals(9, pageTable.getVpn(1));
+
+        for (int vpn = 100; vpn < 100 + PageTable.RECENT_CAPACITY; vpn++) {
+            pageTable.getState().map(vpn, vpn);
+        }
+        pageTable.getUpdates().flush();
+        assertEquals(PageTable.RECENT_CAPACITY, pageTable.getRowCount());
+        assertEquals(100 + PageTable.RECENT_CAPACITY - 1, pageTable.getVpn(0));
+        assertEquals(-1, pageTable.reveal(9), "The oldest entries are forgotten");
+    }
+
+    @Test
+    public void testHugeTablesStartWithASummary() {
+        PageTable pageTable = new PageTable(new PageTableState(16));
+        pageTable.setSize(1 << 20);
+        assertEquals(PageTableFilter.SUMMARY, pageTable.getFilter());
+        assertEquals(PageTable.SUMMARY_ROWS, pageTable.getRowCount());
+        assertEquals("Pages", pageTable.getColumnName(0));
+        for (int vpn = 0x400; vpn < 0x40A; vpn++) {
+            pageTable.getState().map(vpn, vpn - 0x400);
+        }
+
+        assertEquals("400-7FF", pageTable.getValueAt(1, 0));
+        assertEquals("10/1024", pageTable.getValueAt(1, 1));
+        assertEquals("0, 1, 2, 3, ...", pageTable.getValueAt(1, 2));
+        assertEquals("0/1024", pageTable.getValueAt(2, 1));
+        assertEquals(1, pageTable.reveal(0x7FF));
+        assertEquals(10, pageTable.getValidCount());
+
+        pageTable.setFilter(PageTableFilter.ALL);
+        assertEquals(1 << 20, pageTable.getRowCount());
+        assertEquals("Index", pageTable.getColumnName(0));
+        pageTable.setSize(64);
+        assertEquals(PageTableFilter.ALL, pageTable.getFilter(), "A filter picked by hand is kept");
+    }
+
+    @Test
+    public void testUnfilteredViewMovesItsWindowToRevealedPages() {
+        int pages = PageTable.MAX_VIEW_ROWS * 2;
+        PageTable pageTable = new PageTable(new PageTableState(pages));
+        pageTable.setFilter(PageTableFilter.ALL);
+        pageTable.getUpdates().setInterval(60_000);
+        assertEquals(PageTable.MAX_VIEW_ROWS, pageTable.getRowCount());
+
+        int row = pageTable.reveal(pages - 1);
+        assertEquals(PageTable.MAX_VIEW_ROWS - 1, row, "The window stops at the end of the table");
+        assertEquals(pages - 1, pageTable.getVpn(row));
+        assertEquals(Integer.toHexString(pages - 1).toUpperCase(), pageTable.getValueAt(row, 0));
+        assertEquals(-1, pageTable.reveal(pages));
+
+        List<TableModelEvent> events = new ArrayList<>();
+        pageTable.addTableModelListener(events::add);
+        pageTable.getState().map(3, 1); // Outside the window
+        pageTable.getState().map(pages - 2, 1);
+        pageTable.getUpdates().flush();
+        assertEquals(1, events.size());
+        assertEquals(row - 1, events.get(0).getFirstRow(), "Changed pages are published as window rows");
+        assertEquals(row - 1, events.get(0).getLastRow());
+    }
+
+    @Test
+    public void testSnapshotChangesCountAsTouched() {
+        PageTableState state = new PageTableState(256);
+        PageTable pageTable = new PageTable(state);
+        pageTable.setFilter(PageTableFilter.RECENT);
+        TLBState tlb = new TLBState(2);
+        PMState pm = new PMState(4);
+
+        pageTable.showSnapshot(StateSnapshot.capture(tlb, state, pm));
+        state.map(7, 0);
+        state.map(40, 1);
+        pageTable.showSnapshot(StateSnapshot.capture(tlb, state, pm));
+        assertEquals(2, pageTable.getRowCount());
+        assertEquals(2, pageTable.getValidCount());
+        state.invalidate(7);
+        state.map(99, 2);
+        pageTable.showLive();
+        assertEquals(3, pageTable.getRowCount(), "Changes made after the last snapshot are found too");
+        assertEquals(0, pageTable.reveal(99));
+        assertEquals(1, pageTable.reveal(7));
+        assertEquals(2, pageTable.getValidCount());
+    }
+}
@@ -0,0 +1,56 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SwapDeviceTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testPagesRoundTripThroughTheFile() throws IOException {
+        Path file = tempDir.resolve("test.swp");
+        FrameStore frames = new FrameStore(2, 4096);
+        try (SwapDevice swap = new SwapDevice(file, true)) {
+            assertFalse(swap.pageIn(0, 7, frames.frame(0)), "A page never written out is zero-filled");
+            frames.recordWrite(0);
+            frames.recordWrite(0);
+            swap.pageOut(0, 7, frames.frame(0));
+            frames.recordWrite(1);
+            swap.pageOut(1, 7, frames.frame(1)); // Same page number, another process
+
+            assertTrue(swap.pageIn(0, 7, frames.frame(1)));
+            assertEquals(2, frames.getWriteCount(1));
+            assertTrue(swap.pageIn(1, 7, frames.frame(0)));
+            assertEquals(1, frames.getWriteCount(0));
+            assertEquals(2, swap.getPagesOut());
+            assertEquals(2, swap.getPagesIn());
+            assertEquals(1, swap.getZeroFills());
+            assertEquals(2 * 4096, swap.getFileBytes());
+            assertEquals(2 * 4096, Files.size(file));
+
+            swap.pageOut(0, 7, frames.frame(0));
+            assertEquals(2 * 4096, swap.getFileBytes(), "A page keeps its slot");
+
+            swap.clear();
+            assertFalse(swap.pageIn(0, 7, frames.frame(0)));
+            assertEquals(0, frames.getWriteCount(0));
+            assertEquals(0, Files.size(file));
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testRejectsUnbackableFrames() {
+        assertThrows(IllegalArgumentException.class, () -> new FrameStore(4, 3000));
+        assertThrows(IllegalArgumentException.class, () -> new FrameStore(4, 1L << 31));
+        assertThrows(IllegalArgumentException.class, () -> new FrameStore(-1, 4096));
+    }
+}
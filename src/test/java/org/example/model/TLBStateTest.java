@@ -0,0 +1,136 @@
+package org.example.model;
+
+import org.example.model.policy.TLBReplacement;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TLBStateTest {
+
+    @Test
+    public void testFullyAssociativeUsesEverySlot() {
+        TLBState tlb = new TLBState(4);
+        for (int vpn = 0; vpn < 4; vpn++) {
+            tlb.insert(vpn * 8L, vpn);
+        }
+        for (int vpn = 0; vpn < 4; vpn++) {
+            assertEquals(vpn, tlb.lookup(vpn * 8L));
+        }
+        tlb.insert(100, 9);
+        assertEquals(TLBState.MISS, tlb.lookup(0));
+        assertEquals(0, tlb.lookup(100));
+    }
+
+    @Test
+    public void testSetAssociativeConfinesPagesToTheirSet() {
+        TLBState tlb = new TLBState(8, TLBOrganization.SET_ASSOCIATIVE, 2);
+        assertEquals(4, tlb.getSets());
+
+        // Pages 1, 5 and 9 all map to set 1, which has only two ways.
+        tlb.insert(1, 10);
+        tlb.insert(5, 11);
+        tlb.insert(9, 12);
+        assertEquals(TLBState.MISS, tlb.lookup(1));
+        assertEquals(3, tlb.lookup(5));
+        assertEquals(2, tlb.lookup(9));
+        assertEquals(12, tlb.getFrame(tlb.lookup(9)));
+    }
+
+    @Test
+    public void testDirectMappedAndInvalidate() {
+        TLBState tlb = new TLBState(4, TLBOrganization.DIRECT_MAPPED, 0);
+        tlb.insert(6, 1);
+        assertEquals(2, tlb.lookup(6));
+        tlb.insert(10, 2);
+        assertEquals(TLBState.MISS, tlb.lookup(6));
+        assertEquals(2, tlb.invalidate(10));
+        assertEquals(TLBState.MISS, tlb.lookup(10));
+        assertFalse(tlb.isOccupied(2));
+    }
+
+    @Test
+    public void testIndexSurvivesChurn() {
+        LongIntIndex index = new LongIntIndex(64);
+        for (long key = 0; key < 10_000; key++) {
+            index.put(key, (int) key);
+            if (key >= 64) {
+                index.remove(key - 64);
+            }
+        }
+        assertEquals(64, index.size());
+        for (long key = 10_000 - 64; key < 10_000; key++) {
+            assertEquals((int) key, index.get(key));
+        }
+        assertEquals(LongIntIndex.ABSENT, index.get(0));
+    }
+
+    /**
+     * Fill a fully associative four-entry TLB with pages 0..3, hit the given pages, then insert page 9.
+     *
+     * @return The page that was replaced.
+     */
+    private long replacedAfter(TLBReplacement replacement, long... hits) {
+        TLBState tlb = new TLBState(4, TLBOrganization.FULLY_ASSOCIATIVE, 4, replacement);
+        for (long vpn = 0; vpn < 4; vpn++) {
+            tlb.insert(vpn, (int) vpn);
+        }
+        for (long vpn : hits) {
+            tlb.touch(tlb.lookup(vpn));
+        }
+        int slot = tlb.insert(9, 9);
+        return slot; // Page n was inserted into slot n
+    }
+
+    @Test
+    public void testReplacementPolicies() {
+        assertEquals(0, replacedAfter(TLBReplacement.FIFO, 0, 1));
+        assertEquals(2, replacedAfter(TLBReplacement.LRU, 0, 1, 3));
+        // Tree PLRU: the last hit on 2 points the root at the {0,1} half, where 0 was used after 1.
+        assertEquals(1, replacedAfter(TLBReplacement.TREE_PLRU, 0, 2));
+        // Only an approximation of LRU: true LRU would replace 2 here.
+        assertEquals(0, replacedAfter(TLBReplacement.TREE_PLRU, 0, 1, 3));
+        // NRU: every fill marks its slot, so the fourth fill clears the others; hits on 0 and 1 mark them again.
+        assertEquals(2, replacedAfter(TLBReplacement.NRU, 0, 1));
+        long random = replacedAfter(TLBReplacement.RANDOM);
+        assertTrue(random >= 0 && random < 4);
+        assertEquals(random, replacedAfter(TLBReplacement.RANDOM), "Random replacement must be reproducible");
+    }
+
+    @Test
+    public void testInvalidatedWaysAreRefilledFirst() {
+        TLBState tlb = new TLBState(4, TLBOrganization.FULLY_ASSOCIATIVE, 4, TLBReplacement.LRU);
+        for (long vpn = 0; vpn < 4; vpn++) {
+            tlb.insert(vpn, (int) vpn);
+        }
+        tlb.invalidate(2);
+        assertEquals(2, tlb.insert(7, 7));
+        assertEquals(0, tlb.insert(8, 8), "LRU victim is the oldest remaining entry");
+    }
+
+    @Test
+    public void testAsidsKeepProcessesApart() {
+        TLBState tlb = new TLBState(4);
+        tlb.insert(1, 5, 50);
+        tlb.insert(2, 5, 60);
+        tlb.insert(2, 6, 61);
+        assertEquals(50, tlb.getFrame(tlb.lookup(1, 5)));
+        assertEquals(60, tlb.getFrame(tlb.lookup(2, 5)));
+        assertEquals(TLBState.MISS, tlb.lookup(5), "ASID 0 is a separate address space");
+
+        assertEquals(2, tlb.flush(2));
+        assertEquals(TLBState.MISS, tlb.lookup(2, 5));
+        assertEquals(50, tlb.getFrame(tlb.lookup(1, 5)));
+        assertEquals(1, tlb.flushAll());
+        assertThrows(IllegalArgumentException.class, () -> tlb.insert(1, 1L << TLBState.MAX_TAGGED_PAGE_NUMBER_BITS, 0));
+    }
+
+    @Test
+    public void testTreePlruRejectsOddWays() {
+        assertThrows(IllegalArgumentException.class, () -> new TLBState(6, TLBOrganization.FULLY_ASSOCIATIVE, 6, TLBReplacement.TREE_PLRU));
+    }
+
+    @Test
+    public void testRejectsUnevenSets() {
+        assertThrows(IllegalArgumentException.class, () -> new TLBState(6, TLBOrganization.SET_ASSOCIATIVE, 4));
+    }
+}
@@ -0,0 +1,164 @@
+package org.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.event.TableModelEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranslationStateTest {
+
+    @Test
+    public void testPageTableMapAndInvalidate() {
+        PageTableState state = new PageTableState(130);
+        assertFalse(state.isValid(129));
+        assertEquals(PageTableState.NO_FRAME, state.lookup(129));
+
+        state.map(129, 7);
+        assertTrue(state.isValid(129));
+        assertFalse(state.isValid(65));
+        assertEquals(7, state.lookup(129));
+
+        state.invalidate(129);
+        assertEquals(PageTableState.NO_FRAME, state.lookup(129));
+    }
+
+    @Test
+    public void testFlatPageTableAllocatesOnFirstTouch() {
+        int size = 1 << PageTableState.MAX_PAGE_NUMBER_BITS;
+        PageTableState state = new PageTableState(size);
+        assertEquals(0, state.getAllocatedBlocks());
+
+        state.map(5, 1);
+        state.map(size - 1, 2);
+        assertEquals(2, state.getAllocatedBlocks());
+        assertTrue(state.getAllocatedBytes() < 8 << 20, "Memory follows the touched pages: " + state.getAllocatedBytes());
+        assertEquals(5, state.nextValid(0));
+        assertEquals(size - 1, state.nextValid(6));
+        assertEquals(2, state.countValid(0, size));
+        assertEquals(PageTableState.NO_FRAME, state.lookup(6));
+
+        PageTableState copy = state.copy();
+        state.invalidate(5);
+        assertEquals(5, copy.nextDifference(state, 0));
+        assertEquals(-1, copy.nextDifference(state, 6));
+        assertEquals(1, copy.lookup(5), "A copy keeps its own entries");
+    }
+
+    @Test
+    public void testRadixPageTableAllocatesOnFirstTouch() {
+        RadixPageTable table = new RadixPageTable(36, 4); // x86-64 4-level: 48-bit addresses, 4 KiB pages
+        for (int level = 0; level < 4; level++) {
+            assertEquals(9, table.getLevelBits(level));
+        }
+        assertEquals(1, table.getNodeCount());
+        assertEquals(PageTableStructure.NO_FRAME, table.lookup(0x7FFFFFFFFL));
+        assertEquals(1, table.getLastWalkReferences(), "A walk stops at the first missing node");
+
+        table.map(0x7FFFFFFFFL, 3);
+        table.map(0x7FFFFFFFEL, 4); // Same leaf node
+        assertEquals(4, table.getNodeCount());
+        assertEquals(3, table.lookup(0x7FFFFFFFFL));
+        assertEquals(4, table.getLastWalkReferences());
+        assertEquals(4, table.lookup(0x7FFFFFFFEL));
+        assertEquals(4L * 512 * Integer.BYTES, table.getAllocatedBytes());
+
+        table.map(0, 5);
+        assertEquals(7, table.getNodeCount());
+        assertEquals(PageTableStructure.NO_FRAME, table.lookup(0x200));
+        assertEquals(3, table.getLastWalkReferences());
+
+        table.invalidate(0x7FFFFFFFFL);
+        assertEquals(PageTableStructure.NO_FRAME, table.lookup(0x7FFFFFFFFL));
+        assertEquals(4, table.lookup(0x7FFFFFFFEL));
+
+        table.clear();
+        assertEquals(1, table.getNodeCount());
+        assertEquals(PageTableStructure.NO_FRAME, table.lookup(0));
+        assertThrows(IllegalArgumentException.class, () -> table.map(1L << 36, 0));
+    }
+
+    @Test
+    public void testRadixLevelsSplitBitsFromTheRoot() {
+        RadixPageTable table = new RadixPageTable(45, 5); // x86-64 5-level: 57-bit addresses
+        assertEquals(5, table.getLevels());
+        assertEquals(9, table.getLevelBits(4));
+        RadixPageTable uneven = new RadixPageTable(20, 3);
+        assertEquals(7, uneven.getLevelBits(0));
+        assertEquals(7, uneven.getLevelBits(1));
+        assertEquals(6, uneven.getLevelBits(2));
+        assertThrows(IllegalArgumentException.class, () -> new RadixPageTable(36, 6));
+        assertThrows(IllegalArgumentException.class, () -> new RadixPageTable(52, 2));
+    }
+
+    @Test
+    public void testRowChangesAreCoalescedIntoRanges() {
+        PageTable pageTable = new PageTable(new PageTableState(1000));
+        List<TableModelEvent> events = new ArrayList<>();
+        pageTable.addTableModelListener(events::add);
+        pageTable.getUpdates().setInterval(60_000); // Only the explicit flushes below publish
+
+        pageTable.getState().map(4, 1);
+        pageTable.getState().map(3, 2);
+        pageTable.getState().map(10, 3);
+        pageTable.getState().invalidate(4);
+        assertTrue(events.isEmpty(), "Changes wait for the next flush");
+        pageTable.getUpdates().flush();
+        assertEquals(2, events.size());
+        assertEquals(3, events.get(0).getFirstRow());
+        assertEquals(4, events.get(0).getLastRow());
+        assertEquals(TableModelEvent.UPDATE, events.get(0).getType());
+        assertEquals(10, events.get(1).getFirstRow());
+        assertEquals(10, events.get(1).getLastRow());
+
+        events.clear();
+        for (int vpn = 0; vpn < 200; vpn += 2) {
+            pageTable.getState().map(vpn, vpn);
+        }
+        pageTable.getUpdates().flush();
+        assertEquals(1, events.size(), "Scattered rows collapse into one range");
+        assertEquals(0, events.get(0).getFirstRow());
+        assertEquals(198, events.get(0).getLastRow());
+
+        events.clear();
+        pageTable.getState().map(5, 5);
+        pageTable.setSize(65536);
+        pageTable.getUpdates().flush();
+        assertEquals(1, events.size(), "Resizing repaints the table once");
+    }
+
+    @Test
+    public void testTablesRenderFromState() {
+        PageTable pageTable = new PageTable(new PageTableState(16));
+        TLBTable tlbTable = new TLBTable(new TLBState(4));
+        PMTable pmTable = new PMTable(new PMState(4));
+
+        int frame = pmTable.getState().allocate(0xB);
+        pageTable.getState().map(0xB, frame);
+        tlbTable.getState().insert(0xB, frame);
+
+        assertEquals("B", pageTable.getValueAt(0xB, 0));
+        assertEquals("1", pageTable.getValueAt(0xB, 1));
+        assertEquals("0", pageTable.getValueAt(0xB, 2));
+        assertEquals("0", pageTable.getValueAt(0xA, 1));
+        assertEquals("", pageTable.getValueAt(0xA, 2));
+
+        assertEquals(0, tlbTable.searchTLB("B"));
+        assertEquals("B", tlbTable.getValueAt(0, 1));
+        assertEquals("", tlbTable.getValueAt(1, 1));
+
+        assertEquals("Block B from 0-4", pmTable.getValueAt(0, 1));
+        assertEquals("", pmTable.getValueAt(1, 1));
+    }
+
+    @Test
+    public void testFramesWrapInFifoOrder() {
+        PMState state = new PMState(2);
+        assertEquals(0, state.allocate(1));
+        assertEquals(1, state.allocate(2));
+        assertEquals(0, state.allocate(3));
+        assertEquals(3, state.getOwner(0));
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.model.policy;
+
+import org.example.controller.SimulationConfig;
+import org.example.controller.TranslationPipeline;
+import org.example.model.PMState;
+import org.example.model.PageTableStructure;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageReplacementPolicyTest {
+
+    /**
+     * Load pages 0..2 into three frames, then access the given pages and report which page a new load evicts.
+     */
+    private long victimAfter(PageReplacement replacement, long... accessed) {
+        PMState pm = new PMState(3, replacement);
+        for (long vpn = 0; vpn < 3; vpn++) {
+            pm.allocate(vpn);
+        }
+        for (long vpn : accessed) {
+            pm.touch((int) vpn); // Page n lives in frame n
+        }
+        pm.allocate(99);
+        return pm.getLastEvicted();
+    }
+
+    @Test
+    public void testVictimChoices() {
+        assertEquals(0, victimAfter(PageReplacement.FIFO, 0, 0, 1));
+        assertEquals(1, victimAfter(PageReplacement.LRU, 0, 2, 1, 0, 2));
+        assertEquals(1, victimAfter(PageReplacement.LFU, 0, 0, 2, 2, 1, 0));
+        assertEquals(1, victimAfter(PageReplacement.CLOCK, 0));
+        assertEquals(1, victimAfter(PageReplacement.SECOND_CHANCE, 0));
+        assertEquals(2, victimAfter(PageReplacement.SECOND_CHANCE, 0, 1));
+        assertEquals(1, victimAfter(PageReplacement.ARC, 0));
+    }
+
+    /**
+     * Load pages 0..2 into three frames, dirty the given pages and report which page a new load evicts.
+     */
+    private long victimWithDirty(PageReplacement replacement, int cleanWindow, long... dirtied) {
+        PMState pm = new PMState(3, replacement);
+        pm.setCleanWindow(cleanWindow);
+        for (long vpn = 0; vpn < 3; vpn++) {
+            pm.allocate(vpn);
+        }
+        for (long vpn : dirtied) {
+            pm.markDirty((int) vpn);
+        }
+        pm.allocate(99);
+        long victim = pm.getLastEvicted();
+        assertEquals(LongStream.of(dirtied).anyMatch(vpn -> vpn == victim), pm.wasLastEvictedDirty());
+        return victim;
+    }
+
+    @Test
+    public void testCleanWindowPassesOverDirtyVictims() {
+        for (PageReplacement replacement : PageReplacement.values()) {
+            assertEquals(0, victimWithDirty(replacement, 0, 0), replacement + " ignores dirty bits without a window");
+            assertEquals(1, victimWithDirty(replacement, 1, 0), replacement + " prefers the next clean page");
+            assertEquals(0, victimWithDirty(replacement, 1, 0, 1), replacement + " falls back once the window is full of dirty pages");
+            assertEquals(0, victimWithDirty(replacement, 3, 0, 1, 2), replacement + " falls back once every page is dirty");
+        }
+    }
+
+    @Test
+    public void testLfuCleanWindowWalksIntoHigherFrequencies() {
+        PMState pm = new PMState(3, PageReplacement.LFU);
+        pm.setCleanWindow(2);
+        for (long vpn = 0; vpn < 3; vpn++) {
+            pm.allocate(vpn);
+        }
+        pm.touch(0); // Page 0 is now the most frequently used
+        pm.markDirty(1);
+        pm.markDirty(2);
+        pm.allocate(99);
+        assertEquals(0, pm.getLastEvicted(), "The only clean page is in the next frequency");
+        assertFalse(pm.wasLastEvictedDirty());
+    }
+
+    @Test
+    public void testCleanWindowWalksEveryDirtyFrameAtMostOnce() {
+        for (PageReplacement replacement : new PageReplacement[]{PageReplacement.CLOCK, PageReplacement.SECOND_CHANCE}) {
+            PMState pm = new PMState(3, replacement);
+            pm.setCleanWindow(Integer.MAX_VALUE);
+            for (int vpn = 0; vpn < 3; vpn++) {
+                int frame = pm.allocate(vpn);
+                pm.touch(frame);
+                pm.markDirty(frame);
+            }
+            int frame = assertTimeoutPreemptively(Duration.ofSeconds(1), () -> pm.allocate(99),
+                    replacement + " stops after one revolution of dirty frames");
+            assertEquals(0, frame, replacement + " falls back to the first frame passed over");
+            assertTrue(pm.wasLastEvictedDirty());
+        }
+    }
+
+    @Test
+    public void testClockSweepsTheReferencedBitsOfMemory() {
+        PMState pm = new PMState(2, PageReplacement.CLOCK);
+        pm.allocate(0);
+        pm.allocate(1);
+        assertFalse(pm.isReferenced(0), "Loading does not count as a reference");
+        pm.touch(0);
+        assertTrue(pm.isReferenced(0));
+        pm.allocate(2);
+        assertEquals(1, pm.getLastEvicted());
+        assertFalse(pm.isReferenced(0), "The hand cleared the bit it passed");
+        pm.clear();
+        pm.allocate(0);
+        pm.allocate(1);
+        pm.touch(0);
+        pm.allocate(2);
+        assertEquals(1, pm.getLastEvicted(), "The bits are shared again after a reset");
+    }
+
+    @Test
+    public void testTwoQueuePromotesReturningPages() {
+        // Four frames: A1in holds at most one page once memory is full.
+        PMState pm = new PMState(4, PageReplacement.TWO_Q);
+        for (long vpn = 0; vpn < 4; vpn++) {
+            pm.allocate(vpn);
+        }
+        pm.allocate(4); // Evicts page 0 from A1in into the ghost queue
+        assertEquals(0, pm.getLastEvicted());
+        int frame = pm.allocate(0); // Page 0 returns and is promoted to Am
+        assertEquals(1, pm.getLastEvicted());
+        pm.allocate(5);
+        pm.allocate(6);
+        assertEquals(0, pm.getOwner(frame), "Promoted page must survive the scan");
+    }
+
+    @Test
+    public void testGhostsOfOneProcessAreNotHitsForAnother() {
+        TranslationPipeline pipeline = new SimulationConfig()
+                .setAddressBits(16).setOffsetBits(4).setTlbSize(4).setFrameCount(4)
+                .setPageReplacement(PageReplacement.TWO_Q)
+                .setMultiProcess(true)
+                .createPipeline();
+        pipeline.switchTo(1);
+        for (long vpn = 0; vpn <= 4; vpn++) {
+            pipeline.translate(vpn); // Page 4 pushes process 1's page 0 into the ghost queue
+        }
+        pipeline.switchTo(2);
+        pipeline.translate(0); // Process 2's page 0 is new, not a returning page
+        pipeline.switchTo(1);
+        for (long vpn = 5; vpn <= 8; vpn++) {
+            pipeline.translate(vpn);
+        }
+        pipeline.switchTo(2);
+        pipeline.translate(0);
+        assertEquals(11, pipeline.getStats().getPageFaults(), "Process 2's page 0 stayed in A1in and was scanned out");
+
+        assertEquals(7, PMState.policyKey(0, 7));
+        assertNotEquals(PMState.policyKey(1, 7), PMState.policyKey(2, 7));
+        assertThrows(IllegalArgumentException.class, () -> PMState.policyKey(1, 1L << PMState.MAX_KEYED_PAGE_NUMBER_BITS));
+    }
+
+    @Test
+    public void testEvictionInvalidatesPageTableAndTlb() {
+        for (PageReplacement replacement : PageReplacement.values()) {
+            SimulationConfig config = new SimulationConfig()
+                    .setAddressBits(20).setOffsetBits(8).setTlbSize(8).setFrameCount(16)
+                    .setPageReplacement(replacement);
+            TranslationPipeline pipeline = config.createPipeline();
+            SplittableRandom random = new SplittableRandom(42);
+            for (int i = 0; i < 20_000; i++) {
+                // A hot set of 12 pages plus a cold tail.
+                long vpn = random.nextInt(4) == 0 ? random.nextInt(4096) : random.nextInt(12);
+                int frame = pipeline.translate(vpn);
+                assertEquals(vpn, pipeline.getPm().getOwner(frame), replacement + " returned a stale frame");
+            }
+            PMState pm = pipeline.getPm();
+            PageTableStructure pageTable = pipeline.getPageTable();
+            int mapped = 0;
+            for (long vpn = 0; vpn < config.getPageCount(); vpn++) {
+                int frame = pageTable.lookup(vpn);
+                if (frame != PageTableStructure.NO_FRAME) {
+                    mapped++;
+                    assertEquals(vpn, pm.getOwner(frame), replacement + " left a stale mapping");
+                }
+            }
+            assertEquals(16, mapped, replacement.toString());
+            for (int slot = 0; slot < pipeline.getTlb().size(); slot++) {
+                if (pipeline.getTlb().isOccupied(slot)) {
+                    long vpn = pipeline.getTlb().getVpn(slot);
+                    assertEquals(vpn, pm.getOwner(pipeline.getTlb().getFrame(slot)), replacement + " left a stale TLB entry");
+                }
+            }
+            assertEquals(pipeline.getStats().getPageFaults() - 16, pipeline.getStats().getEvictions());
+        }
+    }
+
+    @Test
+    public void testParse() {
+        assertEquals(PageReplacement.TWO_Q, PageReplacement.parse("2q"));
+        assertEquals(PageReplacement.SECOND_CHANCE, PageReplacement.parse("second-chance"));
+        assertEquals(PageReplacement.ARC, PageReplacement.parse("arc"));
+        assertThrows(IllegalArgumentException.class, () -> PageReplacement.parse("mru"));
+    }
+}
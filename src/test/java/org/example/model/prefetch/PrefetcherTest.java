@@ -0,0 +1,67 @@
+package org.example.model.prefetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PrefetcherTest {
+    private final long[] candidates = new long[64];
+
+    private long[] miss(Prefetcher prefetcher, long vpn) {
+        return Arrays.copyOf(candidates, prefetcher.onMiss(0, vpn, false, candidates));
+    }
+
+    private long[] hit(Prefetcher prefetcher, long vpn) {
+        return Arrays.copyOf(candidates, prefetcher.onMiss(0, vpn, true, candidates));
+    }
+
+    @Test
+    public void testReadaheadWindowDoublesAlongAStream() {
+        SequentialPrefetcher readahead = new SequentialPrefetcher(16);
+        assertArrayEquals(new long[0], miss(readahead, 100));
+        assertArrayEquals(new long[0], miss(readahead, 7), "A random miss in between does not end the stream");
+        assertArrayEquals(new long[]{102, 103, 104, 105}, miss(readahead, 101));
+        assertArrayEquals(new long[0], hit(readahead, 103), "Only the first page of a window is a marker");
+        assertArrayEquals(new long[]{106, 107, 108, 109, 110, 111, 112, 113}, hit(readahead, 102));
+        assertEquals(16, miss(readahead, 114).length, "A fault past the window continues the stream");
+        assertEquals(16, hit(readahead, 115).length, "The window stops growing at the degree");
+    }
+
+    @Test
+    public void testStrideNeedsTwoEqualStepsAndKeepsStreamsApart() {
+        StridePrefetcher stride = new StridePrefetcher(2);
+        assertArrayEquals(new long[0], miss(stride, 1000));
+        assertArrayEquals(new long[0], miss(stride, 50_000)); // Another stream, far away
+        assertArrayEquals(new long[0], miss(stride, 1003));
+        assertArrayEquals(new long[0], miss(stride, 49_990));
+        assertArrayEquals(new long[]{1009, 1012}, miss(stride, 1006));
+        assertArrayEquals(new long[]{49_970, 49_960}, miss(stride, 49_980), "Negative strides are followed");
+        assertArrayEquals(new long[]{1012, 1015}, miss(stride, 1009));
+        assertArrayEquals(new long[]{1023, 1026}, miss(stride, 1020), "One irregular miss keeps the stride");
+        assertEquals(0, stride.onMiss(1, 1023, false, candidates), "Streams of another process are separate");
+    }
+
+    @Test
+    public void testMarkovPredictsTheLastSuccessorsFirst() {
+        MarkovPrefetcher markov = new MarkovPrefetcher(2);
+        for (long vpn : new long[]{10, 42, 7, 10, 99, 7}) {
+            miss(markov, vpn);
+        }
+        assertArrayEquals(new long[]{99, 42}, miss(markov, 10), "10 was followed by 42, then by 99");
+        assertArrayEquals(new long[]{7}, miss(markov, 99));
+        markov.reset();
+        assertArrayEquals(new long[0], miss(markov, 10));
+    }
+
+    @Test
+    public void testParsesNames() {
+        assertEquals(Prefetch.SEQUENTIAL, Prefetch.parse("readahead"));
+        assertEquals(Prefetch.MARKOV, Prefetch.parse("Markov"));
+        assertEquals(Prefetch.NONE, Prefetch.parse("none"));
+        assertNull(Prefetch.NONE.create(4));
+        assertThrows(IllegalArgumentException.class, () -> Prefetch.parse("oracle"));
+        assertThrows(IllegalArgumentException.class, () -> Prefetch.STRIDE.create(0));
+    }
+}
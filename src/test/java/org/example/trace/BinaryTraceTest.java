@@ -0,0 +1,84 @@
+package org.example.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryTraceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testConvertedTraceRoundTripsWithOptionalFields() throws IOException {
+        Path text = tempDir.resolve("trace.txt");
+        Path binary = tempDir.resolve("trace.vmt");
+        Files.writeString(text, "1F\n0xABC W 7\n# skipped\nFFFFFFFF I 3\n");
+
+        int flags = BinaryTraceFormat.FLAG_ACCESS_TYPE | BinaryTraceFormat.FLAG_PROCESS_ID;
+        assertEquals(3, TraceConverter.convert(text, binary, flags, 4));
+        assertTrue(MappedTraceReader.isBinaryTrace(binary));
+        assertFalse(MappedTraceReader.isBinaryTrace(text));
+
+        long[] addresses = new long[8];
+        byte[] accessTypes = new byte[8];
+        int[] processIds = new int[8];
+        try (MappedTraceReader reader = new MappedTraceReader(binary)) {
+            assertEquals(9, reader.getFormat().getRecordSize());
+            assertEquals(3, reader.next(addresses, accessTypes, processIds));
+            assertEquals(-1, reader.next(addresses, accessTypes, processIds));
+        }
+        assertArrayEquals(new long[]{0x1F, 0xABC, 0xFFFFFFFFL}, Arrays.copyOf(addresses, 3));
+        assertArrayEquals(new byte[]{BinaryTraceFormat.ACCESS_READ, BinaryTraceFormat.ACCESS_WRITE, BinaryTraceFormat.ACCESS_FETCH},
+                Arrays.copyOf(accessTypes, 3));
+        assertArrayEquals(new int[]{0, 7, 3}, Arrays.copyOf(processIds, 3));
+    }
+
+    @Test
+    public void testNarrowAddressAndPidAreNotReadAsOneLong() throws IOException {
+        Path binary = tempDir.resolve("narrow-pid.vmt");
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(binary, BinaryTraceFormat.FLAG_PROCESS_ID, 4)) {
+            writer.write(0x1234, BinaryTraceFormat.ACCESS_READ, 7);
+            writer.write(0xFFFFFFFFL, BinaryTraceFormat.ACCESS_READ, 2);
+        }
+        long[] addresses = new long[4];
+        int[] processIds = new int[4];
+        try (MappedTraceReader reader = new MappedTraceReader(binary)) {
+            assertEquals(8, reader.getFormat().getRecordSize());
+            assertEquals(2, reader.next(addresses, null, processIds));
+        }
+        assertArrayEquals(new long[]{0x1234, 0xFFFFFFFFL}, Arrays.copyOf(addresses, 2));
+        assertArrayEquals(new int[]{7, 2}, Arrays.copyOf(processIds, 2));
+    }
+
+    @Test
+    public void testPlainTraceIsHandedOutAsMappedChunks() throws IOException {
+        Path binary = tempDir.resolve("plain.vmt");
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(binary, 0, 8)) {
+            for (long address = 0; address < 1000; address++) {
+                writer.write(address << 12);
+            }
+        }
+        try (MappedTraceReader reader = new MappedTraceReader(binary)) {
+            ByteBuffer chunk = reader.nextChunk();
+            assertEquals(8000, chunk.limit());
+            assertEquals(999L << 12, chunk.getLong(999 * 8));
+            assertNull(reader.nextChunk());
+            assertEquals(1000, reader.getRecordsRead());
+        }
+    }
+
+    @Test
+    public void testRejectsAddressWiderThanRecord() throws IOException {
+        try (BinaryTraceWriter writer = new BinaryTraceWriter(tempDir.resolve("narrow.vmt"), 0, 4)) {
+            assertThrows(IllegalArgumentException.class, () -> writer.write(1L << 32));
+        }
+    }
+}
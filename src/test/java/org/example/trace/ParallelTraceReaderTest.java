@@ -0,0 +1,95 @@
+package org.example.trace;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTraceReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static final String LACKEY = "==4242== Lackey, an example Valgrind tool\n"
+            + "I  04000000,3\n"
+            + " S 7ff000398,8\n"
+            + " L 04f8c4c8,8\r\n"
+            + "\n"
+            + " M 0421f418,4\n"
+            + "I  04000003,5\n"
+            + "==4242== \n"
+            + " L ffffffffffffffff,1";
+
+    @Test
+    public void testChunksOfAnySizeGiveTheSameRecordsInOrder() throws IOException {
+        Path file = tempDir.resolve("lackey.out");
+        Files.writeString(file, LACKEY);
+        long[] expected = {0x04000000L, 0x7ff000398L, 0x04f8c4c8L, 0x0421f418L, 0x04000003L, -1L};
+        byte[] types = {BinaryTraceFormat.ACCESS_FETCH, BinaryTraceFormat.ACCESS_WRITE, BinaryTraceFormat.ACCESS_READ,
+                BinaryTraceFormat.ACCESS_WRITE, BinaryTraceFormat.ACCESS_FETCH, BinaryTraceFormat.ACCESS_READ};
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int chunkBytes = 1; chunkBytes <= LACKEY.length() + 1; chunkBytes++) {
+                long[] addresses = new long[16];
+                byte[] accessTypes = new byte[16];
+                int count = readAll(new ParallelTraceReader(file, ExternalTraceFormat.LACKEY,
+                        BinaryTraceFormat.ALL_ACCESS_TYPES, pool, chunkBytes), addresses, accessTypes);
+                assertArrayEquals(expected, Arrays.copyOf(addresses, count), "Chunks of " + chunkBytes + " bytes");
+                assertArrayEquals(types, Arrays.copyOf(accessTypes, count), "Chunks of " + chunkBytes + " bytes");
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testPinTraceFilteredByAccessType() throws IOException {
+        Path file = tempDir.resolve("pinatrace.out");
+        Files.writeString(file, "0x7f5e4e5e9ea3: W 0x7ffd9c4c6a58\n"
+                + "0x7f5e4e5e9ea7: R 0x7f5e4e7d5e70\n"
+                + "R 0x1000 8\n"
+                + "#eof\n");
+        assertEquals(ExternalTraceFormat.PIN, ExternalTraceFormat.detect(file));
+        long[] addresses = new long[16];
+        int count = readAll(new ParallelTraceReader(file, ExternalTraceFormat.PIN, BinaryTraceFormat.parseAccessTypeMask("R"),
+                ForkJoinPool.commonPool(), 16), addresses, null);
+        assertArrayEquals(new long[]{0x7f5e4e7d5e70L, 0x1000}, Arrays.copyOf(addresses, count));
+    }
+
+    @Test
+    public void testFormatDetectionAndErrors() throws IOException {
+        Path lackey = tempDir.resolve("lackey.out");
+        Files.writeString(lackey, LACKEY);
+        assertEquals(ExternalTraceFormat.LACKEY, ExternalTraceFormat.detect(lackey));
+        Path text = tempDir.resolve("trace.txt");
+        Files.writeString(text, "# plain\n1F\n0xABC W 7\n");
+        assertNull(ExternalTraceFormat.detect(text));
+
+        Path broken = tempDir.resolve("broken.out");
+        Files.writeString(broken, "I  04000000,3\n L 04zz,8\n");
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> readAll(new ParallelTraceReader(broken, ExternalTraceFormat.LACKEY), new long[16], null));
+        assertTrue(ex.getMessage().contains("at byte 14"), ex.getMessage());
+    }
+
+    private static int readAll(ParallelTraceReader reader, long[] addresses, byte[] accessTypes) throws IOException {
+        long[] batch = new long[2];
+        byte[] batchTypes = new byte[2];
+        int total = 0;
+        try (reader) {
+            int count;
+            while ((count = reader.next(batch, batchTypes, null)) >= 0) {
+                System.arraycopy(batch, 0, addresses, total, count);
+                if (accessTypes != null) System.arraycopy(batchTypes, 0, accessTypes, total, count);
+                total += count;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.workload;
+
+import org.example.model.AddressLayout;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkloadGeneratorTest {
+    private static final AddressLayout LAYOUT = new AddressLayout(32, 12);
+
+    @Test
+    public void testSameSeedGivesSameStream() {
+        String spec = "0.8*zipf:1000:1.1+0.2*uniform:50@500>seq:16@300";
+        long[] first = new long[2000];
+        long[] second = new long[2000];
+        Workloads.parse(spec, LAYOUT, 42).fill(first, 0, first.length);
+        AddressGenerator generator = Workloads.parse(spec, LAYOUT, 42);
+        for (int i = 0; i < second.length; i++) {
+            second[i] = generator.next();
+        }
+        assertArrayEquals(first, second, "fill and next agree");
+        Workloads.parse(spec, LAYOUT, 43).fill(second, 0, second.length);
+        assertFalse(Arrays.equals(first, second));
+    }
+
+    @Test
+    public void testZipfFavorsFewPages() {
+        ZipfGenerator generator = new ZipfGenerator(0, 1000, 12, 1.0, 7);
+        int[] rankCounts = new int[1001];
+        Map<Long, Integer> pageCounts = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            rankCounts[(int) generator.nextRank()]++;
+            long address = generator.next();
+            assertTrue(address >= 0 && address < 1000L << 12);
+            pageCounts.merge(address >>> 12, 1, Integer::sum);
+        }
+        // Rank 1 of 1000 at s = 1 has probability 1 / H(1000), about 13%
+        assertEquals(0.134, rankCounts[1] / 100_000.0, 0.01);
+        assertTrue(rankCounts[1] > rankCounts[2] && rankCounts[2] > rankCounts[10] && rankCounts[10] > rankCounts[100]);
+        int hottest = pageCounts.values().stream().max(Integer::compare).orElse(0);
+        assertEquals(0.134, hottest / 100_000.0, 0.01, "The hottest page is rank 1 wherever it was scattered");
+    }
+
+    @Test
+    public void testStrideWrapsAround() {
+        StrideGenerator generator = new StrideGenerator(0x1000, 64, 24);
+        long[] addresses = new long[5];
+        generator.fill(addresses, 0, addresses.length);
+        assertArrayEquals(new long[]{0x1000, 0x1018, 0x1030, 0x1008, 0x1020}, addresses);
+
+        AddressGenerator loop = Workloads.parse("loop:3", LAYOUT, 1);
+        assertArrayEquals(new long[]{0, 0x1000, 0x2000, 0, 0x1000},
+                new long[]{loop.next(), loop.next(), loop.next(), loop.next(), loop.next()});
+    }
+
+    @Test
+    public void testMixturesAndPhasesUseSeparateRegions() {
+        AddressGenerator mixture = Workloads.parse("3*seq:4+1*seq:4", LAYOUT, 5);
+        int first = 0;
+        for (int i = 0; i < 40_000; i++) {
+            long address = mixture.next();
+            if (address >>> 31 == 0) {
+                first++;
+            } else {
+                assertEquals(1, address >>> 31, "Two components split the space in halves");
+            }
+        }
+        assertEquals(0.75, first / 40_000.0, 0.01);
+
+        AddressGenerator phases = Workloads.parse("seq:1@2>seq:1@3", LAYOUT, 5);
+        long[] addresses = new long[7];
+        phases.fill(addresses, 0, 3);
+        phases.fill(addresses, 3, 7);
+        long second = 1L << 31;
+        assertArrayEquals(new long[]{0, 8, second, second + 8, second + 16, 16, 24}, addresses);
+    }
+
+    @Test
+    public void testMalformedSpecsAreRejected() {
+        for (String spec : new String[]{"zipf", "zipf:0", "zipf:10:-1", "seq:10@", "seq:10@5>seq:4", "0.5*seq:4+seq:4",
+                "bogus:4", "stride:4:1000000", "uniform:1048577"}) {
+            assertThrows(IllegalArgumentException.class, () -> Workloads.parse(spec, LAYOUT, 1), spec);
+        }
+    }
+}